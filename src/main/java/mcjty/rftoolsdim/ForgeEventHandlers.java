@@ -4,11 +4,14 @@ import mcjty.lib.varia.Logging;
 import mcjty.rftoolsdim.config.GeneralConfiguration;
 import mcjty.rftoolsdim.config.PowerConfiguration;
 import mcjty.rftoolsdim.config.WorldgenConfiguration;
+import mcjty.rftoolsdim.dimensions.DimensionEnergySync;
+import mcjty.rftoolsdim.dimensions.DimensionInfoSync;
 import mcjty.rftoolsdim.dimensions.DimensionInformation;
 import mcjty.rftoolsdim.dimensions.DimensionStorage;
 import mcjty.rftoolsdim.dimensions.RfToolsDimensionManager;
 import mcjty.rftoolsdim.dimensions.types.EffectType;
 import mcjty.rftoolsdim.dimensions.types.FeatureType;
+import mcjty.rftoolsdim.dimensions.world.GenericWorldProvider;
 import mcjty.rftoolsdim.items.ModItems;
 import mcjty.rftoolsdim.network.DimensionSyncPacket;
 import net.minecraft.block.Block;
@@ -22,6 +25,7 @@ import net.minecraft.entity.monster.EntityEnderman;
 import net.minecraft.entity.monster.IMob;
 import net.minecraft.entity.passive.IAnimals;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.NetHandlerPlayServer;
@@ -39,6 +43,7 @@ import net.minecraftforge.event.entity.living.LivingSpawnEvent;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
 import net.minecraftforge.event.terraingen.ChunkGeneratorEvent;
 import net.minecraftforge.event.terraingen.OreGenEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.Event;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.PlayerEvent;
@@ -53,11 +58,30 @@ public class ForgeEventHandlers {
 
     @SubscribeEvent
     public void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
-        Logging.log("SMP: Player logged in: Sync diminfo to clients");
+        Logging.log("SMP: Player logged in: Sync diminfo to client");
         EntityPlayer player = event.player;
         RfToolsDimensionManager manager = RfToolsDimensionManager.getDimensionManager(player.getEntityWorld());
-        manager.syncDimInfoToClients(player.getEntityWorld());
+        DimensionInfoSync.onLogin((EntityPlayerMP) player);
         manager.syncDimletRules(player);
+        DimensionEnergySync.subscribe((EntityPlayerMP) player, player.dimension);
+    }
+
+    @SubscribeEvent
+    public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        DimensionInfoSync.onLogout(event.player);
+        DimensionEnergySync.unsubscribe(event.player);
+    }
+
+    @SubscribeEvent
+    public void onPlayerChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+        DimensionInfoSync.sendDimension((EntityPlayerMP) event.player, event.toDim);
+        DimensionEnergySync.subscribe((EntityPlayerMP) event.player, event.toDim);
+    }
+
+    @SubscribeEvent
+    public void onPlayerRespawn(PlayerEvent.PlayerRespawnEvent event) {
+        DimensionInfoSync.sendDimension((EntityPlayerMP) event.player, event.player.dimension);
+        DimensionEnergySync.subscribe((EntityPlayerMP) event.player, event.player.dimension);
     }
 
     @SubscribeEvent
@@ -77,6 +101,14 @@ public class ForgeEventHandlers {
         RFToolsDim.channels.get(Side.SERVER).writeOutbound(packet);
     }
 
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        World world = event.getWorld();
+        if (!world.isRemote && world.provider instanceof GenericWorldProvider) {
+            ((GenericWorldProvider) world.provider).onWorldUnload();
+        }
+    }
+
     @SubscribeEvent
     public void onEntityJoinWorldEvent(EntityJoinWorldEvent event) {
         World world = event.getWorld();
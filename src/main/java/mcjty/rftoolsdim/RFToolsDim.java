@@ -11,8 +11,12 @@ import mcjty.rftoolsdim.api.dimension.IDimensionManager;
 import mcjty.rftoolsdim.api.dimlet.IDimletConfigurationManager;
 import mcjty.rftoolsdim.apiimpl.DimensionManager;
 import mcjty.rftoolsdim.apiimpl.DimletConfigurationManager;
+import mcjty.rftoolsdim.blocks.MachineScheduler;
 import mcjty.rftoolsdim.commands.CommandRftDb;
 import mcjty.rftoolsdim.commands.CommandRftDim;
+import mcjty.rftoolsdim.dimensions.DimensionEnergySync;
+import mcjty.rftoolsdim.dimensions.DimensionInfoSync;
+import mcjty.rftoolsdim.dimensions.DimensionPregenerator;
 import mcjty.rftoolsdim.dimensions.DimensionStorage;
 import mcjty.rftoolsdim.dimensions.ModDimensions;
 import mcjty.rftoolsdim.dimensions.RfToolsDimensionManager;
@@ -146,6 +150,10 @@ public class RFToolsDim implements ModBase {
     @Mod.EventHandler
     public void serverStopped(FMLServerStoppedEvent event) {
         Logging.log("RFTools: server is stopping. Shutting down gracefully");
+        DimensionPregenerator.clear();
+        MachineScheduler.clear();
+        DimensionEnergySync.clear();
+        DimensionInfoSync.clear();
         RfToolsDimensionManager.cleanupDimensionInformation();
         RfToolsDimensionManager.clearInstance();
         DimensionStorage.clearInstance();
@@ -1,10 +1,11 @@
 package mcjty.rftoolsdim.apiimpl;
 
+import mcjty.rftoolsdim.RFToolsDim;
 import mcjty.rftoolsdim.api.dimension.IDimensionInformation;
 import mcjty.rftoolsdim.api.dimension.IDimensionManager;
 import mcjty.rftoolsdim.dimensions.DimensionStorage;
+import mcjty.rftoolsdim.dimensions.ModDimensions;
 import mcjty.rftoolsdim.dimensions.RfToolsDimensionManager;
-import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.World;
 
 public class DimensionManager implements IDimensionManager {
@@ -20,6 +21,12 @@ public class DimensionManager implements IDimensionManager {
 
     @Override
     public boolean isRFToolsDimension(World world, int id) {
+        if (world.isRemote) {
+            // The client only has the information of the dimensions it asked for but all RFTools
+            // dimensions are registered with their dimension type
+            return net.minecraftforge.common.DimensionManager.isDimensionRegistered(id)
+                    && net.minecraftforge.common.DimensionManager.getProviderType(id) == ModDimensions.rftoolsType;
+        }
         RfToolsDimensionManager dimensionManager = RfToolsDimensionManager.getDimensionManager(world);
         return dimensionManager.getDimensionInformation(id) != null;
     }
@@ -27,6 +34,11 @@ public class DimensionManager implements IDimensionManager {
     @Override
     public IDimensionInformation getDimensionInformation(World world, int id) {
         RfToolsDimensionManager dimensionManager = RfToolsDimensionManager.getDimensionManager(world);
-        return dimensionManager.getDimensionInformation(id);
+        IDimensionInformation information = dimensionManager.getDimensionInformation(id);
+        if (information == null && world.isRemote && isRFToolsDimension(world, id)) {
+            // Not synced yet. Ask the server for it so that a later call will have it
+            RFToolsDim.proxy.requestDimensionInformation(id);
+        }
+        return information;
     }
 }
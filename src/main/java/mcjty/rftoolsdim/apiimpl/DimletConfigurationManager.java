@@ -3,6 +3,7 @@ package mcjty.rftoolsdim.apiimpl;
 import mcjty.rftoolsdim.api.dimlet.IDimletConfigurationManager;
 import mcjty.rftoolsdim.api.dimlet.IFilterBuilder;
 import mcjty.rftoolsdim.api.dimlet.ISettingsBuilder;
+import mcjty.rftoolsdim.config.DimletRules;
 import mcjty.rftoolsdim.config.Filter;
 import mcjty.rftoolsdim.config.Settings;
 import org.apache.commons.lang3.tuple.Pair;
@@ -22,6 +23,7 @@ public class DimletConfigurationManager implements IDimletConfigurationManager {
     public DimletConfigurationManager(String mod) {
         this.mod = mod;
         configurationManagers.put(mod, this);
+        DimletRules.rulesChanged();
     }
 
     public static Map<String, DimletConfigurationManager> getConfigurationManagers() {
@@ -37,6 +39,7 @@ public class DimletConfigurationManager implements IDimletConfigurationManager {
         Filter filter = ((Filter.Builder) filterBuilder).build();
         Settings settings = ((Settings.Builder) settingsBuilder).build();
         rules.add(Pair.of(filter, settings));
+        DimletRules.rulesChanged();
     }
 
     @Override
@@ -4,11 +4,14 @@ import mcjty.lib.container.GenericBlock;
 import mcjty.lib.container.GenericItemBlock;
 import mcjty.lib.entity.GenericTileEntity;
 import mcjty.rftoolsdim.RFToolsDim;
+import net.minecraft.block.Block;
 import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.inventory.Container;
 import net.minecraft.item.ItemBlock;
 import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
 public abstract class GenericRFToolsBlock<T extends GenericTileEntity, C extends Container> extends GenericBlock<T, C> {
@@ -30,6 +33,13 @@ public abstract class GenericRFToolsBlock<T extends GenericTileEntity, C extends
         setCreativeTab(RFToolsDim.tabRfToolsDim);
     }
 
+    @Override
+    protected void clOnNeighborChanged(IBlockState state, World world, BlockPos pos, Block blockIn) {
+        super.clOnNeighborChanged(state, world, pos, blockIn);
+        // A redstone or neighbour change can give a sleeping machine something to do
+        MachineScheduler.wake(world.getTileEntity(pos));
+    }
+
     @Override
     protected boolean checkAccess(World world, EntityPlayer player, TileEntity te) {
 //        if (te instanceof GenericTileEntity) {
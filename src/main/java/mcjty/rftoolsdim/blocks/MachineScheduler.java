@@ -0,0 +1,92 @@
+package mcjty.rftoolsdim.blocks;
+
+import net.minecraft.tileentity.TileEntity;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.util.*;
+
+/**
+ * Ticks the dimension machines on the server. Only machines that have something to do are
+ * ticked. A machine that has nothing to do goes to sleep until something happens that can
+ * change that (an inventory, energy or redstone change) and it is woken up again.
+ */
+public class MachineScheduler {
+
+    public interface Machine {
+        /**
+         * Do the server side work for this tick. Return false if there is nothing to do
+         * until the machine is woken up again.
+         */
+        boolean tickMachine();
+    }
+
+    private static final Set<TileEntity> active = new LinkedHashSet<>();
+    private static final Set<TileEntity> sleeping = new HashSet<>();
+
+    /**
+     * Call this from onLoad(). New machines are awake.
+     */
+    public static void register(TileEntity te) {
+        if (te.getWorld() == null || te.getWorld().isRemote || !(te instanceof Machine)) {
+            return;
+        }
+        sleeping.remove(te);
+        active.add(te);
+    }
+
+    /**
+     * Call this from invalidate() and onChunkUnload().
+     */
+    public static void unregister(TileEntity te) {
+        if (te.getWorld() != null && te.getWorld().isRemote) {
+            return;
+        }
+        active.remove(te);
+        sleeping.remove(te);
+    }
+
+    /**
+     * Wake up a sleeping machine. Does nothing for other tile entities and on the client
+     * (the sets are only used from the server thread).
+     */
+    public static void wake(TileEntity te) {
+        if (te == null || te.getWorld() == null || te.getWorld().isRemote) {
+            return;
+        }
+        if (sleeping.remove(te)) {
+            active.add(te);
+        }
+    }
+
+    public static int getActiveCount() {
+        return active.size();
+    }
+
+    public static int getSleepingCount() {
+        return sleeping.size();
+    }
+
+    public static void clear() {
+        active.clear();
+        sleeping.clear();
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent evt) {
+        if (evt.phase != TickEvent.Phase.END || active.isEmpty()) {
+            return;
+        }
+
+        // Machines can be woken up or removed while we are ticking
+        for (TileEntity te : active.toArray(new TileEntity[active.size()])) {
+            if (te.isInvalid()) {
+                unregister(te);
+            } else if (active.contains(te) && te.getWorld().isBlockLoaded(te.getPos())) {
+                if (!((Machine) te).tickMachine() && active.remove(te)) {
+                    sleeping.add(te);
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package mcjty.rftoolsdim.blocks.absorbers;
 
 import mcjty.lib.entity.GenericTileEntity;
+import mcjty.rftoolsdim.blocks.MachineScheduler;
 import mcjty.rftoolsdim.config.DimletConstructionConfiguration;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumParticleTypes;
@@ -10,17 +11,34 @@ import net.minecraft.world.biome.Biome;
 
 import java.util.Random;
 
-public class BiomeAbsorberTileEntity extends GenericTileEntity implements ITickable {
+public class BiomeAbsorberTileEntity extends GenericTileEntity implements ITickable, MachineScheduler.Machine {
 
     private int absorbing = 0;
     private String biomeId = null;
 
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        MachineScheduler.register(this);
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        MachineScheduler.unregister(this);
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        MachineScheduler.unregister(this);
+    }
+
     @Override
     public void update() {
+        // The server side is ticked by the MachineScheduler
         if (getWorld().isRemote) {
             checkStateClient();
-        } else {
-            checkStateServer();
         }
     }
 
@@ -40,16 +58,19 @@ public class BiomeAbsorberTileEntity extends GenericTileEntity implements ITicka
         }
     }
 
-    protected void checkStateServer() {
-        if (absorbing > 0) {
-            Biome Biome = getWorld().getBiomeForCoordsBody(getPos());
-            if (Biome == null || !Biome.getRegistryName().toString().equals(biomeId)) {
-                return;
-            }
-
-            absorbing--;
-            markDirtyClient();
+    @Override
+    public boolean tickMachine() {
+        if (absorbing <= 0) {
+            return false;
         }
+        Biome Biome = getWorld().getBiomeForCoordsBody(getPos());
+        if (Biome == null || !Biome.getRegistryName().toString().equals(biomeId)) {
+            return false;
+        }
+
+        absorbing--;
+        markDirtyClient();
+        return absorbing > 0;
     }
 
     public int getAbsorbing() {
@@ -79,6 +100,7 @@ public class BiomeAbsorberTileEntity extends GenericTileEntity implements ITicka
                 absorbing = DimletConstructionConfiguration.maxBiomeAbsorbtion;
             }
             markDirty();
+            MachineScheduler.wake(this);
         }
     }
 
@@ -1,6 +1,7 @@
 package mcjty.rftoolsdim.blocks.absorbers;
 
 import mcjty.lib.entity.GenericTileEntity;
+import mcjty.rftoolsdim.blocks.MachineScheduler;
 import mcjty.rftoolsdim.config.DimletConstructionConfiguration;
 import mcjty.rftoolsdim.dimensions.DimensionInformation;
 import mcjty.rftoolsdim.dimensions.RfToolsDimensionManager;
@@ -14,17 +15,34 @@ import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
-public class FeatureAbsorberTileEntity extends GenericTileEntity implements ITickable {
+public class FeatureAbsorberTileEntity extends GenericTileEntity implements ITickable, MachineScheduler.Machine {
 
     private int absorbing = 0;
     private String featureName = null;
 
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        MachineScheduler.register(this);
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        MachineScheduler.unregister(this);
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        MachineScheduler.unregister(this);
+    }
+
     @Override
     public void update() {
+        // The server side is ticked by the MachineScheduler
         if (getWorld().isRemote) {
             checkStateClient();
-        } else {
-            checkStateServer();
         }
     }
 
@@ -44,17 +62,20 @@ public class FeatureAbsorberTileEntity extends GenericTileEntity implements ITic
         }
     }
 
-    protected void checkStateServer() {
-        if (absorbing > 0) {
-            int dim = getWorld().provider.getDimension();
-            DimensionInformation information = RfToolsDimensionManager.getDimensionManager(getWorld()).getDimensionInformation(dim);
-            if (information == null || !information.hasFeatureType(FeatureType.getFeatureById(featureName))) {
-                return;
-            }
-
-            absorbing--;
-            markDirtyClient();
+    @Override
+    public boolean tickMachine() {
+        if (absorbing <= 0) {
+            return false;
+        }
+        int dim = getWorld().provider.getDimension();
+        DimensionInformation information = RfToolsDimensionManager.getDimensionManager(getWorld()).getDimensionInformation(dim);
+        if (information == null || !information.hasFeatureType(FeatureType.getFeatureById(featureName))) {
+            return false;
         }
+
+        absorbing--;
+        markDirtyClient();
+        return absorbing > 0;
     }
 
     private String getRandomFeature(int dim) {
@@ -90,6 +111,7 @@ public class FeatureAbsorberTileEntity extends GenericTileEntity implements ITic
                 absorbing = DimletConstructionConfiguration.maxFeatureAbsorbtion;
             }
             markDirty();
+            MachineScheduler.wake(this);
         }
     }
 
@@ -2,6 +2,7 @@ package mcjty.rftoolsdim.blocks.absorbers;
 
 import mcjty.lib.entity.GenericTileEntity;
 import mcjty.lib.varia.SoundTools;
+import mcjty.rftoolsdim.blocks.MachineScheduler;
 import mcjty.rftoolsdim.config.DimletConstructionConfiguration;
 import mcjty.rftoolsdim.config.Settings;
 import mcjty.rftoolsdim.dimensions.dimlets.DimletKey;
@@ -22,7 +23,7 @@ import java.util.Iterator;
 import java.util.Random;
 import java.util.Set;
 
-public class LiquidAbsorberTileEntity extends GenericTileEntity implements ITickable {
+public class LiquidAbsorberTileEntity extends GenericTileEntity implements ITickable, MachineScheduler.Machine {
     private static final int ABSORB_SPEED = 2;
 
     private int absorbing = 0;
@@ -30,12 +31,29 @@ public class LiquidAbsorberTileEntity extends GenericTileEntity implements ITick
     private int timer = ABSORB_SPEED;
     private Set<BlockPos> toscan = new HashSet<>();
 
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        MachineScheduler.register(this);
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        MachineScheduler.unregister(this);
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        MachineScheduler.unregister(this);
+    }
+
     @Override
     public void update() {
+        // The server side is ticked by the MachineScheduler
         if (getWorld().isRemote) {
             checkStateClient();
-        } else {
-            checkStateServer();
         }
     }
 
@@ -92,7 +110,8 @@ public class LiquidAbsorberTileEntity extends GenericTileEntity implements ITick
         return ok ? block : null;
     }
 
-    private void checkStateServer() {
+    @Override
+    public boolean tickMachine() {
         if (absorbing > 0 || block == null) {
             timer--;
             if (timer <= 0) {
@@ -136,10 +155,17 @@ public class LiquidAbsorberTileEntity extends GenericTileEntity implements ITick
             }
             markDirtyClient();
         }
+
+        if (block != null) {
+            // Sleep when we are done
+            return absorbing > 0;
+        }
+        // Nothing to absorb. A neighbour change wakes us up again
+        return !toscan.isEmpty() || timer != ABSORB_SPEED;
     }
 
     private boolean isValidDimletLiquid(Block block) {
-        DimletKey key = new DimletKey(DimletType.DIMLET_LIQUID, block.getRegistryName() + "@0");
+        DimletKey key = DimletKey.of(DimletType.DIMLET_LIQUID, block.getRegistryName() + "@0");
         Settings settings = KnownDimletConfiguration.getSettings(key);
         return settings != null && settings.isDimlet();
     }
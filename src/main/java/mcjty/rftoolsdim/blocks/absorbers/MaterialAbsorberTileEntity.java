@@ -2,6 +2,7 @@ package mcjty.rftoolsdim.blocks.absorbers;
 
 import mcjty.lib.entity.GenericTileEntity;
 import mcjty.lib.varia.SoundTools;
+import mcjty.rftoolsdim.blocks.MachineScheduler;
 import mcjty.rftoolsdim.config.DimletConstructionConfiguration;
 import mcjty.rftoolsdim.config.Settings;
 import mcjty.rftoolsdim.dimensions.dimlets.DimletKey;
@@ -23,7 +24,7 @@ import java.util.Iterator;
 import java.util.Random;
 import java.util.Set;
 
-public class MaterialAbsorberTileEntity extends GenericTileEntity implements ITickable {
+public class MaterialAbsorberTileEntity extends GenericTileEntity implements ITickable, MachineScheduler.Machine {
     private static final int ABSORB_SPEED = 2;
 
     private int absorbing = 0;
@@ -31,12 +32,29 @@ public class MaterialAbsorberTileEntity extends GenericTileEntity implements ITi
     private int timer = ABSORB_SPEED;
     private Set<BlockPos> toscan = new HashSet<>();
 
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        MachineScheduler.register(this);
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        MachineScheduler.unregister(this);
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        MachineScheduler.unregister(this);
+    }
+
     @Override
     public void update() {
+        // The server side is ticked by the MachineScheduler
         if (getWorld().isRemote) {
             checkStateClient();
-        } else {
-            checkStateServer();
         }
     }
 
@@ -80,7 +98,8 @@ public class MaterialAbsorberTileEntity extends GenericTileEntity implements ITi
     }
 
 
-    private void checkStateServer() {
+    @Override
+    public boolean tickMachine() {
         if (absorbing > 0 || blockState == null) {
             timer--;
             if (timer <= 0) {
@@ -127,12 +146,19 @@ public class MaterialAbsorberTileEntity extends GenericTileEntity implements ITi
             }
             markDirtyClient();
         }
+
+        if (blockState != null) {
+            // Sleep when we are done
+            return absorbing > 0;
+        }
+        // Nothing to absorb. A neighbour change wakes us up again
+        return !toscan.isEmpty() || timer != ABSORB_SPEED;
     }
 
     private boolean isValidDimletBlock(IBlockState state) {
         Block block = state.getBlock();
         int meta = block.getMetaFromState(state);
-        DimletKey key = new DimletKey(DimletType.DIMLET_MATERIAL, block.getRegistryName() + "@" + meta);
+        DimletKey key = DimletKey.of(DimletType.DIMLET_MATERIAL, block.getRegistryName() + "@" + meta);
         Settings settings = KnownDimletConfiguration.getSettings(key);
         return settings != null && settings.isDimlet();
     }
@@ -1,6 +1,7 @@
 package mcjty.rftoolsdim.blocks.absorbers;
 
 import mcjty.lib.entity.GenericTileEntity;
+import mcjty.rftoolsdim.blocks.MachineScheduler;
 import mcjty.rftoolsdim.config.DimletConstructionConfiguration;
 import mcjty.rftoolsdim.dimensions.DimensionInformation;
 import mcjty.rftoolsdim.dimensions.RfToolsDimensionManager;
@@ -11,17 +12,34 @@ import net.minecraft.util.ITickable;
 
 import java.util.Random;
 
-public class TerrainAbsorberTileEntity extends GenericTileEntity implements ITickable {
+public class TerrainAbsorberTileEntity extends GenericTileEntity implements ITickable, MachineScheduler.Machine {
 
     private int absorbing = 0;
     private String terrainName = null;
 
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        MachineScheduler.register(this);
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        MachineScheduler.unregister(this);
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        MachineScheduler.unregister(this);
+    }
+
     @Override
     public void update() {
+        // The server side is ticked by the MachineScheduler
         if (getWorld().isRemote) {
             checkStateClient();
-        } else {
-            checkStateServer();
         }
     }
 
@@ -41,17 +59,20 @@ public class TerrainAbsorberTileEntity extends GenericTileEntity implements ITic
         }
     }
 
-    protected void checkStateServer() {
-        if (absorbing > 0) {
-            int dim = getWorld().provider.getDimension();
-            String terrain = getCurrentTerrain(dim);
-            if (!terrain.equals(terrainName)) {
-                return;
-            }
-
-            absorbing--;
-            markDirtyClient();
+    @Override
+    public boolean tickMachine() {
+        if (absorbing <= 0) {
+            return false;
         }
+        int dim = getWorld().provider.getDimension();
+        String terrain = getCurrentTerrain(dim);
+        if (!terrain.equals(terrainName)) {
+            return false;
+        }
+
+        absorbing--;
+        markDirtyClient();
+        return absorbing > 0;
     }
 
     private String getCurrentTerrain(int dim) {
@@ -93,6 +114,7 @@ public class TerrainAbsorberTileEntity extends GenericTileEntity implements ITic
                 absorbing = DimletConstructionConfiguration.maxTerrainAbsorbtion;
             }
             markDirty();
+            MachineScheduler.wake(this);
         }
     }
 
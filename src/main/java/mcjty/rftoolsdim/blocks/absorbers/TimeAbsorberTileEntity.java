@@ -2,6 +2,7 @@ package mcjty.rftoolsdim.blocks.absorbers;
 
 import mcjty.lib.entity.GenericTileEntity;
 import mcjty.lib.varia.BlockTools;
+import mcjty.rftoolsdim.blocks.MachineScheduler;
 import mcjty.rftoolsdim.config.DimletConstructionConfiguration;
 import mcjty.rftoolsdim.dimensions.DimensionInformation;
 import mcjty.rftoolsdim.dimensions.RfToolsDimensionManager;
@@ -15,7 +16,7 @@ import net.minecraft.util.ITickable;
 import java.util.Map;
 import java.util.Random;
 
-public class TimeAbsorberTileEntity extends GenericTileEntity implements ITickable {
+public class TimeAbsorberTileEntity extends GenericTileEntity implements ITickable, MachineScheduler.Machine {
 
     private int absorbing = 0;
     private float angle = -1.0f;
@@ -23,12 +24,29 @@ public class TimeAbsorberTileEntity extends GenericTileEntity implements ITickab
     private boolean prevIn = false;
     private int registerTimeout = 0;
 
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        MachineScheduler.register(this);
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        MachineScheduler.unregister(this);
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        MachineScheduler.unregister(this);
+    }
+
     @Override
     public void update() {
+        // The server side is ticked by the MachineScheduler
         if (getWorld().isRemote) {
             checkStateClient();
-        } else {
-            checkStateServer();
         }
     }
 
@@ -48,20 +66,27 @@ public class TimeAbsorberTileEntity extends GenericTileEntity implements ITickab
         }
     }
 
-    private void checkStateServer() {
+    @Override
+    public boolean tickMachine() {
         boolean newvalue = powerLevel > 0;
         boolean pulse = newvalue && !prevIn;
-        prevIn = newvalue;
-        markDirty();
+        if (prevIn != newvalue) {
+            prevIn = newvalue;
+            markDirty();
+        }
 
         if (registerTimeout > 0) {
             registerTimeout--;
-            return;
+            markDirty();
+            return true;
         }
 
         if (pulse) {
             registerTime();
+            markDirty();
         }
+        // Wait for the next redstone change
+        return registerTimeout > 0;
     }
 
     public int getAbsorbing() {
@@ -9,6 +9,7 @@ import mcjty.lib.tools.ItemStackTools;
 import mcjty.lib.varia.Logging;
 import mcjty.lib.varia.RedstoneMode;
 import mcjty.rftoolsdim.RFToolsDim;
+import mcjty.rftoolsdim.blocks.MachineScheduler;
 import mcjty.rftoolsdim.config.GeneralConfiguration;
 import mcjty.rftoolsdim.config.MachineConfiguration;
 import mcjty.rftoolsdim.config.PowerConfiguration;
@@ -23,12 +24,11 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.NetworkManager;
 import net.minecraft.network.play.server.SPacketUpdateTileEntity;
 import net.minecraft.util.EnumFacing;
-import net.minecraft.util.ITickable;
 
 import java.util.Map;
 import java.util.Random;
 
-public class DimensionBuilderTileEntity extends GenericEnergyReceiverTileEntity implements ITickable, DefaultSidedInventory {
+public class DimensionBuilderTileEntity extends GenericEnergyReceiverTileEntity implements MachineScheduler.Machine, DefaultSidedInventory {
 
     public static final String CMD_GETBUILDING = "getBuilding";
     public static final String CLIENTCMD_GETBUILDING = "getBuilding";
@@ -46,6 +46,17 @@ public class DimensionBuilderTileEntity extends GenericEnergyReceiverTileEntity
     public static int ERROR_NOOWNER = -1;
     public static int ERROR_TOOMANYDIMENSIONS = -2;
     private int errorMode = 0;
+    // While in error the builder checks again every ERROR_CHECK_INTERVAL ticks
+    private static final int ERROR_CHECK_INTERVAL = 20;
+    private int errorCheckDelay = 0;
+
+    // The parsed state of the tab in the builder. Only valid if tabTag is the tag of that tab
+    private NBTTagCompound tabTag = null;
+    private int tabTicksLeft;
+    private int tabTickCost;
+    private int tabCreateCost;
+    private int tabId;
+    private boolean tabCheater;
 
     private InventoryHelper inventoryHelper = new InventoryHelper(this, DimensionBuilderContainer.factory, 1);
 
@@ -92,55 +103,102 @@ public class DimensionBuilderTileEntity extends GenericEnergyReceiverTileEntity
     }
 
     @Override
-    public void update() {
-        if (!getWorld().isRemote) {
-            checkStateServer();
+    public void onLoad() {
+        super.onLoad();
+        MachineScheduler.register(this);
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        MachineScheduler.unregister(this);
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        MachineScheduler.unregister(this);
+    }
+
+    @Override
+    public void markDirty() {
+        super.markDirty();
+        // Called for inventory and energy changes
+        MachineScheduler.wake(this);
+    }
+
+    @Override
+    public int receiveEnergy(EnumFacing from, int maxReceive, boolean simulate) {
+        int received = super.receiveEnergy(from, maxReceive, simulate);
+        if (received > 0 && !simulate) {
+            MachineScheduler.wake(this);
         }
+        return received;
     }
 
-    private void checkStateServer() {
+    @Override
+    public boolean tickMachine() {
         NBTTagCompound tagCompound = hasTab();
         if (tagCompound == null) {
             setState(-1);
-            return;
+            return false;
         }
 
         if (!isMachineEnabled()) {
             setState(-1);
-            return;
+            return false;
         }
 
-        int ticksLeft = tagCompound.getInteger("ticksLeft");
+        boolean busy;
+        int ticksLeft = tabTicksLeft;
         if (ticksLeft > 0) {
-            ticksLeft = createDimensionTick(tagCompound, ticksLeft);
+            busy = createDimensionTick(tagCompound);
+            ticksLeft = tabTicksLeft;
         } else {
-            maintainDimensionTick(tagCompound);
+            busy = maintainDimensionTick();
         }
 
         setState(ticksLeft);
+        return busy;
     }
 
     public NBTTagCompound hasTab() {
         ItemStack itemStack = inventoryHelper.getStackInSlot(0);
         if (ItemStackTools.isEmpty(itemStack)) {
+            tabTag = null;
             return null;
         }
 
-        return itemStack.getTagCompound();
+        NBTTagCompound tagCompound = itemStack.getTagCompound();
+        if (tagCompound != tabTag) {
+            tabTag = tagCompound;
+            if (tagCompound != null) {
+                tabTicksLeft = tagCompound.getInteger("ticksLeft");
+                tabTickCost = tagCompound.getInteger("tickCost");
+                tabCreateCost = tagCompound.getInteger("rfCreateCost");
+                tabId = tagCompound.getInteger("id");
+                tabCheater = tagCompound.getString("descriptionString").contains("XCheater");
+            }
+        }
+        return tagCompound;
     }
 
     private static int counter = 20;
 
-    private void maintainDimensionTick(NBTTagCompound tagCompound) {
-        int id = tagCompound.getInteger("id");
+    // Returns false if there is no energy to give to the dimension
+    private boolean maintainDimensionTick() {
+        int id = tabId;
 
         if (id != 0) {
             DimensionStorage dimensionStorage = DimensionStorage.getDimensionStorage(getWorld());
             int rf;
-            if (isCheaterDimension(tagCompound)) {
+            if (isCheaterDimension()) {
                 rf = MachineConfiguration.BUILDER_MAXENERGY;
             } else {
                 rf = getEnergyStored(EnumFacing.DOWN);
+                if (rf <= 0) {
+                    return false;
+                }
             }
             int energy = dimensionStorage.getEnergyLevel(id);
             int maxEnergy = PowerConfiguration.MAX_DIMENSION_POWER - energy;      // Max energy the dimension can still get.
@@ -154,32 +212,43 @@ public class DimensionBuilderTileEntity extends GenericEnergyReceiverTileEntity
                     Logging.log("#################### id:" + id + ", rf:" + rf + ", energy:" + energy + ", max:" + maxEnergy);
                 }
             }
-            if (!isCheaterDimension(tagCompound)) {
+            if (!isCheaterDimension()) {
                 consumeEnergy(rf);
             }
+            // The storage is saved by DimensionTickEvent
             dimensionStorage.setEnergyLevel(id, energy + rf);
-            dimensionStorage.save(getWorld());
+            return true;
         }
+        return false;
     }
 
     private static Random random = new Random();
 
-    private int createDimensionTick(NBTTagCompound tagCompound, int ticksLeft) {
+    // Returns false if there is not enough energy to build the dimension right now
+    private boolean createDimensionTick(NBTTagCompound tagCompound) {
+        int ticksLeft = tabTicksLeft;
+        if (errorMode != OK && errorCheckDelay > 0) {
+            // Nothing wakes us up when the owner or the number of dimensions of the owner
+            // changes so we stay awake while in error but only check again once in a while
+            errorCheckDelay--;
+            return true;
+        }
         if (GeneralConfiguration.dimensionBuilderNeedsOwner) {
             if (getOwnerUUID() == null) {
                 // No valid owner so we don't build the dimension.
                 errorMode = ERROR_NOOWNER;
-                return ticksLeft;
+                errorCheckDelay = ERROR_CHECK_INTERVAL;
+                return true;
             }
             if (GeneralConfiguration.maxDimensionsPerPlayer >= 0) {
-                int tickCost = tagCompound.getInteger("tickCost");
-                if (ticksLeft == tickCost || ticksLeft < 5) {
+                if (ticksLeft == tabTickCost || ticksLeft < 5) {
                     // Check if we are allow to make the dimension.
                     RfToolsDimensionManager manager = RfToolsDimensionManager.getDimensionManager(getWorld());
                     int cnt = manager.countOwnedDimensions(getOwnerUUID());
                     if (cnt >= GeneralConfiguration.maxDimensionsPerPlayer) {
                         errorMode = ERROR_TOOMANYDIMENSIONS;
-                        return ticksLeft;
+                        errorCheckDelay = ERROR_CHECK_INTERVAL;
+                        return true;
                     }
                 }
             }
@@ -187,11 +256,11 @@ public class DimensionBuilderTileEntity extends GenericEnergyReceiverTileEntity
         errorMode = OK;
 
 
-        int createCost = tagCompound.getInteger("rfCreateCost");
+        int createCost = tabCreateCost;
         createCost = (int) (createCost * (2.0f - getInfusedFactor()) / 2.0f);
 
-        if (isCheaterDimension(tagCompound) || (getEnergyStored(EnumFacing.DOWN) >= createCost)) {
-            if (isCheaterDimension(tagCompound)) {
+        if (isCheaterDimension() || (getEnergyStored(EnumFacing.DOWN) >= createCost)) {
+            if (isCheaterDimension()) {
                 ticksLeft = 0;
             } else {
                 consumeEnergy(createCost);
@@ -205,23 +274,26 @@ public class DimensionBuilderTileEntity extends GenericEnergyReceiverTileEntity
                 }
             }
             tagCompound.setInteger("ticksLeft", ticksLeft);
+            tabTicksLeft = ticksLeft;
             if (ticksLeft <= 0) {
                 RfToolsDimensionManager manager = RfToolsDimensionManager.getDimensionManager(getWorld());
                 DimensionDescriptor descriptor = new DimensionDescriptor(tagCompound);
                 String name = tagCompound.getString("name");
                 int id = manager.createNewDimension(getWorld(), descriptor, name, getOwnerName(), getOwnerUUID());
                 tagCompound.setInteger("id", id);
+                tabId = id;
             }
+            return true;
         }
-        return ticksLeft;
+        // Not enough energy. Receiving energy wakes us up again
+        return false;
     }
 
-    private boolean isCheaterDimension(NBTTagCompound tagCompound) {
+    private boolean isCheaterDimension() {
         if (isCreative()) {
             return true;
         }
-        String descriptionString = tagCompound.getString("descriptionString");
-        return descriptionString.contains("XCheater");
+        return tabCheater;
     }
 
     public DimensionBuilderBlock.OperationType getState() {
@@ -10,6 +10,7 @@ import mcjty.lib.tools.ItemStackTools;
 import mcjty.lib.varia.BlockTools;
 import mcjty.lib.varia.Broadcaster;
 import mcjty.rftoolsdim.RFToolsDim;
+import mcjty.rftoolsdim.blocks.MachineScheduler;
 import mcjty.rftoolsdim.config.GeneralConfiguration;
 import mcjty.rftoolsdim.config.MachineConfiguration;
 import mcjty.rftoolsdim.config.Settings;
@@ -35,7 +36,6 @@ import net.minecraft.network.NetworkManager;
 import net.minecraft.network.play.server.SPacketUpdateTileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumHand;
-import net.minecraft.util.ITickable;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
@@ -49,7 +49,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Map;
 
-public class DimensionEditorTileEntity extends GenericEnergyReceiverTileEntity implements ITickable, DefaultSidedInventory {
+public class DimensionEditorTileEntity extends GenericEnergyReceiverTileEntity implements MachineScheduler.Machine, DefaultSidedInventory {
 
     public static final String CMD_GETEDITING = "getEditing";
     public static final String CLIENTCMD_GETEDITING = "getEditing";
@@ -86,18 +86,49 @@ public class DimensionEditorTileEntity extends GenericEnergyReceiverTileEntity i
     }
 
     @Override
-    public void update() {
-        if (getWorld().isRemote) {
-            return;
+    public void onLoad() {
+        super.onLoad();
+        MachineScheduler.register(this);
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        MachineScheduler.unregister(this);
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        MachineScheduler.unregister(this);
+    }
+
+    @Override
+    public void markDirty() {
+        super.markDirty();
+        // Called for inventory and energy changes
+        MachineScheduler.wake(this);
+    }
+
+    @Override
+    public int receiveEnergy(EnumFacing from, int maxReceive, boolean simulate) {
+        int received = super.receiveEnergy(from, maxReceive, simulate);
+        if (received > 0 && !simulate) {
+            MachineScheduler.wake(this);
         }
+        return received;
+    }
+
+    @Override
+    public boolean tickMachine() {
         ItemStack injectableItemStack = validateInjectableItemStack();
         if (ItemStackTools.isEmpty(injectableItemStack)) {
-            return;
+            return false;
         }
 
         ItemStack dimensionItemStack = validateDimensionItemStack();
         if (ItemStackTools.isEmpty(dimensionItemStack)) {
-            return;
+            return false;
         }
 
         if (ticksLeft == -1) {
@@ -122,7 +153,10 @@ public class DimensionEditorTileEntity extends GenericEnergyReceiverTileEntity i
             int rfpt = rfPerTick;
             rfpt = (int) (rfpt * (2.0f - getInfusedFactor()) / 2.0f);
 
-            if (rf >= rfpt) {
+            if (rf < rfpt) {
+                // Not enough energy. Receiving energy wakes us up again
+                return false;
+            } else {
                 // Enough energy.
                 consumeEnergy(rfpt);
 
@@ -164,6 +198,7 @@ public class DimensionEditorTileEntity extends GenericEnergyReceiverTileEntity i
 
                         DimensionInformation information = dimensionManager.getDimensionInformation(id);
                         information.injectDimlet(key);
+                        dimensionManager.markChanged(id);
                         dimensionManager.save(getWorld());
                     }
 
@@ -176,6 +211,7 @@ public class DimensionEditorTileEntity extends GenericEnergyReceiverTileEntity i
         markDirty();
 
         setState();
+        return true;
     }
 
     private void safeDeleteDimension(int id, ItemStack dimensionTab) {
@@ -12,6 +12,13 @@ import net.minecraft.util.math.BlockPos;
 
 public class EnergyExtractorTileEntity extends GenericEnergyProviderTileEntity implements ITickable {
 
+    // Number of ticks to wait before trying again if none of the neighbours accepted energy
+    private static final int IDLE_TICKS = 20;
+
+    // The neighbours that can receive energy, indexed by facing. Null if not known yet
+    private TileEntity[] receivers = null;
+    private int idle = 0;
+
     public EnergyExtractorTileEntity() {
         super(MachineConfiguration.EXTRACTOR_MAXENERGY, MachineConfiguration.EXTRACTOR_SENDPERTICK);
     }
@@ -23,11 +30,38 @@ public class EnergyExtractorTileEntity extends GenericEnergyProviderTileEntity i
         }
     }
 
+    /**
+     * Called by the block when a neighbour changed so that the receivers are found again.
+     */
+    public void invalidateReceivers() {
+        receivers = null;
+        idle = 0;
+    }
+
+    private TileEntity[] getReceivers() {
+        if (receivers == null) {
+            receivers = new TileEntity[EnumFacing.values().length];
+            for (EnumFacing facing : EnumFacing.values()) {
+                BlockPos pos = getPos().offset(facing);
+                TileEntity te = getWorld().getTileEntity(pos);
+                if (EnergyTools.isEnergyTE(te)) {
+                    EnumFacing opposite = facing.getOpposite();
+                    if (te instanceof IEnergyConnection && !((IEnergyConnection) te).canConnectEnergy(opposite)) {
+                        continue;
+                    }
+                    receivers[facing.ordinal()] = te;
+                }
+            }
+        }
+        return receivers;
+    }
+
     private void checkStateServer() {
         int energyStored = getEnergyStored(EnumFacing.DOWN);
 
-        if (energyStored < MachineConfiguration.EXTRACTOR_MAXENERGY) {
-            // Get energy out of the dimension.
+        // Get energy out of the dimension. This is only done when half of the buffer is used
+        // so that the dimension storage doesn't change every tick
+        if (energyStored <= MachineConfiguration.EXTRACTOR_MAXENERGY / 2) {
             DimensionStorage storage = DimensionStorage.getDimensionStorage(getWorld());
             int dimensionEnergy = storage.getEnergyLevel(getWorld().provider.getDimension());
             int needed = MachineConfiguration.EXTRACTOR_MAXENERGY - energyStored;
@@ -40,8 +74,8 @@ public class EnergyExtractorTileEntity extends GenericEnergyProviderTileEntity i
                 dimensionEnergy -= needed;
                 modifyEnergyStored(needed);
 
+                // The storage is saved by DimensionTickEvent
                 storage.setEnergyLevel(getWorld().provider.getDimension(), dimensionEnergy);
-                storage.save(getWorld());
             }
         }
 
@@ -49,32 +83,37 @@ public class EnergyExtractorTileEntity extends GenericEnergyProviderTileEntity i
             return;
         }
 
+        if (idle > 0) {
+            idle--;
+            return;
+        }
+
         int rf = MachineConfiguration.EXTRACTOR_SENDPERTICK;
+        boolean accepted = false;
 
+        TileEntity[] tileEntities = getReceivers();
         for (EnumFacing facing : EnumFacing.values()) {
-            BlockPos pos = getPos().offset(facing);
-            TileEntity te = getWorld().getTileEntity(pos);
-            if (EnergyTools.isEnergyTE(te)) {
-                EnumFacing opposite = facing.getOpposite();
-                int rfToGive = rf <= energyStored ? rf : energyStored;
-                int received;
-
-                if (te instanceof IEnergyConnection) {
-                    IEnergyConnection connection = (IEnergyConnection) te;
-                    if (connection.canConnectEnergy(opposite)) {
-                        received = EnergyTools.receiveEnergy(te, opposite, rfToGive);
-                    } else {
-                        received = 0;
-                    }
-                } else {
-                    // Forge unit
-                    received = EnergyTools.receiveEnergy(te, opposite, rfToGive);
-                }
-                energyStored -= storage.extractEnergy(received, false);
-                if (energyStored <= 0) {
-                    break;
-                }
+            TileEntity te = tileEntities[facing.ordinal()];
+            if (te == null) {
+                continue;
             }
+            if (te.isInvalid()) {
+                invalidateReceivers();
+                continue;
+            }
+            int rfToGive = rf <= energyStored ? rf : energyStored;
+            int received = EnergyTools.receiveEnergy(te, facing.getOpposite(), rfToGive);
+            if (received > 0) {
+                accepted = true;
+            }
+            energyStored -= storage.extractEnergy(received, false);
+            if (energyStored <= 0) {
+                break;
+            }
+        }
+
+        if (!accepted && receivers != null) {
+            idle = IDLE_TICKS;
         }
     }
 }
@@ -212,6 +212,7 @@ public class DimensionEnscriberTileEntity extends GenericTileEntity implements D
                 DimensionInformation information = dimensionManager.getDimensionInformation(id);
                 if (information != null) {
                     information.setName(name);
+                    dimensionManager.markChanged(id);
                     dimensionManager.save(getWorld());
                 }
             }
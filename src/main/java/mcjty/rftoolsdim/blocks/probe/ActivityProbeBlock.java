@@ -47,6 +47,7 @@ public class ActivityProbeBlock extends CompatBlock {
             DimensionInformation information = dimensionManager.getDimensionInformation(world.provider.getDimension());
             if (information != null) {
                 information.addProbe();
+                dimensionManager.markChanged(world.provider.getDimension());
             }
             dimensionManager.save(world);
         }
@@ -61,6 +62,7 @@ public class ActivityProbeBlock extends CompatBlock {
             DimensionInformation information = dimensionManager.getDimensionInformation(world.provider.getDimension());
             if (information != null) {
                 information.removeProbe();
+                dimensionManager.markChanged(world.provider.getDimension());
             }
             dimensionManager.save(world);
         }
@@ -384,7 +384,7 @@ public class DimletWorkbenchTileEntity extends GenericEnergyReceiverTileEntity i
         idToExtract = null;
         if (tagCompound.hasKey("extKtype")) {
             DimletType type = DimletType.getTypeByOpcode(tagCompound.getString("extKtype"));
-            idToExtract = new DimletKey(type, tagCompound.getString("extDkey"));
+            idToExtract = DimletKey.of(type, tagCompound.getString("extDkey"));
         } else {
             idToExtract = null;
         }
@@ -420,12 +420,12 @@ public class DimletWorkbenchTileEntity extends GenericEnergyReceiverTileEntity i
         } else if (CMD_SUGGESTPARTS.equals(command)) {
             String type = args.get("type").getString();
             String id = args.get("id").getString();
-            suggestParts(playerMP, new DimletKey(DimletType.getTypeByName(type), id));
+            suggestParts(playerMP, DimletKey.of(DimletType.getTypeByName(type), id));
             return true;
         } else if (CMD_CHEATDIMLET.equals(command)) {
             String type = args.get("type").getString();
             String id = args.get("id").getString();
-            cheatDimlet(playerMP, new DimletKey(DimletType.getTypeByName(type), id));
+            cheatDimlet(playerMP, DimletKey.of(DimletType.getTypeByName(type), id));
             return true;
         }
         return false;
@@ -63,7 +63,7 @@ public class CmdCreateDimension extends AbstractRfToolsCommand {
 
         RfToolsDimensionManager dimensionManager = RfToolsDimensionManager.getDimensionManager(sender.getEntityWorld());
         List<DimletKey> descriptors = new ArrayList<>();
-        descriptors.add(new DimletKey(DimletType.DIMLET_TERRAIN, terrainType.getId()));
+        descriptors.add(DimletKey.of(DimletType.DIMLET_TERRAIN, terrainType.getId()));
         DimensionDescriptor descriptor = new DimensionDescriptor(descriptors, 0);
         int dim = 0;
         try {
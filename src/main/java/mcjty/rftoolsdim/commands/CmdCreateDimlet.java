@@ -53,7 +53,7 @@ public class CmdCreateDimlet extends AbstractRfToolsCommand {
         }
 
         EntityPlayer player = (EntityPlayer) sender;
-        ItemStack dimlet = KnownDimletConfiguration.getDimletStack(new DimletKey(type, name));
+        ItemStack dimlet = KnownDimletConfiguration.getDimletStack(DimletKey.of(type, name));
         InventoryHelper.mergeItemStack(player.inventory, false, dimlet, 0, 35, null);
     }
 }
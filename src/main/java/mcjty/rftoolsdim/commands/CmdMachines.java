@@ -0,0 +1,35 @@
+package mcjty.rftoolsdim.commands;
+
+import mcjty.lib.tools.ChatTools;
+import mcjty.rftoolsdim.blocks.MachineScheduler;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.util.text.TextComponentString;
+import net.minecraft.util.text.TextFormatting;
+
+public class CmdMachines extends AbstractRfToolsCommand {
+    @Override
+    public String getHelp() {
+        return "";
+    }
+
+    @Override
+    public String getCommand() {
+        return "machines";
+    }
+
+    @Override
+    public int getPermissionLevel() {
+        return 2;
+    }
+
+    @Override
+    public boolean isClientSide() {
+        return false;
+    }
+
+    @Override
+    public void execute(ICommandSender sender, String[] args) {
+        ChatTools.addChatMessage(sender, new TextComponentString(TextFormatting.YELLOW + "Active machines: " + MachineScheduler.getActiveCount()));
+        ChatTools.addChatMessage(sender, new TextComponentString(TextFormatting.YELLOW + "Sleeping machines: " + MachineScheduler.getSleepingCount()));
+    }
+}
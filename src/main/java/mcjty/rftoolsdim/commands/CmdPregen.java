@@ -0,0 +1,74 @@
+package mcjty.rftoolsdim.commands;
+
+import mcjty.lib.tools.ChatTools;
+import mcjty.rftoolsdim.dimensions.DimensionPregenerator;
+import mcjty.rftoolsdim.dimensions.RfToolsDimensionManager;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.util.text.TextComponentString;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraft.world.World;
+
+public class CmdPregen extends AbstractRfToolsCommand {
+    @Override
+    public String getHelp() {
+        return "<dimension> <radius>|stop";
+    }
+
+    @Override
+    public String getCommand() {
+        return "pregen";
+    }
+
+    @Override
+    public int getPermissionLevel() {
+        return 3;
+    }
+
+    @Override
+    public boolean isClientSide() {
+        return false;
+    }
+
+    @Override
+    public void execute(ICommandSender sender, String[] args) {
+        if (args.length < 3) {
+            ChatTools.addChatMessage(sender, new TextComponentString(TextFormatting.RED + "The dimension and radius parameters are missing!"));
+            return;
+        } else if (args.length > 3) {
+            ChatTools.addChatMessage(sender, new TextComponentString(TextFormatting.RED + "Too many parameters!"));
+            return;
+        }
+
+        int dim = fetchInt(sender, args, 1, 0);
+
+        if ("stop".equals(args[2])) {
+            if (DimensionPregenerator.stop(dim)) {
+                ChatTools.addChatMessage(sender, new TextComponentString(TextFormatting.YELLOW + "Pregeneration of dimension " + dim + " stopped"));
+            } else {
+                ChatTools.addChatMessage(sender, new TextComponentString(TextFormatting.RED + "Dimension " + dim + " is not being pregenerated!"));
+            }
+            return;
+        }
+
+        int radius = fetchInt(sender, args, 2, 0);
+        if (radius <= 0) {
+            ChatTools.addChatMessage(sender, new TextComponentString(TextFormatting.RED + "The radius (in chunks) must be larger then 0!"));
+            return;
+        }
+
+        World world = sender.getEntityWorld();
+        RfToolsDimensionManager dimensionManager = RfToolsDimensionManager.getDimensionManager(world);
+        if (dimensionManager.getDimensionDescriptor(dim) == null) {
+            ChatTools.addChatMessage(sender, new TextComponentString(TextFormatting.RED + "Not an RFTools dimension!"));
+            return;
+        }
+        if (DimensionPregenerator.isRunning(dim)) {
+            ChatTools.addChatMessage(sender, new TextComponentString(TextFormatting.RED + "Dimension " + dim + " is already being pregenerated!"));
+            return;
+        }
+
+        DimensionPregenerator.start(sender, dim, radius);
+        int chunks = (radius * 2 + 1) * (radius * 2 + 1);
+        ChatTools.addChatMessage(sender, new TextComponentString(TextFormatting.YELLOW + "Started pregeneration of " + chunks + " chunks in dimension " + dim));
+    }
+}
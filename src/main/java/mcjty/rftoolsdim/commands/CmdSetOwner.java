@@ -57,6 +57,7 @@ public class CmdSetOwner extends AbstractRfToolsCommand {
             if (playerName.equals(entityPlayerMP.getDisplayName())) {
                 DimensionInformation information = dimensionManager.getDimensionInformation(dim);
                 information.setOwner(playerName, entityPlayerMP.getGameProfile().getId());
+                dimensionManager.markChanged(dim);
                 ChatTools.addChatMessage(sender, new TextComponentString(TextFormatting.GREEN + "Owner of dimension changed!"));
                 dimensionManager.save(world);
                 return;
@@ -23,6 +23,8 @@ public class CommandRftDim extends DefaultCommand {
 //        registerCommand(new CmdSaveDim());
 //        registerCommand(new CmdLoadDim());
         registerCommand(new CmdSetOwner());
+        registerCommand(new CmdPregen());
+        registerCommand(new CmdMachines());
     }
 
     @Override
@@ -20,6 +20,14 @@ public class DimletRules {
 
     private static List<Pair<Filter, Settings>> rules;
 
+    // The compiled version of all rules. Null if it has to be rebuilt
+    private static volatile RuleIndex ruleIndex = null;
+
+    // Statistics for the timing report
+    private static long indexTime = 0;
+    private static long evaluationTime = 0;
+    private static int evaluations = 0;
+
     private static List<List<Pair<Filter, Settings>>> getCompleteRules() {
         List<List<Pair<Filter, Settings>>> completeRules = new ArrayList<>();
         for (Map.Entry<String, DimletConfigurationManager> entry : DimletConfigurationManager.getConfigurationManagers().entrySet()) {
@@ -29,23 +37,43 @@ public class DimletRules {
         return completeRules;
     }
 
-    public static Settings getSettings(DimletType type, String mod, String name, Set<Filter.Feature> features, int meta, Map<String, String> properties) {
-        Settings.Builder builder = new Settings.Builder();
-
-        for (List<Pair<Filter, Settings>> ruleList : getCompleteRules()) {
-            for (Pair<Filter, Settings> pair : ruleList) {
-                Filter filter = pair.getLeft();
-                if (filter.match(type, mod, name, meta, properties, features)) {
-                    Settings settings = pair.getRight();
-                    builder.merge(settings);
-                    if (settings.isComplete()) {
-                        break;
-                    }
-                }
-            }
+    private static RuleIndex getRuleIndex() {
+        RuleIndex index = ruleIndex;
+        if (index == null) {
+            long start = System.nanoTime();
+            index = new RuleIndex(getCompleteRules());
+            indexTime += System.nanoTime() - start;
+            ruleIndex = index;
         }
+        return index;
+    }
+
+    /**
+     * Call this when rules are added or replaced so that the index is rebuilt.
+     */
+    public static void rulesChanged() {
+        ruleIndex = null;
+    }
+
+    public static Settings getSettings(DimletType type, String mod, String name, Set<Filter.Feature> features, int meta, Map<String, String> properties) {
+        long start = System.nanoTime();
+        Settings settings = getRuleIndex().getSettings(type, mod, name, features, meta, properties);
+        evaluationTime += System.nanoTime() - start;
+        evaluations++;
+        return settings;
+    }
 
-        return builder.complete().build();
+    /**
+     * Return a report of how much time was spent on evaluating rules since the last report.
+     */
+    public static String getTimingReport() {
+        RuleIndex index = ruleIndex;
+        String report = String.format("Dimlet rules: %d rules indexed in %.1f ms, %d evaluations in %.1f ms",
+                index == null ? 0 : index.getRuleCount(), indexTime / 1000000.0, evaluations, evaluationTime / 1000000.0);
+        indexTime = 0;
+        evaluationTime = 0;
+        evaluations = 0;
+        return report;
     }
 
     public static Settings getSettings(DimletKey key, String mod, Set<Filter.Feature> features, Map<String, String> properties) {
@@ -77,6 +105,7 @@ public class DimletRules {
 
     public static void syncRulesFromServer(List<Pair<Filter, Settings>> rules) {
         DimletRules.rules = rules;
+        rulesChanged();
         KnownDimletConfiguration.init();
         DimletRandomizer.init();
     }
@@ -128,6 +157,7 @@ public class DimletRules {
         if (addBuiltin) {
             rules.addAll(builtinRules);
         }
+        rulesChanged();
     }
 
     private static List<Pair<Filter,Settings>> readRulesFromFile(File file) {
@@ -54,14 +54,39 @@ public class Filter {
         properties = ByteBufTools.readMapFromStrings(buf);
     }
 
+    // These are used by RuleIndex. Null means that the filter doesn't care.
+    Set<String> getMods() {
+        return mods;
+    }
+
+    Set<String> getNames() {
+        return names;
+    }
+
+    Set<Pattern> getNameRegexps() {
+        return nameRegexps;
+    }
+
+    Set<DimletType> getTypes() {
+        return types;
+    }
+
     public boolean match(DimletType type, String mod, String name, int metaIn, Map<String, String> propertiesIn, Set<Feature> featuresIn) {
+        return matchLowerCase(type, mod == null ? null : mod.toLowerCase(), name.toLowerCase(), metaIn, propertiesIn, featuresIn);
+    }
+
+    /**
+     * Same as match() but with mod and name already converted to lower case so that
+     * this doesn't have to be done again for every rule.
+     */
+    boolean matchLowerCase(DimletType type, String mod, String name, int metaIn, Map<String, String> propertiesIn, Set<Feature> featuresIn) {
         if (types != null) {
             if (!types.contains(type)) {
                 return false;
             }
         }
         if (mods != null) {
-            if (!mods.contains(mod.toLowerCase())) {
+            if (!mods.contains(mod)) {
                 return false;
             }
         }
@@ -74,13 +99,13 @@ public class Filter {
 
         if (names != null || nameRegexps != null) {
             if (names != null) {
-                if (names.contains(name.toLowerCase())) {
+                if (names.contains(name)) {
                     return true;
                 }
             }
             if (nameRegexps != null) {
                 for (Pattern pattern : nameRegexps) {
-                    Matcher matcher = pattern.matcher(name.toLowerCase());
+                    Matcher matcher = pattern.matcher(name);
                     if (matcher.matches()) {
                         return true;
                     }
@@ -11,6 +11,7 @@ public class PowerConfiguration {
     public static int DIMPOWER_WARN2 = 1000000;
     public static int DIMPOWER_WARN3 = 500000;
     public static int DIMPOWER_WARN_TP = 500000;    // Warn level for teleporter device.
+    public static int dimensionPowerSyncDelta = 50000;  // Minimum change in power before it is sent to the clients again
     public static int dimensionDifficulty = 1;      // -1 == whimpy, 0 == easy, 1 == normal
     public static boolean freezeUnpowered = true;   // Freeze all entities and TE's in an unpowered dimension.
     public static boolean preventSpawnUnpowered = true; // Prevent spawns in unpowered dimensions
@@ -48,6 +49,8 @@ public class PowerConfiguration {
                                                     "The third level at which power warning signs are starting to be very bad").getInt();
         DIMPOWER_WARN_TP = cfg.get(CATEGORY_POWER, "dimensionPowerWarnTP", PowerConfiguration.DIMPOWER_WARN_TP,
                                                       "The level at which the teleportation system will consider a destination to be dangerous").getInt();
+        dimensionPowerSyncDelta = cfg.get(CATEGORY_POWER, "dimensionPowerSyncDelta", PowerConfiguration.dimensionPowerSyncDelta,
+                                                             "The power of a dimension is sent to the players in it when it crosses one of the warning levels or when it changed this much since the last time it was sent").getInt();
 
         afterCreationCostFactor = (float) cfg.get(CATEGORY_POWER, "afterCreationCostFactor", PowerConfiguration.afterCreationCostFactor,
                                                                      "If the dimension turns out to be more expensive after creation you get a factor of the actual cost extra to the RF/tick maintenance cost. If this is 0 there is no such cost. If this is 1 then you get the full cost").getDouble();
@@ -0,0 +1,191 @@
+package mcjty.rftoolsdim.config;
+
+import mcjty.rftoolsdim.dimensions.dimlets.types.DimletType;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.*;
+
+/**
+ * All dimlet rules compiled into an index so that finding the settings for a dimlet
+ * only has to look at the rules that can possibly match. Rules are bucketed by dimlet type,
+ * then by mod and then by exact name. Rules with a name pattern (or without a name) are
+ * kept in a separate list per bucket. The candidates are evaluated in the original rule order
+ * so the merged settings are the same as when all rules are checked one by one.
+ */
+class RuleIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    // All rules in evaluation order and for every rule the index of the list it came from
+    private final List<Pair<Filter, Settings>> rules = new ArrayList<>();
+    private final int[] ruleLists;
+
+    private final Map<DimletType, TypeBucket> typeBuckets = new EnumMap<>(DimletType.class);
+    // Only rules without a type. Used when asking for settings without a type
+    private final TypeBucket untypedBucket = new TypeBucket();
+
+    RuleIndex(List<List<Pair<Filter, Settings>>> ruleLists) {
+        List<Integer> lists = new ArrayList<>();
+        for (int l = 0 ; l < ruleLists.size() ; l++) {
+            List<Pair<Filter, Settings>> list = ruleLists.get(l);
+            if (list == null) {
+                continue;
+            }
+            for (Pair<Filter, Settings> rule : list) {
+                if (rule != null) {
+                    rules.add(rule);
+                    lists.add(l);
+                }
+            }
+        }
+        this.ruleLists = lists.stream().mapToInt(Integer::intValue).toArray();
+
+        for (DimletType type : DimletType.values()) {
+            typeBuckets.put(type, new TypeBucket());
+        }
+        for (int i = 0 ; i < rules.size() ; i++) {
+            Filter filter = rules.get(i).getLeft();
+            Set<DimletType> types = filter.getTypes();
+            if (types == null) {
+                untypedBucket.add(i, filter);
+                for (TypeBucket bucket : typeBuckets.values()) {
+                    bucket.add(i, filter);
+                }
+            } else {
+                for (DimletType type : types) {
+                    typeBuckets.get(type).add(i, filter);
+                }
+            }
+        }
+
+        untypedBucket.compile();
+        for (TypeBucket bucket : typeBuckets.values()) {
+            bucket.compile();
+        }
+    }
+
+    public int getRuleCount() {
+        return rules.size();
+    }
+
+    public Settings getSettings(DimletType type, String mod, String name, Set<Filter.Feature> features, int meta, Map<String, String> properties) {
+        String modLower = mod == null ? null : mod.toLowerCase();
+        String nameLower = name.toLowerCase();
+        TypeBucket bucket = type == null ? untypedBucket : typeBuckets.get(type);
+
+        Settings.Builder builder = new Settings.Builder();
+        int skipList = -1;
+        for (int i : bucket.getCandidates(modLower, nameLower)) {
+            if (ruleLists[i] == skipList) {
+                // An earlier complete rule in this list already matched
+                continue;
+            }
+            Pair<Filter, Settings> rule = rules.get(i);
+            if (rule.getLeft().matchLowerCase(type, modLower, nameLower, meta, properties, features)) {
+                Settings settings = rule.getRight();
+                builder.merge(settings);
+                if (settings.isComplete()) {
+                    skipList = ruleLists[i];
+                }
+            }
+        }
+
+        return builder.complete().build();
+    }
+
+    private static class TypeBucket {
+        private final Map<String, NameBucket> byMod = new HashMap<>();
+        private final NameBucket anyMod = new NameBucket();
+
+        private void add(int rule, Filter filter) {
+            Set<String> mods = filter.getMods();
+            if (mods == null) {
+                anyMod.add(rule, filter);
+            } else {
+                for (String mod : mods) {
+                    byMod.computeIfAbsent(mod, m -> new NameBucket()).add(rule, filter);
+                }
+            }
+        }
+
+        private void compile() {
+            anyMod.compile();
+            byMod.values().forEach(NameBucket::compile);
+        }
+
+        private int[] getCandidates(String mod, String name) {
+            NameBucket modBucket = mod == null ? null : byMod.get(mod);
+            int[] candidates = anyMod.getCandidates(name);
+            if (modBucket != null) {
+                candidates = merge(candidates, modBucket.getCandidates(name));
+            }
+            return candidates;
+        }
+    }
+
+    private static class NameBucket {
+        private final Map<String, List<Integer>> byNameList = new HashMap<>();
+        private final List<Integer> otherList = new ArrayList<>();
+
+        // Compiled versions of the above. Every array is sorted in rule order
+        private final Map<String, int[]> byName = new HashMap<>();
+        // Rules that have a name pattern or no name at all
+        private int[] other = EMPTY;
+
+        private void add(int rule, Filter filter) {
+            Set<String> names = filter.getNames();
+            if (names != null) {
+                for (String name : names) {
+                    byNameList.computeIfAbsent(name, n -> new ArrayList<>()).add(rule);
+                }
+            }
+            if (filter.getNameRegexps() != null || names == null) {
+                otherList.add(rule);
+            }
+        }
+
+        private void compile() {
+            for (Map.Entry<String, List<Integer>> entry : byNameList.entrySet()) {
+                byName.put(entry.getKey(), toArray(entry.getValue()));
+            }
+            other = toArray(otherList);
+            byNameList.clear();
+            otherList.clear();
+        }
+
+        private int[] getCandidates(String name) {
+            int[] named = byName.get(name);
+            return named == null ? other : merge(named, other);
+        }
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // Merge two sorted arrays into a new sorted array without duplicates
+    private static int[] merge(int[] a, int[] b) {
+        if (a.length == 0) {
+            return b;
+        } else if (b.length == 0) {
+            return a;
+        }
+        int[] result = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length || j < b.length) {
+            int v;
+            if (j >= b.length || (i < a.length && a[i] < b[j])) {
+                v = a[i++];
+            } else if (i >= a.length || b[j] < a[i]) {
+                v = b[j++];
+            } else {
+                v = a[i++];
+                j++;
+            }
+            result[n++] = v;
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+}
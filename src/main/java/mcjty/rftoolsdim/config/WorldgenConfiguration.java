@@ -35,6 +35,9 @@ public class WorldgenConfiguration {
     public static int uncraftableDimletsInRFToolsDungeons = 2;
     public static boolean enableDimletsInRFToolsFrames = true;
 
+    public static int pregenTickBudget = 20;
+    public static int pregenReportInterval = 10;
+
     public static void init(Configuration cfg) {
         dungeonChance = cfg.get(CATEGORY_WORLDGEN, "dungeonChance", dungeonChance,
                 "The chance for a dungeon to spawn in a chunk. Higher numbers mean less chance (1 in 'dungeonChance' chance)").getInt();
@@ -95,6 +98,11 @@ public class WorldgenConfiguration {
                 "The number of uncraftable dimlets that will always be generated in rftools dungeons (set to 0 to disable this, this value is independ from enableDimletsInRFToolsDungeons)").getInt();
         enableDimletsInRFToolsFrames = cfg.get(CATEGORY_WORLDGEN, "enableDimletsInRFToolsFrames", enableDimletsInRFToolsFrames,
                 "If true then item frames in rftools dungeons will contain dimlets. Otherwise they will contain dimlet parts").getBoolean();
+
+        pregenTickBudget = cfg.get(CATEGORY_WORLDGEN, "pregenTickBudget", pregenTickBudget,
+                "The maximum number of milliseconds per server tick that '/rftdim pregen' can spend generating chunks").getInt();
+        pregenReportInterval = cfg.get(CATEGORY_WORLDGEN, "pregenReportInterval", pregenReportInterval,
+                "The number of seconds between progress reports of '/rftdim pregen'").getInt();
     }
 
 }
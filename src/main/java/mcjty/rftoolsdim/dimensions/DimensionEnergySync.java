@@ -0,0 +1,100 @@
+package mcjty.rftoolsdim.dimensions;
+
+import mcjty.rftoolsdim.config.PowerConfiguration;
+import mcjty.rftoolsdim.network.PacketReturnEnergy;
+import mcjty.rftoolsdim.network.RFToolsDimMessages;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.world.WorldServer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps the clients informed about the power of the RFTools dimension they are in (the client
+ * needs it for the sky and fog color). A player is subscribed when entering a dimension and after
+ * that the energy is only sent again when it crosses one of the warning levels or changed more
+ * than 'dimensionPowerSyncDelta' since the last time it was sent.
+ */
+public class DimensionEnergySync {
+
+    private static final Map<UUID, Subscription> subscriptions = new HashMap<>();
+
+    /**
+     * Call this when a player enters a dimension (login, teleport or respawn).
+     */
+    public static void subscribe(EntityPlayerMP player, int dimension) {
+        RfToolsDimensionManager dimensionManager = RfToolsDimensionManager.getDimensionManager(player.getEntityWorld());
+        if (dimensionManager.getDimensionInformation(dimension) == null) {
+            subscriptions.remove(player.getUniqueID());
+            return;
+        }
+        int energy = DimensionStorage.getDimensionStorage(player.getEntityWorld()).getEnergyLevel(dimension);
+        send(player, dimension, energy);
+    }
+
+    public static void unsubscribe(EntityPlayer player) {
+        subscriptions.remove(player.getUniqueID());
+    }
+
+    public static void clear() {
+        subscriptions.clear();
+    }
+
+    /**
+     * Called by DimensionTickEvent every step for every loaded RFTools dimension with players in it.
+     */
+    public static void update(WorldServer world, int dimension, int energy) {
+        for (EntityPlayer player : world.playerEntities) {
+            Subscription subscription = subscriptions.get(player.getUniqueID());
+            // A player that is not subscribed for this dimension got here without one of
+            // the events we listen to. Subscribe it now
+            if (subscription == null || subscription.dimension != dimension || needsUpdate(subscription.energy, energy)) {
+                send((EntityPlayerMP) player, dimension, energy);
+            }
+        }
+    }
+
+    private static boolean needsUpdate(int old, int energy) {
+        if (old == energy) {
+            return false;
+        }
+        if (getWarnLevel(old) != getWarnLevel(energy)) {
+            return true;
+        }
+        return Math.abs(energy - old) >= PowerConfiguration.dimensionPowerSyncDelta;
+    }
+
+    private static int getWarnLevel(int energy) {
+        if (energy <= 0) {
+            return 5;
+        } else if (energy < PowerConfiguration.DIMPOWER_WARN3) {
+            return 4;
+        } else if (energy < PowerConfiguration.DIMPOWER_WARN2) {
+            return 3;
+        } else if (energy < PowerConfiguration.DIMPOWER_WARN1) {
+            return 2;
+        } else if (energy < PowerConfiguration.DIMPOWER_WARN0) {
+            return 1;
+        } else {
+            return 0;
+        }
+    }
+
+    private static void send(EntityPlayerMP player, int dimension, int energy) {
+        Subscription subscription = subscriptions.get(player.getUniqueID());
+        if (subscription == null) {
+            subscription = new Subscription();
+            subscriptions.put(player.getUniqueID(), subscription);
+        }
+        subscription.dimension = dimension;
+        subscription.energy = energy;
+        RFToolsDimMessages.INSTANCE.sendTo(new PacketReturnEnergy(dimension, energy), player);
+    }
+
+    private static class Subscription {
+        private int dimension;
+        private int energy;
+    }
+}
@@ -0,0 +1,112 @@
+package mcjty.rftoolsdim.dimensions;
+
+import mcjty.rftoolsdim.dimensions.description.DimensionDescriptor;
+import mcjty.rftoolsdim.network.PacketDimensionsChanged;
+import mcjty.rftoolsdim.network.PacketSyncDimensionInfo;
+import mcjty.rftoolsdim.network.RFToolsDimMessages;
+import mcjty.rftoolsdim.varia.IntIntMap;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.server.MinecraftServer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sends the information of RFTools dimensions to the clients. A client only gets the information
+ * for the dimension it is in and for the dimensions it asks for (with PacketGetDimensionInfo). For
+ * every player we remember which dimensions it has and up to which revision of the dimension
+ * manager it is up to date. When dimensions change the client is only told to forget the changed
+ * dimensions it actually has.
+ */
+public class DimensionInfoSync {
+
+    private static final Map<UUID, PlayerState> players = new HashMap<>();
+
+    public static void onLogin(EntityPlayerMP player) {
+        RfToolsDimensionManager dimensionManager = RfToolsDimensionManager.getDimensionManager(player.getEntityWorld());
+        players.put(player.getUniqueID(), new PlayerState(dimensionManager.getRevision()));
+        // The client may still have information from another server
+        RFToolsDimMessages.INSTANCE.sendTo(new PacketDimensionsChanged(), player);
+        sendDimension(player, player.dimension);
+    }
+
+    public static void onLogout(EntityPlayer player) {
+        players.remove(player.getUniqueID());
+    }
+
+    public static void clear() {
+        players.clear();
+    }
+
+    /**
+     * Send the information for a dimension to a player unless it already has the latest version.
+     */
+    public static void sendDimension(EntityPlayerMP player, int id) {
+        RfToolsDimensionManager dimensionManager = RfToolsDimensionManager.getDimensionManager(player.getEntityWorld());
+        DimensionDescriptor descriptor = dimensionManager.getDimensionDescriptor(id);
+        DimensionInformation information = dimensionManager.getDimensionInformation(id);
+        if (descriptor == null || information == null) {
+            return;
+        }
+        PlayerState state = players.get(player.getUniqueID());
+        if (state == null) {
+            // Not logged in through PlayerLoggedInEvent (should not happen)
+            state = new PlayerState(dimensionManager.getRevision());
+            players.put(player.getUniqueID(), state);
+        } else if (state.dimensions.containsKey(id)) {
+            return;
+        }
+        state.dimensions.put(id, dimensionManager.getRevision());
+        RFToolsDimMessages.INSTANCE.sendTo(new PacketSyncDimensionInfo(id, descriptor, information), player);
+    }
+
+    /**
+     * Called when the dimension manager is saved. Tell every client to forget the dimensions that
+     * changed (or were removed) since the last time. The dimension a player is in is sent again.
+     */
+    public static void syncChanges(MinecraftServer server, RfToolsDimensionManager dimensionManager) {
+        int revision = dimensionManager.getRevision();
+        for (EntityPlayerMP player : server.getPlayerList().getPlayers()) {
+            PlayerState state = players.get(player.getUniqueID());
+            if (state == null || state.revision >= revision) {
+                continue;
+            }
+            int[] changed = dimensionManager.getChangedSince(state.revision);
+            int[] removed = dimensionManager.getRemovedSince(state.revision);
+            state.revision = revision;
+
+            int[] forget = new int[changed.length + removed.length];
+            int cnt = 0;
+            for (int id : changed) {
+                if (state.dimensions.containsKey(id)) {
+                    state.dimensions.remove(id);
+                    forget[cnt++] = id;
+                }
+            }
+            for (int id : removed) {
+                if (state.dimensions.containsKey(id)) {
+                    state.dimensions.remove(id);
+                    forget[cnt++] = id;
+                }
+            }
+            if (cnt > 0) {
+                RFToolsDimMessages.INSTANCE.sendTo(new PacketDimensionsChanged(Arrays.copyOf(forget, cnt)), player);
+            }
+            sendDimension(player, player.dimension);
+        }
+    }
+
+    private static class PlayerState {
+        // The revision of the dimension manager this client is up to date with
+        private int revision;
+        // The dimensions this client has information for (with the revision it was sent at)
+        private final IntIntMap dimensions = new IntIntMap();
+
+        public PlayerState(int revision) {
+            this.revision = revision;
+        }
+    }
+}
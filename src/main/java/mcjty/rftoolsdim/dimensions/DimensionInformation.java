@@ -91,7 +91,7 @@ public class DimensionInformation implements IDimensionInformation {
 
     private ControllerType controllerType = null;
     private List<Biome> biomes = new ArrayList<>();
-    private static final Map<Integer, Integer> biomeMapping = new HashMap<>();
+    private int[] biomeTable = null;      // Biome id to replacement biome id (for the filtered controller)
 
     private String digitString = "";
 
@@ -127,7 +127,6 @@ public class DimensionInformation implements IDimensionInformation {
         worldVersion = VERSION_CORRECTSEED;
 
         setupFromDescriptor(world.getSeed());
-        setupBiomeMapping();
 
         dump(null);
     }
@@ -227,8 +226,6 @@ public class DimensionInformation implements IDimensionInformation {
             // This is an older version. Here we have to calculate the random information again.
             setupFromDescriptor(1);
         }
-
-        setupBiomeMapping();
     }
 
     public void readFromNBT(NBTTagCompound tagCompound) {
@@ -243,7 +240,7 @@ public class DimensionInformation implements IDimensionInformation {
         setProbeCounter(tagCompound.getInteger("probeCounter"));
         setupFromNBT(tagCompound);
 
-        setupBiomeMapping();
+        biomeTable = null;
     }
 
     public static int[] getIntArraySafe(NBTTagCompound tagCompound, String name) {
@@ -1032,8 +1029,6 @@ public class DimensionInformation implements IDimensionInformation {
         for (int i = 0 ; i < size ; i++) {
             dimensionTypes[i] = NetworkTools.readString(buf);
         }
-
-        setupBiomeMapping();
     }
 
     private static Block[] readFluidArrayFromBuf(ByteBuf buf) {
@@ -1185,8 +1180,7 @@ public class DimensionInformation implements IDimensionInformation {
         return block;
     }
 
-    private void setupBiomeMapping() {
-        biomeMapping.clear();
+    private int[] setupBiomeTable() {
         if (controllerType == ControllerType.CONTROLLER_FILTERED) {
             final Set<Integer> ids = new HashSet<>();
             for (Biome biome : Biome.REGISTRY) {
@@ -1208,8 +1202,9 @@ public class DimensionInformation implements IDimensionInformation {
                     return calculateBiomeDistance(a, b, false, false, false);
                 }
             };
-            BiomeControllerMapping.makeFilteredBiomeMap(biomeMapping, biomeFilter);
+            return BiomeControllerMapping.makeFilteredBiomeTable(biomeFilter);
         }
+        return null;
     }
 
     public DimensionDescriptor getDescriptor() {
@@ -1275,11 +1270,14 @@ public class DimensionInformation implements IDimensionInformation {
         return biomes;
     }
 
-    public Map<Integer, Integer> getBiomeMapping() {
-        if (biomeMapping.isEmpty()) {
-            setupBiomeMapping();
+    /**
+     * Return the table from biome id to replacement biome id for a filtered biome controller.
+     */
+    public int[] getBiomeTable() {
+        if (biomeTable == null) {
+            biomeTable = setupBiomeTable();
         }
-        return biomeMapping;
+        return biomeTable;
     }
 
     public ControllerType getControllerType() {
@@ -1288,6 +1286,7 @@ public class DimensionInformation implements IDimensionInformation {
 
     public void setControllerType(ControllerType controllerType) {
         this.controllerType = controllerType;
+        biomeTable = null;
     }
 
     public String getDigitString() {
@@ -0,0 +1,170 @@
+package mcjty.rftoolsdim.dimensions;
+
+import mcjty.lib.tools.ChatTools;
+import mcjty.lib.varia.Logging;
+import mcjty.rftoolsdim.config.WorldgenConfiguration;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.text.TextComponentString;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.gen.ChunkProviderServer;
+import net.minecraftforge.fml.common.FMLCommonHandler;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pregenerates the chunks of an RFTools dimension in the background. Every server tick at most
+ * 'pregenTickBudget' milliseconds are spent generating chunks so that the server keeps running
+ * smoothly while a dimension is being prepared.
+ */
+public class DimensionPregenerator {
+
+    private static final Map<Integer, PregenTask> tasks = new LinkedHashMap<>();
+
+    public static boolean isRunning(int id) {
+        return tasks.containsKey(id);
+    }
+
+    public static void start(ICommandSender sender, int id, int radius) {
+        tasks.put(id, new PregenTask(sender, id, radius));
+    }
+
+    public static boolean stop(int id) {
+        PregenTask task = tasks.remove(id);
+        if (task == null) {
+            return false;
+        }
+        task.unloadRemaining();
+        return true;
+    }
+
+    public static void clear() {
+        tasks.clear();
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent evt) {
+        if (evt.phase != TickEvent.Phase.END || tasks.isEmpty()) {
+            return;
+        }
+        MinecraftServer server = FMLCommonHandler.instance().getMinecraftServerInstance();
+
+        // Divide the time over all running tasks
+        long perTask = WorldgenConfiguration.pregenTickBudget * 1000000L / tasks.size();
+        Iterator<PregenTask> iterator = tasks.values().iterator();
+        while (iterator.hasNext()) {
+            PregenTask task = iterator.next();
+            if (!task.step(server, System.nanoTime() + perTask)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static class PregenTask {
+        private final ICommandSender sender;
+        private final int id;
+        private final int radius;
+        private final int total;
+
+        private int chunkX;
+        private int chunkZ;
+        private int done = 0;
+        private int generated = 0;
+
+        private final long startTime;
+        private long lastReport;
+        private int doneAtLastReport = 0;
+
+        private ChunkProviderServer provider;
+        private WorldServer world;
+
+        public PregenTask(ICommandSender sender, int id, int radius) {
+            this.sender = sender;
+            this.id = id;
+            this.radius = radius;
+            this.total = (radius * 2 + 1) * (radius * 2 + 1);
+            chunkX = -radius;
+            chunkZ = -radius;
+            startTime = System.currentTimeMillis();
+            lastReport = startTime;
+        }
+
+        // Returns false if this task is finished
+        public boolean step(MinecraftServer server, long end) {
+            RfToolsDimensionManager dimensionManager = RfToolsDimensionManager.getDimensionManager(server.getEntityWorld());
+            if (dimensionManager.getDimensionDescriptor(id) == null) {
+                report(TextFormatting.RED + "Pregeneration of dimension " + id + " stopped: dimension no longer exists!");
+                return false;
+            }
+
+            // This will load the dimension if needed
+            world = server.worldServerForDimension(id);
+            provider = world.getChunkProvider();
+
+            while (chunkZ <= radius && System.nanoTime() < end) {
+                if (!provider.isChunkGeneratedAt(chunkX, chunkZ)) {
+                    generated++;
+                }
+                provider.provideChunk(chunkX, chunkZ);
+                done++;
+
+                chunkX++;
+                if (chunkX > radius) {
+                    chunkX = -radius;
+                    // A chunk is only populated when the chunks next to it (at higher x and z) are
+                    // loaded. So when a row is finished the row before it is fully populated
+                    unloadRow(chunkZ - 1);
+                    chunkZ++;
+                }
+            }
+
+            long time = System.currentTimeMillis();
+            if (chunkZ > radius) {
+                unloadRemaining();
+                float seconds = (time - startTime) / 1000.0f;
+                report(TextFormatting.GREEN + "Pregeneration of dimension " + id + " finished: " + generated + " new chunks ("
+                        + done + " total) in " + String.format("%.1f", seconds) + " seconds");
+                return false;
+            }
+
+            if (time - lastReport >= WorldgenConfiguration.pregenReportInterval * 1000L) {
+                float perSecond = (done - doneAtLastReport) * 1000.0f / (time - lastReport);
+                report(TextFormatting.YELLOW + "Pregenerating dimension " + id + ": " + done + "/" + total
+                        + " (" + (done * 100L / total) + "%), " + String.format("%.1f", perSecond) + " chunks/sec");
+                lastReport = time;
+                doneAtLastReport = done;
+            }
+            return true;
+        }
+
+        private void unloadRow(int z) {
+            if (z < -radius) {
+                return;
+            }
+            for (int x = -radius; x <= radius; x++) {
+                Chunk chunk = provider.getLoadedChunk(x, z);
+                if (chunk != null && !world.getPlayerChunkMap().contains(x, z)) {
+                    provider.unload(chunk);
+                }
+            }
+        }
+
+        public void unloadRemaining() {
+            if (provider != null) {
+                unloadRow(chunkZ - 1);
+                unloadRow(chunkZ);
+            }
+        }
+
+        private void report(String message) {
+            Logging.log(message);
+            ChatTools.addChatMessage(sender, new TextComponentString(message));
+        }
+    }
+}
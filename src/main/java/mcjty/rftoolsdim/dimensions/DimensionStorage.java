@@ -1,6 +1,8 @@
 package mcjty.rftoolsdim.dimensions;
 
 import mcjty.rftoolsdim.config.PowerConfiguration;
+import mcjty.rftoolsdim.dimensions.description.DimensionDescriptor;
+import mcjty.rftoolsdim.varia.IntIntMap;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.world.World;
@@ -8,18 +10,38 @@ import net.minecraft.world.WorldSavedData;
 import net.minecraftforge.common.DimensionManager;
 import net.minecraftforge.common.util.Constants;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
 
+/**
+ * The power ledger for all RFTools dimensions. Every dimension gets a slot in a set of parallel
+ * arrays. Loaded dimensions are drained by DimensionTickEvent every step (MAXTICKS ticks).
+ * Dimensions that are not loaded are not visited at all: their energy is only brought up to date
+ * (settled) when it is needed, based on the number of steps that passed since the last time.
+ */
 public class DimensionStorage extends WorldSavedData {
     public static final String DIMSTORAGE_NAME = "RFToolsDimensionStorage";
     private static DimensionStorage instance = null;
 
-    private final Map<Integer,Integer> energy = new HashMap<Integer, Integer>();
+    private int size = 0;
+    private int[] ids = new int[16];
+    private int[] energy = new int[16];
+    private int[] maintainCost = new int[16];       // RF per tick. Zero for cheater dimensions
+    private boolean[] drainUnloaded = new boolean[16]; // True if power is also drained while not loaded (no activity probe)
+    private long[] settled = new long[16];          // The last step that is included in energy. -1 if not known yet
+    private boolean[] dirty = new boolean[16];
+    private int dirtyCount = 0;
+
+    // Dimension id to slot
+    private final IntIntMap slots = new IntIntMap();
+
+    private long step = -1;                         // The current step (server only)
+    private boolean costsValid = false;
+    private boolean costsKnown = false;             // False until the costs are calculated for the first time
 
     public static void clearInstance() {
         if (instance != null) {
-            instance.energy.clear();
+            instance.clear();
             instance = null;
         }
     }
@@ -30,7 +52,9 @@ public class DimensionStorage extends WorldSavedData {
 
     public void save(World world) {
         world.getMapStorage().setData(DIMSTORAGE_NAME, this);
-        markDirty();
+        if (dirtyCount > 0) {
+            markDirty();
+        }
     }
 
     public static DimensionStorage getDimensionStorage(World world) {
@@ -44,17 +68,162 @@ public class DimensionStorage extends WorldSavedData {
         return instance;
     }
 
+    private int findSlot(int id) {
+        return slots.get(id, -1);
+    }
+
+    private int getOrCreateSlot(int id) {
+        int slot = findSlot(id);
+        if (slot >= 0) {
+            return slot;
+        }
+        if (size == ids.length) {
+            int newLength = size * 2;
+            ids = Arrays.copyOf(ids, newLength);
+            energy = Arrays.copyOf(energy, newLength);
+            maintainCost = Arrays.copyOf(maintainCost, newLength);
+            drainUnloaded = Arrays.copyOf(drainUnloaded, newLength);
+            settled = Arrays.copyOf(settled, newLength);
+            dirty = Arrays.copyOf(dirty, newLength);
+        }
+        slot = size++;
+        ids[slot] = id;
+        energy[slot] = 0;
+        maintainCost[slot] = 0;
+        drainUnloaded[slot] = false;
+        settled[slot] = step - 1;
+        dirty[slot] = false;
+        slots.put(id, slot);
+        return slot;
+    }
+
+    private void clear() {
+        size = 0;
+        dirtyCount = 0;
+        slots.clear();
+        costsValid = false;
+        costsKnown = false;
+    }
+
+    private void setDirty(int slot) {
+        if (!dirty[slot]) {
+            dirty[slot] = true;
+            dirtyCount++;
+        }
+    }
+
+    /**
+     * Called by DimensionTickEvent at the start of every step. If the dimensions changed since the
+     * last step the maintain costs are calculated again.
+     */
+    public void startStep(long step, RfToolsDimensionManager dimensionManager) {
+        this.step = step;
+        if (!costsValid) {
+            updateCosts(dimensionManager);
+        }
+    }
+
+    /**
+     * Call this when a dimension (or its probes) changed so that its maintain cost is calculated again.
+     */
+    public void invalidateCosts() {
+        costsValid = false;
+    }
+
+    private void updateCosts(RfToolsDimensionManager dimensionManager) {
+        // First settle everything with the old costs. Right after loading there are no old costs yet and
+        // the energy is settled later with the new ones
+        if (costsKnown) {
+            for (int slot = 0; slot < size; slot++) {
+                settle(slot);
+            }
+        }
+        boolean[] seen = new boolean[size];
+        for (Map.Entry<Integer, DimensionDescriptor> entry : dimensionManager.getDimensions().entrySet()) {
+            DimensionInformation information = dimensionManager.getDimensionInformation(entry.getKey());
+            if (information == null) {
+                continue;
+            }
+            int slot = getOrCreateSlot(entry.getKey());
+            int cost = 0;
+            if (PowerConfiguration.dimensionDifficulty != -1 && !information.isCheater()) {
+                cost = information.getActualRfCost();
+                if (cost == 0) {
+                    cost = entry.getValue().getRfMaintainCost();
+                }
+            }
+            setCost(slot, cost, !information.isCheater() && information.getProbeCounter() == 0);
+            if (slot < seen.length) {
+                seen[slot] = true;
+            }
+        }
+        // Dimensions that have energy but are no longer known don't drain
+        for (int slot = 0; slot < seen.length; slot++) {
+            if (!seen[slot]) {
+                setCost(slot, 0, false);
+            }
+        }
+        costsValid = true;
+        costsKnown = true;
+    }
+
+    private void setCost(int slot, int cost, boolean drain) {
+        if (maintainCost[slot] != cost || drainUnloaded[slot] != drain) {
+            maintainCost[slot] = cost;
+            drainUnloaded[slot] = drain;
+            // Make sure the energy that is settled with the old cost is saved
+            setDirty(slot);
+        }
+    }
+
+    // Bring the energy of a slot up to date with all steps before the current one. The current
+    // step itself is done by DimensionTickEvent if the dimension is loaded
+    private void settle(int slot) {
+        long target = step - 1;
+        if (settled[slot] >= target) {
+            return;
+        }
+        if (settled[slot] < 0) {
+            // We don't know since when this is not updated so just start from now
+            settled[slot] = target;
+            return;
+        }
+        if (drainUnloaded[slot] && energy[slot] > 0) {
+            long drained = (target - settled[slot]) * maintainCost[slot] * DimensionTickEvent.MAXTICKS;
+            energy[slot] = (int) Math.max(0, energy[slot] - drained);
+        }
+        settled[slot] = target;
+    }
+
+    /**
+     * The maintain cost (RF per tick) of a dimension as it was last calculated.
+     */
+    public int getMaintainCost(int id) {
+        int slot = findSlot(id);
+        return slot < 0 ? 0 : maintainCost[slot];
+    }
+
     public int getEnergyLevel(int id) {
-        if (energy.containsKey(id)) {
-            return energy.get(id);
-        } else {
+        int slot = findSlot(id);
+        if (slot < 0) {
             return 0;
         }
+        if (costsKnown) {
+            settle(slot);
+        }
+        return energy[slot];
     }
 
     public void setEnergyLevel(int id, int energyLevel) {
-        int old = getEnergyLevel(id);
-        energy.put(id, energyLevel);
+        int slot = getOrCreateSlot(id);
+        if (costsKnown) {
+            settle(slot);
+        }
+        int old = energy[slot];
+        energy[slot] = energyLevel;
+        if (old != energyLevel) {
+            setDirty(slot);
+        }
         if (PowerConfiguration.freezeUnpowered) {
             World world = DimensionManager.getWorld(id);
             if (world != null) {
@@ -67,31 +236,71 @@ public class DimensionStorage extends WorldSavedData {
         }
     }
 
+    /**
+     * Set the energy of a loaded dimension after DimensionTickEvent handled the current step for it.
+     */
+    void setEnergyLevelForStep(int id, int energyLevel) {
+        setEnergyLevel(id, energyLevel);
+        if (step >= 0) {
+            settled[findSlot(id)] = step;
+        }
+    }
+
     public void removeDimension(int id) {
-        energy.remove(id);
+        int slot = findSlot(id);
+        if (slot < 0) {
+            return;
+        }
+        if (dirty[slot]) {
+            dirtyCount--;
+        }
+        slots.remove(id);
+        // Move the last slot into the hole
+        int last = --size;
+        if (slot != last) {
+            ids[slot] = ids[last];
+            energy[slot] = energy[last];
+            maintainCost[slot] = maintainCost[last];
+            drainUnloaded[slot] = drainUnloaded[last];
+            settled[slot] = settled[last];
+            dirty[slot] = dirty[last];
+            slots.put(ids[slot], slot);
+        }
+        markDirty();
     }
 
     @Override
     public void readFromNBT(NBTTagCompound tagCompound) {
-        energy.clear();
+        clear();
         NBTTagList lst = tagCompound.getTagList("dimensions", Constants.NBT.TAG_COMPOUND);
         for (int i = 0 ; i < lst.tagCount() ; i++) {
             NBTTagCompound tc = lst.getCompoundTagAt(i);
             int id = tc.getInteger("id");
             int rf = tc.getInteger("energy");
-            energy.put(id, rf);
+            int slot = getOrCreateSlot(id);
+            energy[slot] = rf;
+            // Older worlds don't have the step
+            settled[slot] = tc.hasKey("step") ? tc.getLong("step") : -1;
         }
     }
 
     @Override
     public NBTTagCompound writeToNBT(NBTTagCompound tagCompound) {
         NBTTagList lst = new NBTTagList();
-        for (Map.Entry<Integer,Integer> me : energy.entrySet()) {
+        for (int slot = 0 ; slot < size ; slot++) {
+            if (costsKnown) {
+                settle(slot);
+            }
             NBTTagCompound tc = new NBTTagCompound();
-            tc.setInteger("id", me.getKey());
-            tc.setInteger("energy", me.getValue());
+            tc.setInteger("id", ids[slot]);
+            tc.setInteger("energy", energy[slot]);
+            if (settled[slot] >= 0) {
+                tc.setLong("step", settled[slot]);
+            }
             lst.appendTag(tc);
+            dirty[slot] = false;
         }
+        dirtyCount = 0;
         tagCompound.setTag("dimensions", lst);
         return tagCompound;
     }
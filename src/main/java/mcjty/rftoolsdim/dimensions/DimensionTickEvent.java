@@ -4,7 +4,6 @@ import mcjty.lib.tools.WorldTools;
 import mcjty.rftoolsdim.RFToolsDim;
 import mcjty.rftoolsdim.config.GeneralConfiguration;
 import mcjty.rftoolsdim.config.PowerConfiguration;
-import mcjty.rftoolsdim.dimensions.description.DimensionDescriptor;
 import mcjty.rftoolsdim.dimensions.dimlets.types.Patreons;
 import mcjty.rftoolsdim.dimensions.types.EffectType;
 import net.minecraft.entity.item.EntityFireworkRocket;
@@ -61,38 +60,40 @@ public class DimensionTickEvent {
 
         if (!dimensionManager.getDimensions().isEmpty()) {
             DimensionStorage dimensionStorage = DimensionStorage.getDimensionStorage(entityWorld);
+            dimensionStorage.startStep(entityWorld.getTotalWorldTime() / MAXTICKS, dimensionManager);
 
-            for (Map.Entry<Integer, DimensionDescriptor> entry : dimensionManager.getDimensions().entrySet()) {
-                Integer id = entry.getKey();
-                // If there is an activity probe we only drain power if the dimension is loaded (a player is there or a chunkloader)
+            // Only loaded dimensions are handled here. Dimensions that are not loaded are drained by
+            // the storage itself the next time their energy is needed.
+            for (WorldServer world : DimensionManager.getWorlds()) {
+                int id = world.provider.getDimension();
                 DimensionInformation information = dimensionManager.getDimensionInformation(id);
+                if (information == null) {
+                    continue;
+                }
+                // If there is an activity probe we only drain power if the dimension is loaded (a player is there or a chunkloader)
                 if (!information.isCheater()) {
-                    WorldServer world = DimensionManager.getWorld(id);
-
                     // Power handling.
-                    if ((world != null && world.getChunkProvider().getLoadedChunkCount() > 0) || information.getProbeCounter() == 0) {
-                        handlePower(doEffects, dimensionStorage, entry, id, information);
+                    if (world.getChunkProvider().getLoadedChunkCount() > 0 || information.getProbeCounter() == 0) {
+                        handlePower(doEffects, dimensionStorage, world, id, information);
                     }
 
                     // Special effect handling.
-                    if (world != null && !world.playerEntities.isEmpty()) {
+                    if (!world.playerEntities.isEmpty()) {
                         handleRandomEffects(world, information);
                     }
                 }
+
+                if (!world.playerEntities.isEmpty()) {
+                    DimensionEnergySync.update(world, id, dimensionStorage.getEnergyLevel(id));
+                }
             }
 
             dimensionStorage.save(entityWorld);
         }
     }
 
-    private void handlePower(boolean doEffects, DimensionStorage dimensionStorage, Map.Entry<Integer, DimensionDescriptor> entry, Integer id, DimensionInformation information) {
-        int cost = 0;
-        if (PowerConfiguration.dimensionDifficulty != -1) {
-            cost = information.getActualRfCost();
-            if (cost == 0) {
-                cost = entry.getValue().getRfMaintainCost();
-            }
-        }
+    private void handlePower(boolean doEffects, DimensionStorage dimensionStorage, WorldServer world, int id, DimensionInformation information) {
+        int cost = dimensionStorage.getMaintainCost(id);
 
         int power = dimensionStorage.getEnergyLevel(id);
         power -= cost * MAXTICKS;
@@ -100,12 +101,12 @@ public class DimensionTickEvent {
             power = 0;
         }
 
-        handleLowPower(id, power, doEffects, cost);
+        handleLowPower(world, power, doEffects, cost);
         if (doEffects && power > 0) {
-            handleEffectsForDimension(power, id, information);
+            handleEffectsForDimension(world, power, information);
         }
 
-        dimensionStorage.setEnergyLevel(id, power);
+        dimensionStorage.setEnergyLevelForStep(id, power);
     }
 
     private void handleRandomEffects(WorldServer world, DimensionInformation information) {
@@ -376,83 +377,76 @@ public class DimensionTickEvent {
     }
 
 
-    private void handleEffectsForDimension(int power, int id, DimensionInformation information) {
+    private void handleEffectsForDimension(WorldServer world, int power, DimensionInformation information) {
         getPotions();
-        WorldServer world = DimensionManager.getWorld(id);
-        if (world != null) {
-            Set<EffectType> effects = information.getEffectTypes();
-            List<EntityPlayer> players = new ArrayList<EntityPlayer>(world.playerEntities);
-            for (EntityPlayer player : players) {
-                for (EffectType effect : effects) {
-                    Potion potionEffect = effectsMap.get(effect);
-                    if (potionEffect != null) {
-                        Integer amplifier = effectAmplifierMap.get(effect);
-                        if (amplifier == null) {
-                            amplifier = 0;
-                        }
-                        player.addPotionEffect(new PotionEffect(potionEffect, EFFECTS_MAX*MAXTICKS*3, amplifier, true, true));
-                    } else if (effect == EffectType.EFFECT_FLIGHT) {
-//                        BuffProperties.addBuff(player, PlayerBuff.BUFF_FLIGHT, EFFECTS_MAX * MAXTICKS * 2);
-                        // @todo
+        Set<EffectType> effects = information.getEffectTypes();
+        List<EntityPlayer> players = new ArrayList<EntityPlayer>(world.playerEntities);
+        for (EntityPlayer player : players) {
+            for (EffectType effect : effects) {
+                Potion potionEffect = effectsMap.get(effect);
+                if (potionEffect != null) {
+                    Integer amplifier = effectAmplifierMap.get(effect);
+                    if (amplifier == null) {
+                        amplifier = 0;
                     }
-                }
-                if (power < PowerConfiguration.DIMPOWER_WARN3) {
-                    // We are VERY low on power. Start bad effects.
-                    player.addPotionEffect(new PotionEffect(moveSlowdown, EFFECTS_MAX*MAXTICKS, 4, true, true));
-                    player.addPotionEffect(new PotionEffect(digSlowdown, EFFECTS_MAX*MAXTICKS, 4, true, true));
-                    player.addPotionEffect(new PotionEffect(poison, EFFECTS_MAX*MAXTICKS, 2, true, true));
-                    player.addPotionEffect(new PotionEffect(hunger, EFFECTS_MAX*MAXTICKS, 2, true, true));
-                } else if (power < PowerConfiguration.DIMPOWER_WARN2) {
-                    player.addPotionEffect(new PotionEffect(moveSlowdown, EFFECTS_MAX*MAXTICKS, 2, true, true));
-                    player.addPotionEffect(new PotionEffect(digSlowdown, EFFECTS_MAX*MAXTICKS, 2, true, true));
-                    player.addPotionEffect(new PotionEffect(hunger, EFFECTS_MAX*MAXTICKS, 1, true, true));
-                } else if (power < PowerConfiguration.DIMPOWER_WARN1) {
-                    player.addPotionEffect(new PotionEffect(moveSlowdown, EFFECTS_MAX*MAXTICKS, 0, true, true));
-                    player.addPotionEffect(new PotionEffect(digSlowdown, EFFECTS_MAX*MAXTICKS, 0, true, true));
+                    player.addPotionEffect(new PotionEffect(potionEffect, EFFECTS_MAX*MAXTICKS*3, amplifier, true, true));
+                } else if (effect == EffectType.EFFECT_FLIGHT) {
+//                    BuffProperties.addBuff(player, PlayerBuff.BUFF_FLIGHT, EFFECTS_MAX * MAXTICKS * 2);
+                    // @todo
                 }
             }
-
+            if (power < PowerConfiguration.DIMPOWER_WARN3) {
+                // We are VERY low on power. Start bad effects.
+                player.addPotionEffect(new PotionEffect(moveSlowdown, EFFECTS_MAX*MAXTICKS, 4, true, true));
+                player.addPotionEffect(new PotionEffect(digSlowdown, EFFECTS_MAX*MAXTICKS, 4, true, true));
+                player.addPotionEffect(new PotionEffect(poison, EFFECTS_MAX*MAXTICKS, 2, true, true));
+                player.addPotionEffect(new PotionEffect(hunger, EFFECTS_MAX*MAXTICKS, 2, true, true));
+            } else if (power < PowerConfiguration.DIMPOWER_WARN2) {
+                player.addPotionEffect(new PotionEffect(moveSlowdown, EFFECTS_MAX*MAXTICKS, 2, true, true));
+                player.addPotionEffect(new PotionEffect(digSlowdown, EFFECTS_MAX*MAXTICKS, 2, true, true));
+                player.addPotionEffect(new PotionEffect(hunger, EFFECTS_MAX*MAXTICKS, 1, true, true));
+            } else if (power < PowerConfiguration.DIMPOWER_WARN1) {
+                player.addPotionEffect(new PotionEffect(moveSlowdown, EFFECTS_MAX*MAXTICKS, 0, true, true));
+                player.addPotionEffect(new PotionEffect(digSlowdown, EFFECTS_MAX*MAXTICKS, 0, true, true));
+            }
         }
     }
 
-    private void handleLowPower(Integer id, int power, boolean doEffects, int phasedCost) {
+    private void handleLowPower(WorldServer world, int power, boolean doEffects, int phasedCost) {
         getPotions();
         if (power <= 0) {
             // We ran out of power!
-            WorldServer world = DimensionManager.getWorld(id);
-            if (world != null) {
-                List<EntityPlayer> players = new ArrayList<EntityPlayer>(world.playerEntities);
-                if (PowerConfiguration.dimensionDifficulty >= 1) {
-                    for (EntityPlayer player : players) {
-                        if (!RfToolsDimensionManager.checkValidPhasedFieldGenerator(player, true, phasedCost)) {
-                            player.attackEntityFrom(new DamageSourcePowerLow("powerLow"), 1000000.0f);
-                        } else {
-                            if (doEffects && PowerConfiguration.phasedFieldGeneratorDebuf) {
-                                player.addPotionEffect(new PotionEffect(moveSlowdown, EFFECTS_MAX * MAXTICKS, 4, true, true));
-                                player.addPotionEffect(new PotionEffect(digSlowdown, EFFECTS_MAX * MAXTICKS, 2, true, true));
-                                player.addPotionEffect(new PotionEffect(hunger, EFFECTS_MAX * MAXTICKS, 2, true, true));
-                            }
+            List<EntityPlayer> players = new ArrayList<EntityPlayer>(world.playerEntities);
+            if (PowerConfiguration.dimensionDifficulty >= 1) {
+                for (EntityPlayer player : players) {
+                    if (!RfToolsDimensionManager.checkValidPhasedFieldGenerator(player, true, phasedCost)) {
+                        player.attackEntityFrom(new DamageSourcePowerLow("powerLow"), 1000000.0f);
+                    } else {
+                        if (doEffects && PowerConfiguration.phasedFieldGeneratorDebuf) {
+                            player.addPotionEffect(new PotionEffect(moveSlowdown, EFFECTS_MAX * MAXTICKS, 4, true, true));
+                            player.addPotionEffect(new PotionEffect(digSlowdown, EFFECTS_MAX * MAXTICKS, 2, true, true));
+                            player.addPotionEffect(new PotionEffect(hunger, EFFECTS_MAX * MAXTICKS, 2, true, true));
                         }
                     }
-                } else {
-                    Random random = new Random();
-                    for (EntityPlayer player : players) {
-                        if (!RfToolsDimensionManager.checkValidPhasedFieldGenerator(player, true, phasedCost)) {
-                            WorldServer worldServerForDimension = player.getEntityWorld().getMinecraftServer().worldServerForDimension(GeneralConfiguration.spawnDimension);
-                            int x = random.nextInt(2000) - 1000;
-                            int z = random.nextInt(2000) - 1000;
-                            int y = worldServerForDimension.getTopSolidOrLiquidBlock(new BlockPos(x, 0, z)).getY();
-                            if (y == -1) {
-                                y = 63;
-                            }
-
-                            RFToolsDim.teleportationManager.teleportPlayer(player, GeneralConfiguration.spawnDimension, new BlockPos(x, y, z));
-                        } else {
-                            if (doEffects) {
-                                player.addPotionEffect(new PotionEffect(moveSlowdown, EFFECTS_MAX * MAXTICKS, 4, true, true));
-                                player.addPotionEffect(new PotionEffect(digSlowdown, EFFECTS_MAX * MAXTICKS, 4, true, true));
-                                player.addPotionEffect(new PotionEffect(hunger, EFFECTS_MAX * MAXTICKS, 2, true, true));
-                            }
+                }
+            } else {
+                Random random = new Random();
+                for (EntityPlayer player : players) {
+                    if (!RfToolsDimensionManager.checkValidPhasedFieldGenerator(player, true, phasedCost)) {
+                        WorldServer worldServerForDimension = player.getEntityWorld().getMinecraftServer().worldServerForDimension(GeneralConfiguration.spawnDimension);
+                        int x = random.nextInt(2000) - 1000;
+                        int z = random.nextInt(2000) - 1000;
+                        int y = worldServerForDimension.getTopSolidOrLiquidBlock(new BlockPos(x, 0, z)).getY();
+                        if (y == -1) {
+                            y = 63;
+                        }
+
+                        RFToolsDim.teleportationManager.teleportPlayer(player, GeneralConfiguration.spawnDimension, new BlockPos(x, y, z));
+                    } else {
+                        if (doEffects) {
+                            player.addPotionEffect(new PotionEffect(moveSlowdown, EFFECTS_MAX * MAXTICKS, 4, true, true));
+                            player.addPotionEffect(new PotionEffect(digSlowdown, EFFECTS_MAX * MAXTICKS, 4, true, true));
+                            player.addPotionEffect(new PotionEffect(hunger, EFFECTS_MAX * MAXTICKS, 2, true, true));
                         }
                     }
                 }
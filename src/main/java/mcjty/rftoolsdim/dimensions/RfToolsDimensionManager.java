@@ -10,9 +10,10 @@ import mcjty.rftoolsdim.dimensions.description.DimensionDescriptor;
 import mcjty.rftoolsdim.items.ModItems;
 import mcjty.rftoolsdim.items.PhasedFieldGeneratorItem;
 import mcjty.rftoolsdim.network.PacketRegisterDimensions;
-import mcjty.rftoolsdim.network.PacketSyncDimensionInfo;
 import mcjty.rftoolsdim.network.PacketSyncRules;
 import mcjty.rftoolsdim.network.RFToolsDimMessages;
+import mcjty.rftoolsdim.varia.IntIntMap;
+import mcjty.rftoolsdim.varia.IntObjectMap;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -36,12 +37,19 @@ public class RfToolsDimensionManager extends WorldSavedData {
     public static final String DIMMANAGER_NAME = "RFToolsDimensionManager";
     private static RfToolsDimensionManager instance = null;
 
-    private final Map<Integer, DimensionDescriptor> dimensions = new HashMap<Integer, DimensionDescriptor>();
+    // Dimension ids are looked up for every chunk and every tick so these maps don't box the id
+    private final IntObjectMap<DimensionDescriptor> dimensions = new IntObjectMap<>();
     private final Map<DimensionDescriptor, Integer> dimensionToID = new HashMap<DimensionDescriptor, Integer>();
-    private final Map<Integer, DimensionInformation> dimensionInformation = new HashMap<Integer, DimensionInformation>();
+    private final IntObjectMap<DimensionInformation> dimensionInformation = new IntObjectMap<>();
 
     private final Set<Integer> reclaimedIds = new HashSet<Integer>();
 
+    // Every change to a dimension gets a new revision so that only changed dimensions have to be
+    // sent to the clients. This is not saved: after a restart all clients start from scratch anyway
+    private int revision = 0;
+    private final IntIntMap changedRevisions = new IntIntMap();
+    private final IntIntMap removedRevisions = new IntIntMap();
+
     public void syncFromServer(Map<Integer, DimensionDescriptor> dims, Map<Integer, DimensionInformation> dimInfo) {
         for (Map.Entry<Integer, DimensionDescriptor> entry : dims.entrySet()) {
             int id = entry.getKey();
@@ -106,6 +114,7 @@ public class RfToolsDimensionManager extends WorldSavedData {
     public void save(World world) {
         world.getMapStorage().setData(DIMMANAGER_NAME, this);
         markDirty();
+        DimensionStorage.getDimensionStorage(world).invalidateCosts();
 
         syncDimInfoToClients(world);
     }
@@ -255,10 +264,74 @@ public class RfToolsDimensionManager extends WorldSavedData {
 
     public void syncDimInfoToClients(World world) {
         if (!world.isRemote) {
-            // Sync to clients.
-            Logging.log("Sync dimension info to clients!");
-            RFToolsDimMessages.INSTANCE.sendToAll(new PacketSyncDimensionInfo(dimensions, dimensionInformation));
+            // Only the dimensions that changed since the last sync are sent
+            DimensionInfoSync.syncChanges(world.getMinecraftServer(), this);
+        }
+    }
+
+    /**
+     * Call this after changing a dimension (its descriptor or information) so that
+     * the change is sent to the clients on the next save.
+     */
+    public void markChanged(int id) {
+        revision++;
+        changedRevisions.put(id, revision);
+        removedRevisions.remove(id);
+    }
+
+    private void markRemoved(int id) {
+        revision++;
+        changedRevisions.remove(id);
+        removedRevisions.put(id, revision);
+    }
+
+    public int getRevision() {
+        return revision;
+    }
+
+    /**
+     * Return the ids of all dimensions that changed after the given revision.
+     */
+    public int[] getChangedSince(int since) {
+        return getIdsSince(changedRevisions, since);
+    }
+
+    /**
+     * Return the ids of all dimensions that were removed after the given revision.
+     */
+    public int[] getRemovedSince(int since) {
+        return getIdsSince(removedRevisions, since);
+    }
+
+    private static int[] getIdsSince(IntIntMap revisions, int since) {
+        int[] ids = revisions.keys();
+        int cnt = 0;
+        for (int id : ids) {
+            if (revisions.get(id, 0) > since) {
+                ids[cnt++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, cnt);
+    }
+
+    /**
+     * Remove a dimension from a client side manager. This does not unregister the dimension.
+     */
+    public void forgetDimension(int id) {
+        DimensionDescriptor descriptor = dimensions.remove(id);
+        if (descriptor != null) {
+            dimensionToID.remove(descriptor);
         }
+        dimensionInformation.remove(id);
+    }
+
+    /**
+     * Remove all dimensions from a client side manager.
+     */
+    public void forgetDimensions() {
+        dimensions.clear();
+        dimensionToID.clear();
+        dimensionInformation.clear();
     }
 
     public Map<Integer, DimensionDescriptor> getDimensions() {
@@ -334,6 +407,7 @@ public class RfToolsDimensionManager extends WorldSavedData {
         dimensions.remove(id);
         dimensionToID.remove(descriptor);
         dimensionInformation.remove(id);
+        markRemoved(id);
         if (DimensionManager.isDimensionRegistered(id)) {
             DimensionManager.unregisterDimension(id);
         }
@@ -349,6 +423,7 @@ public class RfToolsDimensionManager extends WorldSavedData {
         dimensions.put(id, descriptor);
         dimensionToID.put(descriptor, id);
         dimensionInformation.put(id, dimensionInfo);
+        markChanged(id);
 
         save(world);
         touchSpawnChunk(world, id);
@@ -396,6 +471,7 @@ public class RfToolsDimensionManager extends WorldSavedData {
             Logging.logError("Something went wrong during creation of the dimension!");
             e.printStackTrace();
         }
+        markChanged(id);
 
         save(world);
 
@@ -451,7 +527,7 @@ public class RfToolsDimensionManager extends WorldSavedData {
         for (Map.Entry<Integer,DimensionDescriptor> me : dimensions.entrySet()) {
             NBTTagCompound tc = new NBTTagCompound();
 
-            Integer id = me.getKey();
+            int id = me.getKey();
             tc.setInteger("id", id);
             me.getValue().writeToNBT(tc);
             DimensionInformation dimensionInfo = dimensionInformation.get(id);
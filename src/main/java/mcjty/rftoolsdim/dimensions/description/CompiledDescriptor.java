@@ -0,0 +1,240 @@
+package mcjty.rftoolsdim.dimensions.description;
+
+import mcjty.rftoolsdim.config.PowerConfiguration;
+import mcjty.rftoolsdim.config.Settings;
+import mcjty.rftoolsdim.dimensions.dimlets.DimletCosts;
+import mcjty.rftoolsdim.dimensions.dimlets.DimletKey;
+import mcjty.rftoolsdim.dimensions.dimlets.KnownDimletConfiguration;
+import mcjty.rftoolsdim.dimensions.dimlets.types.DimletType;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.*;
+
+/**
+ * A description string parsed once: the dimlets with their modifiers, the modifiers that
+ * were not used and the costs of the dimension. Compiled descriptors are immutable and shared
+ * through a small cache so that the GUI, tooltips and machines that work with the same
+ * description don't parse it again. The cache is cleared when the dimlet settings change
+ * because the costs depend on them.
+ */
+public class CompiledDescriptor {
+
+    private static final int MAX_CACHED = 256;
+
+    private static final Map<String, CompiledDescriptor> cache = new LinkedHashMap<String, CompiledDescriptor>(64, .75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledDescriptor> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+
+    private final String descriptionString;
+
+    // All dimlets in the description in order (including modifiers)
+    private final List<DimletKey> keys;
+    // All non-modifier dimlets with their modifiers
+    private final List<Pair<DimletKey, List<DimletKey>>> dimletsWithModifiers;
+    private final List<DimletKey> unusedModifiers;
+
+    private final int rfCreateCost;
+    private final int rfMaintainCost;
+    private final int tickCost;
+    private final int nominalCost;
+
+    public static CompiledDescriptor get(String descriptionString) {
+        if (descriptionString == null) {
+            descriptionString = "";
+        }
+        synchronized (cache) {
+            CompiledDescriptor compiled = cache.get(descriptionString);
+            if (compiled == null) {
+                compiled = new CompiledDescriptor(descriptionString);
+                cache.put(descriptionString, compiled);
+            }
+            return compiled;
+        }
+    }
+
+    public static void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private CompiledDescriptor(String descriptionString) {
+        this.descriptionString = descriptionString;
+
+        List<DimletKey> keys = new ArrayList<>();
+        List<Pair<DimletKey, List<DimletKey>>> dimlets = new ArrayList<>();
+        List<DimletKey> unused = new ArrayList<>();
+
+        String ds = descriptionString.startsWith("@") ? descriptionString.substring(1) : descriptionString;
+        if (!ds.isEmpty()) {
+            List<DimletKey> modifiers = new ArrayList<>();
+            for (String oc : StringUtils.split(ds, ",")) {
+                DimletKey key;
+                if (oc.startsWith("#")) {
+                    // First comes '#', then the type of the actual dimlet.
+                    key = DimletKey.parseKey(oc.substring(1));
+                    modifiers.add(key);
+                } else if (oc.startsWith("?")) {
+                    // First comes '?', then the type of the actual dimlet
+                    key = DimletKey.parseKey(oc.substring(1));
+                    unused.add(key);
+                } else {
+                    key = DimletKey.parseKey(oc);
+                    dimlets.add(Pair.of(key, Collections.unmodifiableList(modifiers)));
+                    modifiers = new ArrayList<>();
+                }
+                keys.add(key);
+            }
+        }
+
+        this.keys = Collections.unmodifiableList(keys);
+        this.dimletsWithModifiers = Collections.unmodifiableList(dimlets);
+        this.unusedModifiers = Collections.unmodifiableList(unused);
+
+        tickCost = calculateTickCost();
+        rfCreateCost = calculateCreationRfCost();
+        nominalCost = calculateMaintenanceRfCost();
+
+        int rf = nominalCost;
+        int rfGain = calculateBonus();
+        if (rfGain > 0) {
+            int rfMinimum = Math.max(10, rf * PowerConfiguration.minimumCostPercentage / 100);
+            rf = rf - (rf * rfGain / 100);
+            if (rf < rfMinimum) {
+                rf = rfMinimum;        // Never consume less then this
+            }
+        }
+        rfMaintainCost = rf;
+    }
+
+    public String getDescriptionString() {
+        return descriptionString;
+    }
+
+    public List<DimletKey> getKeys() {
+        return keys;
+    }
+
+    public List<Pair<DimletKey, List<DimletKey>>> getDimletsWithModifiers() {
+        return dimletsWithModifiers;
+    }
+
+    public List<DimletKey> getUnusedModifiers() {
+        return unusedModifiers;
+    }
+
+    public int getRfCreateCost() {
+        return rfCreateCost;
+    }
+
+    public int getRfMaintainCost() {
+        return rfMaintainCost;
+    }
+
+    public int getTickCost() {
+        return tickCost;
+    }
+
+    // The maintenance cost of this dimension without taking bonus dimlets into account.
+    public int getNominalCost() {
+        return nominalCost;
+    }
+
+    private static Settings getSettings(DimletKey key) {
+        return KnownDimletConfiguration.getSettings(key);
+    }
+
+    private static int getCreationCost(DimletKey key) {
+        Settings settings = getSettings(key);
+        return settings == null ? 0 : settings.getCreateCost();
+    }
+
+    private static int getMaintenanceCost(DimletKey key) {
+        Settings settings = getSettings(key);
+        return settings == null ? 0 : settings.getMaintainCost();
+    }
+
+    private static int getTickCost(DimletKey key) {
+        Settings settings = getSettings(key);
+        return settings == null ? 0 : settings.getTickCost();
+    }
+
+    private int calculateCreationRfCost() {
+        int rf = DimletCosts.baseDimensionCreationCost;
+
+        for (Pair<DimletKey, List<DimletKey>> dimletWithModifier : dimletsWithModifiers) {
+            DimletKey key = dimletWithModifier.getLeft();
+            DimletType type = key.getType();
+
+            for (DimletKey modifier : dimletWithModifier.getRight()) {
+                float mult = type.dimletType.getModifierCreateCostFactor(modifier.getType(), key);
+                rf += (int) (getCreationCost(modifier) * mult);
+            }
+
+            rf += getCreationCost(key);
+        }
+
+        for (DimletKey modifier : unusedModifiers) {
+            rf += getCreationCost(modifier);
+        }
+
+        return rf;
+    }
+
+    // Calculate the maintenance cost of a dimension without bonus dimlets.
+    private int calculateMaintenanceRfCost() {
+        int rf = DimletCosts.baseDimensionMaintenanceCost;
+
+        for (Pair<DimletKey, List<DimletKey>> dimletWithModifier : dimletsWithModifiers) {
+            DimletKey key = dimletWithModifier.getLeft();
+            DimletType type = key.getType();
+
+            for (DimletKey modifier : dimletWithModifier.getRight()) {
+                float mult = type.dimletType.getModifierMaintainCostFactor(modifier.getType(), key);
+                rf += (int) (getMaintenanceCost(modifier) * mult);
+            }
+
+            int c = getMaintenanceCost(key);
+            if (c > 0) {
+                rf += c;
+            }
+        }
+
+        return rf;
+    }
+
+    private int calculateBonus() {
+        int rfGain = 0;
+
+        for (Pair<DimletKey, List<DimletKey>> dimletWithModifier : dimletsWithModifiers) {
+            int c = getMaintenanceCost(dimletWithModifier.getLeft());
+            if (c < 0) {
+                rfGain -= c;        // This dimlet gives a bonus in cost. This value is a percentage.
+            }
+        }
+
+        return rfGain;
+    }
+
+    private int calculateTickCost() {
+        int ticks = DimletCosts.baseDimensionTickCost;
+
+        for (Pair<DimletKey, List<DimletKey>> dimletWithModifier : dimletsWithModifiers) {
+            DimletKey key = dimletWithModifier.getLeft();
+            DimletType type = key.getType();
+
+            for (DimletKey modifier : dimletWithModifier.getRight()) {
+                float mult = type.dimletType.getModifierTickCostFactor(modifier.getType(), key);
+                ticks += (int) (getTickCost(modifier) * mult);
+            }
+
+            ticks += getTickCost(key);
+        }
+
+        return ticks;
+    }
+}
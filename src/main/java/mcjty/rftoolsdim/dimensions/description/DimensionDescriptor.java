@@ -1,19 +1,13 @@
 package mcjty.rftoolsdim.dimensions.description;
 
-import mcjty.rftoolsdim.config.PowerConfiguration;
-import mcjty.rftoolsdim.config.Settings;
-import mcjty.rftoolsdim.dimensions.dimlets.DimletCosts;
 import mcjty.rftoolsdim.dimensions.dimlets.DimletKey;
-import mcjty.rftoolsdim.dimensions.dimlets.KnownDimletConfiguration;
 import mcjty.rftoolsdim.dimensions.dimlets.types.DimletType;
 import net.minecraft.nbt.NBTTagCompound;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 /**
  * A unique descriptor of a dimension.
@@ -41,19 +35,11 @@ public class DimensionDescriptor {
 
         descriptionString = s.toString();
 
-        tickCost = calculateTickCost(dimlets);
-        rfCreateCost = calculateCreationRfCost(dimlets, currentModifiers, tickCost);
-
-        int rf = calculateMaintenanceRfCost(dimlets);
-        int rfGain = calculateBonus(dimlets);
-        if (rfGain > 0) {
-            int rfMinimum = Math.max(10, rf * PowerConfiguration.minimumCostPercentage / 100);
-            rf = rf - (rf * rfGain / 100);
-            if (rf < rfMinimum) {
-                rf = rfMinimum;        // Never consume less then this
-            }
-        }
-        rfMaintainCost = rf;
+        // The description string has the same grouping so the compiled form has the same costs
+        CompiledDescriptor compiled = CompiledDescriptor.get(descriptionString);
+        tickCost = compiled.getTickCost();
+        rfCreateCost = compiled.getRfCreateCost();
+        rfMaintainCost = compiled.getRfMaintainCost();
     }
 
     private void constructDescriptionStringNew(StringBuilder s, List<Pair<DimletKey,List<DimletKey>>> dimlets, List<DimletKey> currentModifiers) {
@@ -119,63 +105,27 @@ public class DimensionDescriptor {
         forcedSeed = tagCompound.getLong("forcedSeed");
     }
 
-    public List<Pair<DimletKey,List<DimletKey>>> getDimletsWithModifiers() {
-        List<Pair<DimletKey,List<DimletKey>>> result = new ArrayList<Pair<DimletKey, List<DimletKey>>>();
-
-        String ds = descriptionString;
-        if (ds.startsWith("@")) {
-            ds = ds.substring(1);
-        }
-
-        if (!ds.isEmpty()) {
-            List<DimletKey> modifiers = new ArrayList<DimletKey>();
+    /**
+     * The parsed form of the description string. This is not kept in the descriptor because
+     * the costs in it change when the dimlet settings change.
+     */
+    public CompiledDescriptor getCompiled() {
+        return CompiledDescriptor.get(descriptionString);
+    }
 
-            String[] opcodes = StringUtils.split(ds, ",");
-            for (String oc : opcodes) {
-                DimletKey key;
-                if (oc.startsWith("#")) {
-                    // First comes '#', then the type of the actual dimlet.
-                    key = DimletKey.parseKey(oc.substring(1));
-                    modifiers.add(key);
-                } else if (oc.startsWith("?")) {
-                } else {
-                    key = DimletKey.parseKey(oc);
-                    result.add(Pair.of(key, modifiers));
-                    modifiers = new ArrayList<DimletKey>();
-                }
-            }
-        }
-        return result;
+    public List<Pair<DimletKey,List<DimletKey>>> getDimletsWithModifiers() {
+        return getCompiled().getDimletsWithModifiers();
     }
 
     public static List<DimletKey> parseDescriptionString(String descriptionString) {
         if (descriptionString == null || descriptionString.isEmpty()) {
             return Collections.emptyList();
         }
-        List<DimletKey> result = new ArrayList<>();
-        String ds = descriptionString.substring(1);
-        if (!ds.isEmpty()) {
-            String[] opcodes = StringUtils.split(ds, ",");
-            for (String oc : opcodes) {
-                DimletKey key;
-                if (oc.startsWith("#")) {
-                    // First comes '#', then the type of the actual dimlet.
-                    key = DimletKey.parseKey(oc.substring(1));
-                } else if (oc.startsWith("?")) {
-                    // First comes '?', then the type of the actual dimlet
-                    key = DimletKey.parseKey(oc.substring(1));
-                } else {
-                    key = DimletKey.parseKey(oc);
-                }
-                result.add(key);
-            }
-        }
-        return result;
+        return CompiledDescriptor.get(descriptionString).getKeys();
     }
 
     public long calculateSeed(long seed) {
-        List<DimletKey> dimletDescriptors = parseDescriptionString(descriptionString);
-        for (DimletKey key : dimletDescriptors) {
+        for (DimletKey key : getCompiled().getKeys()) {
             if (key.getId() != null) {
                 seed = 31 * seed + key.getId().hashCode();
             }
@@ -212,145 +162,9 @@ public class DimensionDescriptor {
         tagCompound.setLong("forcedSeed", forcedSeed);
     }
 
-    private int getModifierMultiplier(Map<Pair<DimletType,DimletType>,Integer> modifierMap, DimletType type1, DimletType type2) {
-        Integer multiplier = modifierMap.get(Pair.of(type1, type2));
-        if (multiplier == null) {
-            return 1;
-        }
-        return multiplier;
-    }
-
-    private int getCreationCost(DimletType type, DimletKey key) {
-        int cost = 0;
-        Settings settings = KnownDimletConfiguration.getSettings(key);
-        if (settings != null) {
-            cost = settings.getCreateCost();
-        }
-        return cost;
-    }
-
-    private int calculateCreationRfCost(List<Pair<DimletKey,List<DimletKey>>> dimlets, List<DimletKey> unusedModifiers, int tickCost) {
-        int rf = DimletCosts.baseDimensionCreationCost;
-
-        for (Pair<DimletKey, List<DimletKey>> dimletWithModifier : dimlets) {
-            DimletKey key = dimletWithModifier.getLeft();
-            DimletType type = key.getType();
-
-            List<DimletKey> list = dimletWithModifier.getRight();
-            if (list != null) {
-                for (DimletKey modifier : list) {
-                    float mult = type.dimletType.getModifierCreateCostFactor(modifier.getType(), key);
-                    rf += (int) (getCreationCost(modifier.getType(), modifier) * mult);
-                }
-            }
-
-            rf += getCreationCost(type, key);
-        }
-
-        for (DimletKey modifier : unusedModifiers) {
-            rf += getCreationCost(modifier.getType(), modifier);
-        }
-
-        // Compensate createCost for the cost to fill the matter receiver at the destination end.
-//        rf += TeleportConfiguration.RECEIVER_MAXENERGY / tickCost;
-        //@todo
-
-        return rf;
-    }
-
-    private int getMaintenanceCost(DimletType type, DimletKey key) {
-        int cost = 0;
-        Settings settings = KnownDimletConfiguration.getSettings(key);
-        if (settings != null) {
-            cost = settings.getMaintainCost();
-        }
-        return cost;
-    }
-
     // Calculate the cost of this dimension without taking bonus dimlets into account.
     public int calculateNominalCost() {
-        List<DimletKey> dimletKeys = parseDescriptionString(descriptionString);
-
-        // List of all non-modifier dimlets with all associated modifiers.
-        List<Pair<DimletKey,List<DimletKey>>> dimlets = new ArrayList<Pair<DimletKey, List<DimletKey>>>();
-
-        // A list of all current modifier that haven't been fitted into a type yet.
-        List<DimletKey> currentModifiers = new ArrayList<DimletKey>();
-
-        groupDimletsAndModifiers(dimletKeys, dimlets, currentModifiers);
-
-        return calculateMaintenanceRfCost(dimlets);
-    }
-
-    // Calculate the maintenance cost of a dimension without bonus dimlets.
-    private int calculateMaintenanceRfCost(List<Pair<DimletKey,List<DimletKey>>> dimlets) {
-        int rf = DimletCosts.baseDimensionMaintenanceCost;
-
-        for (Pair<DimletKey, List<DimletKey>> dimletWithModifier : dimlets) {
-            DimletKey key = dimletWithModifier.getLeft();
-            DimletType type = key.getType();
-
-            List<DimletKey> list = dimletWithModifier.getRight();
-            if (list != null) {
-                for (DimletKey modifier : list) {
-                    float mult = type.dimletType.getModifierMaintainCostFactor(modifier.getType(), key);
-                    rf += (int) (getMaintenanceCost(modifier.getType(), modifier) * mult);
-                }
-            }
-
-            int c = getMaintenanceCost(type, key);
-            if (c > 0) {
-                rf += c;
-            }
-        }
-
-        return rf;
-    }
-
-    private int calculateBonus(List<Pair<DimletKey,List<DimletKey>>> dimlets) {
-        int rfGain = 0;
-
-        for (Pair<DimletKey, List<DimletKey>> dimletWithModifier : dimlets) {
-            DimletKey key = dimletWithModifier.getLeft();
-            DimletType type = key.getType();
-
-            int c = getMaintenanceCost(type, key);
-            if (c < 0) {
-                rfGain -= c;        // This dimlet gives a bonus in cost. This value is a percentage.
-            }
-        }
-
-        return rfGain;
-    }
-
-    private int getTickCost(DimletType type, DimletKey key) {
-        int cost = 0;
-        Settings settings = KnownDimletConfiguration.getSettings(key);
-        if (settings != null) {
-            cost = settings.getTickCost();
-        }
-        return cost;
-    }
-
-    private int calculateTickCost(List<Pair<DimletKey,List<DimletKey>>> dimlets) {
-        int ticks = DimletCosts.baseDimensionTickCost;
-
-        for (Pair<DimletKey, List<DimletKey>> dimletWithModifier : dimlets) {
-            DimletKey key = dimletWithModifier.getLeft();
-            DimletType type = key.getType();
-
-            List<DimletKey> list = dimletWithModifier.getRight();
-            if (list != null) {
-                for (DimletKey modifier : list) {
-                    float mult = type.dimletType.getModifierTickCostFactor(modifier.getType(), key);
-                    ticks += (int) (getTickCost(modifier.getType(), modifier) * mult);
-                }
-            }
-
-            ticks += getTickCost(type, key);
-        }
-
-        return ticks;
+        return getCompiled().getNominalCost();
     }
 
     @Override
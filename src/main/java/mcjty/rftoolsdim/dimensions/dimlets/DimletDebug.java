@@ -28,7 +28,7 @@ public class DimletDebug {
         if (block != null) {
             ResourceLocation nameForObject = Block.REGISTRY.getNameForObject(block);
             String mod = nameForObject.getResourceDomain();
-            DimletKey key = new DimletKey(DimletType.DIMLET_LIQUID, block.getRegistryName() + "@0");
+            DimletKey key = DimletKey.of(DimletType.DIMLET_LIQUID, block.getRegistryName() + "@0");
             Settings settings = DimletRules.getSettings(key, mod);
             Logging.log(key + ": " + settings.toString());
         }
@@ -56,7 +56,7 @@ public class DimletDebug {
             for (Map.Entry<IProperty<?>, Comparable<?>> entry : properties.entrySet()) {
                 props.put(entry.getKey().getName(), entry.getValue().toString());
             }
-            DimletKey key = new DimletKey(DimletType.DIMLET_MATERIAL, block.getRegistryName() + "@" + meta);
+            DimletKey key = DimletKey.of(DimletType.DIMLET_MATERIAL, block.getRegistryName() + "@" + meta);
             Settings settings = DimletRules.getSettings(key, mod, features, props);
             Logging.log(key + " (" + state.toString() + "): " + settings.toString());
         }
@@ -2,16 +2,73 @@ package mcjty.rftoolsdim.dimensions.dimlets;
 
 import mcjty.rftoolsdim.dimensions.dimlets.types.DimletType;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
 /**
 * Created by jorrit on 8/12/14.
+*
+* Keys are interned: there is only one DimletKey for every type/id so keys can be compared
+* by reference. Every key also has a small index (stable for the lifetime of the game)
+* so per key data can be kept in an array. A key can also remember the object (block, fluid,
+* biome) it was resolved to.
 */
 public class DimletKey {
+    // Marks a resolved object that was null
+    private static final Object NULL = new Object();
+
+    // All keys by type and id. Keys with a null id are kept separately
+    private static final Map<DimletType, Map<String, DimletKey>> keys = new ConcurrentHashMap<>();
+    private static final Map<DimletType, DimletKey> nullKeys = new ConcurrentHashMap<>();
+    private static int keyCount = 0;
+
     private final DimletType type;
     private final String id;
+    private final int index;
+    private final int hash;
+
+    private volatile Object resolved = null;
 
-    public DimletKey(DimletType type, String id) {
+    private DimletKey(DimletType type, String id, int index) {
         this.type = type;
         this.id = id;
+        this.index = index;
+        int result = type.hashCode();
+        if (id != null) {
+            result = 31 * result + id.hashCode();
+        }
+        this.hash = result;
+    }
+
+    /**
+     * Return the canonical key for this type and id.
+     */
+    public static DimletKey of(DimletType type, String id) {
+        DimletKey key = id == null ? nullKeys.get(type) : keys.computeIfAbsent(type, t -> new ConcurrentHashMap<>()).get(id);
+        if (key == null) {
+            key = create(type, id);
+        }
+        return key;
+    }
+
+    private static synchronized DimletKey create(DimletType type, String id) {
+        // Check again now that we have the lock
+        DimletKey key = id == null ? nullKeys.get(type) : keys.get(type).get(id);
+        if (key == null) {
+            key = new DimletKey(type, id, keyCount++);
+            if (id == null) {
+                nullKeys.put(type, key);
+            } else {
+                keys.get(type).put(id, key);
+            }
+        }
+        return key;
+    }
+
+    // All indices are smaller then this
+    public static synchronized int getKeyCount() {
+        return keyCount;
     }
 
     public DimletType getType() {
@@ -22,34 +79,33 @@ public class DimletKey {
         return id;
     }
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-        if (o == null || getClass() != o.getClass()) {
-            return false;
-        }
-
-        DimletKey dimletKey = (DimletKey) o;
+    public int getIndex() {
+        return index;
+    }
 
-        if (type != dimletKey.type) {
-            return false;
-        }
-        if (!id.equals(dimletKey.id)) {
-            return false;
+    /**
+     * Return the object this key resolves to. The resolver is only called the first time.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getResolved(Function<DimletKey, T> resolver) {
+        Object o = resolved;
+        if (o == null) {
+            T t = resolver.apply(this);
+            o = t == null ? NULL : t;
+            resolved = o;
         }
+        return o == NULL ? null : (T) o;
+    }
 
-        return true;
+    // Keys are interned so equality is identity
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
     }
 
     @Override
     public int hashCode() {
-        int result = type.hashCode();
-        if (id != null) {
-            result = 31 * result + id.hashCode();
-        }
-        return result;
+        return hash;
     }
 
     @Override
@@ -60,6 +116,6 @@ public class DimletKey {
     public static DimletKey parseKey(String skey) {
         String opcode = skey.substring(0, 1);
         String name = skey.substring(1);
-        return new DimletKey(DimletType.getTypeByOpcode(opcode), name);
+        return of(DimletType.getTypeByOpcode(opcode), name);
     }
 }
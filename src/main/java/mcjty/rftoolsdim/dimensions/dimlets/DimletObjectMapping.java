@@ -62,60 +62,67 @@ public class DimletObjectMapping {
 
     public static IBlockState getBlock(DimletKey dimlet) {
         if (DimletType.DIMLET_MATERIAL.equals(dimlet.getType())) {
-            String id = dimlet.getId();
-            // @todo temporary for people who accidently got an old Default dimlet
-            if (DimletObjectMapping.DEFAULT_ID.equals(id)) {
-                return Blocks.STONE.getDefaultState();
-            }
-            int lastIndexOf = StringUtils.lastIndexOf(id, "@");
-            String blockid;
-            int meta;
-            if (lastIndexOf == -1) {
-                blockid = id;
-                meta = 0;
-            } else {
-                blockid = id.substring(0, lastIndexOf);
-                meta = Integer.parseInt(id.substring(lastIndexOf + 1));
-            }
-
-            Block block = Block.REGISTRY.getObject(new ResourceLocation(blockid));
-            if (block == null) {
-                return null;
-            }
-            return block.getStateFromMeta(meta);
+            return dimlet.getResolved(DimletObjectMapping::resolveBlock);
         }
         return null;
     }
 
+    private static IBlockState resolveBlock(DimletKey dimlet) {
+        String id = dimlet.getId();
+        // @todo temporary for people who accidently got an old Default dimlet
+        if (DimletObjectMapping.DEFAULT_ID.equals(id)) {
+            return Blocks.STONE.getDefaultState();
+        }
+        int lastIndexOf = StringUtils.lastIndexOf(id, "@");
+        String blockid;
+        int meta;
+        if (lastIndexOf == -1) {
+            blockid = id;
+            meta = 0;
+        } else {
+            blockid = id.substring(0, lastIndexOf);
+            meta = Integer.parseInt(id.substring(lastIndexOf + 1));
+        }
+
+        Block block = Block.REGISTRY.getObject(new ResourceLocation(blockid));
+        if (block == null) {
+            return null;
+        }
+        return block.getStateFromMeta(meta);
+    }
+
     public static Block getFluid(DimletKey dimlet) {
         if (DimletType.DIMLET_LIQUID.equals(dimlet.getType())) {
-            String id = dimlet.getId();
-            // @todo temporary for people who accidently got an old Default dimlet
-            if (DimletObjectMapping.DEFAULT_ID.equals(id)) {
-                return Blocks.WATER;
-            }
-            int lastIndexOf = StringUtils.lastIndexOf(id, "@");
-            String blockid;
-            if (lastIndexOf == -1) {
-                blockid = id;
-            } else {
-                blockid = id.substring(0, lastIndexOf);
-            }
-//            int meta = Integer.parseInt(id.substring(lastIndexOf+1));
-
-            Block block = Block.REGISTRY.getObject(new ResourceLocation(blockid));
-            if (block == null) {
-                return null;
-            }
-            return block;
+            return dimlet.getResolved(DimletObjectMapping::resolveFluid);
         }
         return null;
     }
 
+    private static Block resolveFluid(DimletKey dimlet) {
+        String id = dimlet.getId();
+        // @todo temporary for people who accidently got an old Default dimlet
+        if (DimletObjectMapping.DEFAULT_ID.equals(id)) {
+            return Blocks.WATER;
+        }
+        int lastIndexOf = StringUtils.lastIndexOf(id, "@");
+        String blockid;
+        if (lastIndexOf == -1) {
+            blockid = id;
+        } else {
+            blockid = id.substring(0, lastIndexOf);
+        }
+//        int meta = Integer.parseInt(id.substring(lastIndexOf+1));
+
+        Block block = Block.REGISTRY.getObject(new ResourceLocation(blockid));
+        if (block == null) {
+            return null;
+        }
+        return block;
+    }
+
     public static Biome getBiome(DimletKey dimlet) {
         if (DimletType.DIMLET_BIOME.equals(dimlet.getType())) {
-            Biome biome = Biome.REGISTRY.getObject(new ResourceLocation(dimlet.getId()));
-            return biome;
+            return dimlet.getResolved(d -> Biome.REGISTRY.getObject(new ResourceLocation(d.getId())));
         }
         return null;
     }
@@ -166,23 +173,23 @@ public class DimletObjectMapping {
     private static void setupTimeTables() {
         if (dimletToCelestialAngle == null) {
             dimletToCelestialAngle = new HashMap<>();
-            dimletToCelestialAngle.put(new DimletKey(DimletType.DIMLET_TIME, "Normal"), null);
-            dimletToCelestialAngle.put(new DimletKey(DimletType.DIMLET_TIME, "Noon"), 0.0f);
-            dimletToCelestialAngle.put(new DimletKey(DimletType.DIMLET_TIME, "Midnight"), 0.5f);
-            dimletToCelestialAngle.put(new DimletKey(DimletType.DIMLET_TIME, "Morning"), 0.75f);
-            dimletToCelestialAngle.put(new DimletKey(DimletType.DIMLET_TIME, "Evening"), 0.2f);
-            dimletToCelestialAngle.put(new DimletKey(DimletType.DIMLET_TIME, "Fast"), null);
-            dimletToCelestialAngle.put(new DimletKey(DimletType.DIMLET_TIME, "Slow"), null);
+            dimletToCelestialAngle.put(DimletKey.of(DimletType.DIMLET_TIME, "Normal"), null);
+            dimletToCelestialAngle.put(DimletKey.of(DimletType.DIMLET_TIME, "Noon"), 0.0f);
+            dimletToCelestialAngle.put(DimletKey.of(DimletType.DIMLET_TIME, "Midnight"), 0.5f);
+            dimletToCelestialAngle.put(DimletKey.of(DimletType.DIMLET_TIME, "Morning"), 0.75f);
+            dimletToCelestialAngle.put(DimletKey.of(DimletType.DIMLET_TIME, "Evening"), 0.2f);
+            dimletToCelestialAngle.put(DimletKey.of(DimletType.DIMLET_TIME, "Fast"), null);
+            dimletToCelestialAngle.put(DimletKey.of(DimletType.DIMLET_TIME, "Slow"), null);
         }
         if (dimletToSpeed == null) {
             dimletToSpeed = new HashMap<>();
-            dimletToSpeed.put(new DimletKey(DimletType.DIMLET_TIME, "Normal"), null);
-            dimletToSpeed.put(new DimletKey(DimletType.DIMLET_TIME, "Noon"), null);
-            dimletToSpeed.put(new DimletKey(DimletType.DIMLET_TIME, "Midnight"), null);
-            dimletToSpeed.put(new DimletKey(DimletType.DIMLET_TIME, "Morning"), null);
-            dimletToSpeed.put(new DimletKey(DimletType.DIMLET_TIME, "Evening"), null);
-            dimletToSpeed.put(new DimletKey(DimletType.DIMLET_TIME, "Fast"), 2.0f);
-            dimletToSpeed.put(new DimletKey(DimletType.DIMLET_TIME, "Slow"), 0.5f);
+            dimletToSpeed.put(DimletKey.of(DimletType.DIMLET_TIME, "Normal"), null);
+            dimletToSpeed.put(DimletKey.of(DimletType.DIMLET_TIME, "Noon"), null);
+            dimletToSpeed.put(DimletKey.of(DimletType.DIMLET_TIME, "Midnight"), null);
+            dimletToSpeed.put(DimletKey.of(DimletType.DIMLET_TIME, "Morning"), null);
+            dimletToSpeed.put(DimletKey.of(DimletType.DIMLET_TIME, "Evening"), null);
+            dimletToSpeed.put(DimletKey.of(DimletType.DIMLET_TIME, "Fast"), 2.0f);
+            dimletToSpeed.put(DimletKey.of(DimletType.DIMLET_TIME, "Slow"), 0.5f);
         }
     }
 
@@ -215,7 +215,7 @@ public class DimletRandomizer {
 
     public static DimletKey getRandomController(Random random) {
         ControllerType type = ControllerType.values()[random.nextInt(ControllerType.values().length)];
-        return new DimletKey(DimletType.DIMLET_CONTROLLER, type.getId());
+        return DimletKey.of(DimletType.DIMLET_CONTROLLER, type.getId());
     }
 
     public static DimletKey getRandomBiome(Random random) {
@@ -224,7 +224,7 @@ public class DimletRandomizer {
         while(true) {
             Biome biome = Biome.REGISTRY.getObject(keys.get(random.nextInt(size)));
             if (biome != null) {
-                return new DimletKey(DimletType.DIMLET_BIOME, biome.getBiomeName());
+                return DimletKey.of(DimletType.DIMLET_BIOME, biome.getBiomeName());
             }
         }
     }
@@ -12,6 +12,7 @@ import mcjty.rftoolsdim.config.DimletRules;
 import mcjty.rftoolsdim.config.Filter;
 import mcjty.rftoolsdim.config.GeneralConfiguration;
 import mcjty.rftoolsdim.config.Settings;
+import mcjty.rftoolsdim.dimensions.description.CompiledDescriptor;
 import mcjty.rftoolsdim.dimensions.description.SkyDescriptor;
 import mcjty.rftoolsdim.dimensions.description.WeatherDescriptor;
 import mcjty.rftoolsdim.dimensions.dimlets.types.DimletType;
@@ -45,10 +46,13 @@ public class KnownDimletConfiguration {
 
     private static Set<DimletKey> craftableDimlets = new HashSet<>();
     private static Map<DimletKey, Settings> knownDimlets = new HashMap<>();
+    // The same settings by key index (see DimletKey.getIndex()) so getSettings() needs no hashing
+    private static Settings[] settingsByIndex = new Settings[0];
 
     public static Settings getSettings(DimletKey key) {
         initDimlets();
-        return knownDimlets.get(key);
+        int index = key.getIndex();
+        return index < settingsByIndex.length ? settingsByIndex[index] : null;
     }
 
     public static Map<DimletKey, Settings> getKnownDimlets() {
@@ -58,7 +62,10 @@ public class KnownDimletConfiguration {
 
     public static void init() {
         knownDimlets.clear();
+        settingsByIndex = new Settings[0];
         craftableDimlets.clear();
+        // Dimension costs depend on the dimlet settings
+        CompiledDescriptor.clearCache();
     }
 
     private static void initDimlets() {
@@ -67,20 +74,20 @@ public class KnownDimletConfiguration {
         }
 
         for (int i = 0 ; i <= 9 ; i++) {
-            initDimlet(new DimletKey(DimletType.DIMLET_DIGIT, Integer.toString(i)), RFToolsDim.MODID);
+            initDimlet(DimletKey.of(DimletType.DIMLET_DIGIT, Integer.toString(i)), RFToolsDim.MODID);
         }
 
         if (GeneralConfiguration.voidOnly) {
-            initDimlet(new DimletKey(DimletType.DIMLET_TERRAIN, TerrainType.TERRAIN_VOID.getId()), RFToolsDim.MODID);
+            initDimlet(DimletKey.of(DimletType.DIMLET_TERRAIN, TerrainType.TERRAIN_VOID.getId()), RFToolsDim.MODID);
         } else {
-            Arrays.stream(TerrainType.values()).forEach(t -> initDimlet(new DimletKey(DimletType.DIMLET_TERRAIN, t.getId()), RFToolsDim.MODID));
+            Arrays.stream(TerrainType.values()).forEach(t -> initDimlet(DimletKey.of(DimletType.DIMLET_TERRAIN, t.getId()), RFToolsDim.MODID));
         }
 
-        Arrays.stream(ControllerType.values()).forEach(t -> initDimlet(new DimletKey(DimletType.DIMLET_CONTROLLER, t.getId()), RFToolsDim.MODID));
-        Arrays.stream(FeatureType.values()).forEach(t -> initDimlet(new DimletKey(DimletType.DIMLET_FEATURE, t.getId()), RFToolsDim.MODID));
-        Arrays.stream(EffectType.values()).forEach(t -> initDimlet(new DimletKey(DimletType.DIMLET_EFFECT, t.getId()), RFToolsDim.MODID));
-        Arrays.stream(StructureType.values()).forEach(t -> initDimlet(new DimletKey(DimletType.DIMLET_STRUCTURE, t.getId()), RFToolsDim.MODID));
-        Arrays.stream(SpecialType.values()).forEach(t -> initDimlet(new DimletKey(DimletType.DIMLET_SPECIAL, t.getId()), RFToolsDim.MODID));
+        Arrays.stream(ControllerType.values()).forEach(t -> initDimlet(DimletKey.of(DimletType.DIMLET_CONTROLLER, t.getId()), RFToolsDim.MODID));
+        Arrays.stream(FeatureType.values()).forEach(t -> initDimlet(DimletKey.of(DimletType.DIMLET_FEATURE, t.getId()), RFToolsDim.MODID));
+        Arrays.stream(EffectType.values()).forEach(t -> initDimlet(DimletKey.of(DimletType.DIMLET_EFFECT, t.getId()), RFToolsDim.MODID));
+        Arrays.stream(StructureType.values()).forEach(t -> initDimlet(DimletKey.of(DimletType.DIMLET_STRUCTURE, t.getId()), RFToolsDim.MODID));
+        Arrays.stream(SpecialType.values()).forEach(t -> initDimlet(DimletKey.of(DimletType.DIMLET_SPECIAL, t.getId()), RFToolsDim.MODID));
 
         Biome.REGISTRY.iterator().forEachRemaining(KnownDimletConfiguration::initBiomeDimlet);
 
@@ -90,22 +97,24 @@ public class KnownDimletConfiguration {
         FluidRegistry.getRegisteredFluids().entrySet().stream().forEach(KnownDimletConfiguration::initFluidDimlet);
         Block.REGISTRY.forEach(KnownDimletConfiguration::initMaterialDimlet);
 
-        initDimlet(new DimletKey(DimletType.DIMLET_MATERIAL, Blocks.STONE.getRegistryName() + "@0"), "minecraft");
-        initDimlet(new DimletKey(DimletType.DIMLET_LIQUID, Blocks.WATER.getRegistryName() + "@0"), "minecraft");
+        initDimlet(DimletKey.of(DimletType.DIMLET_MATERIAL, Blocks.STONE.getRegistryName() + "@0"), "minecraft");
+        initDimlet(DimletKey.of(DimletType.DIMLET_LIQUID, Blocks.WATER.getRegistryName() + "@0"), "minecraft");
 
-        initDimlet(new DimletKey(DimletType.DIMLET_TIME, "Normal"), RFToolsDim.MODID);
-        initDimlet(new DimletKey(DimletType.DIMLET_TIME, "Noon"), RFToolsDim.MODID);
-        initDimlet(new DimletKey(DimletType.DIMLET_TIME, "Midnight"), RFToolsDim.MODID);
-        initDimlet(new DimletKey(DimletType.DIMLET_TIME, "Morning"), RFToolsDim.MODID);
-        initDimlet(new DimletKey(DimletType.DIMLET_TIME, "Evening"), RFToolsDim.MODID);
-        initDimlet(new DimletKey(DimletType.DIMLET_TIME, "Fast"), RFToolsDim.MODID);
-        initDimlet(new DimletKey(DimletType.DIMLET_TIME, "Slow"), RFToolsDim.MODID);
+        initDimlet(DimletKey.of(DimletType.DIMLET_TIME, "Normal"), RFToolsDim.MODID);
+        initDimlet(DimletKey.of(DimletType.DIMLET_TIME, "Noon"), RFToolsDim.MODID);
+        initDimlet(DimletKey.of(DimletType.DIMLET_TIME, "Midnight"), RFToolsDim.MODID);
+        initDimlet(DimletKey.of(DimletType.DIMLET_TIME, "Morning"), RFToolsDim.MODID);
+        initDimlet(DimletKey.of(DimletType.DIMLET_TIME, "Evening"), RFToolsDim.MODID);
+        initDimlet(DimletKey.of(DimletType.DIMLET_TIME, "Fast"), RFToolsDim.MODID);
+        initDimlet(DimletKey.of(DimletType.DIMLET_TIME, "Slow"), RFToolsDim.MODID);
 //        addExtraInformation(keyTimeNormal, "With this normal dimlet you will get", "default day/night timing");
 
         initSkyDimlets();
         initWeatherDimlets();
 
         BiomeControllerMapping.setupControllerBiomes();
+
+        Logging.log(DimletRules.getTimingReport());
     }
 
     private static void initWeatherDimlets() {
@@ -119,7 +128,7 @@ public class KnownDimletConfiguration {
     }
 
     private static void initWeatherDimlet(String id, WeatherDescriptor weatherDescriptor) {
-        DimletKey key = new DimletKey(DimletType.DIMLET_WEATHER, id);
+        DimletKey key = DimletKey.of(DimletType.DIMLET_WEATHER, id);
         initDimlet(key, RFToolsDim.MODID);
         WeatherRegistry.registerWeather(key, weatherDescriptor);
     }
@@ -184,7 +193,7 @@ public class KnownDimletConfiguration {
     }
 
     private static void initSkyDimlet(String id, SkyDescriptor descriptor, boolean body) {
-        DimletKey key = new DimletKey(DimletType.DIMLET_SKY, id);
+        DimletKey key = DimletKey.of(DimletType.DIMLET_SKY, id);
         initDimlet(key, RFToolsDim.MODID);
         SkyRegistry.registerSky(key, descriptor, body);
     }
@@ -194,7 +203,7 @@ public class KnownDimletConfiguration {
         if (name != null && !name.isEmpty()) {
             ResourceLocation registryName = biome.getRegistryName();
             if (registryName != null) {
-                DimletKey key = new DimletKey(DimletType.DIMLET_BIOME, registryName.toString());
+                DimletKey key = DimletKey.of(DimletType.DIMLET_BIOME, registryName.toString());
                 initDimlet(key, RFToolsTools.findModID(biome));
             }
         }
@@ -202,12 +211,12 @@ public class KnownDimletConfiguration {
 
     private static void initMobDimlet(String id) {
         if (DimletObjectMapping.DEFAULT_ID.equals(id)) {
-            DimletKey key = new DimletKey(DimletType.DIMLET_MOB, id);
+            DimletKey key = DimletKey.of(DimletType.DIMLET_MOB, id);
             initDimlet(key, RFToolsDim.MODID);
         } else {
             Class<? extends Entity> entityClass = EntityTools.findClassById(id);
             if (isValidMobClass(entityClass)) {
-                DimletKey key = new DimletKey(DimletType.DIMLET_MOB, id);
+                DimletKey key = DimletKey.of(DimletType.DIMLET_MOB, id);
                 initDimlet(key, RFToolsTools.findModID(entityClass));
             }
         }
@@ -222,7 +231,7 @@ public class KnownDimletConfiguration {
                     ResourceLocation nameForObject = Block.REGISTRY.getNameForObject(block);
                     if (nameForObject != null) {
                         String mod = nameForObject.getResourceDomain();
-                        DimletKey key = new DimletKey(DimletType.DIMLET_LIQUID, block.getRegistryName() + "@0");
+                        DimletKey key = DimletKey.of(DimletType.DIMLET_LIQUID, block.getRegistryName() + "@0");
                         initDimlet(key, mod);
                     }
                 }
@@ -233,8 +242,17 @@ public class KnownDimletConfiguration {
     private static void initDimlet(DimletKey key, String mod) {
         Settings settings = DimletRules.getSettings(key, mod);
         if (!settings.isBlacklisted()) {
-            knownDimlets.put(key, settings);
+            addDimlet(key, settings);
+        }
+    }
+
+    private static void addDimlet(DimletKey key, Settings settings) {
+        knownDimlets.put(key, settings);
+        int index = key.getIndex();
+        if (index >= settingsByIndex.length) {
+            settingsByIndex = Arrays.copyOf(settingsByIndex, Math.max(index + 1, DimletKey.getKeyCount()));
         }
+        settingsByIndex[index] = settings;
     }
 
     private static void initMaterialDimlet(Block block) {
@@ -259,10 +277,10 @@ public class KnownDimletConfiguration {
                 for (Map.Entry<IProperty<?>, Comparable<?>> entry : properties.entrySet()) {
                     props.put(entry.getKey().getName(), entry.getValue().toString());
                 }
-                DimletKey key = new DimletKey(DimletType.DIMLET_MATERIAL, block.getRegistryName() + "@" + meta);
+                DimletKey key = DimletKey.of(DimletType.DIMLET_MATERIAL, block.getRegistryName() + "@" + meta);
                 Settings settings = DimletRules.getSettings(key, mod, features, props);
                 if (!settings.isBlacklisted()) {
-                    knownDimlets.put(key, settings);
+                    addDimlet(key, settings);
                 }
             }
         }
@@ -308,7 +326,7 @@ public class KnownDimletConfiguration {
     private static void dumpMob(String id) {
         Class<? extends Entity> entityClass = EntityTools.findClassById(id);
         if (isValidMobClass(entityClass)) {
-            DimletKey key = new DimletKey(DimletType.DIMLET_MOB, id);
+            DimletKey key = DimletKey.of(DimletType.DIMLET_MOB, id);
             String mod = RFToolsTools.findModID(entityClass);
             Settings settings = DimletRules.getSettings(key, mod);
 
@@ -338,16 +356,16 @@ public class KnownDimletConfiguration {
     }
 
     public static ItemStack getDimletStack(DimletType type, String id) {
-        return getDimletStack(new DimletKey(type, id));
+        return getDimletStack(DimletKey.of(type, id));
     }
 
     public static DimletKey getDimletKey(ItemStack dimletStack) {
         DimletType type = DimletType.values()[dimletStack.getItemDamage()];
         NBTTagCompound tagCompound = dimletStack.getTagCompound();
         if (tagCompound != null && tagCompound.hasKey("dkey")) {
-            return new DimletKey(type, tagCompound.getString("dkey"));
+            return DimletKey.of(type, tagCompound.getString("dkey"));
         } else {
-            return new DimletKey(type, null);
+            return DimletKey.of(type, null);
         }
     }
 
@@ -363,33 +381,33 @@ public class KnownDimletConfiguration {
     }
 
     private static void registerCraftables() {
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_EFFECT, "None"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_FEATURE, "None"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_STRUCTURE, "None"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_TERRAIN, "Void"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_EFFECT, "None"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_FEATURE, "None"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_STRUCTURE, "None"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_TERRAIN, "Void"));
         if (!GeneralConfiguration.voidOnly) {
-            craftableDimlets.add(new DimletKey(DimletType.DIMLET_TERRAIN, "Flat"));
+            craftableDimlets.add(DimletKey.of(DimletType.DIMLET_TERRAIN, "Flat"));
         }
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_CONTROLLER, DimletObjectMapping.DEFAULT_ID));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_CONTROLLER, "Single"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_MATERIAL, Blocks.STONE.getRegistryName() + "@0"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_LIQUID, Blocks.WATER.getRegistryName() + "@0"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_SKY, "normal"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_SKY, "normal.day"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_SKY, "normal.night"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_MOB, DimletObjectMapping.DEFAULT_ID));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_TIME, "Normal"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_WEATHER, DimletObjectMapping.DEFAULT_ID));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_DIGIT, "0"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_DIGIT, "1"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_DIGIT, "2"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_DIGIT, "3"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_DIGIT, "4"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_DIGIT, "5"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_DIGIT, "6"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_DIGIT, "7"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_DIGIT, "8"));
-        craftableDimlets.add(new DimletKey(DimletType.DIMLET_DIGIT, "9"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_CONTROLLER, DimletObjectMapping.DEFAULT_ID));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_CONTROLLER, "Single"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_MATERIAL, Blocks.STONE.getRegistryName() + "@0"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_LIQUID, Blocks.WATER.getRegistryName() + "@0"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_SKY, "normal"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_SKY, "normal.day"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_SKY, "normal.night"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_MOB, DimletObjectMapping.DEFAULT_ID));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_TIME, "Normal"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_WEATHER, DimletObjectMapping.DEFAULT_ID));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_DIGIT, "0"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_DIGIT, "1"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_DIGIT, "2"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_DIGIT, "3"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_DIGIT, "4"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_DIGIT, "5"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_DIGIT, "6"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_DIGIT, "7"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_DIGIT, "8"));
+        craftableDimlets.add(DimletKey.of(DimletType.DIMLET_DIGIT, "9"));
     }
 
     public static Set<DimletKey> getCraftableDimlets() {
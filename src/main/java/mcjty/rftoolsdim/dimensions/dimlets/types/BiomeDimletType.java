@@ -170,7 +170,7 @@ public class BiomeDimletType implements IDimletType {
 
     private static DimletKey findBiomeDimlet(NBTTagCompound essenceCompound) {
         String biome = essenceCompound.getString("biome");
-        DimletKey key = new DimletKey(DimletType.DIMLET_BIOME, biome);
+        DimletKey key = DimletKey.of(DimletType.DIMLET_BIOME, biome);
         Settings settings = KnownDimletConfiguration.getSettings(key);
         if (settings == null || !settings.isDimlet()) {
             return null;
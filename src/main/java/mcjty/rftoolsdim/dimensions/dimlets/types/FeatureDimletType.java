@@ -283,7 +283,7 @@ public class FeatureDimletType implements IDimletType {
 
     private static DimletKey findFeatureDimlet(NBTTagCompound essenceCompound) {
         String feature = essenceCompound.getString("feature");
-        DimletKey key = new DimletKey(DimletType.DIMLET_FEATURE, feature);
+        DimletKey key = DimletKey.of(DimletType.DIMLET_FEATURE, feature);
         Settings settings = KnownDimletConfiguration.getSettings(key);
         if (settings == null || !settings.isDimlet()) {
             return null;
@@ -108,7 +108,7 @@ public class MaterialDimletType implements IDimletType {
     private static DimletKey findMaterialDimlet(NBTTagCompound essenceCompound) {
         Block block = Block.REGISTRY.getObject(new ResourceLocation(essenceCompound.getString("block")));
         int meta = essenceCompound.getInteger("meta");
-        DimletKey key = new DimletKey(DimletType.DIMLET_MATERIAL, block.getRegistryName() + "@" + meta);
+        DimletKey key = DimletKey.of(DimletType.DIMLET_MATERIAL, block.getRegistryName() + "@" + meta);
         Settings settings = KnownDimletConfiguration.getSettings(key);
         if (settings == null || !settings.isDimlet()) {
             return null;
@@ -137,7 +137,7 @@ public class MobDimletType implements IDimletType {
             return null;
         }
         String mob = stackEssence.getTagCompound().getString("mobId");
-        return new DimletKey(DimletType.DIMLET_MOB, mob);
+        return DimletKey.of(DimletType.DIMLET_MOB, mob);
     }
 
     @Override
@@ -152,10 +152,10 @@ public class MobDimletType implements IDimletType {
             return null;
         }
         String mob = stackEssence.getTagCompound().getString("mobId");
-        if (!DimletCraftingTools.matchDimletRecipe(new DimletKey(DimletType.DIMLET_MOB, mob), stackController, stackMemory, stackEnergy)) {
+        if (!DimletCraftingTools.matchDimletRecipe(DimletKey.of(DimletType.DIMLET_MOB, mob), stackController, stackMemory, stackEnergy)) {
             return null;
         }
-        DimletKey mobDimlet = new DimletKey(DimletType.DIMLET_MOB, mob);
+        DimletKey mobDimlet = DimletKey.of(DimletType.DIMLET_MOB, mob);
         return mobDimlet;
     }
 }
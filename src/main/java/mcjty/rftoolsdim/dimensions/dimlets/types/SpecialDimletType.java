@@ -139,11 +139,11 @@ public class SpecialDimletType implements IDimletType {
     public DimletKey isValidEssence(ItemStack stackEssence) {
         Item peaceEssence = ForgeRegistries.ITEMS.getValue(new ResourceLocation("rftools", "peace_essence"));
         if (stackEssence.getItem() == peaceEssence) {
-            return new DimletKey(DimletType.DIMLET_SPECIAL, SpecialType.SPECIAL_PEACEFUL.getId());
+            return DimletKey.of(DimletType.DIMLET_SPECIAL, SpecialType.SPECIAL_PEACEFUL.getId());
         } else if (stackEssence.getItem() == ModItems.efficiencyEssenceItem) {
-            return new DimletKey(DimletType.DIMLET_SPECIAL, SpecialType.SPECIAL_EFFICIENCY.getId());
+            return DimletKey.of(DimletType.DIMLET_SPECIAL, SpecialType.SPECIAL_EFFICIENCY.getId());
         } else if (stackEssence.getItem() == ModItems.mediocreEfficiencyEssenceItem) {
-            return new DimletKey(DimletType.DIMLET_SPECIAL, SpecialType.SPECIAL_EFFICIENCY_LOW.getId());
+            return DimletKey.of(DimletType.DIMLET_SPECIAL, SpecialType.SPECIAL_EFFICIENCY_LOW.getId());
         }
         return null;
     }
@@ -123,7 +123,7 @@ public class StructureDimletType implements IDimletType {
 //        if (structureType == null) {
 //            return null;
 //        }
-//        return new DimletKey(DimletType.DIMLET_STRUCTURE, structureType.getName());
+//        return DimletKey.of(DimletType.DIMLET_STRUCTURE, structureType.getName());
         return null;
     }
 
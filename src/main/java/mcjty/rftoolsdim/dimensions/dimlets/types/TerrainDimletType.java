@@ -234,7 +234,7 @@ public class TerrainDimletType implements IDimletType {
 
     private static DimletKey findTerrainDimlet(NBTTagCompound essenceCompound) {
         String terrain = essenceCompound.getString("terrain");
-        DimletKey key = new DimletKey(DimletType.DIMLET_TERRAIN, terrain);
+        DimletKey key = DimletKey.of(DimletType.DIMLET_TERRAIN, terrain);
         Settings settings = KnownDimletConfiguration.getSettings(key);
         if (settings == null || !settings.isDimlet()) {
             return null;
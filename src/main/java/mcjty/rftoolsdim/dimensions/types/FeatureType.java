@@ -28,7 +28,8 @@ public enum FeatureType {
             new MMap(-1, DimletType.DIMLET_MATERIAL), 1, 0),
     FEATURE_CLEAN("Clean", null, null, 0, 0),
     FEATURE_SCATTEREDORBS("ScatteredOrbs", null, new MMap(-1, DimletType.DIMLET_MATERIAL), 1, 0),
-    FEATURE_ORESAPLENTY("OresAPlenty", null, null, 0, 0);
+    FEATURE_ORESAPLENTY("OresAPlenty", null, null, 0, 0),
+    FEATURE_RUINEDCITIES("RuinedCities", null, null, 0, 0);
 
     private final String id;                    // Unique id to use in dimlets
     private final Set<TerrainType> supportedTerrains;
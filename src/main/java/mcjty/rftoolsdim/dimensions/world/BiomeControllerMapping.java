@@ -3,40 +3,43 @@ package mcjty.rftoolsdim.dimensions.world;
 import mcjty.rftoolsdim.dimensions.types.ControllerType;
 import net.minecraft.world.biome.Biome;
 
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 
 public class BiomeControllerMapping {
 
-    public static final Map<Integer, Integer> coldBiomeReplacements = new HashMap<>();
-    public static final Map<Integer, Integer> warmBiomeReplacements = new HashMap<>();
-    public static final Map<Integer, Integer> mediumBiomeReplacements = new HashMap<>();
-    public static final Map<Integer, Integer> wetBiomeReplacements = new HashMap<>();
-    public static final Map<Integer, Integer> dryBiomeReplacements = new HashMap<>();
-    public static final Map<Integer, Integer> fieldsBiomeReplacements = new HashMap<>();
-    public static final Map<Integer, Integer> mountainsBiomeReplacements = new HashMap<>();
-    public static final Map<Integer, Integer> magicalBiomeReplacements = new HashMap<>();
-    public static final Map<Integer, Integer> forestBiomeReplacements = new HashMap<>();
+    // Biome ids are stored in a byte in the chunk so there can never be more then this
+    public static final int BIOME_IDS = 256;
+
+    // For every controller with a filter: a table from biome id to the id of the replacement biome
+    private static final Map<ControllerType, int[]> controllerBiomeTables = new EnumMap<>(ControllerType.class);
 
 
     public static void setupControllerBiomes() {
-        makeFilteredBiomeMap(coldBiomeReplacements, ControllerType.CONTROLLER_COLD);
-        makeFilteredBiomeMap(warmBiomeReplacements, ControllerType.CONTROLLER_WARM);
-        makeFilteredBiomeMap(mediumBiomeReplacements, ControllerType.CONTROLLER_MEDIUM);
-        makeFilteredBiomeMap(wetBiomeReplacements, ControllerType.CONTROLLER_WET);
-        makeFilteredBiomeMap(dryBiomeReplacements, ControllerType.CONTROLLER_DRY);
-        makeFilteredBiomeMap(fieldsBiomeReplacements, ControllerType.CONTROLLER_FIELDS);
-        makeFilteredBiomeMap(mountainsBiomeReplacements, ControllerType.CONTROLLER_MOUNTAINS);
-        makeFilteredBiomeMap(magicalBiomeReplacements, ControllerType.CONTROLLER_MAGICAL);
-        makeFilteredBiomeMap(forestBiomeReplacements, ControllerType.CONTROLLER_FOREST);
+        controllerBiomeTables.clear();
+        for (ControllerType type : ControllerType.values()) {
+            if (type.getFilter() != null) {
+                controllerBiomeTables.put(type, makeFilteredBiomeTable(type.getFilter()));
+            }
+        }
     }
 
-    private static void makeFilteredBiomeMap(Map<Integer, Integer> map, ControllerType type) {
-        makeFilteredBiomeMap(map, type.getFilter());
+    /**
+     * Return the replacement table for a controller or null if this controller doesn't filter biomes.
+     */
+    public static int[] getControllerBiomeTable(ControllerType type) {
+        return controllerBiomeTables.get(type);
     }
 
-    public static void makeFilteredBiomeMap(Map<Integer, Integer> map, ControllerType.BiomeFilter filter) {
-        map.clear();
+    /**
+     * Make a table that maps every biome id to the id of the biome that should replace it. Ids of
+     * biomes that don't exist map to themselves.
+     */
+    public static int[] makeFilteredBiomeTable(ControllerType.BiomeFilter filter) {
+        int[] table = new int[BIOME_IDS];
+        for (int i = 0; i < BIOME_IDS; i++) {
+            table[i] = i;
+        }
 
         // First check if there exist biomes for a certain filter.
         boolean ok = false;
@@ -51,22 +54,18 @@ public class BiomeControllerMapping {
 
         if (!ok) {
             // No biomes found! We just map every biome to itself as a fallback.
-            for (Biome biome : Biome.REGISTRY) {
-                if (biome != null) {
-                    map.put(Biome.getIdForBiome(biome), Biome.getIdForBiome(biome));
-                }
-            }
-        } else {
-            for (Biome biome : Biome.REGISTRY) {
-                if (biome != null) {
-                    if (filter.match(biome)) {
-                        map.put(Biome.getIdForBiome(biome), Biome.getIdForBiome(biome));
-                    } else {
-                        map.put(Biome.getIdForBiome(biome), findSuitableBiomes(biome, filter));
-                    }
+            return table;
+        }
+
+        for (Biome biome : Biome.REGISTRY) {
+            if (biome != null && !filter.match(biome)) {
+                int id = Biome.getIdForBiome(biome);
+                if (id >= 0 && id < BIOME_IDS) {
+                    table[id] = findSuitableBiomes(biome, filter);
                 }
             }
         }
+        return table;
     }
 
     private static int findSuitableBiomes(Biome biome, ControllerType.BiomeFilter filter) {
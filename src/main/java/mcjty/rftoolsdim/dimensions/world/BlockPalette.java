@@ -0,0 +1,140 @@
+package mcjty.rftoolsdim.dimensions.world;
+
+import mcjty.rftoolsdim.blocks.ModBlocks;
+import mcjty.rftoolsdim.dimensions.DimensionInformation;
+import net.minecraft.block.*;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+
+import java.util.Random;
+
+/**
+ * All the blocks a dimension can generate in a ChunkPrimer resolved to their block state id.
+ * The ids are looked up once when the chunk generator is made so that the generators
+ * can write them directly into the primer.
+ */
+public class BlockPalette {
+
+    // Table from block state id to the block state id that replaces it in an invertigo world
+    private static char[] invertigoTable = null;
+
+    public final char air;
+    public final char bedrock;
+    public final char stone;
+    public final char water;
+
+    public final char baseBlock;
+    public final char baseLiquid;
+    public final char tendrilBlock;
+    public final char canyonBlock;
+
+    public final char[] pyramidBlocks;
+    public final char[] sphereBlocks;
+    public final char[] hugeSphereBlocks;
+    public final char[] scatteredSphereBlocks;
+    public final char[] liquidSphereBlocks;
+    public final char[] liquidSphereFluids;
+    public final char[] hugeLiquidSphereBlocks;
+    public final char[] hugeLiquidSphereFluids;
+
+    public BlockPalette(DimensionInformation information) {
+        air = getId(Blocks.AIR.getDefaultState());
+        bedrock = getId(Blocks.BEDROCK.getDefaultState());
+        stone = getId(Blocks.STONE.getDefaultState());
+        water = getId(Blocks.WATER.getDefaultState());
+
+        baseBlock = getId(information.getBaseBlockForTerrain());
+        baseLiquid = getId(information.getFluidForTerrain());
+        tendrilBlock = getId(information.getTendrilBlock());
+        canyonBlock = getId(information.getCanyonBlock());
+
+        pyramidBlocks = getIds(information.getPyramidBlocks());
+        sphereBlocks = getIds(information.getSphereBlocks());
+        hugeSphereBlocks = getIds(information.getHugeSphereBlocks());
+        scatteredSphereBlocks = getIds(information.getScatteredSphereBlocks());
+        liquidSphereBlocks = getIds(information.getLiquidSphereBlocks());
+        liquidSphereFluids = getIds(information.getLiquidSphereFluids());
+        hugeLiquidSphereBlocks = getIds(information.getHugeLiquidSphereBlocks());
+        hugeLiquidSphereFluids = getIds(information.getHugeLiquidSphereFluids());
+    }
+
+    /**
+     * Pick one of the blocks in a palette array the same way the generators always did: with the
+     * random if there is more then one block and 'def' if there are none.
+     */
+    public static char select(char[] blocks, Random random, char def) {
+        if (blocks.length > 1) {
+            return blocks[random.nextInt(blocks.length)];
+        } else if (blocks.length == 1) {
+            return blocks[0];
+        }
+        return def;
+    }
+
+    public static char getId(IBlockState state) {
+        return state == null ? 0 : (char) Block.BLOCK_STATE_IDS.get(state);
+    }
+
+    public static char getId(Block block) {
+        return block == null ? 0 : getId(block.getDefaultState());
+    }
+
+    private static char[] getIds(IBlockState[] states) {
+        if (states == null) {
+            return new char[0];
+        }
+        char[] ids = new char[states.length];
+        for (int i = 0; i < states.length; i++) {
+            ids[i] = getId(states[i]);
+        }
+        return ids;
+    }
+
+    private static char[] getIds(Block[] blocks) {
+        if (blocks == null) {
+            return new char[0];
+        }
+        char[] ids = new char[blocks.length];
+        for (int i = 0; i < blocks.length; i++) {
+            ids[i] = getId(blocks[i]);
+        }
+        return ids;
+    }
+
+    /**
+     * Return the table that maps every block state id to the id that should be used for it in
+     * an invertigo world (falling blocks become the fake versions that don't fall).
+     */
+    public static char[] getInvertigoTable() {
+        if (invertigoTable == null) {
+            char[] table = new char[Character.MAX_VALUE + 1];
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (char) i;
+            }
+            char water = getId(ModBlocks.fakeWaterBlock.getDefaultState());
+            char gravel = getId(ModBlocks.fakeGravelBlock.getDefaultState());
+            char sand = getId(ModBlocks.fakeSandBlock.getDefaultState());
+            char stone = getId(Blocks.STONE.getDefaultState());
+            for (int id = 0; id < table.length; id++) {
+                IBlockState state = Block.BLOCK_STATE_IDS.getByValue(id);
+                if (state == null) {
+                    continue;
+                }
+                Block block = state.getBlock();
+                if (block instanceof BlockLiquid) {
+                    table[id] = water;
+                } else if (block instanceof BlockGravel) {
+                    table[id] = gravel;
+                } else if (block instanceof BlockSand) {
+                    table[id] = sand;
+                } else if (block == Blocks.BEDROCK) {
+                    table[id] = stone;
+                } else if (block instanceof BlockFalling) {
+                    table[id] = 0;
+                }
+            }
+            invertigoTable = table;
+        }
+        return invertigoTable;
+    }
+}
@@ -0,0 +1,27 @@
+package mcjty.rftoolsdim.dimensions.world;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.Map;
+
+/**
+ * Where a StructureWriter reads its blocks from and writes them to. In the game this is
+ * a WorldBlockSink.
+ */
+public interface BlockSink {
+
+    IBlockState getBlockState(BlockPos pos);
+
+    boolean isAirBlock(BlockPos pos);
+
+    // Place a single block
+    void setBlockState(BlockPos pos, IBlockState state);
+
+    // Place all these blocks in order. Implementations can do this faster then one block at a time
+    default void setBlockStates(Map<BlockPos, IBlockState> blocks) {
+        for (Map.Entry<BlockPos, IBlockState> entry : blocks.entrySet()) {
+            setBlockState(entry.getKey(), entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package mcjty.rftoolsdim.dimensions.world;
+
+import mcjty.rftoolsdim.dimensions.description.MobDescriptor;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.entity.EnumCreatureType;
+import net.minecraft.entity.monster.IMob;
+import net.minecraft.entity.passive.IAnimals;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.Biome;
+
+import java.util.*;
+
+/**
+ * The extra mobs that are added to a dimension with mob dimlets. Every mob has a maximum
+ * amount that can be loaded at the same time. The vanilla spawner asks for the possible
+ * creatures many times per tick so the loaded entities are counted only once per tick and
+ * the merged spawn lists are kept for as long as the same mobs are allowed.
+ */
+public class ExtraMobSpawns {
+
+    private final Biome.SpawnListEntry[] entries;
+    private final int[] maxLoaded;
+    private final int[] counts;
+    private long countTime = -1;
+
+    // Indices of the entries that can spawn as ambient (IAnimals) or monster (IMob)
+    private final int[] ambient;
+    private final int[] monster;
+
+    // For every entity class the indices of the entries that entity counts for
+    private final Map<Class<? extends Entity>, int[]> matchingEntries = new HashMap<>();
+
+    // The merged lists for every base list (biome or structure spawn list)
+    private final Map<List<Biome.SpawnListEntry>, MergedList> ambientLists = new IdentityHashMap<>();
+    private final Map<List<Biome.SpawnListEntry>, MergedList> monsterLists = new IdentityHashMap<>();
+
+    public ExtraMobSpawns(List<MobDescriptor> mobs) {
+        List<Biome.SpawnListEntry> entryList = new ArrayList<>();
+        List<Integer> maxList = new ArrayList<>();
+        for (MobDescriptor mob : mobs) {
+            Class<? extends Entity> entityClass = mob.getEntityClass();
+            if (entityClass != null) {
+                entryList.add(new Biome.SpawnListEntry((Class<? extends EntityLiving>) entityClass, mob.getSpawnChance(), mob.getMinGroup(), mob.getMaxGroup()));
+                maxList.add(mob.getMaxLoaded());
+            }
+        }
+        entries = entryList.toArray(new Biome.SpawnListEntry[entryList.size()]);
+        maxLoaded = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            maxLoaded[i] = maxList.get(i);
+        }
+        counts = new int[entries.length];
+        ambient = findEntriesOfType(IAnimals.class);
+        monster = findEntriesOfType(IMob.class);
+    }
+
+    private int[] findEntriesOfType(Class<?> type) {
+        int cnt = 0;
+        int[] result = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            if (type.isAssignableFrom(entries[i].entityClass)) {
+                result[cnt++] = i;
+            }
+        }
+        return Arrays.copyOf(result, cnt);
+    }
+
+    public boolean isEmpty() {
+        return entries.length == 0;
+    }
+
+    /**
+     * Return the given list with the extra mobs that are still below their maximum added to it.
+     * The returned list must not be modified.
+     */
+    public List<Biome.SpawnListEntry> getPossibleCreatures(World world, EnumCreatureType creatureType, List<Biome.SpawnListEntry> creatures) {
+        int[] candidates;
+        Map<List<Biome.SpawnListEntry>, MergedList> lists;
+        if (creatureType == EnumCreatureType.AMBIENT) {
+            candidates = ambient;
+            lists = ambientLists;
+        } else if (creatureType == EnumCreatureType.MONSTER) {
+            candidates = monster;
+            lists = monsterLists;
+        } else {
+            return creatures;
+        }
+        if (candidates.length == 0) {
+            return creatures;
+        }
+
+        updateCounts(world);
+
+        if (candidates.length > 64) {
+            // Too many to remember which ones are allowed. Not likely to happen
+            return merge(creatures, candidates);
+        }
+
+        long allowed = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            int idx = candidates[i];
+            if (counts[idx] < maxLoaded[idx]) {
+                allowed |= 1L << i;
+            }
+        }
+
+        MergedList merged = lists.get(creatures);
+        if (merged == null || merged.allowed != allowed || merged.baseSize != creatures.size()) {
+            merged = new MergedList(allowed, creatures.size(), merge(creatures, candidates));
+            lists.put(creatures, merged);
+        }
+        return merged.list;
+    }
+
+    private List<Biome.SpawnListEntry> merge(List<Biome.SpawnListEntry> creatures, int[] candidates) {
+        List<Biome.SpawnListEntry> list = new ArrayList<>(creatures);
+        for (int idx : candidates) {
+            if (counts[idx] < maxLoaded[idx]) {
+                list.add(entries[idx]);
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    // Count all loaded entities for every extra mob in one pass. This is done at most once per tick.
+    // Same rules as World.countEntities()
+    private void updateCounts(World world) {
+        long time = world.getTotalWorldTime();
+        if (time == countTime) {
+            return;
+        }
+        countTime = time;
+        Arrays.fill(counts, 0);
+        for (Entity entity : world.loadedEntityList) {
+            if (entity instanceof EntityLiving && ((EntityLiving) entity).isNoDespawnRequired()) {
+                continue;
+            }
+            int[] matching = matchingEntries.get(entity.getClass());
+            if (matching == null) {
+                matching = findEntriesCountedBy(entity.getClass());
+                matchingEntries.put(entity.getClass(), matching);
+            }
+            for (int idx : matching) {
+                counts[idx]++;
+            }
+        }
+    }
+
+    private int[] findEntriesCountedBy(Class<? extends Entity> entityClass) {
+        int cnt = 0;
+        int[] result = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].entityClass.isAssignableFrom(entityClass)) {
+                result[cnt++] = i;
+            }
+        }
+        return Arrays.copyOf(result, cnt);
+    }
+
+    private static class MergedList {
+        private final long allowed;
+        private final int baseSize;
+        private final List<Biome.SpawnListEntry> list;
+
+        public MergedList(long allowed, int baseSize, List<Biome.SpawnListEntry> list) {
+            this.allowed = allowed;
+            this.baseSize = baseSize;
+            this.list = list;
+        }
+    }
+}
@@ -4,13 +4,14 @@ import mcjty.rftoolsdim.dimensions.types.ControllerType;
 import net.minecraft.world.gen.layer.GenLayer;
 import net.minecraft.world.gen.layer.IntCache;
 
-import java.util.Map;
-
 public class GenLayerFiltered extends GenLayer {
 
     private final GenericBiomeProvider chunkManager;
     private final ControllerType type;
 
+    // Table from biome id to replacement biome id. Resolved on first use
+    private int[] filterTable = null;
+
     public GenLayerFiltered(GenericBiomeProvider chunkManager, long seed, GenLayer parent, ControllerType type) {
         super(seed);
         this.parent = parent;
@@ -18,55 +19,30 @@ public class GenLayerFiltered extends GenLayer {
         this.type = type;
     }
 
-    private Map<Integer, Integer> getFilterFromType() {
-        switch (type) {
-            case CONTROLLER_DEFAULT:
-            case CONTROLLER_SINGLE:
-            case CONTROLLER_CHECKERBOARD:
-                // Cannot happen
-                return null;
-            case CONTROLLER_COLD:
-                return BiomeControllerMapping.coldBiomeReplacements;
-            case CONTROLLER_MEDIUM:
-                return BiomeControllerMapping.mediumBiomeReplacements;
-            case CONTROLLER_WARM:
-                return BiomeControllerMapping.warmBiomeReplacements;
-            case CONTROLLER_DRY:
-                return BiomeControllerMapping.dryBiomeReplacements;
-            case CONTROLLER_WET:
-                return BiomeControllerMapping.wetBiomeReplacements;
-            case CONTROLLER_FIELDS:
-                return BiomeControllerMapping.fieldsBiomeReplacements;
-            case CONTROLLER_MOUNTAINS:
-                return BiomeControllerMapping.mountainsBiomeReplacements;
-            case CONTROLLER_MAGICAL:
-                return BiomeControllerMapping.magicalBiomeReplacements;
-            case CONTROLLER_FOREST:
-                return BiomeControllerMapping.forestBiomeReplacements;
-            case CONTROLLER_FILTERED:
-                return chunkManager.getDimensionInformation().getBiomeMapping();
+    private int[] getFilterFromType() {
+        if (type == ControllerType.CONTROLLER_FILTERED) {
+            return chunkManager.getDimensionInformation().getBiomeTable();
         }
-        // @todo
-        return null;
+        // Null for the controllers that don't filter (cannot happen)
+        return BiomeControllerMapping.getControllerBiomeTable(type);
     }
 
     @Override
     public int[] getInts(int x, int z, int width, int length) {
         int[] ints = parent.getInts(x, z, width, length);
-        Map<Integer, Integer> filterMap = getFilterFromType();
-        if (filterMap != null) {
-            int[] aint = IntCache.getIntCache(width * length);
-            for (int i = 0; i < width * length; ++i) {
-                Integer biome = filterMap.get(ints[i]);
-                if (biome != null) {
-                    aint[i] = biome;
-                } else {
-                    aint[i] = ints[i];
-                }
+        if (filterTable == null) {
+            filterTable = getFilterFromType();
+            if (filterTable == null) {
+                return ints;
             }
-            return aint;
-        } else {
-            return ints;
         }
+        int[] table = filterTable;
+        int size = width * length;
+        int[] aint = IntCache.getIntCache(size);
+        for (int i = 0; i < size; ++i) {
+            int biome = ints[i];
+            aint[i] = biome >= 0 && biome < table.length ? table[biome] : biome;
+        }
+        return aint;
     }
 }
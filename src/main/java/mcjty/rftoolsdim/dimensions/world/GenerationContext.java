@@ -0,0 +1,43 @@
+package mcjty.rftoolsdim.dimensions.world;
+
+import mcjty.rftoolsdim.dimensions.world.mapgen.MapGenCanyons;
+import mcjty.rftoolsdim.dimensions.world.mapgen.MapGenDenseCaves;
+import mcjty.rftoolsdim.dimensions.world.mapgen.MapGenTendrils;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.gen.MapGenBase;
+import net.minecraft.world.gen.MapGenCaves;
+import net.minecraft.world.gen.MapGenRavine;
+import net.minecraftforge.event.terraingen.TerrainGen;
+
+import java.util.Random;
+
+import static net.minecraftforge.event.terraingen.InitMapGenEvent.EventType.CAVE;
+import static net.minecraftforge.event.terraingen.InitMapGenEvent.EventType.RAVINE;
+
+/**
+ * All state that changes while a chunk is being generated. Every thread that generates chunks
+ * for a dimension gets its own context so that GenericChunkGenerator itself only contains
+ * state that is fixed for the dimension. Since the random is reseeded at the start of every
+ * chunk the result does not depend on the thread that generated it.
+ */
+public class GenerationContext {
+
+    public final Random rand;
+    public Biome[] biomesForGeneration;
+
+    // The carvers keep their own random and buffers so every thread needs its own copy
+    public final MapGenBase caveGenerator;
+    public final MapGenBase ravineGenerator;
+    public final MapGenBase denseCaveGenerator;
+    public final MapGenTendrils tendrilGenerator;
+    public final MapGenCanyons canyonGenerator;
+
+    public GenerationContext(GenericChunkGenerator generator, Random rand) {
+        this.rand = rand;
+        caveGenerator = TerrainGen.getModdedMapGen(new MapGenCaves(), CAVE);
+        ravineGenerator = TerrainGen.getModdedMapGen(new MapGenRavine(), RAVINE);
+        denseCaveGenerator = new MapGenDenseCaves(generator);
+        tendrilGenerator = new MapGenTendrils(generator);
+        canyonGenerator = new MapGenCanyons(generator);
+    }
+}
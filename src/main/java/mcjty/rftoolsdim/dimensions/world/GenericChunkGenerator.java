@@ -2,12 +2,10 @@ package mcjty.rftoolsdim.dimensions.world;
 
 import mcjty.lib.compat.CompatChunkGenerator;
 import mcjty.lib.compat.CompatMapGenStructure;
-import mcjty.rftoolsdim.blocks.ModBlocks;
 import mcjty.rftoolsdim.config.OresAPlentyConfiguration;
 import mcjty.rftoolsdim.config.WorldgenConfiguration;
 import mcjty.rftoolsdim.dimensions.DimensionInformation;
 import mcjty.rftoolsdim.dimensions.RfToolsDimensionManager;
-import mcjty.rftoolsdim.dimensions.description.MobDescriptor;
 import mcjty.rftoolsdim.dimensions.types.FeatureType;
 import mcjty.rftoolsdim.dimensions.types.StructureType;
 import mcjty.rftoolsdim.dimensions.types.TerrainType;
@@ -15,12 +13,7 @@ import mcjty.rftoolsdim.dimensions.world.mapgen.*;
 import mcjty.rftoolsdim.dimensions.world.terrain.*;
 import mcjty.rftoolsdim.dimensions.world.terrain.lost.LostCitiesTerrainGenerator;
 import net.minecraft.block.*;
-import net.minecraft.block.state.IBlockState;
-import net.minecraft.entity.Entity;
-import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.EnumCreatureType;
-import net.minecraft.entity.monster.IMob;
-import net.minecraft.entity.passive.IAnimals;
 import net.minecraft.init.Biomes;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.math.BlockPos;
@@ -45,35 +38,40 @@ import net.minecraftforge.event.terraingen.OreGenEvent;
 import net.minecraftforge.event.terraingen.PopulateChunkEvent;
 import net.minecraftforge.event.terraingen.TerrainGen;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static net.minecraftforge.event.terraingen.InitMapGenEvent.EventType.*;
 
 public class GenericChunkGenerator implements CompatChunkGenerator {
 
-    public Random rand;
     public long seed;
 
     public World worldObj;
     public DimensionInformation dimensionInformation;
+    public final BlockPalette palette;
     public WorldType worldType;
     private final BaseTerrainGenerator terrainGenerator;
 
     private ChunkProviderSettings settings = null;
 
-    private List<Biome.SpawnListEntry> extraSpawns;
-    private List<Integer> extraSpawnsMax;
+    private ExtraMobSpawns extraSpawns;
 
-    public Biome[] biomesForGeneration;
+    // Per thread state for generating chunks. The random, the biome buffer and the carvers
+    // are in here so that chunks can be generated on more then one thread at the same time.
+    // This is not a ThreadLocal because the context refers back to this generator: the entry in
+    // the (long living) server thread would keep the generator and its world alive after the
+    // dimension is unloaded. The map is owned by the generator and cleared on unload instead
+    private final Map<Thread, GenerationContext> contexts = new ConcurrentHashMap<>();
 
-    private MapGenBase caveGenerator = new MapGenCaves();
+    // The vanilla structure generators keep track of all structures they have started so
+    // they can't be duplicated per thread. All access to them goes through this lock
+    private final Object structureLock = new Object();
 
     // RFTools specific features.
-    private MapGenTendrils tendrilGenerator = new MapGenTendrils(this);
-    private MapGenCanyons canyonGenerator = new MapGenCanyons(this);
     private MapGenPyramids pyramidGenerator = new MapGenPyramids(this);
     private MapGenOrbs sphereGenerator = new MapGenOrbs(this, false);
     private MapGenOrbs hugeSphereGenerator = new MapGenOrbs(this, true);
@@ -81,7 +79,6 @@ public class GenericChunkGenerator implements CompatChunkGenerator {
     private MapGenRuinedCities ruinedCitiesGenerator = new MapGenRuinedCities(this);
     private MapGenLiquidOrbs liquidSphereGenerator = new MapGenLiquidOrbs(this, false);
     private MapGenLiquidOrbs hugeLiquidSphereGenerator = new MapGenLiquidOrbs(this, true);
-    private MapGenBase denseCaveGenerator = new MapGenDenseCaves(this);
 
     private WorldGenerator coalGen = new WorldGenMinable(Blocks.COAL_ORE.getDefaultState(), OresAPlentyConfiguration.coal.getSize());
     private WorldGenerator ironGen = new WorldGenMinable(Blocks.IRON_ORE.getDefaultState(), OresAPlentyConfiguration.iron.getSize());
@@ -162,7 +159,8 @@ public class GenericChunkGenerator implements CompatChunkGenerator {
 
         int k = chunkX / distance;
         int l = chunkZ / distance;
-        Random random = this.worldObj.setRandomSeed(k, l, randseed);
+        // Same as World.setRandomSeed() but without touching the random of the world
+        Random random = new Random(k * 341873128712L + l * 132897987541L + this.worldObj.getWorldInfo().getSeed() + randseed);
         k = k * distance;
         l = l * distance;
         k = k + random.nextInt(distance - seperation);
@@ -176,8 +174,25 @@ public class GenericChunkGenerator implements CompatChunkGenerator {
     }
 
 
-    // Holds ravine generator
-    private MapGenBase ravineGenerator = new MapGenRavine();
+    private GenerationContext getContext() {
+        return contexts.computeIfAbsent(Thread.currentThread(), t -> new GenerationContext(this, new Random()));
+    }
+
+    /**
+     * Called when the dimension is unloaded. Forget the state of all threads.
+     */
+    public void clearContexts() {
+        contexts.clear();
+    }
+
+    // The random for the chunk that is currently being generated on this thread
+    public Random getRandom() {
+        return getContext().rand;
+    }
+
+    public Biome[] getBiomesForGeneration() {
+        return getContext().biomesForGeneration;
+    }
 
     public ChunkProviderSettings getSettings() {
         if (settings == null) {
@@ -196,7 +211,6 @@ public class GenericChunkGenerator implements CompatChunkGenerator {
     public GenericChunkGenerator(World world, long seed) {
 
         {
-            caveGenerator = TerrainGen.getModdedMapGen(caveGenerator, CAVE);
 //        tendrilGenerator = TerrainGen.getModdedMapGen(tendrilGenerator, CAVE);
 //        canyonGenerator = TerrainGen.getModdedMapGen(canyonGenerator, RAVINE);
 //        sphereGenerator = TerrainGen.getModdedMapGen(sphereGenerator, RAVINE);
@@ -205,7 +219,6 @@ public class GenericChunkGenerator implements CompatChunkGenerator {
             villageGenerator = (MapGenVillage) TerrainGen.getModdedMapGen(villageGenerator, VILLAGE);
             mineshaftGenerator = (MapGenMineshaft) TerrainGen.getModdedMapGen(mineshaftGenerator, MINESHAFT);
             scatteredFeatureGenerator = (MapGenScatteredFeature) TerrainGen.getModdedMapGen(scatteredFeatureGenerator, SCATTERED_FEATURE);
-            ravineGenerator = TerrainGen.getModdedMapGen(ravineGenerator, RAVINE);
             genNetherBridge = (MapGenNetherBridge) TerrainGen.getModdedMapGen(genNetherBridge, NETHER_BRIDGE);
             oceanMonumentGenerator = (StructureOceanMonument) net.minecraftforge.event.terraingen.TerrainGen.getModdedMapGen(oceanMonumentGenerator, net.minecraftforge.event.terraingen.InitMapGenEvent.EventType.OCEAN_MONUMENT);
         }
@@ -214,6 +227,7 @@ public class GenericChunkGenerator implements CompatChunkGenerator {
         this.worldObj = world;
 
         dimensionInformation = RfToolsDimensionManager.getDimensionManager(world).getDimensionInformation(world.provider.getDimension());
+        palette = new BlockPalette(dimensionInformation);
 
         this.worldType = world.getWorldInfo().getTerrainType();
 
@@ -227,7 +241,8 @@ public class GenericChunkGenerator implements CompatChunkGenerator {
 
         this.seed = seed;
 //        System.out.println("GenericChunkGenerator: seed = " + seed);
-        this.rand = new Random((seed + 516) * 314);
+        // The terrain generators create their noise generators from this random during setup
+        contexts.put(Thread.currentThread(), new GenerationContext(this, new Random((seed + 516) * 314)));
 //        this.rand = new Random(seed);
 
         switch (dimensionInformation.getTerrainType()) {
@@ -298,33 +313,26 @@ public class GenericChunkGenerator implements CompatChunkGenerator {
 
         terrainGenerator.setup(world, this);
 
-        extraSpawns = new ArrayList<>();
-        extraSpawnsMax = new ArrayList<>();
-        for (MobDescriptor mob : dimensionInformation.getExtraMobs()) {
-            Class<? extends Entity> entityClass = mob.getEntityClass();
-            if (entityClass != null) {
-                extraSpawns.add(new Biome.SpawnListEntry((Class<? extends EntityLiving>) entityClass, mob.getSpawnChance(), mob.getMinGroup(), mob.getMaxGroup()));
-                extraSpawnsMax.add(mob.getMaxLoaded());
-            }
-        }
+        extraSpawns = new ExtraMobSpawns(dimensionInformation.getExtraMobs());
 
     }
 
     @Override
     public Chunk provideChunk(int chunkX, int chunkZ) {
-        this.rand.setSeed(chunkX * 341873128712L + chunkZ * 132897987541L);
+        GenerationContext ctx = getContext();
+        ctx.rand.setSeed(chunkX * 341873128712L + chunkZ * 132897987541L);
         ChunkPrimer chunkprimer = new ChunkPrimer();
 
-        this.biomesForGeneration = this.worldObj.getBiomeProvider().getBiomesForGeneration(this.biomesForGeneration, chunkX * 4 - 2, chunkZ * 4 - 2, 10, 10);
+        ctx.biomesForGeneration = this.worldObj.getBiomeProvider().getBiomesForGeneration(ctx.biomesForGeneration, chunkX * 4 - 2, chunkZ * 4 - 2, 10, 10);
         terrainGenerator.generate(chunkX, chunkZ, chunkprimer);
-        this.biomesForGeneration = this.worldObj.getBiomeProvider().getBiomes(this.biomesForGeneration, chunkX * 16, chunkZ * 16, 16, 16);
-        terrainGenerator.replaceBlocksForBiome(chunkX, chunkZ, chunkprimer, this.biomesForGeneration);
+        ctx.biomesForGeneration = this.worldObj.getBiomeProvider().getBiomes(ctx.biomesForGeneration, chunkX * 16, chunkZ * 16, 16, 16);
+        terrainGenerator.replaceBlocksForBiome(chunkX, chunkZ, chunkprimer, ctx.biomesForGeneration);
 
         if (dimensionInformation.hasFeatureType(FeatureType.FEATURE_TENDRILS)) {
-            this.tendrilGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
+            ctx.tendrilGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
         }
         if (dimensionInformation.hasFeatureType(FeatureType.FEATURE_CANYONS)) {
-            this.canyonGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
+            ctx.canyonGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
         }
         if (dimensionInformation.hasFeatureType(FeatureType.FEATURE_PYRAMIDS)) {
             this.pyramidGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
@@ -345,15 +353,50 @@ public class GenericChunkGenerator implements CompatChunkGenerator {
             this.hugeLiquidSphereGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
         }
         if (dimensionInformation.hasFeatureType(FeatureType.FEATURE_CAVES)) {
-            this.caveGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
+            ctx.caveGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
         }
         if (dimensionInformation.hasFeatureType(FeatureType.FEATURE_DENSE_CAVES)) {
-            this.denseCaveGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
+            ctx.denseCaveGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
         }
         if (dimensionInformation.hasFeatureType(FeatureType.FEATURE_RAVINES)) {
-            this.ravineGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
+            ctx.ravineGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
+        }
+
+        synchronized (structureLock) {
+            generateMapStructures(chunkX, chunkZ, chunkprimer);
+        }
+
+        if (dimensionInformation.hasFeatureType(FeatureType.FEATURE_RUINEDCITIES)) {
+            this.ruinedCitiesGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
+        }
+
+        if (dimensionInformation.getTerrainType() == TerrainType.TERRAIN_INVERTIGO) {
+            reverse(chunkprimer);
+        }
+
+        Chunk chunk = new Chunk(this.worldObj, chunkprimer, chunkX, chunkZ);
+        byte[] abyte = chunk.getBiomeArray();
+
+        for (int i = 0; i < abyte.length; ++i) {
+            abyte[i] = (byte) Biome.getIdForBiome(ctx.biomesForGeneration[i]);
         }
 
+        chunk.generateSkylightMap();
+//        if (dimensionInformation.getTerrainType() == TerrainType.TERRAIN_INVERTIGO) {
+//            ExtendedBlockStorage[] storage = chunk.getBlockStorageArray();
+//            for (int x = 0 ; x < 16 ; x++) {
+//                for (int z = 0 ; z < 16 ; z++) {
+//                    if (worldObj.provider.hasSkyLight()) {
+//                    }
+//                }
+//            }
+//        }
+
+        return chunk;
+    }
+
+    // Must be called with the structure lock held
+    private void generateMapStructures(int chunkX, int chunkZ, ChunkPrimer chunkprimer) {
         if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_MINESHAFT)) {
             this.mineshaftGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
         }
@@ -384,70 +427,27 @@ public class GenericChunkGenerator implements CompatChunkGenerator {
         if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_OCEAN_MONUMENT)) {
             this.oceanMonumentGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
         }
-
-//        this.ruinedCitiesGenerator.generate(this.worldObj, chunkX, chunkZ, ablock, abyte);
-
-        if (dimensionInformation.getTerrainType() == TerrainType.TERRAIN_INVERTIGO) {
-            reverse(chunkprimer);
-        }
-
-        Chunk chunk = new Chunk(this.worldObj, chunkprimer, chunkX, chunkZ);
-        byte[] abyte = chunk.getBiomeArray();
-
-        for (int i = 0; i < abyte.length; ++i) {
-            abyte[i] = (byte) Biome.getIdForBiome(this.biomesForGeneration[i]);
-        }
-
-        chunk.generateSkylightMap();
-//        if (dimensionInformation.getTerrainType() == TerrainType.TERRAIN_INVERTIGO) {
-//            ExtendedBlockStorage[] storage = chunk.getBlockStorageArray();
-//            for (int x = 0 ; x < 16 ; x++) {
-//                for (int z = 0 ; z < 16 ; z++) {
-//                    if (worldObj.provider.hasSkyLight()) {
-//                    }
-//                }
-//            }
-//        }
-
-        return chunk;
     }
 
     private static void reverse(ChunkPrimer primer) {
+        char[] replacements = BlockPalette.getInvertigoTable();
+        char[] data = primer.data;
         for (int x = 0; x < 16; x++) {
             for (int z = 0; z < 16; z++) {
                 int idx = (x << 12 | z << 8);
                 for (int y = 0; y < 64; y++) {
-                    char c = primer.data[idx + y];
-                    c = findSuitableReplacement(c);
-                    char c2 = primer.data[idx + 127 - y];
-                    c2 = findSuitableReplacement(c2);
-                    primer.data[idx + y] = c2;
-                    primer.data[idx + 127 - y] = c;
+                    char c = replacements[data[idx + y]];
+                    char c2 = replacements[data[idx + 127 - y]];
+                    data[idx + y] = c2;
+                    data[idx + 127 - y] = c;
                 }
                 for (int y = 128; y < 255; y++) {
-                    primer.data[idx + y] = 0;
+                    data[idx + y] = 0;
                 }
             }
         }
     }
 
-    private static char findSuitableReplacement(char c) {
-        IBlockState iblockstate = Block.BLOCK_STATE_IDS.getByValue(c);
-        Block block = iblockstate.getBlock();
-        if (block instanceof BlockLiquid) {
-            c = (char) Block.BLOCK_STATE_IDS.get(ModBlocks.fakeWaterBlock.getDefaultState());
-        } else if (block instanceof BlockGravel) {
-            c = (char) Block.BLOCK_STATE_IDS.get(ModBlocks.fakeGravelBlock.getDefaultState());
-        } else if (block instanceof BlockSand) {
-            c = (char) Block.BLOCK_STATE_IDS.get(ModBlocks.fakeSandBlock.getDefaultState());
-        } else if (block == Blocks.BEDROCK) {
-            c = (char) Block.BLOCK_STATE_IDS.get(Blocks.STONE.getDefaultState());
-        } else if (block instanceof BlockFalling) {
-            c = 0;
-        }
-        return c;
-    }
-
     private static UpsidedownWorld upsidedownWorld = null;
 
     @Override
@@ -456,11 +456,12 @@ public class GenericChunkGenerator implements CompatChunkGenerator {
         int x = chunkX * 16;
         int z = chunkZ * 16;
         World w = this.worldObj;
+        Random rand = getContext().rand;
         Biome Biome = w.getBiomeForCoordsBody(new BlockPos(x + 16, 0, z + 16));
-        this.rand.setSeed(w.getSeed());
-        long i1 = this.rand.nextLong() / 2L * 2L + 1L;
-        long j1 = this.rand.nextLong() / 2L * 2L + 1L;
-        this.rand.setSeed(chunkX * i1 + chunkZ * j1 ^ w.getSeed());
+        rand.setSeed(w.getSeed());
+        long i1 = rand.nextLong() / 2L * 2L + 1L;
+        long j1 = rand.nextLong() / 2L * 2L + 1L;
+        rand.setSeed(chunkX * i1 + chunkZ * j1 ^ w.getSeed());
         boolean flag = false;
 
         if (dimensionInformation.getTerrainType() == TerrainType.TERRAIN_INVERTIGO) {
@@ -488,35 +489,37 @@ public class GenericChunkGenerator implements CompatChunkGenerator {
 
         ChunkPos cp = new ChunkPos(chunkX, chunkZ);
 
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_MINESHAFT)) {
-            this.mineshaftGenerator.generateStructure(w, this.rand, cp);
-        }
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_VILLAGE)) {
-            flag = this.villageGenerator.generateStructure(w, this.rand, cp);
-        }
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_STRONGHOLD)) {
-            this.strongholdGenerator.generateStructure(w, this.rand, cp);
-        }
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_FORTRESS)) {
-            this.genNetherBridge.generateStructure(w, this.rand, cp);
-        }
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_SCATTERED)) {
-            this.scatteredFeatureGenerator.generateStructure(w, this.rand, cp);
-        }
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_SWAMPHUT)) {
-            this.genSwampHut.generateStructure(w, this.rand, cp);
-        }
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_DESERTTEMPLE)) {
-            this.genDesertTemple.generateStructure(w, this.rand, cp);
-        }
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_JUNGLETEMPLE)) {
-            this.genJungleTemple.generateStructure(w, this.rand, cp);
-        }
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_IGLOO)) {
-            this.genIgloo.generateStructure(w, this.rand, cp);
-        }
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_OCEAN_MONUMENT)) {
-            this.oceanMonumentGenerator.generateStructure(w, this.rand, cp);
+        synchronized (structureLock) {
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_MINESHAFT)) {
+                this.mineshaftGenerator.generateStructure(w, rand, cp);
+            }
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_VILLAGE)) {
+                flag = this.villageGenerator.generateStructure(w, rand, cp);
+            }
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_STRONGHOLD)) {
+                this.strongholdGenerator.generateStructure(w, rand, cp);
+            }
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_FORTRESS)) {
+                this.genNetherBridge.generateStructure(w, rand, cp);
+            }
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_SCATTERED)) {
+                this.scatteredFeatureGenerator.generateStructure(w, rand, cp);
+            }
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_SWAMPHUT)) {
+                this.genSwampHut.generateStructure(w, rand, cp);
+            }
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_DESERTTEMPLE)) {
+                this.genDesertTemple.generateStructure(w, rand, cp);
+            }
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_JUNGLETEMPLE)) {
+                this.genJungleTemple.generateStructure(w, rand, cp);
+            }
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_IGLOO)) {
+                this.genIgloo.generateStructure(w, rand, cp);
+            }
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_OCEAN_MONUMENT)) {
+                this.oceanMonumentGenerator.generateStructure(w, rand, cp);
+            }
         }
 
         int k1;
@@ -527,32 +530,32 @@ public class GenericChunkGenerator implements CompatChunkGenerator {
             if (dimensionInformation.hasFeatureType(FeatureType.FEATURE_LAKES)) {
                 if (dimensionInformation.getFluidsForLakes().length == 0) {
                     // No specific liquid dimlets specified: we generate default lakes (water and lava were appropriate).
-                    if (Biome != Biomes.DESERT && Biome != Biomes.DESERT_HILLS && !flag && this.rand.nextInt(4) == 0
+                    if (Biome != Biomes.DESERT && Biome != Biomes.DESERT_HILLS && !flag && rand.nextInt(4) == 0
                             && TerrainGen.populate(this, w, rand, chunkX, chunkZ, flag, PopulateChunkEvent.Populate.EventType.LAKE)) {
-                        k1 = x + this.rand.nextInt(16) + 8;
-                        l1 = this.rand.nextInt(256);
-                        i2 = z + this.rand.nextInt(16) + 8;
-                        (new WorldGenLakes(Blocks.WATER)).generate(w, this.rand, new BlockPos(k1, l1, i2));
+                        k1 = x + rand.nextInt(16) + 8;
+                        l1 = rand.nextInt(256);
+                        i2 = z + rand.nextInt(16) + 8;
+                        (new WorldGenLakes(Blocks.WATER)).generate(w, rand, new BlockPos(k1, l1, i2));
                     }
 
-                    if (TerrainGen.populate(this, w, rand, chunkX, chunkZ, flag, PopulateChunkEvent.Populate.EventType.LAVA) && !flag && this.rand.nextInt(8) == 0) {
-                        k1 = x + this.rand.nextInt(16) + 8;
-                        l1 = this.rand.nextInt(this.rand.nextInt(248) + 8);
-                        i2 = z + this.rand.nextInt(16) + 8;
+                    if (TerrainGen.populate(this, w, rand, chunkX, chunkZ, flag, PopulateChunkEvent.Populate.EventType.LAVA) && !flag && rand.nextInt(8) == 0) {
+                        k1 = x + rand.nextInt(16) + 8;
+                        l1 = rand.nextInt(rand.nextInt(248) + 8);
+                        i2 = z + rand.nextInt(16) + 8;
 
-                        if (l1 < 63 || this.rand.nextInt(10) == 0) {
-                            (new WorldGenLakes(Blocks.LAVA)).generate(w, this.rand, new BlockPos(k1, l1, i2));
+                        if (l1 < 63 || rand.nextInt(10) == 0) {
+                            (new WorldGenLakes(Blocks.LAVA)).generate(w, rand, new BlockPos(k1, l1, i2));
                         }
                     }
                 } else {
                     // Generate lakes for the specified biomes.
                     for (Block liquid : dimensionInformation.getFluidsForLakes()) {
-                        if (!flag && this.rand.nextInt(4) == 0
+                        if (!flag && rand.nextInt(4) == 0
                                 && TerrainGen.populate(this, w, rand, chunkX, chunkZ, flag, PopulateChunkEvent.Populate.EventType.LAKE)) {
-                            k1 = x + this.rand.nextInt(16) + 8;
-                            l1 = this.rand.nextInt(256);
-                            i2 = z + this.rand.nextInt(16) + 8;
-                            (new WorldGenLakes(liquid)).generate(w, this.rand, new BlockPos(k1, l1, i2));
+                            k1 = x + rand.nextInt(16) + 8;
+                            l1 = rand.nextInt(256);
+                            i2 = z + rand.nextInt(16) + 8;
+                            (new WorldGenLakes(liquid)).generate(w, rand, new BlockPos(k1, l1, i2));
                         }
                     }
                 }
@@ -563,29 +566,29 @@ public class GenericChunkGenerator implements CompatChunkGenerator {
         if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_DUNGEON)) {
             doGen = TerrainGen.populate(this, w, rand, chunkX, chunkZ, flag, PopulateChunkEvent.Populate.EventType.DUNGEON);
             for (k1 = 0; doGen && k1 < 8; ++k1) {
-                l1 = x + this.rand.nextInt(16) + 8;
-                i2 = this.rand.nextInt(256);
-                int j2 = z + this.rand.nextInt(16) + 8;
-                (new WorldGenDungeons()).generate(w, this.rand, new BlockPos(l1, i2, j2));
+                l1 = x + rand.nextInt(16) + 8;
+                i2 = rand.nextInt(256);
+                int j2 = z + rand.nextInt(16) + 8;
+                (new WorldGenDungeons()).generate(w, rand, new BlockPos(l1, i2, j2));
             }
         }
 
         BlockPos pos = new BlockPos(x, 0, z);
-        Biome.decorate(w, this.rand, pos);
+        Biome.decorate(w, rand, pos);
 
         // OresAPlenty
         if (dimensionInformation.hasFeatureType(FeatureType.FEATURE_ORESAPLENTY)) {
-            generateOre(w, this.rand, coalGen, OreGenEvent.GenerateMinable.EventType.COAL, pos, OresAPlentyConfiguration.coal);
-            generateOre(w, this.rand, ironGen, OreGenEvent.GenerateMinable.EventType.IRON, pos, OresAPlentyConfiguration.iron);
-            generateOre(w, this.rand, goldGen, OreGenEvent.GenerateMinable.EventType.GOLD, pos, OresAPlentyConfiguration.gold);
-            generateOre(w, this.rand, lapisGen, OreGenEvent.GenerateMinable.EventType.LAPIS, pos, OresAPlentyConfiguration.lapis);
-            generateOre(w, this.rand, diamondGen, OreGenEvent.GenerateMinable.EventType.DIAMOND, pos, OresAPlentyConfiguration.diamond);
-            generateOre(w, this.rand, redstoneGen, OreGenEvent.GenerateMinable.EventType.REDSTONE, pos, OresAPlentyConfiguration.redstone);
-            generateOre(w, this.rand, emeraldGen, OreGenEvent.GenerateMinable.EventType.EMERALD, pos, OresAPlentyConfiguration.emerald);
+            generateOre(w, rand, coalGen, OreGenEvent.GenerateMinable.EventType.COAL, pos, OresAPlentyConfiguration.coal);
+            generateOre(w, rand, ironGen, OreGenEvent.GenerateMinable.EventType.IRON, pos, OresAPlentyConfiguration.iron);
+            generateOre(w, rand, goldGen, OreGenEvent.GenerateMinable.EventType.GOLD, pos, OresAPlentyConfiguration.gold);
+            generateOre(w, rand, lapisGen, OreGenEvent.GenerateMinable.EventType.LAPIS, pos, OresAPlentyConfiguration.lapis);
+            generateOre(w, rand, diamondGen, OreGenEvent.GenerateMinable.EventType.DIAMOND, pos, OresAPlentyConfiguration.diamond);
+            generateOre(w, rand, redstoneGen, OreGenEvent.GenerateMinable.EventType.REDSTONE, pos, OresAPlentyConfiguration.redstone);
+            generateOre(w, rand, emeraldGen, OreGenEvent.GenerateMinable.EventType.EMERALD, pos, OresAPlentyConfiguration.emerald);
         }
 
         if (TerrainGen.populate(this, w, rand, chunkX, chunkZ, flag, PopulateChunkEvent.Populate.EventType.ANIMALS)) {
-            WorldEntitySpawner.performWorldGenSpawning(w, Biome, x + 8, z + 8, 16, 16, this.rand);
+            WorldEntitySpawner.performWorldGenSpawning(w, Biome, x + 8, z + 8, 16, 16, rand);
         }
         x += 8;
         z += 8;
@@ -615,7 +618,9 @@ public class GenericChunkGenerator implements CompatChunkGenerator {
         boolean flag = false;
 
         if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_OCEAN_MONUMENT) && chunkIn.getInhabitedTime() < 3600L) {
-            flag |= this.oceanMonumentGenerator.generateStructure(this.worldObj, this.rand, new ChunkPos(x, z));
+            synchronized (structureLock) {
+                flag |= this.oceanMonumentGenerator.generateStructure(this.worldObj, getContext().rand, new ChunkPos(x, z));
+            }
         }
 
         return flag;
@@ -623,82 +628,58 @@ public class GenericChunkGenerator implements CompatChunkGenerator {
 
     @Override
     public List<Biome.SpawnListEntry> getPossibleCreatures(EnumCreatureType creatureType, BlockPos pos) {
-        List creatures = getDefaultCreatures(creatureType, pos);
+        List<Biome.SpawnListEntry> creatures = getDefaultCreatures(creatureType, pos);
         if (extraSpawns.isEmpty() || worldObj == null) {        // null pointer protection here
             return creatures;
         }
-
-        if (creatureType == EnumCreatureType.AMBIENT) {
-            creatures = new ArrayList(creatures);
-            for (int i = 0; i < extraSpawns.size(); i++) {
-                Class entityClass = extraSpawns.get(i).entityClass;
-                if (entityClass != null && IAnimals.class.isAssignableFrom(entityClass)) {
-                    int count = worldObj.countEntities(entityClass);
-                    if (count < extraSpawnsMax.get(i)) {
-                        creatures.add(extraSpawns.get(i));
-                    }
-                }
-            }
-        } else if (creatureType == EnumCreatureType.MONSTER) {
-            creatures = new ArrayList(creatures);
-            for (int i = 0; i < extraSpawns.size(); i++) {
-                Class entityClass = extraSpawns.get(i).entityClass;
-                if (entityClass != null && IMob.class.isAssignableFrom(entityClass)) {
-                    int count = worldObj.countEntities(entityClass);
-                    if (count < extraSpawnsMax.get(i)) {
-                        creatures.add(extraSpawns.get(i));
-                    }
-                }
-            }
-        }
-
-
-        return creatures;
+        return extraSpawns.getPossibleCreatures(worldObj, creatureType, creatures);
     }
 
-    private List getDefaultCreatures(EnumCreatureType creatureType, BlockPos pos) {
+    private List<Biome.SpawnListEntry> getDefaultCreatures(EnumCreatureType creatureType, BlockPos pos) {
         Biome Biome = this.worldObj.getBiomeForCoordsBody(pos);
         if (creatureType == EnumCreatureType.MONSTER) {
             if (dimensionInformation.isPeaceful()) {
                 return Collections.emptyList();
             }
-            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_SCATTERED)) {
-                if (this.scatteredFeatureGenerator.isInsideStructure(pos)) {
-                    return this.scatteredFeatureGenerator.getScatteredFeatureSpawnList();
+            synchronized (structureLock) {
+                if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_SCATTERED)) {
+                    if (this.scatteredFeatureGenerator.isInsideStructure(pos)) {
+                        return this.scatteredFeatureGenerator.getScatteredFeatureSpawnList();
+                    }
                 }
-            }
-            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_SWAMPHUT)) {
-                if (this.genSwampHut.func_175798_a(pos)) {
-                    return this.genSwampHut.getScatteredFeatureSpawnList();
+                if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_SWAMPHUT)) {
+                    if (this.genSwampHut.func_175798_a(pos)) {
+                        return this.genSwampHut.getScatteredFeatureSpawnList();
+                    }
                 }
-            }
-            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_DESERTTEMPLE)) {
-                if (this.genDesertTemple.func_175798_a(pos)) {
-                    return this.genDesertTemple.getScatteredFeatureSpawnList();
+                if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_DESERTTEMPLE)) {
+                    if (this.genDesertTemple.func_175798_a(pos)) {
+                        return this.genDesertTemple.getScatteredFeatureSpawnList();
+                    }
                 }
-            }
-            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_JUNGLETEMPLE)) {
-                if (this.genJungleTemple.func_175798_a(pos)) {
-                    return this.genJungleTemple.getScatteredFeatureSpawnList();
+                if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_JUNGLETEMPLE)) {
+                    if (this.genJungleTemple.func_175798_a(pos)) {
+                        return this.genJungleTemple.getScatteredFeatureSpawnList();
+                    }
                 }
-            }
-            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_IGLOO)) {
-                if (this.genIgloo.func_175798_a(pos)) {
-                    return this.genIgloo.getScatteredFeatureSpawnList();
+                if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_IGLOO)) {
+                    if (this.genIgloo.func_175798_a(pos)) {
+                        return this.genIgloo.getScatteredFeatureSpawnList();
+                    }
                 }
-            }
 
-            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_FORTRESS)) {
-                if (this.genNetherBridge.isInsideStructure(pos)) {
-                    return this.genNetherBridge.getSpawnList();
-                }
+                if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_FORTRESS)) {
+                    if (this.genNetherBridge.isInsideStructure(pos)) {
+                        return this.genNetherBridge.getSpawnList();
+                    }
 
-                if (this.genNetherBridge.isPositionInStructure(this.worldObj, pos) && this.worldObj.getBlockState(pos.down()).getBlock() == Blocks.NETHER_BRICK) {
-                    return this.genNetherBridge.getSpawnList();
+                    if (this.genNetherBridge.isPositionInStructure(this.worldObj, pos) && this.worldObj.getBlockState(pos.down()).getBlock() == Blocks.NETHER_BRICK) {
+                        return this.genNetherBridge.getSpawnList();
+                    }
+                }
+                if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_OCEAN_MONUMENT) && this.oceanMonumentGenerator.isPositionInStructure(this.worldObj, pos)) {
+                    return this.oceanMonumentGenerator.getScatteredFeatureSpawnList();
                 }
-            }
-            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_OCEAN_MONUMENT) && this.oceanMonumentGenerator.isPositionInStructure(this.worldObj, pos)) {
-                return this.oceanMonumentGenerator.getScatteredFeatureSpawnList();
             }
         } else if (creatureType == EnumCreatureType.AMBIENT) {
             if (dimensionInformation.isNoanimals()) {
@@ -711,48 +692,53 @@ public class GenericChunkGenerator implements CompatChunkGenerator {
 
     @Override
     public BlockPos clGetStrongholdGen(World worldIn, String structureName, BlockPos position) {
-        return "Stronghold".equals(structureName) && this.strongholdGenerator != null
-                ? CompatMapGenStructure.getClosestStrongholdPos(this.strongholdGenerator, worldIn, position)
-                : null;
+        if (!"Stronghold".equals(structureName) || this.strongholdGenerator == null) {
+            return null;
+        }
+        synchronized (structureLock) {
+            return CompatMapGenStructure.getClosestStrongholdPos(this.strongholdGenerator, worldIn, position);
+        }
     }
 
     @Override
     public void recreateStructures(Chunk chunkIn, int x, int z) {
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_FORTRESS)) {
-            this.genNetherBridge.generate(this.worldObj, x, z, null);
-        }
+        synchronized (structureLock) {
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_FORTRESS)) {
+                this.genNetherBridge.generate(this.worldObj, x, z, null);
+            }
 
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_MINESHAFT)) {
-            this.mineshaftGenerator.generate(this.worldObj, x, z, null);
-        }
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_MINESHAFT)) {
+                this.mineshaftGenerator.generate(this.worldObj, x, z, null);
+            }
 
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_VILLAGE)) {
-            this.villageGenerator.generate(this.worldObj, x, z, null);
-        }
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_VILLAGE)) {
+                this.villageGenerator.generate(this.worldObj, x, z, null);
+            }
 
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_STRONGHOLD)) {
-            this.strongholdGenerator.generate(this.worldObj, x, z, null);
-        }
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_STRONGHOLD)) {
+                this.strongholdGenerator.generate(this.worldObj, x, z, null);
+            }
 
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_SCATTERED)) {
-            this.scatteredFeatureGenerator.generate(this.worldObj, x, z, null);
-        }
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_SCATTERED)) {
+                this.scatteredFeatureGenerator.generate(this.worldObj, x, z, null);
+            }
 
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_SWAMPHUT)) {
-            this.genSwampHut.generate(this.worldObj, x, z, null);
-        }
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_DESERTTEMPLE)) {
-            this.genDesertTemple.generate(this.worldObj, x, z, null);
-        }
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_JUNGLETEMPLE)) {
-            this.genJungleTemple.generate(this.worldObj, x, z, null);
-        }
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_IGLOO)) {
-            this.genIgloo.generate(this.worldObj, x, z, null);
-        }
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_SWAMPHUT)) {
+                this.genSwampHut.generate(this.worldObj, x, z, null);
+            }
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_DESERTTEMPLE)) {
+                this.genDesertTemple.generate(this.worldObj, x, z, null);
+            }
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_JUNGLETEMPLE)) {
+                this.genJungleTemple.generate(this.worldObj, x, z, null);
+            }
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_IGLOO)) {
+                this.genIgloo.generate(this.worldObj, x, z, null);
+            }
 
-        if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_OCEAN_MONUMENT)) {
-            this.oceanMonumentGenerator.generate(this.worldObj, x, z, null);
+            if (dimensionInformation.hasStructureType(StructureType.STRUCTURE_OCEAN_MONUMENT)) {
+                this.oceanMonumentGenerator.generate(this.worldObj, x, z, null);
+            }
         }
     }
 
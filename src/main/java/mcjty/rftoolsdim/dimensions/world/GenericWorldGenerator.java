@@ -24,6 +24,7 @@ import mcjty.rftoolsdim.dimensions.world.terrain.lost.BuildingInfo;
 import mcjty.rftoolsdim.dimensions.world.terrain.lost.GenInfo;
 import mcjty.rftoolsdim.dimensions.world.terrain.lost.LostCitiesTerrainGenerator;
 import mcjty.rftoolsdim.items.ModItems;
+import mcjty.rftoolsdim.varia.RFToolsContent;
 import mcjty.rftoolsdim.varia.RarityRandomSelector;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockChest;
@@ -32,7 +33,6 @@ import net.minecraft.block.properties.PropertyBool;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.item.EntityItemFrame;
 import net.minecraft.init.Blocks;
-import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.tileentity.TileEntityChest;
@@ -46,9 +46,10 @@ import net.minecraft.world.chunk.IChunkProvider;
 import net.minecraft.world.gen.feature.WorldGenMinable;
 import net.minecraft.world.storage.loot.LootTableList;
 import net.minecraftforge.fml.common.IWorldGenerator;
-import net.minecraftforge.fml.common.registry.ForgeRegistries;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
@@ -69,37 +70,40 @@ public class GenericWorldGenerator implements IWorldGenerator {
             }
         }
 
-        Block dimensionalShardBlock = ForgeRegistries.BLOCKS.getValue(new ResourceLocation("rftools", "dimensional_shard_ore"));
-        addOreSpawn(dimensionalShardBlock.getDefaultState(), Blocks.STONE.getDefaultState(), world, random, chunkX * 16, chunkZ * 16,
-                WorldgenConfiguration.oreMinimumVeinSize, WorldgenConfiguration.oreMaximumVeinSize, WorldgenConfiguration.oreMaximumVeinCount,
-                WorldgenConfiguration.oreMinimumHeight, WorldgenConfiguration.oreMaximumHeight);
+        RFToolsContent.checkInit();
+        if (RFToolsContent.dimensionalShardOre != null) {
+            addOreSpawn(RFToolsContent.dimensionalShardOre.getDefaultState(), Blocks.STONE.getDefaultState(), world, random, chunkX * 16, chunkZ * 16,
+                    WorldgenConfiguration.oreMinimumVeinSize, WorldgenConfiguration.oreMaximumVeinSize, WorldgenConfiguration.oreMaximumVeinCount,
+                    WorldgenConfiguration.oreMinimumHeight, WorldgenConfiguration.oreMaximumHeight);
+        }
 
+        SurfaceProfile profile = new SurfaceProfile(world);
         if (information.isPatreonBitSet(Patreons.PATREON_PUPPETEER) && Math.abs(chunkX) <= 1 && Math.abs(chunkZ) <= 1) {
-            generateBigSpawnPlatform(world, chunkX, chunkZ, puppeteerSpawnPlatform);
+            generateBigSpawnPlatform(world, profile, chunkX, chunkZ, puppeteerSpawnPlatform);
         } else if (chunkX == 0 && chunkZ == 0) {
-            generateSpawnPlatform(world);
+            generateSpawnPlatform(world, profile);
         } else if ((Math.abs(chunkX) > 6 || Math.abs(chunkZ) > 6) && !information.hasFeatureType(FeatureType.FEATURE_NODIMLETBUILDINGS)) {
             // Not too close to starting platform we possibly generate dungeons.
             if (random.nextInt(WorldgenConfiguration.dungeonChance) == 1) {
-                generateDimletDungeon(random, chunkX, chunkZ, world);
+                generateDimletDungeon(random, chunkX, chunkZ, world, profile);
             }
         }
 
         if ((Math.abs(chunkX) >= 2 || Math.abs(chunkZ) >= 2) && information.isPatreonBitSet(Patreons.PATREON_COLOREDPRISMS)) {
             if (random.nextInt(10) == 1) {
-                generatePrism(chunkX, chunkZ, world);
+                generatePrism(chunkX, chunkZ, world, profile);
             }
         }
 
         if ((Math.abs(chunkX) >= 1 || Math.abs(chunkZ) >= 1) && information.isPatreonBitSet(Patreons.PATREON_PINKPILLARS)) {
             if (random.nextInt(2) == 1) {
-                generatePillar(random, chunkX, chunkZ, world);
+                generatePillar(random, chunkX, chunkZ, world, profile);
             }
         }
 
         if ((Math.abs(chunkX) >= 3 || Math.abs(chunkZ) >= 3) && information.hasFeatureType(FeatureType.FEATURE_VOLCANOES)) {
             if (random.nextInt(WorldgenConfiguration.volcanoChance) == 1) {
-                generateVolcano(random, chunkX, chunkZ, world);
+                generateVolcano(random, chunkX, chunkZ, world, profile);
             }
         }
 
@@ -110,23 +114,23 @@ public class GenericWorldGenerator implements IWorldGenerator {
 
     }
 
-    private void generateDimletDungeon(Random random, int chunkX, int chunkZ, World world) {
+    private void generateDimletDungeon(Random random, int chunkX, int chunkZ, World world, SurfaceProfile profile) {
         int midx = chunkX * 16 + 8;
         int midz = chunkZ * 16 + 8;
-        int starty1 = WorldGenerationTools.findSuitableEmptySpot(world, midx - 3, midz - 3);
-        int starty2 = WorldGenerationTools.findSuitableEmptySpot(world, midx + 3, midz - 3);
-        int starty3 = WorldGenerationTools.findSuitableEmptySpot(world, midx - 3, midz + 3);
-        int starty4 = WorldGenerationTools.findSuitableEmptySpot(world, midx + 3, midz + 3);
+        int starty1 = profile.findSuitableEmptySpot(midx - 3, midz - 3);
+        int starty2 = profile.findSuitableEmptySpot(midx + 3, midz - 3);
+        int starty3 = profile.findSuitableEmptySpot(midx - 3, midz + 3);
+        int starty4 = profile.findSuitableEmptySpot(midx + 3, midz + 3);
         int starty = (starty1 + starty2 + starty3 + starty4) / 4;
         if (starty > 1 && starty < world.getHeight() - 20) {
-            generateDungeon(world, random, midx, starty, midz);
+            generateDungeon(world, profile, random, midx, starty, midz);
         }
     }
 
     private void generateVines(Random random, int chunkX, int chunkZ, World world) {
         int cx = chunkX * 16;
         int cz = chunkZ * 16;
-        BuildingInfo info = new BuildingInfo(chunkX, chunkZ, world.getSeed());
+        BuildingInfo info = BuildingInfo.getBuildingInfo(chunkX, chunkZ, world.getSeed());
 
         int bottom = Math.max(66, info.hasBuilding ? (69 + info.floors * 6) : 66);
 
@@ -186,7 +190,7 @@ public class GenericWorldGenerator implements IWorldGenerator {
     }
 
     private void generateLootSpawners(Random random, int chunkX, int chunkZ, World world) {
-        BuildingInfo info = new BuildingInfo(chunkX, chunkZ, world.getSeed());
+        BuildingInfo info = BuildingInfo.getBuildingInfo(chunkX, chunkZ, world.getSeed());
 
         int buildingtop = 0;
         boolean building = info.hasBuilding;
@@ -301,11 +305,12 @@ public class GenericWorldGenerator implements IWorldGenerator {
     }
 
     private void createModularStorage(Random random, World world, BlockPos pos) {
-        Item storageModule = ForgeRegistries.ITEMS.getValue(new ResourceLocation("rftools", "storage_module"));
-        ItemStack module = new ItemStack(storageModule);
+        if (RFToolsContent.modularStorage == null || RFToolsContent.storageModule == null) {
+            return;
+        }
+        ItemStack module = new ItemStack(RFToolsContent.storageModule);
 
-        Block storageBlock = ForgeRegistries.BLOCKS.getValue(new ResourceLocation("rftools", "modular_storage"));
-        world.setBlockState(pos, storageBlock.getDefaultState().withProperty(GenericBlock.FACING, EnumFacing.HORIZONTALS[random.nextInt(EnumFacing.HORIZONTALS.length)]));
+        world.setBlockState(pos, RFToolsContent.modularStorage.getDefaultState().withProperty(GenericBlock.FACING, EnumFacing.HORIZONTALS[random.nextInt(EnumFacing.HORIZONTALS.length)]));
         TileEntity te = world.getTileEntity(pos);
         if (te instanceof ModularStorageTileEntity) {
             ModularStorageTileEntity storage = (ModularStorageTileEntity) te;
@@ -321,19 +326,31 @@ public class GenericWorldGenerator implements IWorldGenerator {
         IBlockState state;
         switch (random.nextInt(3)) {
             case 0:
-                machine = ForgeRegistries.BLOCKS.getValue(new ResourceLocation("rftools", "crafter1"));
+                machine = RFToolsContent.crafter1;
+                if (machine == null) {
+                    return;
+                }
                 state = machine.getDefaultState().withProperty(GenericBlock.FACING, EnumFacing.HORIZONTALS[random.nextInt(EnumFacing.HORIZONTALS.length)]);
                 break;
             case 1:
-                machine = ForgeRegistries.BLOCKS.getValue(new ResourceLocation("rftools", "powercell_simple"));
+                machine = RFToolsContent.powercellSimple;
+                if (machine == null) {
+                    return;
+                }
                 state = machine.getDefaultState();
                 break;
             case 2:
-                machine = ForgeRegistries.BLOCKS.getValue(new ResourceLocation("rftools", "rf_monitor"));
+                machine = RFToolsContent.rfMonitor;
+                if (machine == null) {
+                    return;
+                }
                 state = machine.getDefaultState().withProperty(GenericBlock.FACING, EnumFacing.HORIZONTALS[random.nextInt(EnumFacing.HORIZONTALS.length)]);
                 break;
             default:
-                machine = ForgeRegistries.BLOCKS.getValue(new ResourceLocation("rftools", "crafter2"));
+                machine = RFToolsContent.crafter2;
+                if (machine == null) {
+                    return;
+                }
                 state = machine.getDefaultState().withProperty(GenericBlock.FACING, EnumFacing.HORIZONTALS[random.nextInt(EnumFacing.HORIZONTALS.length)]);
                 break;
         }
@@ -357,7 +374,10 @@ public class GenericWorldGenerator implements IWorldGenerator {
             case 3:
                 return new ItemStack(ModItems.dimletParcelItem, 1+rand.nextInt(3));
             default:
-                return new ItemStack(ForgeRegistries.ITEMS.getValue(new ResourceLocation("rftools", "dimensional_shard")), rand.nextInt(20)+10);
+                if (RFToolsContent.dimensionalShard == null) {
+                    return ItemStackTools.getEmptyStack();
+                }
+                return new ItemStack(RFToolsContent.dimensionalShard, rand.nextInt(20)+10);
         }
     }
 
@@ -393,10 +413,10 @@ public class GenericWorldGenerator implements IWorldGenerator {
         }
     }
 
-    private void generateVolcano(Random random, int chunkX, int chunkZ, World world) {
+    private void generateVolcano(Random random, int chunkX, int chunkZ, World world, SurfaceProfile profile) {
         int x = chunkX * 16 + random.nextInt(16);
         int z = chunkZ * 16 + random.nextInt(16);
-        int y = world.getTopSolidOrLiquidBlock(new BlockPos(x, 0, z)).getY();
+        int y = profile.getTopSolidOrLiquid(x, z);
 
         int cntsolid = 0;
         while (y > 3) {
@@ -414,59 +434,71 @@ public class GenericWorldGenerator implements IWorldGenerator {
         }
     }
 
-    private void generatePrism(int chunkX, int chunkZ, World world) {
+    private void generatePrism(int chunkX, int chunkZ, World world, SurfaceProfile profile) {
         int x = chunkX * 16 + 8;
         int z = chunkZ * 16 + 8;
-        int y = world.getTopSolidOrLiquidBlock(new BlockPos(x, 0, z)).getY();
-        int y1 = world.getTopSolidOrLiquidBlock(new BlockPos(x - 7, 0, z - 7)).getY();
+        int y = profile.getTopSolidOrLiquid(x, z);
+        int y1 = profile.getTopSolidOrLiquid(x - 7, z - 7);
         if (y1 < y) {
             y = y1;
         }
-        y1 = world.getTopSolidOrLiquidBlock(new BlockPos(x + 7, 0, z - 7)).getY();
+        y1 = profile.getTopSolidOrLiquid(x + 7, z - 7);
         if (y1 < y) {
             y = y1;
         }
-        y1 = world.getTopSolidOrLiquidBlock(new BlockPos(x - 7, 0, z + 7)).getY();
+        y1 = profile.getTopSolidOrLiquid(x - 7, z + 7);
         if (y1 < y) {
             y = y1;
         }
-        y1 = world.getTopSolidOrLiquidBlock(new BlockPos(x + 7, 0, z + 7)).getY();
+        y1 = profile.getTopSolidOrLiquid(x + 7, z + 7);
         if (y1 < y) {
             y = y1;
         }
         if (y > 10 && y < 230) {
-            for (int i = 7; i >= 0; i--) {
-                if (i == 0) {
-                    setStainedGlassIfAir(world, x, y, z, i);
-                } else {
-                    for (int j = -i; j <= i - 1; j++) {
-                        setStainedGlassIfAir(world, x + j + 1, y, z + i, i);
-                        setStainedGlassIfAir(world, x + i, y, z + j, i);
-                        setStainedGlassIfAir(world, x - j - 1, y, z - i, i);
-                        setStainedGlassIfAir(world, x - i, y, z - j, i);
-                    }
+            StructureWriter writer = new StructureWriter(world, profile);
+            buildPrism(writer, x, y, z);
+            writer.flush();
+        }
+    }
+
+    static void buildPrism(StructureWriter writer, int x, int y, int z) {
+        for (int i = 7; i >= 0; i--) {
+            if (i == 0) {
+                setStainedGlassIfAir(writer, x, y, z, i);
+            } else {
+                for (int j = -i; j <= i - 1; j++) {
+                    setStainedGlassIfAir(writer, x + j + 1, y, z + i, i);
+                    setStainedGlassIfAir(writer, x + i, y, z + j, i);
+                    setStainedGlassIfAir(writer, x - j - 1, y, z - i, i);
+                    setStainedGlassIfAir(writer, x - i, y, z - j, i);
                 }
-                y++;
             }
+            y++;
         }
     }
 
-    private void setStainedGlassIfAir(World world, int x, int y, int z, int i) {
-        if (world.isAirBlock(new BlockPos(x, y, z))) {
-            world.setBlockState(new BlockPos(x, y, z), Blocks.STAINED_GLASS.getStateFromMeta(i), 2);
+    private static void setStainedGlassIfAir(StructureWriter writer, int x, int y, int z, int i) {
+        if (writer.isAirBlock(x, y, z)) {
+            writer.setBlockState(x, y, z, Blocks.STAINED_GLASS.getStateFromMeta(i));
         }
     }
 
-    private void generatePillar(Random random, int chunkX, int chunkZ, World world) {
+    private void generatePillar(Random random, int chunkX, int chunkZ, World world, SurfaceProfile profile) {
         int x = chunkX * 16 + random.nextInt(16);
         int z = chunkZ * 16 + random.nextInt(16);
-        int y = world.getTopSolidOrLiquidBlock(new BlockPos(x, 0, z)).getY();
+        int y = profile.getTopSolidOrLiquid(x, z);
         if (y > 10 && y < 240) {
-            for (int i = 0; i < random.nextInt(3) + 2; i++) {
-                world.setBlockState(new BlockPos(x, y++, z), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(6), 2);
-            }
-            world.setBlockState(new BlockPos(x, y, z), Blocks.STAINED_GLASS.getStateFromMeta(6), 2);
+            StructureWriter writer = new StructureWriter(world, profile);
+            buildPillar(writer, random, x, y, z);
+            writer.flush();
+        }
+    }
+
+    static void buildPillar(StructureWriter writer, Random random, int x, int y, int z) {
+        for (int i = 0; i < random.nextInt(3) + 2; i++) {
+            writer.setBlockState(x, y++, z, Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(6));
         }
+        writer.setBlockState(x, y, z, Blocks.STAINED_GLASS.getStateFromMeta(6));
     }
 
     private static int[][] puppeteerSpawnPlatform = new int[][]{
@@ -513,13 +545,13 @@ public class GenericWorldGenerator implements IWorldGenerator {
         return false;
     }
 
-    private void generateBigSpawnPlatform(World world, int chunkX, int chunkZ, int[][] platform) {
+    private void generateBigSpawnPlatform(World world, SurfaceProfile profile, int chunkX, int chunkZ, int[][] platform) {
         RfToolsDimensionManager dimensionManager = RfToolsDimensionManager.getDimensionManager(world);
         DimensionInformation information = dimensionManager.getDimensionInformation(world.provider.getDimension());
 
         int midx = 8;
         int midz = 8;
-        int starty = WorldGenerationTools.findSuitableEmptySpot(world, midx, midz);
+        int starty = profile.findSuitableEmptySpot(midx, midz);
         if (starty == -1) {
             // No suitable spot. We will carve something out.
             starty = 64;
@@ -530,6 +562,8 @@ public class GenericWorldGenerator implements IWorldGenerator {
             starty--;
         }
 
+        StructureWriter writer = new StructureWriter(world, profile);
+        List<BlockPos> receivers = new ArrayList<>();
         int r = platform.length;
         int sx = -r / 2;
         int sz = -r / 2;
@@ -541,26 +575,30 @@ public class GenericWorldGenerator implements IWorldGenerator {
                     if (chunkZ == cz) {
                         int color = platform[r - x - r / 2 - 1][z + r / 2];
                         if (color == -2) {
-                            RFToolsDim.teleportationManager.createReceiver(world, new BlockPos(x + midx, starty, z + midz), information.getName(), -1);
+                            receivers.add(new BlockPos(x + midx, starty, z + midz));
                         } else if (color != -1) {
-                            world.setBlockState(new BlockPos(x + midx, starty, z + midz), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(color), 2);
+                            writer.setBlockState(x + midx, starty, z + midz, Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(color));
                         } else {
-                            world.setBlockToAir(new BlockPos(x + midx, starty, z + midz));
+                            writer.setBlockToAir(x + midx, starty, z + midz);
                         }
                         for (int y = 1; y <= 3; y++) {
-                            world.setBlockToAir(new BlockPos(x + midx, starty + y, z + midz));
+                            writer.setBlockToAir(x + midx, starty + y, z + midz);
                         }
                     }
                 }
             }
         }
+        writer.flush();
+        for (BlockPos pos : receivers) {
+            RFToolsDim.teleportationManager.createReceiver(world, pos, information.getName(), -1);
+        }
 
         if (chunkX == 0 && chunkZ == 0) {
             registerReceiver(world, dimensionManager, information, midx, midz, starty);
         }
     }
 
-    private void generateSpawnPlatform(World world) {
+    private void generateSpawnPlatform(World world, SurfaceProfile profile) {
         RfToolsDimensionManager dimensionManager = RfToolsDimensionManager.getDimensionManager(world);
         DimensionInformation information = dimensionManager.getDimensionInformation(world.provider.getDimension());
 
@@ -570,9 +608,9 @@ public class GenericWorldGenerator implements IWorldGenerator {
         if (information.getTerrainType() == TerrainType.TERRAIN_SOLID) {
             starty = 64;
         } else if (information.getTerrainType() == TerrainType.TERRAIN_INVERTIGO) {
-            starty = WorldGenerationTools.findUpsideDownEmptySpot(world, midx, midz);
+            starty = profile.findUpsideDownEmptySpot(midx, midz);
         } else {
-            starty = WorldGenerationTools.findSuitableEmptySpot(world, midx, midz);
+            starty = profile.findSuitableEmptySpot(midx, midz);
         }
         if (starty == -1) {
             // No suitable spot. We will carve something out.
@@ -585,6 +623,17 @@ public class GenericWorldGenerator implements IWorldGenerator {
         if (information.getTerrainType() == TerrainType.TERRAIN_LIQUID) {
             shelter = true;
         }
+
+        StructureWriter writer = new StructureWriter(world, profile);
+        buildSpawnPlatform(writer, midx, midz, starty, shelter);
+        writer.flush();
+        RFToolsDim.teleportationManager.createReceiver(world, new BlockPos(midx, starty, midz), information.getName(), -1);
+
+        registerReceiver(world, dimensionManager, information, midx, midz, starty);
+    }
+
+    // Everything of the spawn platform except for the receiver in the middle
+    static void buildSpawnPlatform(StructureWriter writer, int midx, int midz, int starty, boolean shelter) {
         int bounds = 3;
         if (shelter) {
             bounds = 4;
@@ -593,18 +642,18 @@ public class GenericWorldGenerator implements IWorldGenerator {
         for (int x = -bounds; x <= bounds; x++) {
             for (int z = -bounds; z <= bounds; z++) {
                 if (x == 0 && z == 0) {
-                    RFToolsDim.teleportationManager.createReceiver(world, new BlockPos(x + midx, starty, z + midz), information.getName(), -1);
+                    // The receiver is placed after the writer is flushed
                 } else if (x == 0 && (z == 2 || z == -2)) {
-                    world.setBlockState(new BlockPos(x + midx, starty, z + midz), Blocks.GLOWSTONE.getDefaultState(), 3);
+                    writer.setBlockState(x + midx, starty, z + midz, Blocks.GLOWSTONE.getDefaultState());
                 } else {
-                    world.setBlockState(new BlockPos(x + midx, starty, z + midz), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3), 2);
+                    writer.setBlockState(x + midx, starty, z + midz, Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3));
                 }
                 for (int y = 1; y <= 3; y++) {
-                    world.setBlockToAir(new BlockPos(x + midx, starty + y, z + midz));
+                    writer.setBlockToAir(x + midx, starty + y, z + midz);
                 }
                 // Check the top layer. If it is something other then air we will replace it with clay as well.
-                if (!world.isAirBlock(new BlockPos(x + midx, starty + 4, z + midz))) {
-                    world.setBlockState(new BlockPos(x + midx, starty + 4, z + midz), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3), 2);
+                if (!writer.isAirBlock(x + midx, starty + 4, z + midz)) {
+                    writer.setBlockState(x + midx, starty + 4, z + midz, Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3));
                 }
             }
         }
@@ -615,13 +664,13 @@ public class GenericWorldGenerator implements IWorldGenerator {
                     for (int z = -bounds; z <= bounds; z++) {
                         if (x == -bounds || x == bounds || z == -bounds || z == bounds) {
                             if (z == 0 && y >= 2 && y <= 3 || x == 0 && y >= 2 && y <= 3 && z == bounds) {
-                                world.setBlockState(new BlockPos(x + midx, starty + y, z + midz), Blocks.GLASS_PANE.getStateFromMeta(0), 2);
+                                writer.setBlockState(x + midx, starty + y, z + midz, Blocks.GLASS_PANE.getStateFromMeta(0));
                             } else if (x == 0 && y == 1 && z == -bounds) {
-                                world.setBlockState(new BlockPos(x + midx, starty + y, z + midz), Blocks.IRON_DOOR.getStateFromMeta(1), 2);
+                                writer.setBlockState(x + midx, starty + y, z + midz, Blocks.IRON_DOOR.getStateFromMeta(1));
                             } else if (x == 0 && y == 2 && z == -bounds) {
-                                world.setBlockState(new BlockPos(x + midx, starty + y, z + midz), Blocks.IRON_DOOR.getStateFromMeta(8), 2);
+                                writer.setBlockState(x + midx, starty + y, z + midz, Blocks.IRON_DOOR.getStateFromMeta(8));
                             } else {
-                                world.setBlockState(new BlockPos(x + midx, starty + y, z + midz), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(9), 2);
+                                writer.setBlockState(x + midx, starty + y, z + midz, Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(9));
                             }
                         }
                     }
@@ -629,29 +678,28 @@ public class GenericWorldGenerator implements IWorldGenerator {
             }
             for (int x = -bounds; x <= bounds; x++) {
                 for (int z = -bounds; z <= bounds; z++) {
-                    world.setBlockState(new BlockPos(x + midx, starty + 4, z + midz), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(9), 2);
+                    writer.setBlockState(x + midx, starty + 4, z + midz, Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(9));
                 }
             }
-            world.setBlockState(new BlockPos(midx - 1, starty + 2, midz - bounds - 1), Blocks.STONE_BUTTON.getStateFromMeta(4), 2);
-            world.setBlockState(new BlockPos(midx + 1, starty + 2, midz - bounds + 1), Blocks.STONE_BUTTON.getStateFromMeta(3), 2);
+            writer.setBlockState(midx - 1, starty + 2, midz - bounds - 1, Blocks.STONE_BUTTON.getStateFromMeta(4));
+            writer.setBlockState(midx + 1, starty + 2, midz - bounds + 1, Blocks.STONE_BUTTON.getStateFromMeta(3));
 
-            world.setBlockState(new BlockPos(midx + 1, starty, midz - bounds - 1), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3), 2);
-            world.setBlockState(new BlockPos(midx, starty, midz - bounds - 1), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3), 2);
-            world.setBlockState(new BlockPos(midx - 1, starty, midz - bounds - 1), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3), 2);
-            world.setBlockState(new BlockPos(midx + 1, starty, midz - bounds - 2), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3), 2);
-            world.setBlockState(new BlockPos(midx, starty, midz - bounds - 2), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3), 2);
-            world.setBlockState(new BlockPos(midx - 1, starty, midz - bounds - 2), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3), 2);
+            writer.setBlockState(midx + 1, starty, midz - bounds - 1, Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3));
+            writer.setBlockState(midx, starty, midz - bounds - 1, Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3));
+            writer.setBlockState(midx - 1, starty, midz - bounds - 1, Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3));
+            writer.setBlockState(midx + 1, starty, midz - bounds - 2, Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3));
+            writer.setBlockState(midx, starty, midz - bounds - 2, Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3));
+            writer.setBlockState(midx - 1, starty, midz - bounds - 2, Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3));
         }
-
-        registerReceiver(world, dimensionManager, information, midx, midz, starty);
     }
 
     private void registerReceiver(World world, RfToolsDimensionManager dimensionManager, DimensionInformation information, int midx, int midz, int starty) {
         information.setSpawnPoint(new BlockPos(midx, starty, midz));
+        dimensionManager.markChanged(world.provider.getDimension());
         dimensionManager.save(world);
     }
 
-    private void generateDungeon(World world, Random random, int midx, int starty, int midz) {
+    private void generateDungeon(World world, SurfaceProfile profile, Random random, int midx, int starty, int midz) {
         boolean doSmallAntenna = random.nextInt(4) == 0;
         boolean doExtraFeature = random.nextInt(4) == 0;
 
@@ -683,96 +731,11 @@ public class GenericWorldGenerator implements IWorldGenerator {
             buildingBlock = ModBlocks.dimensionalBlankBlock;
         }
 
-        // Spawn the building
-        for (int x = midx - 3; x <= midx + 3; x++) {
-            for (int z = midz - 3; z <= midz + 3; z++) {
-                boolean corner = (x == midx - 3 || x == midx + 3) && (z == midz - 3 || z == midz + 3);
-                boolean xside = x == midx - 3 || x == midx + 3;
-                boolean zside = z == midz - 3 || z == midz + 3;
-                boolean antenna = (x == midx - 2 && z == midz - 2);
-                boolean smallAntenna = doSmallAntenna && (x == midx + 2 && z == midz + 2);
-                world.setBlockState(new BlockPos(x, starty, z), Blocks.DOUBLE_STONE_SLAB.getDefaultState(), 2);
-                if (corner) {
-                    world.setBlockState(new BlockPos(x, starty + 1, z), cornerBlock.getStateFromMeta(1), 2);
-                    world.setBlockState(new BlockPos(x, starty + 2, z), cornerBlock.getStateFromMeta(1), 2);
-                    world.setBlockState(new BlockPos(x, starty + 3, z), cornerBlock.getStateFromMeta(1), 2);
-                } else if (xside) {
-                    world.setBlockState(new BlockPos(x, starty + 1, z), buildingBlock.getStateFromMeta(color), 2);
-                    if (z >= midz - 1 && z <= midz + 1) {
-                        world.setBlockState(new BlockPos(x, starty + 2, z), Blocks.GLASS_PANE.getStateFromMeta(0), 2);
-                    } else {
-                        world.setBlockState(new BlockPos(x, starty + 2, z), buildingBlock.getStateFromMeta(color), 2);
-                    }
-                    world.setBlockState(new BlockPos(x, starty + 3, z), buildingBlock.getStateFromMeta(color), 2);
-                } else if (zside) {
-                    world.setBlockState(new BlockPos(x, starty + 1, z), buildingBlock.getStateFromMeta(color), 2);
-                    world.setBlockState(new BlockPos(x, starty + 2, z), buildingBlock.getStateFromMeta(color), 2);
-                    world.setBlockState(new BlockPos(x, starty + 3, z), buildingBlock.getStateFromMeta(color), 2);
-                } else {
-                    world.setBlockToAir(new BlockPos(x, starty + 1, z));
-                    world.setBlockToAir(new BlockPos(x, starty + 2, z));
-                    world.setBlockToAir(new BlockPos(x, starty + 3, z));
-                }
-                if (antenna) {
-                    world.setBlockState(new BlockPos(x, starty + 4, z), Blocks.DOUBLE_STONE_SLAB.getDefaultState(), 2);
-                    world.setBlockState(new BlockPos(x, starty + 5, z), Blocks.IRON_BARS.getDefaultState(), 2);
-                    world.setBlockState(new BlockPos(x, starty + 6, z), Blocks.IRON_BARS.getDefaultState(), 2);
-                    world.setBlockState(new BlockPos(x, starty + 7, z), Blocks.IRON_BARS.getDefaultState(), 2);
-                    world.setBlockState(new BlockPos(x, starty + 8, z), Blocks.GLOWSTONE.getDefaultState(), 3);
-                } else if (smallAntenna) {
-                    world.setBlockState(new BlockPos(x, starty + 4, z), Blocks.DOUBLE_STONE_SLAB.getDefaultState(), 2);
-                    world.setBlockState(new BlockPos(x, starty + 5, z), Blocks.IRON_BARS.getDefaultState(), 2);
-                    world.setBlockToAir(new BlockPos(x, starty + 6, z));
-                    world.setBlockToAir(new BlockPos(x, starty + 7, z));
-                    world.setBlockToAir(new BlockPos(x, starty + 8, z));
-                } else {
-                    world.setBlockState(new BlockPos(x, starty + 4, z), Blocks.STONE_SLAB.getDefaultState(), 2);
-                    world.setBlockToAir(new BlockPos(x, starty + 5, z));
-                    world.setBlockToAir(new BlockPos(x, starty + 6, z));
-                    world.setBlockToAir(new BlockPos(x, starty + 7, z));
-                    world.setBlockToAir(new BlockPos(x, starty + 8, z));
-                }
-
-                // Spawn stone under the building for as long as it is air.
-                WorldGenerationTools.fillEmptyWithStone(world, x, starty - 1, z);
-            }
-        }
-
-        if (doExtraFeature) {
-            if (!WorldGenerationTools.isSolid(world, midx + 4, starty, midz - 3)) {
-                world.setBlockState(new BlockPos(midx + 4, starty, midz - 3), Blocks.IRON_BARS.getDefaultState(), 2);
-            }
-            world.setBlockState(new BlockPos(midx + 4, starty + 1, midz - 3), Blocks.IRON_BARS.getDefaultState(), 2);
-            world.setBlockState(new BlockPos(midx + 4, starty + 2, midz - 3), Blocks.IRON_BARS.getDefaultState(), 2);
-            if (!WorldGenerationTools.isSolid(world, midx + 5, starty, midz - 3)) {
-                world.setBlockState(new BlockPos(midx + 5, starty, midz - 3), buildingBlock.getStateFromMeta(color), 2);
-            }
-            world.setBlockState(new BlockPos(midx + 5, starty + 1, midz - 3), buildingBlock.getStateFromMeta(color), 2);
-            world.setBlockState(new BlockPos(midx + 5, starty + 2, midz - 3), buildingBlock.getStateFromMeta(color), 2);
-            WorldGenerationTools.fillEmptyWithStone(world, midx + 4, starty - 1, midz - 3);
-            WorldGenerationTools.fillEmptyWithStone(world, midx + 5, starty - 1, midz - 3);
-        }
-
-        // Clear the space before the door.
-        for (int x = midx - 3; x <= midx + 3; x++) {
-            for (int y = starty + 1; y <= starty + 3; y++) {
-                world.setBlockToAir(new BlockPos(x, y, midz - 4));
-            }
-        }
-
-        // Small platform before the door
-        world.setBlockState(new BlockPos(midx - 1, starty, midz - 4), Blocks.DOUBLE_STONE_SLAB.getDefaultState(), 2);
-        world.setBlockState(new BlockPos(midx, starty, midz - 4), Blocks.DOUBLE_STONE_SLAB.getDefaultState(), 2);
-        world.setBlockState(new BlockPos(midx + 1, starty, midz - 4), Blocks.DOUBLE_STONE_SLAB.getDefaultState(), 2);
-
-        world.setBlockState(new BlockPos(midx, starty + 1, midz - 3), Blocks.IRON_DOOR.getStateFromMeta(1), 2);
-        world.setBlockState(new BlockPos(midx, starty + 2, midz - 3), Blocks.IRON_DOOR.getStateFromMeta(8), 2);
-        world.setBlockState(new BlockPos(midx - 1, starty + 2, midz - 4), Blocks.STONE_BUTTON.getStateFromMeta(4), 2);
-        world.setBlockState(new BlockPos(midx + 1, starty + 2, midz - 2), Blocks.STONE_BUTTON.getStateFromMeta(3), 2);
-
-        world.setBlockState(new BlockPos(midx, starty + 3, midz + 3), Blocks.REDSTONE_LAMP.getDefaultState(), 2);
-        world.setBlockState(new BlockPos(midx, starty + 3, midz + 2), Blocks.LEVER.getStateFromMeta(4), 2);
+        StructureWriter writer = new StructureWriter(world, profile);
+        buildDungeon(writer, midx, starty, midz, doSmallAntenna, doExtraFeature, cornerBlock.getStateFromMeta(1), buildingBlock.getStateFromMeta(color));
 
+        // The chest has a tile entity so it is placed after the rest of the building is written
+        writer.flush();
         world.setBlockState(new BlockPos(midx + 2, starty + 1, midz - 2), Blocks.CHEST.getDefaultState(), 2);
 
         RarityRandomSelector.Distribution<Integer> bestDistribution = DimletRandomizer.getRandomDimlets().createDistribution(0.2f);
@@ -830,6 +793,100 @@ public class GenericWorldGenerator implements IWorldGenerator {
         }
     }
 
+    // The building of the dungeon. The chest and its contents are added after the writer is flushed
+    static void buildDungeon(StructureWriter writer, int midx, int starty, int midz, boolean doSmallAntenna, boolean doExtraFeature,
+                             IBlockState cornerState, IBlockState buildingState) {
+        // Spawn the building
+        for (int x = midx - 3; x <= midx + 3; x++) {
+            for (int z = midz - 3; z <= midz + 3; z++) {
+                boolean corner = (x == midx - 3 || x == midx + 3) && (z == midz - 3 || z == midz + 3);
+                boolean xside = x == midx - 3 || x == midx + 3;
+                boolean zside = z == midz - 3 || z == midz + 3;
+                boolean antenna = (x == midx - 2 && z == midz - 2);
+                boolean smallAntenna = doSmallAntenna && (x == midx + 2 && z == midz + 2);
+                writer.setBlockState(x, starty, z, Blocks.DOUBLE_STONE_SLAB.getDefaultState());
+                if (corner) {
+                    writer.setBlockState(x, starty + 1, z, cornerState);
+                    writer.setBlockState(x, starty + 2, z, cornerState);
+                    writer.setBlockState(x, starty + 3, z, cornerState);
+                } else if (xside) {
+                    writer.setBlockState(x, starty + 1, z, buildingState);
+                    if (z >= midz - 1 && z <= midz + 1) {
+                        writer.setBlockState(x, starty + 2, z, Blocks.GLASS_PANE.getStateFromMeta(0));
+                    } else {
+                        writer.setBlockState(x, starty + 2, z, buildingState);
+                    }
+                    writer.setBlockState(x, starty + 3, z, buildingState);
+                } else if (zside) {
+                    writer.setBlockState(x, starty + 1, z, buildingState);
+                    writer.setBlockState(x, starty + 2, z, buildingState);
+                    writer.setBlockState(x, starty + 3, z, buildingState);
+                } else {
+                    writer.setBlockToAir(x, starty + 1, z);
+                    writer.setBlockToAir(x, starty + 2, z);
+                    writer.setBlockToAir(x, starty + 3, z);
+                }
+                if (antenna) {
+                    writer.setBlockState(x, starty + 4, z, Blocks.DOUBLE_STONE_SLAB.getDefaultState());
+                    writer.setBlockState(x, starty + 5, z, Blocks.IRON_BARS.getDefaultState());
+                    writer.setBlockState(x, starty + 6, z, Blocks.IRON_BARS.getDefaultState());
+                    writer.setBlockState(x, starty + 7, z, Blocks.IRON_BARS.getDefaultState());
+                    writer.setBlockState(x, starty + 8, z, Blocks.GLOWSTONE.getDefaultState());
+                } else if (smallAntenna) {
+                    writer.setBlockState(x, starty + 4, z, Blocks.DOUBLE_STONE_SLAB.getDefaultState());
+                    writer.setBlockState(x, starty + 5, z, Blocks.IRON_BARS.getDefaultState());
+                    writer.setBlockToAir(x, starty + 6, z);
+                    writer.setBlockToAir(x, starty + 7, z);
+                    writer.setBlockToAir(x, starty + 8, z);
+                } else {
+                    writer.setBlockState(x, starty + 4, z, Blocks.STONE_SLAB.getDefaultState());
+                    writer.setBlockToAir(x, starty + 5, z);
+                    writer.setBlockToAir(x, starty + 6, z);
+                    writer.setBlockToAir(x, starty + 7, z);
+                    writer.setBlockToAir(x, starty + 8, z);
+                }
+
+                // Spawn stone under the building for as long as it is air.
+                writer.fillEmptyWithStone(x, starty - 1, z);
+            }
+        }
+
+        if (doExtraFeature) {
+            if (!writer.isSolid(midx + 4, starty, midz - 3)) {
+                writer.setBlockState(midx + 4, starty, midz - 3, Blocks.IRON_BARS.getDefaultState());
+            }
+            writer.setBlockState(midx + 4, starty + 1, midz - 3, Blocks.IRON_BARS.getDefaultState());
+            writer.setBlockState(midx + 4, starty + 2, midz - 3, Blocks.IRON_BARS.getDefaultState());
+            if (!writer.isSolid(midx + 5, starty, midz - 3)) {
+                writer.setBlockState(midx + 5, starty, midz - 3, buildingState);
+            }
+            writer.setBlockState(midx + 5, starty + 1, midz - 3, buildingState);
+            writer.setBlockState(midx + 5, starty + 2, midz - 3, buildingState);
+            writer.fillEmptyWithStone(midx + 4, starty - 1, midz - 3);
+            writer.fillEmptyWithStone(midx + 5, starty - 1, midz - 3);
+        }
+
+        // Clear the space before the door.
+        for (int x = midx - 3; x <= midx + 3; x++) {
+            for (int y = starty + 1; y <= starty + 3; y++) {
+                writer.setBlockToAir(x, y, midz - 4);
+            }
+        }
+
+        // Small platform before the door
+        writer.setBlockState(midx - 1, starty, midz - 4, Blocks.DOUBLE_STONE_SLAB.getDefaultState());
+        writer.setBlockState(midx, starty, midz - 4, Blocks.DOUBLE_STONE_SLAB.getDefaultState());
+        writer.setBlockState(midx + 1, starty, midz - 4, Blocks.DOUBLE_STONE_SLAB.getDefaultState());
+
+        writer.setBlockState(midx, starty + 1, midz - 3, Blocks.IRON_DOOR.getStateFromMeta(1));
+        writer.setBlockState(midx, starty + 2, midz - 3, Blocks.IRON_DOOR.getStateFromMeta(8));
+        writer.setBlockState(midx - 1, starty + 2, midz - 4, Blocks.STONE_BUTTON.getStateFromMeta(4));
+        writer.setBlockState(midx + 1, starty + 2, midz - 2, Blocks.STONE_BUTTON.getStateFromMeta(3));
+
+        writer.setBlockState(midx, starty + 3, midz + 3, Blocks.REDSTONE_LAMP.getDefaultState());
+        writer.setBlockState(midx, starty + 3, midz + 2, Blocks.LEVER.getStateFromMeta(4));
+    }
+
     private EntityItemFrame spawnItemFrame(World world, int x, int y, int z) {
         EntityItemFrame frame = new EntityItemFrame(world, new BlockPos(x, y, z + 1), EnumFacing.NORTH);
         WorldTools.spawnEntity(world, frame);
@@ -14,8 +14,6 @@ import mcjty.rftoolsdim.dimensions.dimlets.types.Patreons;
 import mcjty.rftoolsdim.dimensions.types.ControllerType;
 import mcjty.rftoolsdim.dimensions.types.SkyType;
 import mcjty.rftoolsdim.dimensions.types.TerrainType;
-import mcjty.rftoolsdim.network.PacketGetDimensionEnergy;
-import mcjty.rftoolsdim.network.RFToolsDimMessages;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.util.math.BlockPos;
@@ -40,6 +38,8 @@ public class GenericWorldProvider extends CompatWorldProvider implements  /*@tod
     private DimensionInformation dimensionInformation;
     private DimensionStorage storage;
     private long seed;
+    // The generator created for this world (server side only)
+    private GenericChunkGenerator chunkGenerator;
     private Set<String> dimensionTypes = null;  // Used for Recurrent Complex support
 
     private long calculateSeed(long seed, int dim) {
@@ -171,6 +171,18 @@ public class GenericWorldProvider extends CompatWorldProvider implements  /*@tod
 //    }
 
 
+    /**
+     * Called on the client when new information for this dimension arrived from the server.
+     */
+    public void updateDimensionInformation() {
+        dimensionInformation = null;
+        getDimensionInformation();
+        generateLightBrightnessTable();
+        // The biome provider and the renderers were set up from the old (or missing) information
+        biomeProvider = null;
+        setupRenderers();
+    }
+
     @Override
     protected void generateLightBrightnessTable() {
         getDimensionInformation();
@@ -227,11 +239,17 @@ public class GenericWorldProvider extends CompatWorldProvider implements  /*@tod
             this.biomeProvider = new BiomeProvider(getWorld().getWorldInfo());
         }
 
+        setupRenderers();
+    }
+
+    private void setupRenderers() {
         if (dimensionInformation != null) {
             hasNoSky = !dimensionInformation.getTerrainType().hasSky();
 
             if (getWorld().isRemote) {
                 // Only on client!
+                setSkyRenderer(null);
+                setCloudRenderer(null);
                 SkyType skyType = dimensionInformation.getSkyDescriptor().getSkyType();
                 if (hasNoSky) {
                     SkyRenderer.registerNoSky(this);
@@ -303,7 +321,17 @@ public class GenericWorldProvider extends CompatWorldProvider implements  /*@tod
     public IChunkGenerator createChunkGenerator() {
         int dim = getDimension();
         setSeed(dim);
-        return new GenericChunkGenerator(getWorld(), seed);
+        chunkGenerator = new GenericChunkGenerator(getWorld(), seed);
+        return chunkGenerator;
+    }
+
+    /**
+     * Called when the world of this provider is unloaded.
+     */
+    public void onWorldUnload() {
+        if (chunkGenerator != null) {
+            chunkGenerator.clearContexts();
+        }
     }
 
     @Override
@@ -316,8 +344,6 @@ public class GenericWorldProvider extends CompatWorldProvider implements  /*@tod
         return 256;
     }
 
-    private static long lastFogTime = 0;
-
     @SideOnly(Side.CLIENT)
     @Override
     public float getCloudHeight() {
@@ -332,11 +358,6 @@ public class GenericWorldProvider extends CompatWorldProvider implements  /*@tod
     @SideOnly(Side.CLIENT)
     public Vec3d getFogColor(float angle, float dt) {
         int dim = getDimension();
-        if (System.currentTimeMillis() - lastFogTime > 1000) {
-            lastFogTime = System.currentTimeMillis();
-            RFToolsDimMessages.INSTANCE.sendToServer(new PacketGetDimensionEnergy(dim));
-        }
-
         float factor = calculatePowerBlackout(dim);
         getDimensionInformation();
 
@@ -355,17 +376,10 @@ public class GenericWorldProvider extends CompatWorldProvider implements  /*@tod
         return new Vec3d(color.xCoord * r, color.yCoord * g, color.zCoord * b);
     }
 
-    private static long lastTime = 0;
-
     @Override
     @SideOnly(Side.CLIENT)
     public Vec3d getSkyColor(Entity cameraEntity, float partialTicks) {
         int dim = getDimension();
-        if (System.currentTimeMillis() - lastTime > 1000) {
-            lastTime = System.currentTimeMillis();
-            RFToolsDimMessages.INSTANCE.sendToServer(new PacketGetDimensionEnergy(dim));
-        }
-
         float factor = calculatePowerBlackout(dim);
         getDimensionInformation();
 
@@ -0,0 +1,112 @@
+package mcjty.rftoolsdim.dimensions.world;
+
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+import java.util.*;
+
+/**
+ * Collects the blocks of a decoration (dungeon, spawn platform, ...) and writes them to the
+ * sink in one batch when flushed. For a world (WorldBlockSink) they are written straight into
+ * the chunk sections.
+ *
+ * Only use this for plain blocks. Blocks with a tile entity (chests, receivers, spawners)
+ * should still be placed through the world after the writer has been flushed.
+ * Reads through the writer see the blocks that are not flushed yet.
+ */
+public class StructureWriter {
+
+    private final BlockSink sink;
+    // If not null this profile is used to answer queries and it is updated when the writer is flushed
+    private final SurfaceProfile profile;
+    // The pending blocks in the order they were set. A later write to the same position replaces the earlier one
+    private final Map<BlockPos, IBlockState> pending = new LinkedHashMap<>();
+
+    public StructureWriter(World world) {
+        this(new WorldBlockSink(world), null);
+    }
+
+    public StructureWriter(World world, SurfaceProfile profile) {
+        this(new WorldBlockSink(world), profile);
+    }
+
+    public StructureWriter(BlockSink sink, SurfaceProfile profile) {
+        this.sink = sink;
+        this.profile = profile;
+    }
+
+    public void setBlockState(int x, int y, int z, IBlockState state) {
+        pending.put(new BlockPos(x, y, z), state);
+    }
+
+    public void setBlockToAir(int x, int y, int z) {
+        setBlockState(x, y, z, Blocks.AIR.getDefaultState());
+    }
+
+    public IBlockState getBlockState(int x, int y, int z) {
+        BlockPos pos = new BlockPos(x, y, z);
+        IBlockState state = pending.get(pos);
+        return state == null ? sink.getBlockState(pos) : state;
+    }
+
+    public boolean isAirBlock(int x, int y, int z) {
+        BlockPos pos = new BlockPos(x, y, z);
+        IBlockState state = pending.get(pos);
+        if (state == null) {
+            return sink.isAirBlock(pos);
+        }
+        // Same as Block.isAir() for the vanilla blocks that we place
+        return state.getMaterial() == Material.AIR;
+    }
+
+    // Same as WorldGenerationTools.isSolid()
+    public boolean isSolid(int x, int y, int z) {
+        if (isAirBlock(x, y, z)) {
+            return false;
+        }
+        IBlockState state = getBlockState(x, y, z);
+        return state.getBlock().getMaterial(state).blocksMovement();
+    }
+
+    // Same as WorldGenerationTools.fillEmptyWithStone()
+    public void fillEmptyWithStone(int x, int y, int z) {
+        if (profile != null) {
+            // Everything above the highest solid block of the column is not solid so we don't have to check
+            int solidTop = profile.getSolidTop(x, z);
+            while (y > 0 && y > solidTop && !pending.containsKey(new BlockPos(x, y, z))) {
+                setBlockState(x, y, z, Blocks.STONE.getDefaultState());
+                y--;
+            }
+        }
+        while (y > 0 && !isSolid(x, y, z)) {
+            setBlockState(x, y, z, Blocks.STONE.getDefaultState());
+            y--;
+        }
+    }
+
+    /**
+     * Write all pending blocks to the sink.
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        sink.setBlockStates(pending);
+
+        if (profile != null) {
+            Set<ChunkPos> chunks = new HashSet<>();
+            for (BlockPos pos : pending.keySet()) {
+                chunks.add(new ChunkPos(pos.getX() >> 4, pos.getZ() >> 4));
+            }
+            for (ChunkPos chunkPos : chunks) {
+                profile.invalidate(chunkPos.chunkXPos, chunkPos.chunkZPos);
+            }
+        }
+        pending.clear();
+    }
+}
@@ -0,0 +1,167 @@
+package mcjty.rftoolsdim.dimensions.world;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The surface and ceiling of the chunks that are used while populating a chunk. Every column
+ * is scanned only once (straight from the chunk) and after that the queries that the world
+ * generator needs to place its decorations are answered from the profile.
+ *
+ * A profile is only valid as long as the blocks don't change. StructureWriter invalidates
+ * the chunks it writes to.
+ */
+public class SurfaceProfile {
+
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private final World world;
+    private final Map<ChunkPos, ChunkProfile> chunks = new HashMap<>();
+
+    public SurfaceProfile(World world) {
+        this.world = world;
+    }
+
+    private static class ChunkProfile {
+        private final Chunk chunk;
+        // For every column (x*16+z) the y that world.getTopSolidOrLiquidBlock() returns
+        private final int[] surface = new int[256];
+        // For every column the highest block for which WorldGenerationTools.isSolid() is true (or -1)
+        private final int[] solidTop = new int[256];
+        // For every column the result of WorldGenerationTools.findUpsideDownEmptySpot()
+        private final int[] ceiling = new int[256];
+
+        private ChunkProfile(Chunk chunk) {
+            this.chunk = chunk;
+            Arrays.fill(surface, UNKNOWN);
+            Arrays.fill(ceiling, UNKNOWN);
+        }
+    }
+
+    private ChunkProfile getProfile(int x, int z) {
+        ChunkPos pos = new ChunkPos(x >> 4, z >> 4);
+        ChunkProfile profile = chunks.get(pos);
+        if (profile == null) {
+            profile = new ChunkProfile(world.getChunkFromChunkCoords(pos.chunkXPos, pos.chunkZPos));
+            chunks.put(pos, profile);
+        }
+        return profile;
+    }
+
+    /**
+     * Forget what we know about this chunk because blocks in it were changed.
+     */
+    public void invalidate(int chunkX, int chunkZ) {
+        chunks.remove(new ChunkPos(chunkX, chunkZ));
+    }
+
+    private void scanSurface(ChunkProfile profile, int x, int z) {
+        int column = (x & 15) * 16 + (z & 15);
+        Chunk chunk = profile.chunk;
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        int solidTop = -1;
+        int y = chunk.getTopFilledSegment() + 16;
+        for ( ; y >= 0 ; y--) {
+            IBlockState state = chunk.getBlockState(x & 15, y - 1, z & 15);
+            if (state.getMaterial().blocksMovement()) {
+                Block block = state.getBlock();
+                pos.setPos(x, y - 1, z);
+                if (solidTop == -1 && !block.isAir(state, world, pos)) {
+                    solidTop = y - 1;
+                }
+                if (!block.isLeaves(state, world, pos) && !block.isFoliage(world, pos)) {
+                    break;
+                }
+            }
+        }
+        profile.surface[column] = y;
+        profile.solidTop[column] = solidTop;
+    }
+
+    /**
+     * Same as world.getTopSolidOrLiquidBlock(new BlockPos(x, 0, z)).getY()
+     */
+    public int getTopSolidOrLiquid(int x, int z) {
+        ChunkProfile profile = getProfile(x, z);
+        int column = (x & 15) * 16 + (z & 15);
+        if (profile.surface[column] == UNKNOWN) {
+            scanSurface(profile, x, z);
+        }
+        return profile.surface[column];
+    }
+
+    /**
+     * The highest block in this column that is solid or -1 if there is none.
+     */
+    public int getSolidTop(int x, int z) {
+        ChunkProfile profile = getProfile(x, z);
+        int column = (x & 15) * 16 + (z & 15);
+        if (profile.surface[column] == UNKNOWN) {
+            scanSurface(profile, x, z);
+        }
+        return profile.solidTop[column];
+    }
+
+    /**
+     * Same as WorldGenerationTools.findUpsideDownEmptySpot()
+     */
+    public int findUpsideDownEmptySpot(int x, int z) {
+        ChunkProfile profile = getProfile(x, z);
+        int column = (x & 15) * 16 + (z & 15);
+        if (profile.ceiling[column] == UNKNOWN) {
+            BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+            int result = -1;
+            // Count the air blocks above and including y. We need five of them
+            int air = 0;
+            for (int y = 94 ; y > 0 ; y--) {
+                IBlockState state = profile.chunk.getBlockState(x & 15, y, z & 15);
+                pos.setPos(x, y, z);
+                if (state.getBlock().isAir(state, world, pos)) {
+                    air++;
+                } else {
+                    air = 0;
+                }
+                if (y <= 90 && air >= 5) {
+                    result = y;
+                    break;
+                }
+            }
+            profile.ceiling[column] = result;
+        }
+        return profile.ceiling[column];
+    }
+
+    /**
+     * Same as WorldGenerationTools.findSuitableEmptySpot()
+     */
+    public int findSuitableEmptySpot(int x, int z) {
+        int y = getTopSolidOrLiquid(x, z);
+        if (y == -1) {
+            return -1;
+        }
+
+        y--;            // y should now be at a solid or liquid block.
+
+        if (y > world.getHeight() - 5) {
+            y = world.getHeight() / 2;
+        }
+
+        Chunk chunk = getProfile(x, z).chunk;
+        while (chunk.getBlockState(x & 15, y + 1, z & 15).getMaterial().isLiquid()) {
+            y++;
+            if (y > world.getHeight()-10) {
+                return -1;
+            }
+        }
+
+        return y;
+    }
+}
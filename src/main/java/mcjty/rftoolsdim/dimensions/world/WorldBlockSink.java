@@ -0,0 +1,102 @@
+package mcjty.rftoolsdim.dimensions.world;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.EnumSkyBlock;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A BlockSink for a world. Single blocks are placed with world.setBlockState(). A batch of
+ * blocks is written straight into the chunk sections which avoids the lighting, neighbour and
+ * client updates that world.setBlockState() does for every single block. The chunks that are
+ * touched are relit once at the end.
+ */
+public class WorldBlockSink implements BlockSink {
+
+    private final World world;
+
+    public WorldBlockSink(World world) {
+        this.world = world;
+    }
+
+    @Override
+    public IBlockState getBlockState(BlockPos pos) {
+        return world.getBlockState(pos);
+    }
+
+    @Override
+    public boolean isAirBlock(BlockPos pos) {
+        return world.isAirBlock(pos);
+    }
+
+    @Override
+    public void setBlockState(BlockPos pos, IBlockState state) {
+        world.setBlockState(pos, state);
+    }
+
+    @Override
+    public void setBlockStates(Map<BlockPos, IBlockState> blocks) {
+        Map<ChunkPos, Chunk> chunks = new HashMap<>();
+        List<BlockPos> lightChanges = new ArrayList<>();
+        boolean sky = !world.provider.hasNoSky();
+        for (Map.Entry<BlockPos, IBlockState> entry : blocks.entrySet()) {
+            BlockPos pos = entry.getKey();
+            IBlockState state = entry.getValue();
+            int y = pos.getY();
+            if (y < 0 || y >= 256) {
+                continue;
+            }
+
+            ChunkPos chunkPos = new ChunkPos(pos.getX() >> 4, pos.getZ() >> 4);
+            Chunk chunk = chunks.get(chunkPos);
+            if (chunk == null) {
+                chunk = world.getChunkFromChunkCoords(chunkPos.chunkXPos, chunkPos.chunkZPos);
+                chunks.put(chunkPos, chunk);
+            }
+
+            ExtendedBlockStorage[] storages = chunk.getBlockStorageArray();
+            ExtendedBlockStorage storage = storages[y >> 4];
+            if (storage == Chunk.NULL_BLOCK_STORAGE) {
+                if (state.getBlock() == Blocks.AIR) {
+                    continue;
+                }
+                storage = new ExtendedBlockStorage(y >> 4 << 4, sky);
+                storages[y >> 4] = storage;
+            }
+
+            IBlockState old = storage.get(pos.getX() & 15, y & 15, pos.getZ() & 15);
+            if (old == state) {
+                continue;
+            }
+            storage.set(pos.getX() & 15, y & 15, pos.getZ() & 15, state);
+            if (old.getBlock().hasTileEntity(old)) {
+                world.removeTileEntity(pos);
+            }
+            if (old.getLightValue(world, pos) != state.getLightValue(world, pos)) {
+                lightChanges.add(pos);
+            }
+            if (chunk.isPopulated()) {
+                // The chunk may already have been sent to players
+                world.notifyBlockUpdate(pos, old, state, 2);
+            }
+        }
+
+        for (Chunk chunk : chunks.values()) {
+            chunk.generateSkylightMap();
+            chunk.setLightPopulated(false);     // Let the chunk recheck its light when it ticks
+            chunk.setChunkModified();
+        }
+        for (BlockPos pos : lightChanges) {
+            world.checkLightFor(EnumSkyBlock.BLOCK, pos);
+        }
+    }
+}
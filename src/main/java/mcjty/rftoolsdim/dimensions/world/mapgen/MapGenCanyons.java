@@ -3,8 +3,6 @@ package mcjty.rftoolsdim.dimensions.world.mapgen;
 import mcjty.lib.varia.MathTools;
 import mcjty.rftoolsdim.dimensions.world.GenericChunkGenerator;
 import mcjty.rftoolsdim.dimensions.world.terrain.BaseTerrainGenerator;
-import net.minecraft.block.state.IBlockState;
-import net.minecraft.init.Blocks;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.ChunkPrimer;
@@ -23,7 +21,8 @@ public class MapGenCanyons {
     }
 
     private void func_151540_a(long seed, int p_151540_3_, int p_151540_4_, ChunkPrimer primer, double p_151540_6_, double p_151540_8_, double p_151540_10_, float p_151540_12_, float p_151540_13_, float p_151540_14_, int p_151540_15_, int p_151540_16_, double p_151540_17_) {
-        IBlockState baseBlock = provider.dimensionInformation.getCanyonBlock();
+        char baseBlock = provider.palette.canyonBlock;
+        char air = provider.palette.air;
 
         Random random = new Random(seed);
         double d4 = (p_151540_3_ * 16 + 8);
@@ -128,9 +127,7 @@ public class MapGenCanyons {
                                     double d11 = (l3 + 0.5D - p_151540_8_) / d6;
 
                                     if ((d13 * d13 + d14 * d14) * this.field_75046_d[l3] + d11 * d11 / 6.0D < 1.0D) {
-                                        IBlockState block = BaseTerrainGenerator.getBlockState(primer, k3);
-
-                                        if (block.getBlock() == Blocks.AIR || block == null) {
+                                        if (primer.data[k3] == air) {
                                             BaseTerrainGenerator.setBlockState(primer, k3, baseBlock);
                                         }
                                     }
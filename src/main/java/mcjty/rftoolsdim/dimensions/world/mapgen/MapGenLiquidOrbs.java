@@ -1,10 +1,7 @@
 package mcjty.rftoolsdim.dimensions.world.mapgen;
 
+import mcjty.rftoolsdim.dimensions.world.BlockPalette;
 import mcjty.rftoolsdim.dimensions.world.GenericChunkGenerator;
-import mcjty.rftoolsdim.dimensions.world.terrain.BaseTerrainGenerator;
-import net.minecraft.block.Block;
-import net.minecraft.block.state.IBlockState;
-import net.minecraft.init.Blocks;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.ChunkPrimer;
 
@@ -13,68 +10,42 @@ import java.util.Random;
 public class MapGenLiquidOrbs {
     private final GenericChunkGenerator provider;
     private final boolean large;
-    private final int r;
+    private final SphereRasterizer rasterizer;
 
     public MapGenLiquidOrbs(GenericChunkGenerator provider, boolean large) {
         this.provider = provider;
         this.large = large;
-        r = large ? 2 : 1;
+        rasterizer = new SphereRasterizer(large ? 2 : 1, this::place);
     }
 
-    public void generate(World world, int chunkX, int chunkZ, ChunkPrimer primer) {
-        IBlockState[] blocks = large ? provider.dimensionInformation.getHugeLiquidSphereBlocks() : provider.dimensionInformation.getLiquidSphereBlocks();
-        Block[] fluids = large ? provider.dimensionInformation.getHugeLiquidSphereFluids() : provider.dimensionInformation.getLiquidSphereFluids();
-
-        for (int cx = -r ; cx <= r ; cx++) {
-            for (int cz = -r ; cz <= r ; cz++) {
-
-                Random random = new Random((world.getSeed() + (chunkX+cx)) * 37 + (chunkZ+cz) * 5 + 113);
-                random.nextFloat();
+    private SphereRasterizer.Sphere place(long seed, int cellX, int cellZ) {
+        Random random = new Random((seed + cellX) * 37 + cellZ * 5 + 113);
+        random.nextFloat();
 
-                if (random.nextFloat() < .05f) {
-                    int x = cx * 16 + random.nextInt(16);
-                    int y = 40 + random.nextInt(40);
-                    int z = cz * 16 + random.nextInt(16);
-                    int radius = random.nextInt(large ? 20 : 6) + (large ? 10 : 4);
-                    IBlockState block = Blocks.STONE.getDefaultState();
-                    if (blocks.length > 1) {
-                        block = blocks[random.nextInt(blocks.length)];
-                    } else if (blocks.length == 1) {
-                        block = blocks[0];
-                    }
-                    Block fluid = Blocks.WATER;
-                    if (fluids.length > 1) {
-                        fluid = fluids[random.nextInt(fluids.length)];
-                    } else if (fluids.length == 1) {
-                        fluid = fluids[0];
-                    }
+        if (random.nextFloat() < .05f) {
+            int x = cellX * 16 + random.nextInt(16);
+            int y = 40 + random.nextInt(40);
+            int z = cellZ * 16 + random.nextInt(16);
+            int radius = random.nextInt(large ? 20 : 6) + (large ? 10 : 4);
 
-                    fillSphere(primer, x, y, z, radius, block, fluid);
-                }
-            }
+            BlockPalette palette = provider.palette;
+            char block = BlockPalette.select(large ? palette.hugeLiquidSphereBlocks : palette.liquidSphereBlocks, random, palette.stone);
+            char fluid = BlockPalette.select(large ? palette.hugeLiquidSphereFluids : palette.liquidSphereFluids, random, palette.water);
+            return new SphereRasterizer.Sphere(cellX, cellZ, x, y, z, radius, block, fluid);
         }
+        return null;
     }
 
-    private void fillSphere(ChunkPrimer primer, int centerx, int centery, int centerz, int radius, IBlockState block, Block fluid) {
-
-        double sqradius = radius * radius;
-        double liquidradius = (((double) radius) - 1.5f) * (((double) radius) - 1.5f);
-
-        for (int x = 0 ; x < 16 ; x++) {
-            double dxdx = (x-centerx) * (x-centerx);
-            for (int z = 0 ; z < 16 ; z++) {
-                double dzdz = (z-centerz) * (z-centerz);
-                int index = (x * 16 + z) * 256;
-                for (int y = centery-radius ; y <= centery+radius ; y++) {
-                    double dydy = (y-centery) * (y-centery);
-                    double sqdist = dxdx + dydy + dzdz;
-                    if (sqdist < liquidradius) {
-                        BaseTerrainGenerator.setBlockState(primer, index + y, fluid.getDefaultState());
-                    } else if (sqdist <= sqradius) {
-                        BaseTerrainGenerator.setBlockState(primer, index + y, block);
-                    }
-                }
-            }
+    public void generate(World world, int chunkX, int chunkZ, ChunkPrimer primer) {
+        for (SphereRasterizer.Sphere sphere : rasterizer.getSpheres(world.getSeed(), chunkX, chunkZ)) {
+            int centerx = sphere.x - chunkX * 16;
+            int centerz = sphere.z - chunkZ * 16;
+            int radius = sphere.radius;
+            // The shell
+            SphereRasterizer.fillSphere(primer, centerx, sphere.y, centerz, radius, radius * radius, sphere.block);
+            // The liquid: everything closer then radius-1.5. For integer distances that is the
+            // same as a squared distance of at most (radius-1)*(radius-2)
+            SphereRasterizer.fillSphere(primer, centerx, sphere.y, centerz, radius, (radius - 1) * (radius - 2), sphere.fluid);
         }
     }
 
@@ -1,9 +1,7 @@
 package mcjty.rftoolsdim.dimensions.world.mapgen;
 
+import mcjty.rftoolsdim.dimensions.world.BlockPalette;
 import mcjty.rftoolsdim.dimensions.world.GenericChunkGenerator;
-import mcjty.rftoolsdim.dimensions.world.terrain.BaseTerrainGenerator;
-import net.minecraft.block.state.IBlockState;
-import net.minecraft.init.Blocks;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.ChunkPrimer;
 
@@ -12,58 +10,35 @@ import java.util.Random;
 public class MapGenOrbs {
     private final GenericChunkGenerator provider;
     private final boolean large;
-    private final int r;
+    private final SphereRasterizer rasterizer;
 
     public MapGenOrbs(GenericChunkGenerator provider, boolean large) {
         this.provider = provider;
         this.large = large;
-        r = large ? 2 : 1;
+        rasterizer = new SphereRasterizer(large ? 2 : 1, this::place);
     }
 
-    public void generate(World world, int chunkX, int chunkZ, ChunkPrimer primer) {
-        IBlockState[] blocks = large ? provider.dimensionInformation.getHugeSphereBlocks() : provider.dimensionInformation.getSphereBlocks();
-
-        for (int cx = -r ; cx <= r ; cx++) {
-            for (int cz = -r ; cz <= r ; cz++) {
-
-                Random random = new Random((world.getSeed() + (chunkX+cx)) * 113 + (chunkZ+cz) * 31 + 77);
-                random.nextFloat();
+    private SphereRasterizer.Sphere place(long seed, int cellX, int cellZ) {
+        Random random = new Random((seed + cellX) * 113 + cellZ * 31 + 77);
+        random.nextFloat();
 
-                if (random.nextFloat() < .05f) {
-                    int x = cx * 16 + random.nextInt(16);
-                    int y = 40 + random.nextInt(40);
-                    int z = cz * 16 + random.nextInt(16);
-                    int radius = random.nextInt(large ? 20 : 6) + (large ? 10 : 4);
+        if (random.nextFloat() < .05f) {
+            int x = cellX * 16 + random.nextInt(16);
+            int y = 40 + random.nextInt(40);
+            int z = cellZ * 16 + random.nextInt(16);
+            int radius = random.nextInt(large ? 20 : 6) + (large ? 10 : 4);
 
-                    IBlockState block = Blocks.STONE.getDefaultState();
-                    if (blocks.length > 1) {
-                        block = blocks[random.nextInt(blocks.length)];
-                    } else if (blocks.length == 1) {
-                        block = blocks[0];
-                    }
-
-                    fillSphere(primer, x, y, z, radius, block);
-                }
-            }
+            BlockPalette palette = provider.palette;
+            char block = BlockPalette.select(large ? palette.hugeSphereBlocks : palette.sphereBlocks, random, palette.stone);
+            return new SphereRasterizer.Sphere(cellX, cellZ, x, y, z, radius, block, (char) 0);
         }
+        return null;
     }
 
-    private void fillSphere(ChunkPrimer primer, int centerx, int centery, int centerz, int radius, IBlockState block) {
-        double sqradius = radius * radius;
-
-        for (int x = 0 ; x < 16 ; x++) {
-            double dxdx = (x-centerx) * (x-centerx);
-            for (int z = 0 ; z < 16 ; z++) {
-                double dzdz = (z-centerz) * (z-centerz);
-                int index = (x * 16 + z) * 256;
-                for (int y = centery-radius ; y <= centery+radius ; y++) {
-                    double dydy = (y-centery) * (y-centery);
-                    double sqdist = dxdx + dydy + dzdz;
-                    if (sqdist <= sqradius) {
-                        BaseTerrainGenerator.setBlockState(primer, index + y, block);
-                    }
-                }
-            }
+    public void generate(World world, int chunkX, int chunkZ, ChunkPrimer primer) {
+        for (SphereRasterizer.Sphere sphere : rasterizer.getSpheres(world.getSeed(), chunkX, chunkZ)) {
+            SphereRasterizer.fillSphere(primer, sphere.x - chunkX * 16, sphere.y, sphere.z - chunkZ * 16,
+                    sphere.radius, sphere.radius * sphere.radius, sphere.block);
         }
     }
 
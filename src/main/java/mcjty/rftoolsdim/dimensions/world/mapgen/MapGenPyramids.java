@@ -1,10 +1,10 @@
 package mcjty.rftoolsdim.dimensions.world.mapgen;
 
+import mcjty.rftoolsdim.dimensions.world.BlockPalette;
 import mcjty.rftoolsdim.dimensions.world.GenericChunkGenerator;
 import mcjty.rftoolsdim.dimensions.world.terrain.BaseTerrainGenerator;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
-import net.minecraft.init.Blocks;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.ChunkPrimer;
 
@@ -18,7 +18,7 @@ public class MapGenPyramids {
     }
 
     public void generate(World world, int chunkX, int chunkZ, ChunkPrimer primer) {
-        IBlockState[] blocks = provider.dimensionInformation.getPyramidBlocks();
+        BlockPalette palette = provider.palette;
 
         Random random = new Random((world.getSeed() + (chunkX)) * 1133 + (chunkZ) * 37 + 77);
         random.nextFloat();
@@ -31,12 +31,7 @@ public class MapGenPyramids {
             if (y < 10 || y > 230) {
                 return;
             }
-            IBlockState block = Blocks.STONE.getDefaultState();
-            if (blocks.length > 1) {
-                block = blocks[random.nextInt(blocks.length)];
-            } else if (blocks.length == 1) {
-                block = blocks[0];
-            }
+            char block = BlockPalette.select(palette.pyramidBlocks, random, palette.stone);
 
             for (int i = 7 ; i >= 0 ; i--) {
                 for (int dx = -i ; dx <= i-1 ; dx++) {
@@ -73,8 +68,16 @@ public class MapGenPyramids {
 
     private int findTopSolid(ChunkPrimer primer, int x, int z) {
         int index = (x * 16 + z) * 256;
+        char air = provider.palette.air;
         int y = 255;
-        while (y >= 5 && (BaseTerrainGenerator.getBlockState(primer, index+y) == null || BaseTerrainGenerator.getBlockState(primer, index+y).getBlock().getMaterial(BaseTerrainGenerator.getBlockState(primer, index+y)) == Material.AIR)) {
+        while (y >= 5) {
+            // Most of the column is air so only look up the state for other ids
+            if (primer.data[index + y] != air) {
+                IBlockState state = BaseTerrainGenerator.getBlockState(primer, index + y);
+                if (state.getBlock().getMaterial(state) != Material.AIR) {
+                    break;
+                }
+            }
             y--;
         }
         return y;
@@ -1,20 +1,38 @@
 package mcjty.rftoolsdim.dimensions.world.mapgen;
 
-import mcjty.lib.varia.BlockMeta;
 import mcjty.rftoolsdim.blocks.ModBlocks;
+import mcjty.rftoolsdim.dimensions.world.BlockPalette;
 import mcjty.rftoolsdim.dimensions.world.GenericChunkGenerator;
+import mcjty.rftoolsdim.varia.ChunkCache;
 import net.minecraft.block.Block;
 import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkPrimer;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 
+/**
+ * Ruined buildings that are placed in the largest open space of a chunk. The chunks that get
+ * a building are decided per region of 8x8 chunks so that the buildings are grouped in cities.
+ * The building is compiled once to runs of the same block in every column so that it can be
+ * written into the primer with Arrays.fill.
+ */
 public class MapGenRuinedCities {
+    private static final int REGION_SHIFT = 3;              // Regions are 8x8 chunks
+    private static final float CITY_CHANCE = .25f;          // Chance that a region is a city
+    private static final float BUILDING_CHANCE = .4f;       // Chance for a building in a chunk of a city
+
     private final GenericChunkGenerator provider;
 
+    // For every region a bitmask with the chunks that have a building
+    private final ChunkCache<Long> layouts = new ChunkCache<>(64);
+    private volatile BuildingRuns building = null;
+
     public MapGenRuinedCities(GenericChunkGenerator provider) {
         this.provider = provider;
     }
@@ -30,10 +48,6 @@ public class MapGenRuinedCities {
             this.high = high;
         }
 
-        public Span(Span other) {
-            this(other.low, other.high);
-        }
-
         public boolean isEmpty() {
             return low > high;
         }
@@ -71,15 +85,62 @@ public class MapGenRuinedCities {
         }
     }
 
-    public Span findSuitableY(int x, int z, Block[] ablock) {
+    /**
+     * The building as runs of levels with the same block in every column. The runs of
+     * column x*16+z are from columnStart[x*16+z] until columnStart[x*16+z+1] and
+     * they are sorted from low to high.
+     */
+    private static class BuildingRuns {
+        private final int[] columnStart = new int[257];
+        private final int[] runStart;
+        private final int[] runEnd;
+        private final char[] runBlock;
+
+        private BuildingRuns(char[] blockMap) {
+            List<int[]> runs = new ArrayList<>();
+            for (int x = 0 ; x < 16 ; x++) {
+                for (int z = 0 ; z < 16 ; z++) {
+                    int column = x * 16 + z;
+                    columnStart[column] = runs.size();
+                    int[] run = null;
+                    for (int level = 0 ; level < LEVEL.length ; level++) {
+                        char c = LEVEL[level][z].charAt(x);
+                        if (c == ' ') {
+                            run = null;
+                        } else if (run != null && run[2] == blockMap[c]) {
+                            run[1] = level;
+                        } else {
+                            run = new int[] { level, level, blockMap[c] };
+                            runs.add(run);
+                        }
+                    }
+                }
+            }
+            columnStart[256] = runs.size();
+
+            runStart = new int[runs.size()];
+            runEnd = new int[runs.size()];
+            runBlock = new char[runs.size()];
+            for (int i = 0 ; i < runs.size() ; i++) {
+                int[] run = runs.get(i);
+                runStart[i] = run[0];
+                runEnd[i] = run[1];
+                runBlock[i] = (char) run[2];
+            }
+        }
+    }
+
+    private Span findSuitableY(int x, int z, ChunkPrimer primer) {
+        BlockPalette palette = provider.palette;
+        char[] data = primer.data;
         int index = (x * 16 + z) * 256;
 
         Span bestSpan = null;
 
         int lowestNonair = 256;
         for (int y = 255 ; y >= 0 ; y--) {
-            Block block = ablock[index+y];
-            if (!(block == null || block.getMaterial(block.getDefaultState()) == Material.AIR || block == Blocks.BEDROCK)) {
+            char id = data[index + y];
+            if (id != palette.air && id != palette.bedrock && !isAir(id)) {
                 if (bestSpan == null || bestSpan.isLarger(y + 1, lowestNonair - 1)) {
                     bestSpan = new Span(y+1, lowestNonair-1);
                 }
@@ -92,27 +153,30 @@ public class MapGenRuinedCities {
         return bestSpan;
     }
 
-    private Span findSuitableSpan(Block[] ablock) {
-        Span s1 = findSuitableY(0, 0, ablock);
+    private static boolean isAir(char id) {
+        IBlockState state = Block.BLOCK_STATE_IDS.getByValue(id);
+        return state == null || state.getBlock().getMaterial(state) == Material.AIR;
+    }
+
+    private Span findSuitableSpan(ChunkPrimer primer) {
+        Span s1 = findSuitableY(0, 0, primer);
         if (s1.isEmpty()) {
             return null;
         }
 
-        Span s = new Span(s1);
-
-        Span s2 = findSuitableY(15, 0, ablock);
-        s = s.intersect(s2);
+        Span s2 = findSuitableY(15, 0, primer);
+        Span s = s1.intersect(s2);
         if (s.isEmpty()) {
             return null;
         }
 
-        Span s3 = findSuitableY(0, 15, ablock);
+        Span s3 = findSuitableY(0, 15, primer);
         s = s.intersect(s3);
         if (s.isEmpty()) {
             return null;
         }
 
-        Span s4 = findSuitableY(15, 15, ablock);
+        Span s4 = findSuitableY(15, 15, primer);
         s = s.intersect(s4);
         if (s.isEmpty()) {
             return null;
@@ -125,62 +189,75 @@ public class MapGenRuinedCities {
         return Span.averageSpan(s1, s2, s3, s4);
     }
 
-    public void generate(World world, int chunkX, int chunkZ, Block[] ablock, byte[] ameta) {
-        Random random = new Random((world.getSeed() + chunkX) * 117 + chunkZ * 36631 + 177);
-        random.nextFloat();
+    private long getLayout(long seed, int regionX, int regionZ) {
+        Long layout = layouts.get(seed, regionX, regionZ);
+        if (layout == null) {
+            Random random = new Random((seed + regionX) * 117 + regionZ * 36631 + 177);
+            random.nextFloat();
+            long mask = 0;
+            if (random.nextFloat() < CITY_CHANCE) {
+                for (int i = 0 ; i < 64 ; i++) {
+                    if (random.nextFloat() < BUILDING_CHANCE) {
+                        mask |= 1L << i;
+                    }
+                }
+            }
+            layout = layouts.put(seed, regionX, regionZ, mask);
+        }
+        return layout;
+    }
 
-        if (random.nextFloat() > 0.1f) {
+    public void generate(World world, int chunkX, int chunkZ, ChunkPrimer primer) {
+        long layout = getLayout(world.getSeed(), chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+        int bit = ((chunkX & 7) << REGION_SHIFT) | (chunkZ & 7);
+        if ((layout & (1L << bit)) == 0) {
             return;
         }
 
-        Span span = findSuitableSpan(ablock);
+        Span span = findSuitableSpan(primer);
         if (span == null) {
             return;
         }
 
-        createBuilding(ablock, ameta, span);
+        createBuilding(primer, span);
     }
 
-
-    private void createBlockMap() {
-        if (blockMap != null) {
-            return;
+    private BuildingRuns getBuilding() {
+        if (building == null) {
+            char[] blockMap = new char[128];
+            blockMap['B'] = getId(ModBlocks.dimensionalBlock, 0);
+            blockMap['b'] = getId(ModBlocks.dimensionalBlankBlock, 0);
+            blockMap['p'] = getId(ModBlocks.dimensionalCrossBlock, 2);
+            blockMap['P'] = getId(ModBlocks.dimensionalCrossBlock, 0);
+            blockMap['X'] = getId(ModBlocks.dimensionalPattern1Block, 0);
+            blockMap['x'] = getId(ModBlocks.dimensionalPattern2Block, 0);
+            blockMap['g'] = getId(Blocks.STAINED_GLASS, 11);
+            building = new BuildingRuns(blockMap);
         }
-        blockMap = new HashMap<Character, BlockMeta>();
-        blockMap.put(' ', null);
-        blockMap.put('B', new BlockMeta(ModBlocks.dimensionalBlock, 0));
-        blockMap.put('b', new BlockMeta(ModBlocks.dimensionalBlankBlock, 0));
-        blockMap.put('p', new BlockMeta(ModBlocks.dimensionalCrossBlock, 2));
-        blockMap.put('P', new BlockMeta(ModBlocks.dimensionalCrossBlock, 0));
-        blockMap.put('X', new BlockMeta(ModBlocks.dimensionalPattern1Block, 0));
-        blockMap.put('x', new BlockMeta(ModBlocks.dimensionalPattern2Block, 0));
-        blockMap.put('g', new BlockMeta(Blocks.STAINED_GLASS, 11));
+        return building;
     }
 
-    private void createBuilding(Block[] ablock, byte[] ameta, Span span) {
-        createBlockMap();
-        int idx = 0;
-        for (int y = span.low-1 ; y <= span.high ; y++) {
-            if (idx >= LEVEL.length) {
-                return;
-            }
-            String[] level = LEVEL[idx++];
-            for (int x = 0 ; x < 16 ; x++) {
-                for (int z = 0 ; z < 16 ; z++) {
-                    int index = (x * 16 + z) * 256 + y;
-                    char c = level[z].charAt(x);
-                    BlockMeta blockMeta = blockMap.get(c);
-                    if (blockMeta != null) {
-                        ablock[index] = blockMeta.getBlock();
-                        ameta[index] = blockMeta.getMeta();
-                    }
+    private static char getId(Block block, int meta) {
+        return BlockPalette.getId(block.getStateFromMeta(meta));
+    }
+
+    private void createBuilding(ChunkPrimer primer, Span span) {
+        BuildingRuns runs = getBuilding();
+        char[] data = primer.data;
+        int base = span.low - 1;
+        int levels = Math.min(LEVEL.length, span.high - base + 1);
+        for (int column = 0 ; column < 256 ; column++) {
+            int index = column * 256 + base;
+            for (int r = runs.columnStart[column] ; r < runs.columnStart[column + 1] ; r++) {
+                if (runs.runStart[r] >= levels) {
+                    break;
                 }
+                int end = Math.min(runs.runEnd[r], levels - 1);
+                Arrays.fill(data, index + runs.runStart[r], index + end + 1, runs.runBlock[r]);
             }
         }
     }
 
-    private static Map<Character, BlockMeta> blockMap = null;
-
     private static String[] LevelBase = new String[] {
             "BBBBBBBBBBBBBBB ",
             "BBBBBBBBBBBBBBB ",
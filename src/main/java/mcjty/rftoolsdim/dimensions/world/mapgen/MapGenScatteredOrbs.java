@@ -1,9 +1,7 @@
 package mcjty.rftoolsdim.dimensions.world.mapgen;
 
+import mcjty.rftoolsdim.dimensions.world.BlockPalette;
 import mcjty.rftoolsdim.dimensions.world.GenericChunkGenerator;
-import mcjty.rftoolsdim.dimensions.world.terrain.BaseTerrainGenerator;
-import net.minecraft.block.state.IBlockState;
-import net.minecraft.init.Blocks;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.ChunkPrimer;
 
@@ -11,56 +9,68 @@ import java.util.Random;
 
 public class MapGenScatteredOrbs {
     private final GenericChunkGenerator provider;
-    private final int r;
+    private final SphereRasterizer rasterizer;
 
     public MapGenScatteredOrbs(GenericChunkGenerator provider) {
         this.provider = provider;
-        r = 3;
+        rasterizer = new SphereRasterizer(3, (seed, cellX, cellZ) -> place(createRandom(seed, cellX, cellZ), cellX, cellZ));
     }
 
-    public void generate(World world, int chunkX, int chunkZ, ChunkPrimer primer) {
-        IBlockState[] blocks = provider.dimensionInformation.getScatteredSphereBlocks();
-
-        for (int cx = -r ; cx <= r ; cx++) {
-            for (int cz = -r ; cz <= r ; cz++) {
+    private static Random createRandom(long seed, int cellX, int cellZ) {
+        return new Random((seed + cellX) * 113 + cellZ * 31 + 77);
+    }
 
-                Random random = new Random((world.getSeed() + (chunkX+cx)) * 113 + (chunkZ+cz) * 31 + 77);
-                random.nextFloat();
+    private SphereRasterizer.Sphere place(Random random, int cellX, int cellZ) {
+        random.nextFloat();
 
-                if (random.nextFloat() < .05f) {
-                    int x = cx * 16 + random.nextInt(16);
-                    int y = 40 + random.nextInt(40);
-                    int z = cz * 16 + random.nextInt(16);
-                    int radius = random.nextInt(30) + (20);
+        if (random.nextFloat() < .05f) {
+            int x = cellX * 16 + random.nextInt(16);
+            int y = 40 + random.nextInt(40);
+            int z = cellZ * 16 + random.nextInt(16);
+            int radius = random.nextInt(30) + (20);
 
-                    IBlockState block = Blocks.STONE.getDefaultState();
-                    if (blocks.length > 1) {
-                        block = blocks[random.nextInt(blocks.length)];
-                    } else if (blocks.length == 1) {
-                        block = blocks[0];
-                    }
+            BlockPalette palette = provider.palette;
+            char block = BlockPalette.select(palette.scatteredSphereBlocks, random, palette.stone);
+            return new SphereRasterizer.Sphere(cellX, cellZ, x, y, z, radius, block, (char) 0);
+        }
+        return null;
+    }
 
-                    fillSphere(primer, x, y, z, radius, block, random);
-                }
-            }
+    public void generate(World world, int chunkX, int chunkZ, ChunkPrimer primer) {
+        long seed = world.getSeed();
+        for (SphereRasterizer.Sphere sphere : rasterizer.getSpheres(seed, chunkX, chunkZ)) {
+            // Which blocks of the sphere are placed is decided by the same random that placed
+            // the sphere so the placement is done again to get it in the right state
+            Random random = createRandom(seed, sphere.cellX, sphere.cellZ);
+            place(random, sphere.cellX, sphere.cellZ);
+            fillSphere(primer.data, sphere.x - chunkX * 16, sphere.y, sphere.z - chunkZ * 16, sphere.radius, sphere.block, random);
         }
     }
 
-    private void fillSphere(ChunkPrimer primer, int centerx, int centery, int centerz, int radius, IBlockState block,
-                            Random random) {
-        for (int x = 0 ; x < 16 ; x++) {
-            double dxdx = (x-centerx) * (x-centerx);
-            for (int z = 0 ; z < 16 ; z++) {
-                double dzdz = (z-centerz) * (z-centerz);
-                int index = (x * 16 + z) * 256;
-                for (int y = centery-radius ; y <= centery+radius ; y++) {
-                    double dydy = (y-centery) * (y-centery);
-                    double dist = Math.sqrt(dxdx + dydy + dzdz);
-                    if (dist < radius) {
-                        double f = 1 - (dist / radius);
-                        if (random.nextDouble() < (f * f)) {
-                            BaseTerrainGenerator.setBlockState(primer, index + y, block);
-                        }
+    // Fill the part of the sphere that is in this chunk. 'data' is the data of a ChunkPrimer
+    static void fillSphere(char[] data, int centerx, int centery, int centerz, int radius, char block, Random random) {
+        // All blocks closer then the radius
+        int sqradius = radius * radius - 1;
+        int x1 = Math.max(0, centerx - radius);
+        int x2 = Math.min(15, centerx + radius);
+        int z1 = Math.max(0, centerz - radius);
+        int z2 = Math.min(15, centerz + radius);
+        for (int x = x1 ; x <= x2 ; x++) {
+            int dxdx = (x-centerx) * (x-centerx);
+            for (int z = z1 ; z <= z2 ; z++) {
+                int dxdz = dxdx + (z-centerz) * (z-centerz);
+                int h = SphereRasterizer.getHalfHeight(sqradius, dxdz);
+                if (h < 0) {
+                    continue;
+                }
+                int index = (x << 12) | (z << 8);
+                // Positions outside of the world are not placed but they still take their
+                // draw from the random so that the rest of the sphere stays the same as before
+                for (int y = centery - h ; y <= centery + h ; y++) {
+                    double dist = Math.sqrt(dxdz + (y-centery) * (y-centery));
+                    double f = 1 - (dist / radius);
+                    if (random.nextDouble() < (f * f) && y >= 0 && y <= 255) {
+                        data[index + y] = block;
                     }
                 }
             }
@@ -3,8 +3,6 @@ package mcjty.rftoolsdim.dimensions.world.mapgen;
 import mcjty.lib.varia.MathTools;
 import mcjty.rftoolsdim.dimensions.world.GenericChunkGenerator;
 import mcjty.rftoolsdim.dimensions.world.terrain.BaseTerrainGenerator;
-import net.minecraft.block.state.IBlockState;
-import net.minecraft.init.Blocks;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.ChunkPrimer;
@@ -22,7 +20,8 @@ public class MapGenTendrils {
     }
 
     private void func_151541_a(long seed, int chunkX, int chunkZ, ChunkPrimer primer, double p_151541_6_, double p_151541_8_, double p_151541_10_, float p_151541_12_, float p_151541_13_, float p_151541_14_, int p_151541_15_, int p_151541_16_, double p_151541_17_) {
-        IBlockState baseBlock = provider.dimensionInformation.getTendrilBlock();
+        char baseBlock = provider.palette.tendrilBlock;
+        char air = provider.palette.air;
 
         double d4 = (chunkX * 16 + 8);
         double d5 = (chunkZ * 16 + 8);
@@ -130,9 +129,7 @@ public class MapGenTendrils {
                                     double d12 = (l3 + 0.5D - p_151541_8_) / d7;
 
                                     if (d12 > -0.7D && d13 * d13 + d12 * d12 + d14 * d14 < 1.0D) {
-                                        IBlockState block = BaseTerrainGenerator.getBlockState(primer, k3);
-
-                                        if (block.getBlock() == Blocks.AIR || block == null) {
+                                        if (primer.data[k3] == air) {
                                             BaseTerrainGenerator.setBlockState(primer, k3, baseBlock);
                                         }
                                     }
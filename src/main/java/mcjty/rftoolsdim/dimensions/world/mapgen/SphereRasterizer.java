@@ -0,0 +1,142 @@
+package mcjty.rftoolsdim.dimensions.world.mapgen;
+
+import mcjty.rftoolsdim.varia.ChunkCache;
+import net.minecraft.world.chunk.ChunkPrimer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shared code for the generators that place spheres (orbs). Every chunk (cell) can be the
+ * origin of at most one sphere. The placement of a cell only depends on the seed so it is
+ * remembered for the neighbouring chunks that need it too. Spheres that don't touch the chunk
+ * being generated are skipped and the ones that do are filled column by column.
+ */
+public class SphereRasterizer {
+
+    public interface Placer {
+        /**
+         * Return the sphere that originates in this cell or null if there is none.
+         */
+        Sphere place(long seed, int cellX, int cellZ);
+    }
+
+    public static class Sphere {
+        // Center in world coordinates
+        public final int x;
+        public final int y;
+        public final int z;
+        public final int radius;
+        public final int cellX;
+        public final int cellZ;
+        public final char block;
+        public final char fluid;
+
+        public Sphere(int cellX, int cellZ, int x, int y, int z, int radius, char block, char fluid) {
+            this.cellX = cellX;
+            this.cellZ = cellZ;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.radius = radius;
+            this.block = block;
+            this.fluid = fluid;
+        }
+
+        public boolean touches(int chunkX, int chunkZ) {
+            int cx = x - chunkX * 16;
+            int cz = z - chunkZ * 16;
+            return cx + radius >= 0 && cx - radius <= 15 && cz + radius >= 0 && cz - radius <= 15;
+        }
+    }
+
+    // Marks cells without a sphere in the cache
+    private static final Sphere NONE = new Sphere(0, 0, 0, 0, 0, 0, (char) 0, (char) 0);
+
+    private final int range;
+    private final Placer placer;
+    private final ChunkCache<Sphere> placements = new ChunkCache<>(1024);
+
+    /**
+     * @param range the distance (in chunks) a sphere can be from the chunk it touches
+     */
+    public SphereRasterizer(int range, Placer placer) {
+        this.range = range;
+        this.placer = placer;
+    }
+
+    /**
+     * Return the spheres that touch this chunk in the order they have to be placed.
+     */
+    public List<Sphere> getSpheres(long seed, int chunkX, int chunkZ) {
+        List<Sphere> spheres = null;
+        for (int cx = -range ; cx <= range ; cx++) {
+            for (int cz = -range ; cz <= range ; cz++) {
+                Sphere sphere = getSphere(seed, chunkX + cx, chunkZ + cz);
+                if (sphere != NONE && sphere.touches(chunkX, chunkZ)) {
+                    if (spheres == null) {
+                        spheres = new ArrayList<>();
+                    }
+                    spheres.add(sphere);
+                }
+            }
+        }
+        return spheres == null ? Collections.emptyList() : spheres;
+    }
+
+    private Sphere getSphere(long seed, int cellX, int cellZ) {
+        Sphere sphere = placements.get(seed, cellX, cellZ);
+        if (sphere == null) {
+            sphere = placer.place(seed, cellX, cellZ);
+            sphere = placements.put(seed, cellX, cellZ, sphere == null ? NONE : sphere);
+        }
+        return sphere;
+    }
+
+    /**
+     * Return the largest h so that h*h <= sqradius - d (the half height of a column at
+     * squared horizontal distance d from the center) or -1 if the column is outside the sphere.
+     */
+    public static int getHalfHeight(int sqradius, int d) {
+        int v = sqradius - d;
+        if (v < 0) {
+            return -1;
+        }
+        int h = (int) Math.sqrt(v);
+        while (h * h > v) {
+            h--;
+        }
+        while ((h + 1) * (h + 1) <= v) {
+            h++;
+        }
+        return h;
+    }
+
+    /**
+     * Fill every block with dx*dx + dy*dy + dz*dz <= sqradius. The center is relative to the
+     * chunk and the sphere is clipped to the chunk.
+     */
+    public static void fillSphere(ChunkPrimer primer, int centerx, int centery, int centerz, int radius, int sqradius, char block) {
+        char[] data = primer.data;
+        int x1 = Math.max(0, centerx - radius);
+        int x2 = Math.min(15, centerx + radius);
+        int z1 = Math.max(0, centerz - radius);
+        int z2 = Math.min(15, centerz + radius);
+        for (int x = x1 ; x <= x2 ; x++) {
+            int dxdx = (x - centerx) * (x - centerx);
+            for (int z = z1 ; z <= z2 ; z++) {
+                int h = getHalfHeight(sqradius, dxdx + (z - centerz) * (z - centerz));
+                if (h >= 0) {
+                    int y1 = Math.max(0, centery - h);
+                    int y2 = Math.min(255, centery + h);
+                    if (y1 <= y2) {
+                        int index = (x << 12) | (z << 8);
+                        Arrays.fill(data, index + y1, index + y2 + 1, block);
+                    }
+                }
+            }
+        }
+    }
+}
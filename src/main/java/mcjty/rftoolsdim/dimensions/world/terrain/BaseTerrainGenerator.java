@@ -26,11 +26,21 @@ public interface BaseTerrainGenerator {
         primer.data[index] = (char) Block.BLOCK_STATE_IDS.get(state);
     }
 
+    // Set a block state id that was resolved before (see BlockPalette)
+    static void setBlockState(ChunkPrimer primer, int index, char id) {
+        primer.data[index] = id;
+    }
+
     // From 's' (inclusive) to 'e' (exclusive)
     static void setBlockStateRange(ChunkPrimer primer, int s, int e, IBlockState state) {
         Arrays.fill(primer.data, s, e, (char) Block.BLOCK_STATE_IDS.get(state));
     }
 
+    // From 's' (inclusive) to 'e' (exclusive)
+    static void setBlockStateRange(ChunkPrimer primer, int s, int e, char id) {
+        Arrays.fill(primer.data, s, e, id);
+    }
+
     static IBlockState getBlockState(ChunkPrimer primer, int index) {
         IBlockState iblockstate = Block.BLOCK_STATE_IDS.getByValue(primer.data[index]);
         return iblockstate == null ? defaultState : iblockstate;
@@ -2,11 +2,11 @@ package mcjty.rftoolsdim.dimensions.world.terrain;
 
 import mcjty.rftoolsdim.config.WorldgenConfiguration;
 import mcjty.rftoolsdim.dimensions.types.TerrainType;
+import mcjty.rftoolsdim.dimensions.world.BlockPalette;
 import mcjty.rftoolsdim.dimensions.world.GenericChunkGenerator;
 import net.minecraft.block.Block;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
-import net.minecraft.init.Blocks;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.chunk.ChunkPrimer;
@@ -17,6 +17,8 @@ import net.minecraftforge.event.terraingen.ChunkGeneratorEvent;
 import net.minecraftforge.event.terraingen.TerrainGen;
 import net.minecraftforge.fml.common.eventhandler.Event;
 
+import java.util.Random;
+
 public class CavernTerrainGenerator implements BaseTerrainGenerator {
     private World world;
     private GenericChunkGenerator provider;
@@ -39,14 +41,20 @@ public class CavernTerrainGenerator implements BaseTerrainGenerator {
     private NoiseGeneratorOctaves netherNoiseGen6;
     private NoiseGeneratorOctaves netherNoiseGen7;
 
-    private double[] noiseField;
-    /** Holds the noise used to determine whether something other than the baseblock can be generated at a location */
-    private double[] baseBlockExclusivityNoise = new double[256];
-    private double[] noiseData1;
-    private double[] noiseData2;
-    private double[] noiseData3;
-    private double[] noiseData4;
-    private double[] noiseData5;
+    // The noise buffers are per thread so that chunks can be generated in parallel
+    private final ThreadLocal<NoiseBuffers> buffers = ThreadLocal.withInitial(NoiseBuffers::new);
+
+    private static class NoiseBuffers {
+        private double[] noiseField;
+        /** Holds the noise used to determine whether something other than the baseblock can be generated at a location */
+        private double[] baseBlockExclusivityNoise = new double[256];
+        private double[] noiseData1;
+        private double[] noiseData2;
+        private double[] noiseData3;
+        private double[] noiseData4;
+        private double[] noiseData5;
+    }
+
 
     public CavernTerrainGenerator(CavernHeight heightsetting) {
         if (heightsetting == null) {
@@ -67,19 +75,19 @@ public class CavernTerrainGenerator implements BaseTerrainGenerator {
         this.world = world;
         this.provider = provider;
 
-        this.netherNoiseGen1 = new NoiseGeneratorOctaves(provider.rand, 16);
-        this.netherNoiseGen2 = new NoiseGeneratorOctaves(provider.rand, 16);
-        this.netherNoiseGen3 = new NoiseGeneratorOctaves(provider.rand, 8);
+        this.netherNoiseGen1 = new NoiseGeneratorOctaves(provider.getRandom(), 16);
+        this.netherNoiseGen2 = new NoiseGeneratorOctaves(provider.getRandom(), 16);
+        this.netherNoiseGen3 = new NoiseGeneratorOctaves(provider.getRandom(), 8);
         /* Determines whether slowsand or gravel can be generated at a location */
-        NoiseGeneratorOctaves slowsandGravelNoiseGen = new NoiseGeneratorOctaves(provider.rand, 4);
-        this.netherrackExculsivityNoiseGen = new NoiseGeneratorOctaves(provider.rand, 4);
-        this.netherNoiseGen6 = new NoiseGeneratorOctaves(provider.rand, 10);
-        this.netherNoiseGen7 = new NoiseGeneratorOctaves(provider.rand, 16);
+        NoiseGeneratorOctaves slowsandGravelNoiseGen = new NoiseGeneratorOctaves(provider.getRandom(), 4);
+        this.netherrackExculsivityNoiseGen = new NoiseGeneratorOctaves(provider.getRandom(), 4);
+        this.netherNoiseGen6 = new NoiseGeneratorOctaves(provider.getRandom(), 10);
+        this.netherNoiseGen7 = new NoiseGeneratorOctaves(provider.getRandom(), 16);
 
         net.minecraftforge.event.terraingen.InitNoiseGensEvent.ContextHell ctx =
                 new net.minecraftforge.event.terraingen.InitNoiseGensEvent.ContextHell(netherNoiseGen1, netherNoiseGen2, netherNoiseGen3,
                         slowsandGravelNoiseGen, netherrackExculsivityNoiseGen, netherNoiseGen6, netherNoiseGen7);
-        ctx = net.minecraftforge.event.terraingen.TerrainGen.getModdedNoiseGenerators(world, provider.rand, ctx);
+        ctx = net.minecraftforge.event.terraingen.TerrainGen.getModdedNoiseGenerators(world, provider.getRandom(), ctx);
         this.netherNoiseGen1 = ctx.getLPerlin1();
         this.netherNoiseGen2 = ctx.getLPerlin2();
         this.netherNoiseGen3 = ctx.getPerlin();
@@ -106,13 +114,14 @@ public class CavernTerrainGenerator implements BaseTerrainGenerator {
             noiseField = new double[sx * sy * sz];
         }
 
+        NoiseBuffers b = buffers.get();
         double d0 = 684.412D;
         double d1 = 2053.236D;
-        this.noiseData4 = this.netherNoiseGen6.generateNoiseOctaves(this.noiseData4, x, y, z, sx, 1, sz, 1.0D, 0.0D, 1.0D);
-        this.noiseData5 = this.netherNoiseGen7.generateNoiseOctaves(this.noiseData5, x, y, z, sx, 1, sz, 100.0D, 0.0D, 100.0D);
-        this.noiseData1 = this.netherNoiseGen3.generateNoiseOctaves(this.noiseData1, x, y, z, sx, sy, sz, d0 / 80.0D, d1 / 60.0D, d0 / 80.0D);
-        this.noiseData2 = this.netherNoiseGen1.generateNoiseOctaves(this.noiseData2, x, y, z, sx, sy, sz, d0, d1, d0);
-        this.noiseData3 = this.netherNoiseGen2.generateNoiseOctaves(this.noiseData3, x, y, z, sx, sy, sz, d0, d1, d0);
+        b.noiseData4 = this.netherNoiseGen6.generateNoiseOctaves(b.noiseData4, x, y, z, sx, 1, sz, 1.0D, 0.0D, 1.0D);
+        b.noiseData5 = this.netherNoiseGen7.generateNoiseOctaves(b.noiseData5, x, y, z, sx, 1, sz, 100.0D, 0.0D, 100.0D);
+        b.noiseData1 = this.netherNoiseGen3.generateNoiseOctaves(b.noiseData1, x, y, z, sx, sy, sz, d0 / 80.0D, d1 / 60.0D, d0 / 80.0D);
+        b.noiseData2 = this.netherNoiseGen1.generateNoiseOctaves(b.noiseData2, x, y, z, sx, sy, sz, d0, d1, d0);
+        b.noiseData3 = this.netherNoiseGen2.generateNoiseOctaves(b.noiseData3, x, y, z, sx, sy, sz, d0, d1, d0);
         int k1 = 0;
         double[] adouble1 = new double[sy];
         int i2;
@@ -140,9 +149,9 @@ public class CavernTerrainGenerator implements BaseTerrainGenerator {
                 for (int j2 = 0; j2 < sy; ++j2) {
                     double d6;
                     double d7 = adouble1[j2];
-                    double d8 = this.noiseData2[k1] / 512.0D;
-                    double d9 = this.noiseData3[k1] / 512.0D;
-                    double d10 = (this.noiseData1[k1] / 10.0D + 1.0D) / 2.0D;
+                    double d8 = b.noiseData2[k1] / 512.0D;
+                    double d9 = b.noiseData3[k1] / 512.0D;
+                    double d10 = (b.noiseData1[k1] / 10.0D + 1.0D) / 2.0D;
 
                     if (d10 < 0.0D) {
                         d6 = d8;
@@ -185,8 +194,9 @@ public class CavernTerrainGenerator implements BaseTerrainGenerator {
 
     @Override
     public void generate(int chunkX, int chunkZ, ChunkPrimer primer) {
-        IBlockState baseBlock = provider.dimensionInformation.getBaseBlockForTerrain();
-        Block baseLiquid = provider.dimensionInformation.getFluidForTerrain();
+        BlockPalette palette = provider.palette;
+        char baseBlock = palette.baseBlock;
+        char baseLiquid = palette.baseLiquid;
 
         byte b0 = 4;
         int liquidlevel = 32;
@@ -196,20 +206,21 @@ public class CavernTerrainGenerator implements BaseTerrainGenerator {
         int k = b0 + 1;
         byte b2 = 33;
         int l = b0 + 1;
-        this.noiseField = this.initializeNoiseField(this.noiseField, chunkX * b0, 0, chunkZ * b0, k, b2, l);
+        NoiseBuffers b = buffers.get();
+        b.noiseField = this.initializeNoiseField(b.noiseField, chunkX * b0, 0, chunkZ * b0, k, b2, l);
 
         for (int x4 = 0; x4 < b0; ++x4) {
             for (int z4 = 0; z4 < b0; ++z4) {
                 for (int height32 = 0; height32 < cavernheight[heightsetting.ordinal()]; ++height32) {
                     double d0 = 0.125D;
-                    double d1 = this.noiseField[((x4 + 0) * l + z4 + 0) * b2 + height32 + 0];
-                    double d2 = this.noiseField[((x4 + 0) * l + z4 + 1) * b2 + height32 + 0];
-                    double d3 = this.noiseField[((x4 + 1) * l + z4 + 0) * b2 + height32 + 0];
-                    double d4 = this.noiseField[((x4 + 1) * l + z4 + 1) * b2 + height32 + 0];
-                    double d5 = (this.noiseField[((x4 + 0) * l + z4 + 0) * b2 + height32 + 1] - d1) * d0;
-                    double d6 = (this.noiseField[((x4 + 0) * l + z4 + 1) * b2 + height32 + 1] - d2) * d0;
-                    double d7 = (this.noiseField[((x4 + 1) * l + z4 + 0) * b2 + height32 + 1] - d3) * d0;
-                    double d8 = (this.noiseField[((x4 + 1) * l + z4 + 1) * b2 + height32 + 1] - d4) * d0;
+                    double d1 = b.noiseField[((x4 + 0) * l + z4 + 0) * b2 + height32 + 0];
+                    double d2 = b.noiseField[((x4 + 0) * l + z4 + 1) * b2 + height32 + 0];
+                    double d3 = b.noiseField[((x4 + 1) * l + z4 + 0) * b2 + height32 + 0];
+                    double d4 = b.noiseField[((x4 + 1) * l + z4 + 1) * b2 + height32 + 0];
+                    double d5 = (b.noiseField[((x4 + 0) * l + z4 + 0) * b2 + height32 + 1] - d1) * d0;
+                    double d6 = (b.noiseField[((x4 + 0) * l + z4 + 1) * b2 + height32 + 1] - d2) * d0;
+                    double d7 = (b.noiseField[((x4 + 1) * l + z4 + 0) * b2 + height32 + 1] - d3) * d0;
+                    double d8 = (b.noiseField[((x4 + 1) * l + z4 + 1) * b2 + height32 + 1] - d4) * d0;
 
                     for (int h = 0; h < 8; ++h) {
                         double d9 = 0.25D;
@@ -234,9 +245,9 @@ public class CavernTerrainGenerator implements BaseTerrainGenerator {
 //                                    if (baseMeta == 127) {
 //                                        realMeta = (byte)((height/2 + x/2 + z/2) & 0xf);
                                 } else if (height < liquidlevel) {
-                                    BaseTerrainGenerator.setBlockState(primer, index, baseLiquid.getDefaultState());
+                                    BaseTerrainGenerator.setBlockState(primer, index, baseLiquid);
                                 } else {
-                                    BaseTerrainGenerator.setBlockState(primer, index, Blocks.AIR.getDefaultState());
+                                    BaseTerrainGenerator.setBlockState(primer, index, palette.air);
                                 }
 
                                 index += maxheight;
@@ -272,11 +283,13 @@ public class CavernTerrainGenerator implements BaseTerrainGenerator {
 
         byte b0 = 64;
         double d0 = 0.03125D;
-        this.baseBlockExclusivityNoise = this.netherrackExculsivityNoiseGen.generateNoiseOctaves(this.baseBlockExclusivityNoise, chunkX * 16, chunkZ * 16, 0, 16, 16, 1, d0 * 2.0D, d0 * 2.0D, d0 * 2.0D);
+        NoiseBuffers b = buffers.get();
+        Random rand = provider.getRandom();
+        b.baseBlockExclusivityNoise = this.netherrackExculsivityNoiseGen.generateNoiseOctaves(b.baseBlockExclusivityNoise, chunkX * 16, chunkZ * 16, 0, 16, 16, 1, d0 * 2.0D, d0 * 2.0D, d0 * 2.0D);
 
         for (int k = 0; k < 16; ++k) {
             for (int l = 0; l < 16; ++l) {
-                int i1 = (int)(this.baseBlockExclusivityNoise[k + l * 16] / 3.0D + 3.0D + provider.rand.nextDouble() * 0.25D);
+                int i1 = (int)(b.baseBlockExclusivityNoise[k + l * 16] / 3.0D + 3.0D + rand.nextDouble() * 0.25D);
                 int j1 = -1;
                 IBlockState block = baseBlock;
 
@@ -284,8 +297,8 @@ public class CavernTerrainGenerator implements BaseTerrainGenerator {
                     int l1 = (l * 16 + k) * 256 + k1;
 
                     if (k1 < WorldgenConfiguration.bedrockLayer) {
-                        BaseTerrainGenerator.setBlockState(primer, l1, Blocks.BEDROCK.getDefaultState());
-                    } else if (k1 < 255 - provider.rand.nextInt(5) && k1 > provider.rand.nextInt(5)) {
+                        BaseTerrainGenerator.setBlockState(primer, l1, provider.palette.bedrock);
+                    } else if (k1 < 255 - rand.nextInt(5) && k1 > rand.nextInt(5)) {
                         IBlockState block2 = BaseTerrainGenerator.getBlockState(primer, l1);
 
                         if (block2 != null && block2.getBlock().getMaterial(block2) != Material.AIR) {
@@ -320,7 +333,7 @@ public class CavernTerrainGenerator implements BaseTerrainGenerator {
                         }
                     } else if (heightsetting == CavernHeight.HEIGHT_256) {
                         // Only use a bedrock ceiling if the height is 256.
-                        BaseTerrainGenerator.setBlockState(primer, l1, Blocks.BEDROCK.getDefaultState());
+                        BaseTerrainGenerator.setBlockState(primer, l1, provider.palette.bedrock);
                     }
                 }
             }
@@ -2,8 +2,7 @@ package mcjty.rftoolsdim.dimensions.world.terrain;
 
 import mcjty.rftoolsdim.config.WorldgenConfiguration;
 import mcjty.rftoolsdim.dimensions.types.FeatureType;
-import net.minecraft.block.state.IBlockState;
-import net.minecraft.init.Blocks;
+import mcjty.rftoolsdim.dimensions.world.BlockPalette;
 import net.minecraft.world.chunk.ChunkPrimer;
 
 import java.util.Random;
@@ -18,7 +17,8 @@ public class FlatTerrainGenerator extends NormalTerrainGenerator {
 
     @Override
     public void generate(int chunkX, int chunkZ, ChunkPrimer primer) {
-        IBlockState baseBlock = provider.dimensionInformation.getBaseBlockForTerrain();
+        BlockPalette palette = provider.palette;
+        char baseBlock = palette.baseBlock;
 
         byte waterLevel = height;
 
@@ -43,7 +43,7 @@ public class FlatTerrainGenerator extends NormalTerrainGenerator {
             for (int z = 0; z < 16; ++z) {
                 int height = 0;
                 while (height < WorldgenConfiguration.bedrockLayer) {
-                    BaseTerrainGenerator.setBlockState(primer, index++, Blocks.BEDROCK.getDefaultState());
+                    BaseTerrainGenerator.setBlockState(primer, index++, palette.bedrock);
                     height++;
                 }
                 // @todo support 127
@@ -63,7 +63,7 @@ public class FlatTerrainGenerator extends NormalTerrainGenerator {
                     }
 //                }
                 while (height < 256) {
-                    BaseTerrainGenerator.setBlockState(primer, index++, Blocks.AIR.getDefaultState());
+                    BaseTerrainGenerator.setBlockState(primer, index++, palette.air);
                     height++;
                 }
             }
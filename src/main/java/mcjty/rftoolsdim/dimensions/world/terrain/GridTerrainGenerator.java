@@ -1,7 +1,5 @@
 package mcjty.rftoolsdim.dimensions.world.terrain;
 
-import net.minecraft.block.state.IBlockState;
-import net.minecraft.init.Blocks;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.chunk.ChunkPrimer;
 
@@ -9,7 +7,8 @@ public class GridTerrainGenerator extends NormalTerrainGenerator {
 
     @Override
     public void generate(int chunkX, int chunkZ, ChunkPrimer primer) {
-        IBlockState baseBlock = provider.dimensionInformation.getBaseBlockForTerrain();
+        char air = provider.palette.air;
+        char baseBlock = provider.palette.baseBlock;
 
         int borderx;
         if ((chunkX & 1) == 0) {
@@ -29,8 +28,7 @@ public class GridTerrainGenerator extends NormalTerrainGenerator {
             for (int z = 0; z < 16; ++z) {
                 // Clear the bedrock
                 for (int y = 0 ; y < 10 ; y++) {
-                    // @todo optimize references to air/defaultstate
-                    BaseTerrainGenerator.setBlockState(primer, index+y, Blocks.AIR.getDefaultState());
+                    BaseTerrainGenerator.setBlockState(primer, index+y, air);
                 }
 
                 boolean filled = (x == borderx) && (z == borderz);
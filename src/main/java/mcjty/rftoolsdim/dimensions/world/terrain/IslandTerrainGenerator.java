@@ -1,6 +1,7 @@
 package mcjty.rftoolsdim.dimensions.world.terrain;
 
 import mcjty.rftoolsdim.dimensions.types.FeatureType;
+import mcjty.rftoolsdim.dimensions.world.BlockPalette;
 import mcjty.rftoolsdim.dimensions.world.GenericChunkGenerator;
 import net.minecraft.block.Block;
 import net.minecraft.block.material.Material;
@@ -23,22 +24,27 @@ import java.util.Random;
 public class IslandTerrainGenerator implements BaseTerrainGenerator {
     private GenericChunkGenerator provider;
 
-    private double[] densities;
-
     private NoiseGeneratorOctaves noiseGen1;
     private NoiseGeneratorOctaves noiseGen2;
     private NoiseGeneratorOctaves noiseGen3;
     private NoiseGeneratorOctaves noiseGen4;
     private NoiseGeneratorOctaves noiseGen5;
 
-    private double[] stoneNoise = new double[256];
-    private double[] noiseData1;
-    private double[] noiseData2;
-    private double[] noiseData3;
-    private double[] noiseData4;
-    private double[] noiseData5;
     private NoiseGeneratorSimplex islandNoise;          // @todo unusued for now
 
+    // The noise buffers are per thread so that chunks can be generated in parallel
+    private final ThreadLocal<NoiseBuffers> buffers = ThreadLocal.withInitial(NoiseBuffers::new);
+
+    private static class NoiseBuffers {
+        private double[] densities;
+        private double[] stoneNoise = new double[256];
+        private double[] noiseData1;
+        private double[] noiseData2;
+        private double[] noiseData3;
+        private double[] noiseData4;
+        private double[] noiseData5;
+    }
+
     public static final int NORMAL = 0;
     public static final int CHAOTIC = 1;
     public static final int PLATEAUS = 3;
@@ -78,16 +84,16 @@ public class IslandTerrainGenerator implements BaseTerrainGenerator {
     public void setup(World world, GenericChunkGenerator provider) {
         this.provider = provider;
 
-        this.noiseGen1 = new NoiseGeneratorOctaves(provider.rand, 16);
-        this.noiseGen2 = new NoiseGeneratorOctaves(provider.rand, 16);
-        this.noiseGen3 = new NoiseGeneratorOctaves(provider.rand, 8);
-        this.noiseGen4 = new NoiseGeneratorOctaves(provider.rand, 10);
-        this.noiseGen5 = new NoiseGeneratorOctaves(provider.rand, 16);
-        this.islandNoise = new NoiseGeneratorSimplex(provider.rand);
+        this.noiseGen1 = new NoiseGeneratorOctaves(provider.getRandom(), 16);
+        this.noiseGen2 = new NoiseGeneratorOctaves(provider.getRandom(), 16);
+        this.noiseGen3 = new NoiseGeneratorOctaves(provider.getRandom(), 8);
+        this.noiseGen4 = new NoiseGeneratorOctaves(provider.getRandom(), 10);
+        this.noiseGen5 = new NoiseGeneratorOctaves(provider.getRandom(), 16);
+        this.islandNoise = new NoiseGeneratorSimplex(provider.getRandom());
 
         net.minecraftforge.event.terraingen.InitNoiseGensEvent.ContextEnd ctx =
                 new net.minecraftforge.event.terraingen.InitNoiseGensEvent.ContextEnd(noiseGen1, noiseGen2, noiseGen3, noiseGen4, noiseGen5, islandNoise);
-        ctx = net.minecraftforge.event.terraingen.TerrainGen.getModdedNoiseGenerators(world, provider.rand, ctx);
+        ctx = net.minecraftforge.event.terraingen.TerrainGen.getModdedNoiseGenerators(world, provider.getRandom(), ctx);
 
         this.noiseGen1 = ctx.getLPerlin1();
         this.noiseGen2 = ctx.getLPerlin2();
@@ -114,14 +120,15 @@ public class IslandTerrainGenerator implements BaseTerrainGenerator {
 
         boolean shallowOcean = provider.dimensionInformation.hasFeatureType(FeatureType.FEATURE_SHALLOW_OCEAN);
 
+        NoiseBuffers b = buffers.get();
         double d0 = 684.412D;
         double d1 = 684.412D;
-        this.noiseData4 = this.noiseGen4.generateNoiseOctaves(this.noiseData4, chunkX2, chunkZ2, sizeX, sizeZ, 1.121D, 1.121D, 0.5D);
-        this.noiseData5 = this.noiseGen5.generateNoiseOctaves(this.noiseData5, chunkX2, chunkZ2, sizeX, sizeZ, 200.0D, 200.0D, 0.5D);
+        b.noiseData4 = this.noiseGen4.generateNoiseOctaves(b.noiseData4, chunkX2, chunkZ2, sizeX, sizeZ, 1.121D, 1.121D, 0.5D);
+        b.noiseData5 = this.noiseGen5.generateNoiseOctaves(b.noiseData5, chunkX2, chunkZ2, sizeX, sizeZ, 200.0D, 200.0D, 0.5D);
         d0 *= 2.0D;
-        this.noiseData1 = this.noiseGen3.generateNoiseOctaves(this.noiseData1, chunkX2, chunkY2, chunkZ2, sizeX, sizeY, sizeZ, d0 / 80.0D, d1 / 160.0D, d0 / 80.0D);
-        this.noiseData2 = this.noiseGen1.generateNoiseOctaves(this.noiseData2, chunkX2, chunkY2, chunkZ2, sizeX, sizeY, sizeZ, d0, d1, d0);
-        this.noiseData3 = this.noiseGen2.generateNoiseOctaves(this.noiseData3, chunkX2, chunkY2, chunkZ2, sizeX, sizeY, sizeZ, d0, d1, d0);
+        b.noiseData1 = this.noiseGen3.generateNoiseOctaves(b.noiseData1, chunkX2, chunkY2, chunkZ2, sizeX, sizeY, sizeZ, d0 / 80.0D, d1 / 160.0D, d0 / 80.0D);
+        b.noiseData2 = this.noiseGen1.generateNoiseOctaves(b.noiseData2, chunkX2, chunkY2, chunkZ2, sizeX, sizeY, sizeZ, d0, d1, d0);
+        b.noiseData3 = this.noiseGen2.generateNoiseOctaves(b.noiseData3, chunkX2, chunkY2, chunkZ2, sizeX, sizeY, sizeZ, d0, d1, d0);
         int k1 = 0;
 
         Random random = new Random(chunkX2 * 13 + chunkY2 * 157 + chunkZ2 * 13883);
@@ -159,9 +166,9 @@ public class IslandTerrainGenerator implements BaseTerrainGenerator {
                 for (int y = 0; y < sizeY; ++y) {
                     double d5 = 0.0D;
 
-                    double d7 = this.noiseData2[k1] / 512.0D;
-                    double d8 = this.noiseData3[k1] / 512.0D;
-                    double d9 = (this.noiseData1[k1] / 10.0D + 1.0D) / 2.0D;
+                    double d7 = b.noiseData2[k1] / 512.0D;
+                    double d8 = b.noiseData3[k1] / 512.0D;
+                    double d9 = (b.noiseData1[k1] / 10.0D + 1.0D) / 2.0D;
 
                     if (d9 < 0.0D) {
                         d5 = d7;
@@ -213,26 +220,28 @@ public class IslandTerrainGenerator implements BaseTerrainGenerator {
 
     @Override
     public void generate(int chunkX, int chunkZ, ChunkPrimer primer) {
-        IBlockState baseBlock = provider.dimensionInformation.getBaseBlockForTerrain();
+        char baseBlock = provider.palette.baseBlock;
+        char air = provider.palette.air;
+        NoiseBuffers b = buffers.get();
 
         byte b0 = 2;
         int k = b0 + 1;
         byte b1 = 33;
         int l = b0 + 1;
-        this.densities = this.initializeNoiseField(this.densities, chunkX * b0, 0, chunkZ * b0, k, b1, l);
+        b.densities = this.initializeNoiseField(b.densities, chunkX * b0, 0, chunkZ * b0, k, b1, l);
 
         for (int x2 = 0; x2 < b0; ++x2) {
             for (int z2 = 0; z2 < b0; ++z2) {
                 for (int height32 = 0; height32 < 32; ++height32) {
                     double d0 = 0.25D;
-                    double d1 = this.densities[((x2 + 0) * l + z2 + 0) * b1 + height32 + 0];
-                    double d2 = this.densities[((x2 + 0) * l + z2 + 1) * b1 + height32 + 0];
-                    double d3 = this.densities[((x2 + 1) * l + z2 + 0) * b1 + height32 + 0];
-                    double d4 = this.densities[((x2 + 1) * l + z2 + 1) * b1 + height32 + 0];
-                    double d5 = (this.densities[((x2 + 0) * l + z2 + 0) * b1 + height32 + 1] - d1) * d0;
-                    double d6 = (this.densities[((x2 + 0) * l + z2 + 1) * b1 + height32 + 1] - d2) * d0;
-                    double d7 = (this.densities[((x2 + 1) * l + z2 + 0) * b1 + height32 + 1] - d3) * d0;
-                    double d8 = (this.densities[((x2 + 1) * l + z2 + 1) * b1 + height32 + 1] - d4) * d0;
+                    double d1 = b.densities[((x2 + 0) * l + z2 + 0) * b1 + height32 + 0];
+                    double d2 = b.densities[((x2 + 0) * l + z2 + 1) * b1 + height32 + 0];
+                    double d3 = b.densities[((x2 + 1) * l + z2 + 0) * b1 + height32 + 0];
+                    double d4 = b.densities[((x2 + 1) * l + z2 + 1) * b1 + height32 + 0];
+                    double d5 = (b.densities[((x2 + 0) * l + z2 + 0) * b1 + height32 + 1] - d1) * d0;
+                    double d6 = (b.densities[((x2 + 0) * l + z2 + 1) * b1 + height32 + 1] - d2) * d0;
+                    double d7 = (b.densities[((x2 + 1) * l + z2 + 0) * b1 + height32 + 1] - d3) * d0;
+                    double d8 = (b.densities[((x2 + 1) * l + z2 + 1) * b1 + height32 + 1] - d4) * d0;
 
                     for (int h = 0; h < 8; ++h) {
                         double d9 = 0.125D;
@@ -260,7 +269,7 @@ public class IslandTerrainGenerator implements BaseTerrainGenerator {
 //                                        realMeta = baseMeta;
 //                                    }
                                 } else {
-                                    BaseTerrainGenerator.setBlockState(primer, index, Blocks.AIR.getDefaultState());
+                                    BaseTerrainGenerator.setBlockState(primer, index, air);
                                 }
 
                                 index += maxheight;
@@ -284,6 +293,7 @@ public class IslandTerrainGenerator implements BaseTerrainGenerator {
 
     @Override
     public void replaceBlocksForBiome(int chunkX, int chunkZ, ChunkPrimer primer, Biome[] Biomes) {
+        NoiseBuffers b = buffers.get();
 //        ChunkProviderEvent.ReplaceBiomeBlocks event = new ChunkProviderEvent.ReplaceBiomeBlocks(provider, chunkX, chunkZ, aBlock, abyte, Biomes, world);
 //        MinecraftForge.EVENT_BUS.post(event);
 //        if (event.getResult() == Event.Result.DENY) {
@@ -291,17 +301,18 @@ public class IslandTerrainGenerator implements BaseTerrainGenerator {
 //        }
 
         double d0 = 0.03125D;
-        this.stoneNoise = this.noiseGen4.generateNoiseOctaves(this.stoneNoise, (chunkX * 16), (chunkZ * 16), 16, 16, d0 * 2.0D, d0 * 2.0D, 1.0D);
+        b.stoneNoise = this.noiseGen4.generateNoiseOctaves(b.stoneNoise, (chunkX * 16), (chunkZ * 16), 16, 16, d0 * 2.0D, d0 * 2.0D, 1.0D);
 
         for (int k = 0; k < 16; ++k) {
             for (int l = 0; l < 16; ++l) {
                 Biome Biome = Biomes[l + k * 16];
-                genBiomeTerrain(Biome, primer, chunkX * 16 + k, chunkZ * 16 + l, this.stoneNoise[l + k * 16]);
+                genBiomeTerrain(Biome, primer, chunkX * 16 + k, chunkZ * 16 + l, b.stoneNoise[l + k * 16]);
             }
         }
     }
 
     public final void genBiomeTerrain(Biome Biome, ChunkPrimer primer, int x, int z, double noise) {
+        BlockPalette palette = provider.palette;
         Block baseLiquid = provider.dimensionInformation.getFluidForTerrain();
         IBlockState baseBlock = provider.dimensionInformation.getBaseBlockForTerrain();
 
@@ -309,7 +320,7 @@ public class IslandTerrainGenerator implements BaseTerrainGenerator {
         IBlockState block1 = Biome.fillerBlock;    //baseBlock
 
         int k = -1;
-        int l = (int)(noise / 3.0D + 3.0D + provider.rand.nextDouble() * 0.25D);
+        int l = (int)(noise / 3.0D + 3.0D + provider.getRandom().nextDouble() * 0.25D);
         int cx = x & 15;
         int cz = z & 15;
 
@@ -324,18 +335,18 @@ public class IslandTerrainGenerator implements BaseTerrainGenerator {
 
             if (height <= 2) {
                 if (shallowOcean) {
-                    BaseTerrainGenerator.setBlockState(primer, index, Blocks.BEDROCK.getDefaultState());
+                    BaseTerrainGenerator.setBlockState(primer, index, palette.bedrock);
                 } else {
-                    BaseTerrainGenerator.setBlockState(primer, index, Blocks.AIR.getDefaultState());
+                    BaseTerrainGenerator.setBlockState(primer, index, palette.air);
                 }
             } else {
                 IBlockState currentBlock = BaseTerrainGenerator.getBlockState(primer, index);
                 if (currentBlock.getBlock() == Blocks.BEDROCK && height <= 12) {
                     if (shallowOcean) {
-                        BaseTerrainGenerator.setBlockState(primer, index, baseLiquid.getDefaultState());
+                        BaseTerrainGenerator.setBlockState(primer, index, palette.baseLiquid);
 
                     } else {
-                        BaseTerrainGenerator.setBlockState(primer, index, Blocks.AIR.getDefaultState());
+                        BaseTerrainGenerator.setBlockState(primer, index, palette.air);
                     }
                     k = -1;
                 } else {
@@ -374,14 +385,14 @@ public class IslandTerrainGenerator implements BaseTerrainGenerator {
                                 BaseTerrainGenerator.setBlockState(primer, index, block1);
 
                                 if (k == 0 && block1 == Blocks.SAND) {
-                                    k = provider.rand.nextInt(4) + Math.max(0, height - 63);
+                                    k = provider.getRandom().nextInt(4) + Math.max(0, height - 63);
                                     block1 = Blocks.SANDSTONE.getDefaultState();
                                 }
                             }
                         }
                     } else {
                         if (shallowOcean && height <= shallowWaterY) {
-                            BaseTerrainGenerator.setBlockState(primer, index, baseLiquid.getDefaultState());
+                            BaseTerrainGenerator.setBlockState(primer, index, palette.baseLiquid);
                         }
                         k = -1;
                     }
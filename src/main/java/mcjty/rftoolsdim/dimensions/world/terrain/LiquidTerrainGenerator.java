@@ -1,8 +1,7 @@
 package mcjty.rftoolsdim.dimensions.world.terrain;
 
+import mcjty.rftoolsdim.dimensions.world.BlockPalette;
 import mcjty.rftoolsdim.dimensions.world.GenericChunkGenerator;
-import net.minecraft.block.Block;
-import net.minecraft.init.Blocks;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.chunk.ChunkPrimer;
@@ -17,7 +16,8 @@ public class LiquidTerrainGenerator implements BaseTerrainGenerator {
 
     @Override
     public void generate(int chunkX, int chunkZ, ChunkPrimer primer) {
-        Block baseLiquid = provider.dimensionInformation.getFluidForTerrain();
+        BlockPalette palette = provider.palette;
+        char baseLiquid = palette.baseLiquid;
 
         byte waterLevel = 127;
 
@@ -26,15 +26,15 @@ public class LiquidTerrainGenerator implements BaseTerrainGenerator {
             for (int z = 0; z < 16; ++z) {
                 int height = 0;
                 while (height < 1) {
-                    BaseTerrainGenerator.setBlockState(primer, index++, Blocks.BEDROCK.getDefaultState());
+                    BaseTerrainGenerator.setBlockState(primer, index++, palette.bedrock);
                     height++;
                 }
                 while (height < waterLevel) {
-                    BaseTerrainGenerator.setBlockState(primer, index++, baseLiquid.getDefaultState());
+                    BaseTerrainGenerator.setBlockState(primer, index++, baseLiquid);
                     height++;
                 }
                 while (height < 256) {
-                    BaseTerrainGenerator.setBlockState(primer, index++, Blocks.AIR.getDefaultState());
+                    BaseTerrainGenerator.setBlockState(primer, index++, palette.air);
                     height++;
                 }
             }
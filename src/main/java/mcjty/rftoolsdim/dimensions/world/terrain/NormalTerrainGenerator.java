@@ -5,8 +5,6 @@ import mcjty.lib.varia.Logging;
 import mcjty.rftoolsdim.dimensions.types.FeatureType;
 import mcjty.rftoolsdim.dimensions.types.TerrainType;
 import mcjty.rftoolsdim.dimensions.world.GenericChunkGenerator;
-import net.minecraft.block.Block;
-import net.minecraft.block.state.IBlockState;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldType;
 import net.minecraft.world.biome.Biome;
@@ -24,11 +22,8 @@ public class NormalTerrainGenerator implements BaseTerrainGenerator {
     private World world;
     protected GenericChunkGenerator provider;
 
-    protected final double[] heightMap;
-    private double[] mainNoiseRegion;
-    private double[] minLimitRegion;
-    private double[] maxLimitRegion;
-    private double[] depthRegion;
+    // The noise buffers are per thread so that chunks can be generated in parallel
+    private final ThreadLocal<NoiseBuffers> buffers = ThreadLocal.withInitial(NoiseBuffers::new);
 
     private NoiseGeneratorOctaves minLimitPerlinNoise;
     private NoiseGeneratorOctaves maxLimitPerlinNoise;
@@ -39,12 +34,18 @@ public class NormalTerrainGenerator implements BaseTerrainGenerator {
     private NoiseGeneratorOctaves depthNoise;
 
     private final float[] biomeWeights;
-    private double[] depthBuffer = new double[256];
 
+    private static class NoiseBuffers {
+        private final double[] heightMap = new double[825];
+        private double[] mainNoiseRegion;
+        private double[] minLimitRegion;
+        private double[] maxLimitRegion;
+        private double[] depthRegion;
+        private double[] depthBuffer = new double[256];
+    }
 
-    public NormalTerrainGenerator() {
-        this.heightMap = new double[825];
 
+    public NormalTerrainGenerator() {
         this.biomeWeights = new float[25];
         for (int j = -2; j <= 2; ++j) {
             for (int k = -2; k <= 2; ++k) {
@@ -60,17 +61,17 @@ public class NormalTerrainGenerator implements BaseTerrainGenerator {
         this.world = world;
         this.provider = provider;
 
-        this.minLimitPerlinNoise = new NoiseGeneratorOctaves(provider.rand, 16);
-        this.maxLimitPerlinNoise = new NoiseGeneratorOctaves(provider.rand, 16);
-        this.mainPerlinNoise = new NoiseGeneratorOctaves(provider.rand, 8);
-        this.surfaceNoise = new NoiseGeneratorPerlin(provider.rand, 4);
-        NoiseGeneratorOctaves noiseGen5 = new NoiseGeneratorOctaves(provider.rand, 10);
-        this.depthNoise = new NoiseGeneratorOctaves(provider.rand, 16);
-        NoiseGeneratorOctaves mobSpawnerNoise = new NoiseGeneratorOctaves(provider.rand, 8);
+        this.minLimitPerlinNoise = new NoiseGeneratorOctaves(provider.getRandom(), 16);
+        this.maxLimitPerlinNoise = new NoiseGeneratorOctaves(provider.getRandom(), 16);
+        this.mainPerlinNoise = new NoiseGeneratorOctaves(provider.getRandom(), 8);
+        this.surfaceNoise = new NoiseGeneratorPerlin(provider.getRandom(), 4);
+        NoiseGeneratorOctaves noiseGen5 = new NoiseGeneratorOctaves(provider.getRandom(), 10);
+        this.depthNoise = new NoiseGeneratorOctaves(provider.getRandom(), 16);
+        NoiseGeneratorOctaves mobSpawnerNoise = new NoiseGeneratorOctaves(provider.getRandom(), 8);
 
         net.minecraftforge.event.terraingen.InitNoiseGensEvent.ContextOverworld ctx =
                 new net.minecraftforge.event.terraingen.InitNoiseGensEvent.ContextOverworld(minLimitPerlinNoise, maxLimitPerlinNoise, mainPerlinNoise, surfaceNoise, noiseGen5, depthNoise, mobSpawnerNoise);
-        ctx = net.minecraftforge.event.terraingen.TerrainGen.getModdedNoiseGenerators(world, provider.rand, ctx);
+        ctx = net.minecraftforge.event.terraingen.TerrainGen.getModdedNoiseGenerators(world, provider.getRandom(), ctx);
         this.minLimitPerlinNoise = ctx.getLPerlin1();
         this.maxLimitPerlinNoise = ctx.getLPerlin2();
         this.mainPerlinNoise = ctx.getPerlin();
@@ -80,14 +81,16 @@ public class NormalTerrainGenerator implements BaseTerrainGenerator {
 //        this.field_185985_d = ctx.getForest();
     }
 
-    protected void generateHeightmap(int chunkX4, int chunkY4, int chunkZ4) {
+    protected double[] generateHeightmap(int chunkX4, int chunkY4, int chunkZ4) {
         ChunkProviderSettings settings = provider.getSettings();
-        this.depthRegion = this.depthNoise.generateNoiseOctaves(this.depthRegion, chunkX4, chunkZ4, 5, 5, (double)settings.depthNoiseScaleX, (double)settings.depthNoiseScaleZ, (double)settings.depthNoiseScaleExponent);
+        NoiseBuffers b = buffers.get();
+        double[] heightMap = b.heightMap;
+        b.depthRegion = this.depthNoise.generateNoiseOctaves(b.depthRegion, chunkX4, chunkZ4, 5, 5, (double)settings.depthNoiseScaleX, (double)settings.depthNoiseScaleZ, (double)settings.depthNoiseScaleExponent);
         float f = settings.coordinateScale;
         float f1 = settings.heightScale;
-        this.mainNoiseRegion = this.mainPerlinNoise.generateNoiseOctaves(this.mainNoiseRegion, chunkX4, chunkY4, chunkZ4, 5, 33, 5, (double)(f / settings.mainNoiseScaleX), (double)(f1 / settings.mainNoiseScaleY), (double)(f / settings.mainNoiseScaleZ));
-        this.minLimitRegion = this.minLimitPerlinNoise.generateNoiseOctaves(this.minLimitRegion, chunkX4, chunkY4, chunkZ4, 5, 33, 5, (double)f, (double)f1, (double)f);
-        this.maxLimitRegion = this.maxLimitPerlinNoise.generateNoiseOctaves(this.maxLimitRegion, chunkX4, chunkY4, chunkZ4, 5, 33, 5, (double)f, (double)f1, (double)f);
+        b.mainNoiseRegion = this.mainPerlinNoise.generateNoiseOctaves(b.mainNoiseRegion, chunkX4, chunkY4, chunkZ4, 5, 33, 5, (double)(f / settings.mainNoiseScaleX), (double)(f1 / settings.mainNoiseScaleY), (double)(f / settings.mainNoiseScaleZ));
+        b.minLimitRegion = this.minLimitPerlinNoise.generateNoiseOctaves(b.minLimitRegion, chunkX4, chunkY4, chunkZ4, 5, 33, 5, (double)f, (double)f1, (double)f);
+        b.maxLimitRegion = this.maxLimitPerlinNoise.generateNoiseOctaves(b.maxLimitRegion, chunkX4, chunkY4, chunkZ4, 5, 33, 5, (double)f, (double)f1, (double)f);
 
         int i = 0;
         int j = 0;
@@ -119,9 +122,10 @@ public class NormalTerrainGenerator implements BaseTerrainGenerator {
             }
         }
 
-        if (provider.biomesForGeneration == null) {
+        Biome[] biomesForGeneration = provider.getBiomesForGeneration();
+        if (biomesForGeneration == null) {
             Logging.log("Dimension " + world.provider.getDimension() + " has a problem! Ignoring for now.");
-            return;
+            return heightMap;
         }
 
         for (int k = 0; k < 5; ++k) {
@@ -129,11 +133,11 @@ public class NormalTerrainGenerator implements BaseTerrainGenerator {
                 float f2 = 0.0F;
                 float f3 = 0.0F;
                 float f4 = 0.0F;
-                Biome Biome = provider.biomesForGeneration[k + 2 + (l + 2) * 10];
+                Biome Biome = biomesForGeneration[k + 2 + (l + 2) * 10];
 
                 for (int j1 = -2; j1 <= 2; ++j1) {
                     for (int k1 = - 2; k1 <=  2; ++k1) {
-                        Biome Biome1 = provider.biomesForGeneration[k + j1 + 2 + (l + k1 + 2) * 10];
+                        Biome Biome1 = biomesForGeneration[k + j1 + 2 + (l + k1 + 2) * 10];
                         float f5 = provider.getSettings().biomeDepthOffSet + Biome1.getBaseHeight() * provider.getSettings().biomeDepthWeight;
                         float f6 = provider.getSettings().biomeScaleOffset + Biome1.getHeightVariation() * provider.getSettings().biomeScaleWeight;
 
@@ -177,7 +181,7 @@ public class NormalTerrainGenerator implements BaseTerrainGenerator {
                 f3 /= f4;
                 f2 = f2 * 0.9F + 0.1F;
                 f3 = (f3 * 4.0F - 1.0F) / 8.0F;
-                double d12 = this.depthRegion[j] / 8000.0D;
+                double d12 = b.depthRegion[j] / 8000.0D;
 
                 if (d12 < 0.0D) {
                     d12 = -d12 * 0.3D;
@@ -216,9 +220,9 @@ public class NormalTerrainGenerator implements BaseTerrainGenerator {
                         d6 *= 4.0D;
                     }
 
-                    double d7 = this.minLimitRegion[i] / 512.0D;
-                    double d8 = this.maxLimitRegion[i] / 512.0D;
-                    double d9 = (this.mainNoiseRegion[i] / 10.0D + 1.0D) / 2.0D;
+                    double d7 = b.minLimitRegion[i] / 512.0D;
+                    double d8 = b.maxLimitRegion[i] / 512.0D;
+                    double d9 = (b.mainNoiseRegion[i] / 10.0D + 1.0D) / 2.0D;
                     double d10 = MathTools.clamp(d7, d8, d9) - d6;
 
                     if (j2 > 29) {
@@ -226,20 +230,21 @@ public class NormalTerrainGenerator implements BaseTerrainGenerator {
                         d10 = d10 * (1.0D - d11) + -10.0D * d11;
                     }
 
-                    this.heightMap[i] = d10;
+                    heightMap[i] = d10;
                     ++i;
                 }
             }
         }
+        return heightMap;
     }
 
     @Override
     public void generate(int chunkX, int chunkZ, ChunkPrimer primer) {
-        IBlockState baseBlock = provider.dimensionInformation.getBaseBlockForTerrain();
+        char baseBlock = provider.palette.baseBlock;
 //        byte baseMeta = provider.dimensionInformation.getBaseBlockForTerrain().getMeta();
-        Block baseLiquid = provider.dimensionInformation.getFluidForTerrain();
+        char baseLiquid = provider.palette.baseLiquid;
 
-        generateHeightmap(chunkX * 4, 0, chunkZ * 4);
+        double[] heightMap = generateHeightmap(chunkX * 4, 0, chunkZ * 4);
 
         byte waterLevel = 63;
         for (int x4 = 0; x4 < 4; ++x4) {
@@ -287,7 +292,7 @@ public class NormalTerrainGenerator implements BaseTerrainGenerator {
 //                                        realMeta = baseMeta;
 //                                    }
                                 } else if (height < waterLevel) {
-                                    BaseTerrainGenerator.setBlockState(primer, index, baseLiquid.getDefaultState());
+                                    BaseTerrainGenerator.setBlockState(primer, index, baseLiquid);
                                 }
                             }
 
@@ -313,13 +318,15 @@ public class NormalTerrainGenerator implements BaseTerrainGenerator {
             return;
         }
 
+        NoiseBuffers b = buffers.get();
+        Random rand = provider.getRandom();
         double d0 = 0.03125D;
-        this.depthBuffer = this.surfaceNoise.getRegion(this.depthBuffer, (chunkX * 16), (chunkZ * 16), 16, 16, d0 * 2.0D, d0 * 2.0D, 1.0D);
+        b.depthBuffer = this.surfaceNoise.getRegion(b.depthBuffer, (chunkX * 16), (chunkZ * 16), 16, 16, d0 * 2.0D, d0 * 2.0D, 1.0D);
 
         for (int k = 0; k < 16; ++k) {
             for (int l = 0; l < 16; ++l) {
                 Biome Biome = Biomes[l + k * 16];
-                Biome.genTerrainBlocks(world, provider.rand, primer, chunkX * 16 + k, chunkZ * 16 + l, this.depthBuffer[l + k * 16]);
+                Biome.genTerrainBlocks(world, rand, primer, chunkX * 16 + k, chunkZ * 16 + l, b.depthBuffer[l + k * 16]);
             }
         }
     }
@@ -1,9 +1,7 @@
 package mcjty.rftoolsdim.dimensions.world.terrain;
 
 import mcjty.rftoolsdim.config.WorldgenConfiguration;
-import net.minecraft.block.Block;
-import net.minecraft.block.state.IBlockState;
-import net.minecraft.init.Blocks;
+import mcjty.rftoolsdim.dimensions.world.BlockPalette;
 import net.minecraft.world.chunk.ChunkPrimer;
 
 import java.util.Random;
@@ -18,8 +16,9 @@ public class RoughTerrainGenerator extends NormalTerrainGenerator {
 
     @Override
     public void generate(int chunkX, int chunkZ, ChunkPrimer primer) {
-        IBlockState baseBlock = provider.dimensionInformation.getBaseBlockForTerrain();
-        Block baseFluid = provider.dimensionInformation.getFluidForTerrain();
+        BlockPalette palette = provider.palette;
+        char baseBlock = palette.baseBlock;
+        char baseFluid = palette.baseLiquid;
 
         Random random = new Random(chunkX * 13L + chunkZ * 577L);
 
@@ -29,7 +28,7 @@ public class RoughTerrainGenerator extends NormalTerrainGenerator {
                 byte waterLevel = (byte) (63 + random.nextFloat() * 32 - 16);
                 int height = 0;
                 while (height < WorldgenConfiguration.bedrockLayer) {
-                    BaseTerrainGenerator.setBlockState(primer, index++, Blocks.BEDROCK.getDefaultState());
+                    BaseTerrainGenerator.setBlockState(primer, index++, palette.bedrock);
                     height++;
                 }
                 // @todo how to support 127
@@ -47,12 +46,12 @@ public class RoughTerrainGenerator extends NormalTerrainGenerator {
 //                }
                 if (filled) {
                     while (height < 63) {
-                        BaseTerrainGenerator.setBlockState(primer, index++, baseFluid.getDefaultState());
+                        BaseTerrainGenerator.setBlockState(primer, index++, baseFluid);
                         height++;
                     }
                 }
                 while (height < 256) {
-                    BaseTerrainGenerator.setBlockState(primer, index++, Blocks.AIR.getDefaultState());
+                    BaseTerrainGenerator.setBlockState(primer, index++, palette.air);
                     height++;
                 }
             }
@@ -1,23 +1,22 @@
 package mcjty.rftoolsdim.dimensions.world.terrain;
 
 import mcjty.rftoolsdim.dimensions.world.GenericChunkGenerator;
-import net.minecraft.init.Blocks;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.chunk.ChunkPrimer;
 
 public class VoidTerrainGenerator implements BaseTerrainGenerator {
 
+    private GenericChunkGenerator provider;
+
     @Override
     public void setup(World world, GenericChunkGenerator provider) {
-
+        this.provider = provider;
     }
 
     @Override
     public void generate(int chunkX, int chunkZ, ChunkPrimer primer) {
-        for (int i = 0 ; i < 65536 ; i++) {
-            BaseTerrainGenerator.setBlockState(primer, i, Blocks.AIR.getDefaultState());
-        }
+        BaseTerrainGenerator.setBlockStateRange(primer, 0, 65536, provider.palette.air);
     }
 
     @Override
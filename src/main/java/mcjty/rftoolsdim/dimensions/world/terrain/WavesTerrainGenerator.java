@@ -1,9 +1,8 @@
 package mcjty.rftoolsdim.dimensions.world.terrain;
 
 import mcjty.rftoolsdim.config.WorldgenConfiguration;
-import net.minecraft.block.Block;
+import mcjty.rftoolsdim.dimensions.world.BlockPalette;
 import net.minecraft.block.state.IBlockState;
-import net.minecraft.init.Blocks;
 import net.minecraft.world.chunk.ChunkPrimer;
 
 public class WavesTerrainGenerator extends NormalTerrainGenerator {
@@ -18,7 +17,9 @@ public class WavesTerrainGenerator extends NormalTerrainGenerator {
     public void generate(int chunkX, int chunkZ, ChunkPrimer primer) {
         IBlockState baseBlock = provider.dimensionInformation.getBaseBlockForTerrain();
         int baseMeta = baseBlock.getBlock().getMetaFromState(baseBlock);           // @todo: need other way to communicate that color array is needed
-        Block baseFluid = provider.dimensionInformation.getFluidForTerrain();
+        BlockPalette palette = provider.palette;
+        char baseId = palette.baseBlock;
+        char baseFluid = palette.baseLiquid;
 
         int index = 0;
         for (int x = 0; x < 16; ++x) {
@@ -28,12 +29,12 @@ public class WavesTerrainGenerator extends NormalTerrainGenerator {
                 byte waterLevel = (byte) (63 + sin * cos * 16);
                 int height = 0;
                 while (height < WorldgenConfiguration.bedrockLayer) {
-                    BaseTerrainGenerator.setBlockState(primer, index++, Blocks.BEDROCK.getDefaultState());
+                    BaseTerrainGenerator.setBlockState(primer, index++, palette.bedrock);
                     height++;
                 }
                 if (baseMeta == 127) {
                     while (height < waterLevel) {
-                        BaseTerrainGenerator.setBlockState(primer, index++, baseBlock);
+                        BaseTerrainGenerator.setBlockState(primer, index++, baseId);
                         // @todo this can't work this way! We need the 127 meta information here another way
 //                        aBlock[index] = baseBlock;
 //                        abyte[index++] = (byte) ((height/2 + x/2 + z/2) & 0xf);
@@ -41,18 +42,18 @@ public class WavesTerrainGenerator extends NormalTerrainGenerator {
                     }
                 } else {
                     while (height < waterLevel) {
-                        BaseTerrainGenerator.setBlockState(primer, index++, baseBlock);
+                        BaseTerrainGenerator.setBlockState(primer, index++, baseId);
                         height++;
                     }
                 }
                 if (filled) {
                     while (height < 63) {
-                        BaseTerrainGenerator.setBlockState(primer, index++, baseFluid.getDefaultState()); // @todo support meta for fluid?
+                        BaseTerrainGenerator.setBlockState(primer, index++, baseFluid); // @todo support meta for fluid?
                         height++;
                     }
                 }
                 while (height < 256) {
-                    BaseTerrainGenerator.setBlockState(primer, index++, Blocks.AIR.getDefaultState());
+                    BaseTerrainGenerator.setBlockState(primer, index++, palette.air);
                     height++;
                 }
             }
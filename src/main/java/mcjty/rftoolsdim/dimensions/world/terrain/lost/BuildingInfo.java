@@ -3,6 +3,7 @@ package mcjty.rftoolsdim.dimensions.world.terrain.lost;
 import mcjty.rftoolsdim.config.LostCityConfiguration;
 import mcjty.rftoolsdim.dimensions.world.GenericChunkGenerator;
 import mcjty.rftoolsdim.dimensions.world.terrain.lost.data.*;
+import mcjty.rftoolsdim.varia.ChunkCache;
 import net.minecraft.block.*;
 import net.minecraft.init.Blocks;
 import net.minecraft.item.EnumDyeColor;
@@ -43,13 +44,13 @@ public class BuildingInfo {
 
     public final Block doorBlock;
 
+    private static final ChunkCache<BuildingInfo> BUILDING_INFOS = new ChunkCache<>(4096);
+    private static final ChunkCache<Boolean> CANDIDATES_2X2 = new ChunkCache<>(8192);
+
     // Transient info that is calculated on demand
-    private BuildingInfo xmin = null;
-    private BuildingInfo xmax = null;
-    private BuildingInfo zmin = null;
-    private BuildingInfo zmax = null;
     private DamageArea damageArea = null;
     private Style style = null;
+    private Palette palette = null;
 
     public DamageArea getDamageArea() {
         if (damageArea == null) {
@@ -58,6 +59,13 @@ public class BuildingInfo {
         return damageArea;
     }
 
+    public Palette getPalette() {
+        if (palette == null) {
+            palette = new Palette(this);
+        }
+        return palette;
+    }
+
     public Style getStyle() {
         if (style != null) {
             return style;
@@ -168,32 +176,22 @@ public class BuildingInfo {
         }
     }
 
+    // Neighbours are not kept in fields but go through the cache so that
+    // a cached BuildingInfo doesn't keep an ever growing graph of chunks alive
     public BuildingInfo getXmin() {
-        if (xmin == null) {
-            xmin = new BuildingInfo(chunkX - 1, chunkZ, seed);
-        }
-        return xmin;
+        return getBuildingInfo(chunkX - 1, chunkZ, seed);
     }
 
     public BuildingInfo getXmax() {
-        if (xmax == null) {
-            xmax = new BuildingInfo(chunkX + 1, chunkZ, seed);
-        }
-        return xmax;
+        return getBuildingInfo(chunkX + 1, chunkZ, seed);
     }
 
     public BuildingInfo getZmin() {
-        if (zmin == null) {
-            zmin = new BuildingInfo(chunkX, chunkZ - 1, seed);
-        }
-        return zmin;
+        return getBuildingInfo(chunkX, chunkZ - 1, seed);
     }
 
     public BuildingInfo getZmax() {
-        if (zmax == null) {
-            zmax = new BuildingInfo(chunkX, chunkZ + 1, seed);
-        }
-        return zmax;
+        return getBuildingInfo(chunkX, chunkZ + 1, seed);
     }
 
     public int getMaxHeight() {
@@ -282,6 +280,14 @@ public class BuildingInfo {
     }
 
     private static boolean isCandidateForTopLeftOf2x2Building(int chunkX, int chunkZ, long seed) {
+        Boolean candidate = CANDIDATES_2X2.get(seed, chunkX, chunkZ);
+        if (candidate == null) {
+            candidate = CANDIDATES_2X2.put(seed, chunkX, chunkZ, calculateCandidateForTopLeftOf2x2Building(chunkX, chunkZ, seed));
+        }
+        return candidate;
+    }
+
+    private static boolean calculateCandidateForTopLeftOf2x2Building(int chunkX, int chunkZ, long seed) {
         if (chunkX == 0 && chunkZ == 0) {
             return false;
         }
@@ -312,7 +318,16 @@ public class BuildingInfo {
         }
     }
 
-    public BuildingInfo(int chunkX, int chunkZ, long seed) {
+    public static BuildingInfo getBuildingInfo(int chunkX, int chunkZ, long seed) {
+        BuildingInfo info = BUILDING_INFOS.get(seed, chunkX, chunkZ);
+        if (info == null) {
+            // Construct outside of the cache lock: the constructor itself can query neighbours
+            info = BUILDING_INFOS.put(seed, chunkX, chunkZ, new BuildingInfo(chunkX, chunkZ, seed));
+        }
+        return info;
+    }
+
+    private BuildingInfo(int chunkX, int chunkZ, long seed) {
         this.chunkX = chunkX;
         this.chunkZ = chunkZ;
         this.seed = seed;
@@ -1,6 +1,7 @@
 package mcjty.rftoolsdim.dimensions.world.terrain.lost;
 
 import mcjty.rftoolsdim.config.LostCityConfiguration;
+import mcjty.rftoolsdim.varia.ChunkCache;
 
 import java.util.Random;
 
@@ -9,14 +10,16 @@ import java.util.Random;
  */
 public class City {
 
-    private static boolean isCityCenter(long seed, int chunkX, int chunkZ) {
+    private static final ChunkCache<Float> CITY_FACTORS = new ChunkCache<>(8192);
+
+    static boolean isCityCenter(long seed, int chunkX, int chunkZ) {
         Random rand = new Random(seed + chunkZ * 797003437L + chunkX * 295075153L);
         rand.nextFloat();
         rand.nextFloat();
         return rand.nextFloat() < LostCityConfiguration.CITY_CHANCE;
     }
 
-    private static float getCityRadius(long seed, int chunkX, int chunkZ) {
+    static float getCityRadius(long seed, int chunkX, int chunkZ) {
         Random rand = new Random(seed + chunkZ * 100001653L + chunkX * 295075153L);
         rand.nextFloat();
         rand.nextFloat();
@@ -24,19 +27,9 @@ public class City {
     }
 
     public static float getCityFactor(long seed, int chunkX, int chunkZ) {
-        float factor = 0;
-        int offset = (LostCityConfiguration.CITY_MAXRADIUS+15) / 16;
-        for (int cx = chunkX - offset; cx <= chunkX + offset; cx++) {
-            for (int cz = chunkZ - offset; cz <= chunkZ + offset; cz++) {
-                if (isCityCenter(seed, cx, cz)) {
-                    float radius = getCityRadius(seed, cx, cz);
-                    float sqdist = (cx * 16 - chunkX * 16) * (cx * 16 - chunkX * 16) + (cz * 16 - chunkZ * 16) * (cz * 16 - chunkZ * 16);
-                    if (sqdist < radius * radius) {
-                        float dist = (float) Math.sqrt(sqdist);
-                        factor += (radius - dist) / radius;
-                    }
-                }
-            }
+        Float factor = CITY_FACTORS.get(seed, chunkX, chunkZ);
+        if (factor == null) {
+            factor = CITY_FACTORS.put(seed, chunkX, chunkZ, CityMap.getCityFactor(seed, chunkX, chunkZ));
         }
         return factor;
     }
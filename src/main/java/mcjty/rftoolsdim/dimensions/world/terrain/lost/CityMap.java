@@ -0,0 +1,94 @@
+package mcjty.rftoolsdim.dimensions.world.terrain.lost;
+
+import mcjty.rftoolsdim.config.LostCityConfiguration;
+import mcjty.rftoolsdim.varia.ChunkCache;
+
+/**
+ * The city centers (and their radius) of a region of TILE_SIZE x TILE_SIZE chunks. This is
+ * calculated once per region and then used to answer city factor queries by only looking
+ * at the actual city centers instead of testing every chunk in range.
+ */
+public class CityMap {
+
+    public static final int TILE_SHIFT = 5;
+    public static final int TILE_SIZE = 1 << TILE_SHIFT;
+
+    private static final ChunkCache<CityMap> TILES = new ChunkCache<>(256);
+
+    private final int tileX;
+    private final int tileZ;
+
+    // Centers are sorted by x and then by z. Centers with local x coordinate 'lx'
+    // are at indices columnStart[lx] (inclusive) to columnStart[lx+1] (exclusive)
+    private final int[] columnStart = new int[TILE_SIZE + 1];
+    private final int[] centerZ;
+    private final float[] radius;
+
+    private CityMap(long seed, int tileX, int tileZ) {
+        this.tileX = tileX;
+        this.tileZ = tileZ;
+
+        int[] zs = new int[TILE_SIZE * TILE_SIZE];
+        float[] rs = new float[TILE_SIZE * TILE_SIZE];
+        int count = 0;
+        for (int lx = 0; lx < TILE_SIZE; lx++) {
+            columnStart[lx] = count;
+            int cx = (tileX << TILE_SHIFT) + lx;
+            for (int lz = 0; lz < TILE_SIZE; lz++) {
+                int cz = (tileZ << TILE_SHIFT) + lz;
+                if (City.isCityCenter(seed, cx, cz)) {
+                    zs[count] = cz;
+                    rs[count] = City.getCityRadius(seed, cx, cz);
+                    count++;
+                }
+            }
+        }
+        columnStart[TILE_SIZE] = count;
+
+        centerZ = new int[count];
+        radius = new float[count];
+        System.arraycopy(zs, 0, centerZ, 0, count);
+        System.arraycopy(rs, 0, radius, 0, count);
+    }
+
+    private static CityMap getTile(long seed, int tileX, int tileZ) {
+        CityMap tile = TILES.get(seed, tileX, tileZ);
+        if (tile == null) {
+            tile = TILES.put(seed, tileX, tileZ, new CityMap(seed, tileX, tileZ));
+        }
+        return tile;
+    }
+
+    public static float getCityFactor(long seed, int chunkX, int chunkZ) {
+        int offset = (LostCityConfiguration.CITY_MAXRADIUS + 15) / 16;
+        int minX = chunkX - offset;
+        int maxX = chunkX + offset;
+        int minTileZ = (chunkZ - offset) >> TILE_SHIFT;
+        int maxTileZ = (chunkZ + offset) >> TILE_SHIFT;
+
+        // Iterate in the same order (x first, then z) as a brute force scan would. That way
+        // the float sum (and thus the generated world) is exactly the same
+        float factor = 0;
+        for (int tx = minX >> TILE_SHIFT; tx <= maxX >> TILE_SHIFT; tx++) {
+            int startX = Math.max(minX, tx << TILE_SHIFT);
+            int endX = Math.min(maxX, (tx << TILE_SHIFT) + TILE_SIZE - 1);
+            for (int cx = startX; cx <= endX; cx++) {
+                int dx = cx * 16 - chunkX * 16;
+                for (int tz = minTileZ; tz <= maxTileZ; tz++) {
+                    CityMap tile = getTile(seed, tx, tz);
+                    int lx = cx - (tile.tileX << TILE_SHIFT);
+                    for (int i = tile.columnStart[lx]; i < tile.columnStart[lx + 1]; i++) {
+                        int dz = tile.centerZ[i] * 16 - chunkZ * 16;
+                        float r = tile.radius[i];
+                        float sqdist = dx * dx + dz * dz;
+                        if (sqdist < r * r) {
+                            float dist = (float) Math.sqrt(sqdist);
+                            factor += (r - dist) / r;
+                        }
+                    }
+                }
+            }
+        }
+        return factor;
+    }
+}
@@ -8,6 +8,7 @@ import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -21,6 +22,14 @@ public class DamageArea {
     private final List<Explosion> explosions = new ArrayList<>();
     private final AxisAlignedBB chunkBox;
 
+    // For every column in this chunk (index z*16+x) the indices of the explosions that
+    // can reach it are in columnList[columnStart[col]] to columnList[columnStart[col+1]]
+    private final int[] columnStart = new int[257];
+    private int[] columnList;
+    // The lowest and highest y that can be damaged in every column
+    private final int[] columnMinY = new int[256];
+    private final int[] columnMaxY = new int[256];
+
     public DamageArea(long seed, int chunkX, int chunkZ) {
         this.seed = seed;
         this.chunkX = chunkX;
@@ -44,10 +53,66 @@ public class DamageArea {
                 }
             }
         }
+
+        setupColumns();
+    }
+
+    private void setupColumns() {
+        int[] counts = new int[256];
+        Arrays.fill(columnMinY, 256);
+        Arrays.fill(columnMaxY, -1);
+        // First pass: count the explosions for every column and calculate the y range
+        for (Explosion explosion : explosions) {
+            BlockPos center = explosion.getCenter();
+            for (int z = 0; z < 16; z++) {
+                int dz = chunkZ * 16 + z - center.getZ();
+                for (int x = 0; x < 16; x++) {
+                    int dx = chunkX * 16 + x - center.getX();
+                    int sqdist = dx * dx + dz * dz;
+                    if (sqdist < explosion.getSqradius()) {
+                        int col = (z << 4) + x;
+                        int dy = (int) Math.ceil(Math.sqrt(explosion.getSqradius() - sqdist));
+                        columnMinY[col] = Math.min(columnMinY[col], center.getY() - dy);
+                        columnMaxY[col] = Math.max(columnMaxY[col], center.getY() + dy);
+                        counts[col]++;
+                    }
+                }
+            }
+        }
+        for (int col = 0; col < 256; col++) {
+            columnStart[col + 1] = columnStart[col] + counts[col];
+        }
+        // Second pass: fill in the explosions in the same order as the explosion list
+        columnList = new int[columnStart[256]];
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < explosions.size(); i++) {
+            BlockPos center = explosions.get(i).getCenter();
+            for (int z = 0; z < 16; z++) {
+                int dz = chunkZ * 16 + z - center.getZ();
+                for (int x = 0; x < 16; x++) {
+                    int dx = chunkX * 16 + x - center.getX();
+                    if (dx * dx + dz * dz < explosions.get(i).getSqradius()) {
+                        int col = (z << 4) + x;
+                        columnList[columnStart[col] + counts[col]] = i;
+                        counts[col]++;
+                    }
+                }
+            }
+        }
+    }
+
+    // x and z between 0 and 15. Return true if no explosion can reach any block in this column
+    public boolean isColumnUndamaged(int x, int z) {
+        int col = (z << 4) + x;
+        return columnStart[col] == columnStart[col + 1];
     }
 
     public IBlockState damageBlock(IBlockState b, IBlockState replacement, Random rand, int x, int y, int z, int index, Style style) {
         float damage = getDamage(x, y, z);
+        if (damage <= 0.0f) {
+            // Not reached by any explosion so don't even roll for it
+            return b;
+        }
         if (style.isEasyToDestroy(b)) {
             damage *= 2.5f;    // As if this block gets double the damage
         }
@@ -113,8 +178,36 @@ public class DamageArea {
         return damage;
     }
 
+    // Return true if an explosion reaches this point. If not damageBlock() always returns the original block
+    public boolean isDamaged(int x, int y, int z) {
+        return getDamage(x, y, z) > 0.0f;
+    }
+
     // Get a number indicating how much damage this point should get. 0 Means no damage
     private float getDamage(int x, int y, int z) {
+        int lx = x - chunkX * 16;
+        int lz = z - chunkZ * 16;
+        if (lx < 0 || lx > 15 || lz < 0 || lz > 15) {
+            return getDamageSlow(x, y, z);
+        }
+        int col = (lz << 4) + lx;
+        if (y < columnMinY[col] || y > columnMaxY[col]) {
+            return 0.0f;
+        }
+        float damage = 0.0f;
+        for (int i = columnStart[col]; i < columnStart[col + 1]; i++) {
+            Explosion explosion = explosions.get(columnList[i]);
+            double sq = explosion.getCenter().distanceSq(x, y, z);
+            if (sq < explosion.getSqradius()) {
+                double d = Math.sqrt(sq);
+                damage += 3.0f * (explosion.getRadius() - d) / explosion.getRadius();
+            }
+        }
+        return damage;
+    }
+
+    // Used for positions outside of this chunk
+    private float getDamageSlow(int x, int y, int z) {
         float damage = 0.0f;
         for (Explosion explosion : explosions) {
             double sq = explosion.getCenter().distanceSq(x, y, z);
@@ -15,13 +15,13 @@ import net.minecraft.init.Blocks;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.chunk.ChunkPrimer;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.*;
 import java.util.function.BiFunction;
-import java.util.function.Function;
 
 public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
 
@@ -43,112 +43,8 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
     }
 
 
-    private static Map<Character, Function<BuildingInfo, IBlockState>> mapping = null;
     private static Map<Pair<Integer,Integer>,GenInfo> genInfos = null;  // Pair is: <buildingType,floorType>
 
-    // Use this random when it doesn't really matter i fit is generated the same every time
-    private static Random globalRandom = new Random();
-
-    public static Map<Character, Function<BuildingInfo, IBlockState>> getMapping() {
-        if (mapping == null) {
-            mapping = new HashMap<>();
-            mapping.put('#', info -> {
-                        if (globalRandom.nextFloat() < LostCityConfiguration.STYLE_CHANCE_CRACKED) {
-                            return info.getStyle().bricks_cracked;
-                        } else if (globalRandom.nextFloat() < LostCityConfiguration.STYLE_CHANCE_MOSSY) {
-                            return info.getStyle().bricks_mossy;
-                        } else {
-                            return info.getStyle().bricks;
-                        }
-                    }
-            );
-            mapping.put('x', info -> {
-                        if (globalRandom.nextFloat() < LostCityConfiguration.STYLE_CHANCE_CRACKED) {
-                            return info.getStyle().bricks_cracked;
-                        } else if (globalRandom.nextFloat() < LostCityConfiguration.STYLE_CHANCE_MOSSY) {
-                            return info.getStyle().bricks_mossy;
-                        } else {
-                            return info.getStyle().bricks;
-                        }
-                    }
-            );
-            mapping.put('$', info -> info.getStyle().bricks_variant);
-            mapping.put('=', info -> info.getStyle().glass);
-            mapping.put('+', info -> info.getStyle().glass_full);
-            mapping.put('@', info -> {
-                        switch (info.glassType) {
-                            case 0:
-                                return info.getStyle().glass;
-                            case 1:
-                                return info.getStyle().street;
-                            case 2:
-                                return info.getStyle().bricks;
-                            case 3:
-                                return info.getStyle().quartz;
-                            default:
-                                return info.getStyle().glass;
-                        }
-                    }
-            );
-            mapping.put(' ', info -> Blocks.AIR.getDefaultState());
-            mapping.put('l', info -> Blocks.LADDER.getDefaultState());
-            mapping.put('1', info -> Blocks.PLANKS.getDefaultState());      // Monster spawner 1
-            mapping.put('2', info -> Blocks.PLANKS.getDefaultState());      // Monster spawner 2
-            mapping.put('3', info -> Blocks.PLANKS.getDefaultState());      // Monster spawner 3
-            mapping.put('4', info -> Blocks.PLANKS.getDefaultState());      // Monster spawner 4
-            mapping.put('C', info -> Blocks.PLANKS.getDefaultState());      // Chest
-            mapping.put('M', info -> Blocks.PLANKS.getDefaultState());      // Modular storage
-            mapping.put('F', info -> Blocks.PLANKS.getDefaultState());      // Random feature
-            mapping.put('R', info -> Blocks.PLANKS.getDefaultState());      // Random rftools machine
-            mapping.put(':', info -> Blocks.IRON_BARS.getDefaultState());
-            mapping.put('D', info -> Blocks.DIRT.getDefaultState());
-            mapping.put('G', info -> Blocks.GRASS.getDefaultState());
-            mapping.put('p', info -> {
-                        switch (globalRandom.nextInt(11)) {
-                            case 0:
-                            case 1:
-                            case 2:
-                                return Blocks.RED_FLOWER.getDefaultState();
-                            case 3:
-                            case 4:
-                            case 5:
-                                return Blocks.YELLOW_FLOWER.getDefaultState();
-                            case 6:
-                                return Blocks.SAPLING.getDefaultState().withProperty(BlockSapling.TYPE, BlockPlanks.EnumType.ACACIA);
-                            case 7:
-                                return Blocks.SAPLING.getDefaultState().withProperty(BlockSapling.TYPE, BlockPlanks.EnumType.BIRCH);
-                            case 8:
-                                return Blocks.SAPLING.getDefaultState().withProperty(BlockSapling.TYPE, BlockPlanks.EnumType.OAK);
-                            case 9:
-                                return Blocks.SAPLING.getDefaultState().withProperty(BlockSapling.TYPE, BlockPlanks.EnumType.SPRUCE);
-                            default:
-                                return air;
-                        }
-                    }
-            );
-            mapping.put('*', info -> Blocks.FLOWER_POT.getDefaultState());
-            mapping.put('X', info -> info.getStyle().bricks_monster);
-            mapping.put('Q', info -> Blocks.QUARTZ_BLOCK.getDefaultState());
-            mapping.put('L', info -> Blocks.BOOKSHELF.getDefaultState());
-            mapping.put('W', info -> Blocks.WATER.getDefaultState());
-            mapping.put('w', info -> Blocks.COBBLESTONE_WALL.getDefaultState());
-            mapping.put('S', info -> Blocks.DOUBLE_STONE_SLAB.getDefaultState());
-            mapping.put('<', info -> Blocks.QUARTZ_STAIRS.getDefaultState().withProperty(BlockStairs.FACING, EnumFacing.NORTH));
-            mapping.put('>', info -> Blocks.QUARTZ_STAIRS.getDefaultState().withProperty(BlockStairs.FACING, EnumFacing.SOUTH));
-            mapping.put('_', info -> Blocks.STONE_SLAB.getDefaultState());
-            mapping.put('.', info -> Blocks.OAK_FENCE.getDefaultState());
-            mapping.put('-', info -> Blocks.WOODEN_PRESSURE_PLATE.getDefaultState());
-            mapping.put('%', info -> {
-                if (globalRandom.nextFloat() < .3f) {
-                    return Blocks.WEB.getDefaultState();
-                } else {
-                    return air;
-                }
-            });
-        }
-        return mapping;
-    }
-
     public static Map<Pair<Integer, Integer>, GenInfo> getGenInfos() {
         if (genInfos == null) {
             genInfos = new HashMap<>();
@@ -174,7 +70,7 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
             for (int y = 0; y < 6; y++) {
                 for (int x = 0; x < 16; x++) {
                     for (int z = 0; z < 16; z++) {
-                        Character c = level.getC(x, y, z);
+                        char c = level.getC(x, y, z);
                         if (c == '1') {
                             gi.addSpawnerType(new BlockPos(x, y, z), 1);
                         } else if (c == '2') {
@@ -200,27 +96,34 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
     }
 
     @Override
-    public void generate(int chunkX, int chunkZ, ChunkPrimer primer) {
+    public void setup(World world, GenericChunkGenerator provider) {
+        super.setup(world, provider);
+        // These don't change while generating so they are set here and not for every chunk. That
+        // way chunks can be generated on multiple threads
         baseBlock = provider.dimensionInformation.getBaseBlockForTerrain();
         baseLiquid = provider.dimensionInformation.getFluidForTerrain().getDefaultState();
-
-        BuildingInfo info = new BuildingInfo(chunkX, chunkZ, provider.seed);
         air = Blocks.AIR.getDefaultState();
         bedrock = Blocks.BEDROCK.getDefaultState();
+    }
+
+    @Override
+    public void generate(int chunkX, int chunkZ, ChunkPrimer primer) {
+        BuildingInfo info = BuildingInfo.getBuildingInfo(chunkX, chunkZ, provider.seed);
 
         if (info.isCity) {
             doCityChunk(chunkX, chunkZ, primer, info);
         } else {
             doNormalChunk(chunkX, chunkZ, primer, info);
         }
-        generateDebris(primer, provider.rand, info);
+        generateDebris(primer, provider.getRandom(), info);
     }
 
     private void doNormalChunk(int chunkX, int chunkZ, ChunkPrimer primer, BuildingInfo info) {
         int cx = chunkX * 16;
         int cz = chunkZ * 16;
 
-        generateHeightmap(chunkX * 4, 0, chunkZ * 4);
+        Random rand = provider.getRandom();
+        double[] heightMap = generateHeightmap(chunkX * 4, 0, chunkZ * 4);
         for (int x4 = 0; x4 < 4; ++x4) {
             int l = x4 * 5;
             int i1 = (x4 + 1) * 5;
@@ -258,7 +161,7 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
                             for (int z = 0; z < 4; ++z) {
                                 index += maxheight;
                                 if ((d15 += d16) > 0.0D) {
-                                    IBlockState b = info.getDamageArea().damageBlock(baseBlock, height < waterLevel ? baseLiquid : air, provider.rand, cx + (x4 * 4) + x, height, cz + (z4 * 4) + z, index, info.getStyle());
+                                    IBlockState b = info.getDamageArea().damageBlock(baseBlock, height < waterLevel ? baseLiquid : air, rand, cx + (x4 * 4) + x, height, cz + (z4 * 4) + z, index, info.getStyle());
                                     BaseTerrainGenerator.setBlockState(primer, index, b);
                                     // @todo find a way to support this 127 feature
 //                                    if (baseMeta == 127) {
@@ -289,6 +192,7 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
     }
 
     private void generateBridges(int chunkX, int chunkZ, ChunkPrimer primer, BuildingInfo info) {
+        Random rand = provider.getRandom();
         int bt = info.hasXBridge(provider);
         if (bt >= 0) {
             int cx = chunkX * 16;
@@ -301,10 +205,8 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
                     int index = (x << 12) | (z << 8) + groundLevel + 1;
                     int height = groundLevel + 1;
                     int l = 0;
-                    while (l < level.getFloor().length) {
-                        IBlockState b = level.get(info, x, l, z);
-                        b = damageArea.damageBlock(b, air, provider.rand, cx + x, height, cz + z, index, style);
-                        BaseTerrainGenerator.setBlockState(primer, index++, b);
+                    while (l < level.getHeight()) {
+                        setLevelBlock(primer, index++, info, level.getIndex(x, l, z), rand, rand, cx + x, height, cz + z);
                         height++;
                         l++;
                     }
@@ -324,7 +226,7 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
                 int x = 0;
                 for (int z = 6 ; z <= 9 ; z++) {
                     int index = (x << 12) | (z << 8) + groundLevel;
-                    IBlockState b = damageArea.damageBlock(Blocks.STONEBRICK.getDefaultState(), air, provider.rand, cx + x, groundLevel, cz + z, index, style);
+                    IBlockState b = damageArea.damageBlock(Blocks.STONEBRICK.getDefaultState(), air, rand, cx + x, groundLevel, cz + z, index, style);
                     BaseTerrainGenerator.setBlockState(primer, index, b);
                 }
             }
@@ -333,7 +235,7 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
                 int x = 15;
                 for (int z = 6 ; z <= 9 ; z++) {
                     int index = (x << 12) | (z << 8) + groundLevel;
-                    IBlockState b = damageArea.damageBlock(Blocks.STONEBRICK.getDefaultState(), air, provider.rand, cx + x, groundLevel, cz + z, index, style);
+                    IBlockState b = damageArea.damageBlock(Blocks.STONEBRICK.getDefaultState(), air, rand, cx + x, groundLevel, cz + z, index, style);
                     BaseTerrainGenerator.setBlockState(primer, index, b);
                 }
             }
@@ -350,10 +252,8 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
                         int index = (x << 12) | (z << 8) + groundLevel + 1;
                         int height = groundLevel + 1;
                         int l = 0;
-                        while (l < level.getFloor().length) {
-                            IBlockState b = level.get(info, z, l, x);       // Swap x/z
-                            b = damageArea.damageBlock(b, air, provider.rand, cx + x, height, cz + z, index, style);
-                            BaseTerrainGenerator.setBlockState(primer, index++, b);
+                        while (l < level.getHeight()) {
+                            setLevelBlock(primer, index++, info, level.getIndex(z, l, x), rand, rand, cx + x, height, cz + z);       // Swap x/z
                             height++;
                             l++;
                         }
@@ -373,7 +273,7 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
                     int z = 0;
                     for (int x = 6 ; x <= 9 ; x++) {
                         int index = (x << 12) | (z << 8) + groundLevel;
-                        IBlockState b = damageArea.damageBlock(Blocks.STONEBRICK.getDefaultState(), air, provider.rand, cx + x, groundLevel, cz + z, index, style);
+                        IBlockState b = damageArea.damageBlock(Blocks.STONEBRICK.getDefaultState(), air, rand, cx + x, groundLevel, cz + z, index, style);
                         BaseTerrainGenerator.setBlockState(primer, index, b);
                     }
                 }
@@ -382,7 +282,7 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
                     int z = 15;
                     for (int x = 6 ; x <= 9 ; x++) {
                         int index = (x << 12) | (z << 8) + groundLevel;
-                        IBlockState b = damageArea.damageBlock(Blocks.STONEBRICK.getDefaultState(), air, provider.rand, cx + x, groundLevel, cz + z, index, style);
+                        IBlockState b = damageArea.damageBlock(Blocks.STONEBRICK.getDefaultState(), air, rand, cx + x, groundLevel, cz + z, index, style);
                         BaseTerrainGenerator.setBlockState(primer, index, b);
                     }
                 }
@@ -392,7 +292,7 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
 
     private void setBridgeSupport(ChunkPrimer primer, int cx, int cz, DamageArea damageArea, Style style, int x, int y, int z) {
         int index = (x << 12) | (z << 8) + y;
-        IBlockState b = damageArea.damageBlock(Blocks.STONEBRICK.getDefaultState(), air, provider.rand, cx + x, y, cz + z, index, style);
+        IBlockState b = damageArea.damageBlock(Blocks.STONEBRICK.getDefaultState(), air, provider.getRandom(), cx + x, y, cz + z, index, style);
         BaseTerrainGenerator.setBlockState(primer, index, b);
     }
 
@@ -401,7 +301,7 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
         int cz = chunkZ * 16;
 
         int level = groundLevel;
-        if (isOcean(provider.biomesForGeneration)) {
+        if (isOcean(provider.getBiomesForGeneration())) {
             // We have an ocean biome here. Flatten to a lower level
             level = waterLevel + 4;
         }
@@ -412,7 +312,7 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
                 if (x != 0 || z != 0) {
                     int ccx = chunkX + x;
                     int ccz = chunkZ + z;
-                    BuildingInfo info2 = new BuildingInfo(ccx, ccz, provider.seed);
+                    BuildingInfo info2 = BuildingInfo.getBuildingInfo(ccx, ccz, provider.seed);
                     if (info2.isCity) {
                         boxes.add(new GeometryTools.AxisAlignedBB2D(ccx * 16, ccz * 16, ccx * 16 + 15, ccz * 16 + 15));
                     }
@@ -430,7 +330,7 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
                         }
                     }
                     int offset = (int) (Math.sqrt(mindist) * 2);
-                    flattenChunkBorder(primer, x, offset, z, provider.rand, info, cx, cz, level);
+                    flattenChunkBorder(primer, x, offset, z, provider.getRandom(), info, cx, cz, level);
                 }
             }
         }
@@ -466,7 +366,7 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
             IBlockState b = BaseTerrainGenerator.getBlockState(primer, index);
             if (b != bedrock) {
                 if (b != baseBlock) {
-                    b = info.getDamageArea().damageBlock(baseBlock, y < waterLevel ? baseLiquid : air, provider.rand, cx + x, y, cz + z, index, info.getStyle());
+                    b = info.getDamageArea().damageBlock(baseBlock, y < waterLevel ? baseLiquid : air, rand, cx + x, y, cz + z, index, info.getStyle());
                     BaseTerrainGenerator.setBlockState(primer, index, b);
                 }
             }
@@ -496,12 +396,12 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
 
                 int height = 0;
                 while (height < WorldgenConfiguration.bedrockLayer) {
-                    BaseTerrainGenerator.setBlockState(primer, index++, bedrock);
+                    BaseTerrainGenerator.setBlockState(primer, index++, provider.palette.bedrock);
                     height++;
                 }
 
                 while (height < WorldgenConfiguration.bedrockLayer + 30 + rand.nextInt(3)) {
-                    BaseTerrainGenerator.setBlockState(primer, index++, baseBlock);
+                    BaseTerrainGenerator.setBlockState(primer, index++, provider.palette.baseBlock);
                     height++;
                 }
 
@@ -520,162 +420,155 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
         }
     }
 
-    private static class Blob {
-        private final int starty;
-        private final int endy;
-        private final Set<Integer> connectedBlocks = new HashSet<>();
-        private int connections = 0;
-        private int lowestY;
-
-        public Blob(int starty, int endy) {
-            this.starty = starty;
-            this.endy = endy;
-            lowestY = 256;
-        }
-
-        public boolean contains(int index) {
-            return connectedBlocks.contains(index);
-        }
-
-        public boolean destroyOrMoveThis() {
-            return ((float) connections  / connectedBlocks.size()) < LostCityConfiguration.DESTROY_LONE_BLOCKS_FACTOR;
-        }
-
-        private boolean isOutside(BuildingInfo info, int x, int y, int z) {
-            if (x < 0) {
-                if (y <= info.getXmin().getMaxHeight()) {
-                    connections++;
-                }
-                return true;
-            }
-            if (x > 15) {
-                if (y <= info.getXmax().getMaxHeight()) {
-                    connections++;
-                }
-                return true;
-            }
-            if (z < 0) {
-                if (y <= info.getZmin().getMaxHeight()) {
-                    connections++;
-                }
-                return true;
-            }
-            if (z > 15) {
-                if (y <= info.getZmax().getMaxHeight()) {
-                    connections++;
-                }
-                return true;
-            }
-            if (y < starty) {
-                connections++;
-                return true;
-            }
-            return false;
-        }
-
-        public void scan(BuildingInfo info, ChunkPrimer primer, char a, BlockPos pos) {
-            Queue<BlockPos> todo = new ArrayDeque<>();
-            todo.add(pos);
-
-            while (!todo.isEmpty()) {
-                pos = todo.poll();
-                int index = calcIndex(pos.getX(), pos.getY(), pos.getZ());
-                if (connectedBlocks.contains(index)) {
-                    continue;
-                }
-                if (isOutside(info, pos.getX(), pos.getY(), pos.getZ())) {
-                    continue;
-                }
-                if (primer.data[index] == a) {
-                    continue;
-                }
-                connectedBlocks.add(index);
-                if (pos.getY() < lowestY) {
-                    lowestY = pos.getY();
-                }
-                todo.add(pos.up());
-                todo.add(pos.down());
-                todo.add(pos.east());
-                todo.add(pos.west());
-                todo.add(pos.south());
-                todo.add(pos.north());
-            }
-        }
-
-        private int calcIndex(int x, int y, int z) {
-            return (x << 12) | (z << 8) + y;
-        }
-    }
-
-    private Blob findBlob(List<Blob> blobs, int index) {
-        for (Blob blob : blobs) {
-            if (blob.contains(index)) {
-                return blob;
-            }
-        }
-        return null;
-    }
-
     /// Fix floating blocks after an explosion
     private void fixAfterExplosion(ChunkPrimer primer, BuildingInfo info, Random rand) {
         int start = groundLevel - info.floorsBelowGround * 6;
         int end = 63 + (info.floors+2) * 6;
-        char air = (char) Block.BLOCK_STATE_IDS.get(LostCitiesTerrainGenerator.air);
-        char liquid = (char) Block.BLOCK_STATE_IDS.get(provider.dimensionInformation.getFluidForTerrain().getDefaultState());
-
-        List<Blob> blobs = new ArrayList<>();
+        char air = provider.palette.air;
+        char liquid = provider.palette.baseLiquid;
+        char[] data = primer.data;
+
+        int maxHeightXmin = info.getXmin().getMaxHeight();
+        int maxHeightXmax = info.getXmax().getMaxHeight();
+        int maxHeightZmin = info.getZmin().getMaxHeight();
+        int maxHeightZmax = info.getZmax().getMaxHeight();
+
+        // Label all connected blobs of non-air blocks. For every index in the primer 'blob'
+        // contains the number of the blob (starting at 1) or 0 if the block is not part of a blob.
+        // A connection is counted for every side of a blob block that touches the ground below
+        // 'start' or a neighbouring chunk that is high enough
+        int[] blob = new int[data.length];
+        int[] todo = new int[data.length];
+        int[] sizes = new int[64];
+        int[] connections = new int[64];
+        int[] lowestY = new int[64];
+        int blobs = 0;
 
         for (int x = 0; x < 16; ++x) {
             for (int z = 0; z < 16; ++z) {
                 int index = (x << 12) | (z << 8) + start;
                 for (int y = start ; y < end ; y++) {
-                    char p = primer.data[index];
-                    if (p != air) {
-                        Blob blob = findBlob(blobs, index);
-                        if (blob == null) {
-                            blob = new Blob(start, end + 6);
-                            blob.scan(info, primer, air, new BlockPos(x, y, z));
-                            blobs.add(blob);
+                    if (data[index] != air && blob[index] == 0) {
+                        blobs++;
+                        if (blobs >= sizes.length) {
+                            sizes = Arrays.copyOf(sizes, sizes.length * 2);
+                            connections = Arrays.copyOf(connections, connections.length * 2);
+                            lowestY = Arrays.copyOf(lowestY, lowestY.length * 2);
                         }
+                        int size = 0;
+                        int connected = 0;
+                        int lowest = 256;
+                        int sp = 0;
+                        blob[index] = blobs;
+                        todo[sp++] = index;
+                        while (sp > 0) {
+                            int i = todo[--sp];
+                            int bx = i >> 12;
+                            int bz = (i >> 8) & 0xf;
+                            int by = i & 0xff;
+                            size++;
+                            if (by < lowest) {
+                                lowest = by;
+                            }
+
+                            if (bx == 0) {
+                                if (by <= maxHeightXmin) {
+                                    connected++;
+                                }
+                            } else {
+                                sp = pushBlobNeighbour(data, air, blob, todo, sp, i - 4096, blobs);
+                            }
+                            if (bx == 15) {
+                                if (by <= maxHeightXmax) {
+                                    connected++;
+                                }
+                            } else {
+                                sp = pushBlobNeighbour(data, air, blob, todo, sp, i + 4096, blobs);
+                            }
+                            if (bz == 0) {
+                                if (by <= maxHeightZmin) {
+                                    connected++;
+                                }
+                            } else {
+                                sp = pushBlobNeighbour(data, air, blob, todo, sp, i - 256, blobs);
+                            }
+                            if (bz == 15) {
+                                if (by <= maxHeightZmax) {
+                                    connected++;
+                                }
+                            } else {
+                                sp = pushBlobNeighbour(data, air, blob, todo, sp, i + 256, blobs);
+                            }
+                            if (by <= start) {
+                                connected++;
+                            } else {
+                                sp = pushBlobNeighbour(data, air, blob, todo, sp, i - 1, blobs);
+                            }
+                            if (by < 255) {
+                                sp = pushBlobNeighbour(data, air, blob, todo, sp, i + 1, blobs);
+                            }
+                        }
+                        sizes[blobs] = size;
+                        connections[blobs] = connected;
+                        lowestY[blobs] = lowest;
                     }
                     index++;
                 }
             }
         }
 
-        // Sort all blobs we delete with lowest first
-        blobs.sort((o1, o2) -> {
-            int y1 = o1.destroyOrMoveThis() ? o1.lowestY : 1000;
-            int y2 = o2.destroyOrMoveThis() ? o2.lowestY : 1000;
-            return y1-y2;
-        });
+        // Sort all blobs we delete with lowest first. Blobs with the same key stay in
+        // the order in which they were found
+        long[] order = new long[blobs];
+        for (int b = 1; b <= blobs; b++) {
+            int key = isLoneBlob(connections[b], sizes[b]) ? lowestY[b] : 1000;
+            order[b - 1] = ((long) key << 32) | b;
+        }
+        Arrays.sort(order);
 
-        Blob blocksToMove = new Blob(0, 256);
-        for (Blob blob : blobs) {
-            if (!blob.destroyOrMoveThis()) {
+        // For every blob: 0 means keep, 1 destroy and 2 move down
+        byte[] action = new byte[blobs + 1];
+        for (long o : order) {
+            int b = (int) o;
+            if (!isLoneBlob(connections[b], sizes[b])) {
                 // The rest of the blobs doesn't have to be destroyed anymore
                 break;
             }
-            if (rand.nextFloat() < LostCityConfiguration.DESTROY_OR_MOVE_CHANCE && blob.connectedBlocks.size() < LostCityConfiguration.DESTROY_SMALL_SECTIONS_SIZE) {
-                for (Integer index : blob.connectedBlocks) {
-                    primer.data[index] = ((index&0xff) < waterLevel) ? liquid : air;
-                }
+            if (rand.nextFloat() < LostCityConfiguration.DESTROY_OR_MOVE_CHANCE && sizes[b] < LostCityConfiguration.DESTROY_SMALL_SECTIONS_SIZE) {
+                action[b] = 1;
             } else {
-                for (Integer index : blob.connectedBlocks) {
-                    blocksToMove.connectedBlocks.add(index);
-                }
+                action[b] = 2;
             }
         }
-        for (Integer index : blocksToMove.connectedBlocks) {
-            char c = primer.data[index];
-            primer.data[index] = ((index&0xff) < waterLevel) ? liquid : air;
-            index--;
-            while (blocksToMove.contains(index) || primer.data[index] == air || primer.data[index] == liquid) {
-                index--;
+
+        for (int index = 0; index < data.length; index++) {
+            if (action[blob[index]] == 1) {
+                data[index] = ((index&0xff) < waterLevel) ? liquid : air;
             }
-            index++;
-            primer.data[index] = c;
         }
+        for (int index = 0; index < data.length; index++) {
+            if (action[blob[index]] == 2) {
+                char c = data[index];
+                data[index] = ((index&0xff) < waterLevel) ? liquid : air;
+                int i = index - 1;
+                while (action[blob[i]] == 2 || data[i] == air || data[i] == liquid) {
+                    i--;
+                }
+                data[i + 1] = c;
+            }
+        }
+    }
+
+    private static int pushBlobNeighbour(char[] data, char air, int[] blob, int[] todo, int sp, int index, int b) {
+        if (blob[index] == 0 && data[index] != air) {
+            blob[index] = b;
+            todo[sp++] = index;
+        }
+        return sp;
+    }
+
+    private static boolean isLoneBlob(int connections, int size) {
+        return ((float) connections / size) < LostCityConfiguration.DESTROY_LONE_BLOCKS_FACTOR;
     }
 
     private int generateStreet(ChunkPrimer primer, BuildingInfo info, Random rand, int chunkX, int chunkZ, int index, int x, int z, int height) {
@@ -688,6 +581,16 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
 
         boolean doOceanBorder = isDoOceanBorder(info, chunkX, chunkZ, x, z);
 
+        if (damageArea.isColumnUndamaged(x, z)) {
+            // No explosion can reach this column so everything below the corridors can be filled in one go
+            int top = doOceanBorder ? groundLevel : groundLevel - 5;
+            if (height < top) {
+                BaseTerrainGenerator.setBlockStateRange(primer, index, index + top - height, doOceanBorder ? Blocks.STONEBRICK.getDefaultState() : baseBlock);
+                index += top - height;
+                height = top;
+            }
+        }
+
         while (height < groundLevel) {
             IBlockState railx = Blocks.RAIL.getDefaultState().withProperty(BlockRail.SHAPE, BlockRailBase.EnumRailDirection.EAST_WEST);
             IBlockState railz = Blocks.RAIL.getDefaultState();
@@ -817,14 +720,14 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
         if (streetType == BuildingInfo.StreetType.PARK || info.fountainType >= 0) {
             int l = 0;
             Level level = streetType == BuildingInfo.StreetType.PARK ? ParkData.PARKS[info.parkType] : FountainData.FOUNTAINS[info.fountainType];
-            while (l < level.getFloor().length) {
+            while (l < level.getHeight()) {
                 if (l == 0 && doOceanBorder) {
                     b = Blocks.COBBLESTONE_WALL.getDefaultState();
+                    b = damageArea.damageBlock(b, air, rand, cx + x, height, cz + z, index, style);
+                    BaseTerrainGenerator.setBlockState(primer, index++, b);
                 } else {
-                    b = level.get(info, x, l, z);
+                    setLevelBlock(primer, index++, info, level.getIndex(x, l, z), provider.getRandom(), rand, cx + x, height, cz + z);
                 }
-                b = damageArea.damageBlock(b, air, rand, cx + x, height, cz + z, index, style);
-                BaseTerrainGenerator.setBlockState(primer, index++, b);
                 height++;
                 l++;
             }
@@ -836,7 +739,7 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
         }
 
         int blocks = 256 - height;
-        BaseTerrainGenerator.setBlockStateRange(primer, index, index + blocks, air);
+        BaseTerrainGenerator.setBlockStateRange(primer, index, index + blocks, provider.palette.air);
         index += blocks;
         return index;
     }
@@ -854,8 +757,8 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
 
     private void generateDebrisFromChunk(ChunkPrimer primer, Random rand, BuildingInfo adjacentInfo, BiFunction<Integer, Integer, Float> locationFactor) {
         if (adjacentInfo.hasBuilding) {
-            char air = (char) Block.BLOCK_STATE_IDS.get(LostCitiesTerrainGenerator.air);
-            char liquid = (char) Block.BLOCK_STATE_IDS.get(provider.dimensionInformation.getFluidForTerrain().getDefaultState());
+            char air = provider.palette.air;
+            char liquid = provider.palette.baseLiquid;
             float damageFactor = adjacentInfo.getDamageArea().getDamageFactor();
             if (damageFactor > .5f) {
                 // An estimate of the amount of blocks
@@ -921,6 +824,9 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
     private int generateBuilding(ChunkPrimer primer, BuildingInfo info, Random rand, int chunkX, int chunkZ, int index, int x, int z, int height) {
         DamageArea damageArea = info.getDamageArea();
         Style style = info.getStyle();
+        // Random blocks (cracked bricks, plants, ...) use the random of the generator. That one
+        // is seeded for every chunk so the result doesn't depend on the thread generating it
+        Random paletteRandom = provider.getRandom();
         int cx = chunkX * 16;
         int cz = chunkZ * 16;
         int lowestLevel = groundLevel - info.floorsBelowGround * 6;
@@ -933,6 +839,11 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
             corridor = false;
         }
 
+        if (damageArea.isColumnUndamaged(x, z) && height < lowestLevel) {
+            BaseTerrainGenerator.setBlockStateRange(primer, index, index + lowestLevel - height, provider.palette.baseBlock);
+            index += lowestLevel - height;
+            height = lowestLevel;
+        }
         while (height < lowestLevel) {
 //            BaseTerrainGenerator.setBlockState(primer, index++, height < waterLevel ? baseLiquid : damageArea.damageBlock(baseBlock, air, rand, cx + x, height, cz + z, index, style));
             BaseTerrainGenerator.setBlockState(primer, index++, damageArea.damageBlock(baseBlock, height < waterLevel ? baseLiquid : air, rand, cx + x, height, cz + z, index, style));
@@ -945,7 +856,7 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
             if (corridor && height >= groundLevel - 5 && height <= groundLevel - 3) {
                 b = air;
             } else {
-                b = getBlockForLevel(info, x, z, height);
+                b = getBlockForLevel(info, x, z, height, paletteRandom);
                 b = damageArea.damageBlock(b, height < waterLevel ? baseLiquid : air, rand, cx + x, height, cz + z, index, style);
             }
 
@@ -956,27 +867,39 @@ public class LostCitiesTerrainGenerator extends NormalTerrainGenerator {
             int f = getFloor(height);
             int floortype = info.topType;
             Level level = info.getTopData(floortype);
-            if (f >= level.getFloor().length) {
+            if (f >= level.getHeight()) {
                 break;
             }
-            IBlockState b = level.get(info, x, f, z);
-            b = damageArea.damageBlock(b, air, rand, cx + x, height, cz + z, index, style);
-            BaseTerrainGenerator.setBlockState(primer, index++, b);
+            setLevelBlock(primer, index++, info, level.getIndex(x, f, z), paletteRandom, rand, cx + x, height, cz + z);
             height++;
         }
         int blocks = 256 - height;
-        BaseTerrainGenerator.setBlockStateRange(primer, index, index + blocks, air);
+        BaseTerrainGenerator.setBlockStateRange(primer, index, index + blocks, provider.palette.air);
         index += blocks;
         return index;
     }
 
-    private IBlockState getBlockForLevel(BuildingInfo info, int x, int z, int height) {
+    // Set a block of a level at world position x,y,z. Blocks that are always the same and that are not
+    // damaged are written as the id that the palette resolved before. Only random and damaged blocks
+    // need the block state
+    private void setLevelBlock(ChunkPrimer primer, int index, BuildingInfo info, int idx, Random paletteRandom, Random rand, int x, int y, int z) {
+        Palette palette = info.getPalette();
+        DamageArea damageArea = info.getDamageArea();
+        if (!palette.isRandom(idx) && !damageArea.isDamaged(x, y, z)) {
+            BaseTerrainGenerator.setBlockState(primer, index, palette.getId(idx));
+        } else {
+            IBlockState b = damageArea.damageBlock(palette.get(idx, paletteRandom), air, rand, x, y, z, index, info.getStyle());
+            BaseTerrainGenerator.setBlockState(primer, index, b);
+        }
+    }
+
+    private IBlockState getBlockForLevel(BuildingInfo info, int x, int z, int height, Random paletteRandom) {
         int f = getFloor(height);
         int l = getLevel(height);
 //        boolean isFull = l == -1;      // The level directly underground has no windows
         Level[] floors = info.getFloorData();
         Level level = floors[info.floorTypes[l + info.floorsBelowGround]];
-        IBlockState b = level.get(info, x, f, z);
+        IBlockState b = level.get(info, x, f, z, paletteRandom);
         Style style = info.getStyle();
 
         // If we are underground, the block is glass, we are on the side and the chunk next to
@@ -0,0 +1,155 @@
+package mcjty.rftoolsdim.dimensions.world.terrain.lost;
+
+import mcjty.rftoolsdim.config.LostCityConfiguration;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockPlanks;
+import net.minecraft.block.BlockSapling;
+import net.minecraft.block.BlockStairs;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.EnumFacing;
+
+import java.util.Random;
+
+/**
+ * The characters that can be used in a Level and how they map to actual blocks for a given
+ * building. Levels are compiled to indices into CHARACTERS and every building resolves these
+ * indices once (based on its style) instead of doing a lookup for every block.
+ */
+public class Palette {
+
+    public static final String CHARACTERS = "#x$=+@ l1234CMFR:DGp*XQLWwS<>_.-%";
+
+    private static final int BRICKS = CHARACTERS.indexOf('#');
+    private static final int BRICKS2 = CHARACTERS.indexOf('x');
+    private static final int PLANTS = CHARACTERS.indexOf('p');
+    private static final int WEB = CHARACTERS.indexOf('%');
+
+    private final Style style;
+    private final IBlockState[] states = new IBlockState[CHARACTERS.length()];
+    private final char[] ids = new char[CHARACTERS.length()];
+    private final boolean[] isRandom = new boolean[CHARACTERS.length()];
+
+    public static byte getIndex(char c) {
+        int idx = CHARACTERS.indexOf(c);
+        if (idx < 0) {
+            throw new IllegalArgumentException("Unknown character '" + c + "' in level!");
+        }
+        return (byte) idx;
+    }
+
+    public Palette(BuildingInfo info) {
+        style = info.getStyle();
+        IBlockState air = Blocks.AIR.getDefaultState();
+
+        set('$', style.bricks_variant);
+        set('=', style.glass);
+        set('+', style.glass_full);
+        switch (info.glassType) {
+            case 1:
+                set('@', style.street);
+                break;
+            case 2:
+                set('@', style.bricks);
+                break;
+            case 3:
+                set('@', style.quartz);
+                break;
+            default:
+                set('@', style.glass);
+                break;
+        }
+        set(' ', air);
+        set('l', Blocks.LADDER.getDefaultState());
+        set('1', Blocks.PLANKS.getDefaultState());      // Monster spawner 1
+        set('2', Blocks.PLANKS.getDefaultState());      // Monster spawner 2
+        set('3', Blocks.PLANKS.getDefaultState());      // Monster spawner 3
+        set('4', Blocks.PLANKS.getDefaultState());      // Monster spawner 4
+        set('C', Blocks.PLANKS.getDefaultState());      // Chest
+        set('M', Blocks.PLANKS.getDefaultState());      // Modular storage
+        set('F', Blocks.PLANKS.getDefaultState());      // Random feature
+        set('R', Blocks.PLANKS.getDefaultState());      // Random rftools machine
+        set(':', Blocks.IRON_BARS.getDefaultState());
+        set('D', Blocks.DIRT.getDefaultState());
+        set('G', Blocks.GRASS.getDefaultState());
+        set('*', Blocks.FLOWER_POT.getDefaultState());
+        set('X', style.bricks_monster);
+        set('Q', Blocks.QUARTZ_BLOCK.getDefaultState());
+        set('L', Blocks.BOOKSHELF.getDefaultState());
+        set('W', Blocks.WATER.getDefaultState());
+        set('w', Blocks.COBBLESTONE_WALL.getDefaultState());
+        set('S', Blocks.DOUBLE_STONE_SLAB.getDefaultState());
+        set('<', Blocks.QUARTZ_STAIRS.getDefaultState().withProperty(BlockStairs.FACING, EnumFacing.NORTH));
+        set('>', Blocks.QUARTZ_STAIRS.getDefaultState().withProperty(BlockStairs.FACING, EnumFacing.SOUTH));
+        set('_', Blocks.STONE_SLAB.getDefaultState());
+        set('.', Blocks.OAK_FENCE.getDefaultState());
+        set('-', Blocks.WOODEN_PRESSURE_PLATE.getDefaultState());
+
+        // These are rolled for every block
+        isRandom[BRICKS] = true;
+        isRandom[BRICKS2] = true;
+        isRandom[PLANTS] = true;
+        isRandom[WEB] = true;
+    }
+
+    private void set(char c, IBlockState state) {
+        int idx = getIndex(c);
+        states[idx] = state;
+        // Not every style has all blocks (bricks_monster for example)
+        ids[idx] = state == null ? 0 : (char) Block.BLOCK_STATE_IDS.get(state);
+    }
+
+    // Return true if the block for this index is not always the same
+    public boolean isRandom(int idx) {
+        return isRandom[idx];
+    }
+
+    // The block state id for a non-random index. This can be written directly in a ChunkPrimer
+    public char getId(int idx) {
+        return ids[idx];
+    }
+
+    // The random is only used for the random indices. It should be the random of the chunk that is
+    // being generated so that the result is the same no matter which thread generates it
+    public IBlockState get(int idx, Random rand) {
+        if (!isRandom[idx]) {
+            return states[idx];
+        }
+        if (idx == BRICKS || idx == BRICKS2) {
+            if (rand.nextFloat() < LostCityConfiguration.STYLE_CHANCE_CRACKED) {
+                return style.bricks_cracked;
+            } else if (rand.nextFloat() < LostCityConfiguration.STYLE_CHANCE_MOSSY) {
+                return style.bricks_mossy;
+            } else {
+                return style.bricks;
+            }
+        } else if (idx == PLANTS) {
+            switch (rand.nextInt(11)) {
+                case 0:
+                case 1:
+                case 2:
+                    return Blocks.RED_FLOWER.getDefaultState();
+                case 3:
+                case 4:
+                case 5:
+                    return Blocks.YELLOW_FLOWER.getDefaultState();
+                case 6:
+                    return Blocks.SAPLING.getDefaultState().withProperty(BlockSapling.TYPE, BlockPlanks.EnumType.ACACIA);
+                case 7:
+                    return Blocks.SAPLING.getDefaultState().withProperty(BlockSapling.TYPE, BlockPlanks.EnumType.BIRCH);
+                case 8:
+                    return Blocks.SAPLING.getDefaultState().withProperty(BlockSapling.TYPE, BlockPlanks.EnumType.OAK);
+                case 9:
+                    return Blocks.SAPLING.getDefaultState().withProperty(BlockSapling.TYPE, BlockPlanks.EnumType.SPRUCE);
+                default:
+                    return Blocks.AIR.getDefaultState();
+            }
+        } else {
+            if (rand.nextFloat() < .3f) {
+                return Blocks.WEB.getDefaultState();
+            } else {
+                return Blocks.AIR.getDefaultState();
+            }
+        }
+    }
+}
@@ -1,25 +1,48 @@
 package mcjty.rftoolsdim.dimensions.world.terrain.lost.data;
 
 import mcjty.rftoolsdim.dimensions.world.terrain.lost.BuildingInfo;
-import mcjty.rftoolsdim.dimensions.world.terrain.lost.LostCitiesTerrainGenerator;
+import mcjty.rftoolsdim.dimensions.world.terrain.lost.Palette;
 import net.minecraft.block.state.IBlockState;
 
+import java.util.Random;
+
 public class Level {
     private final String[] floor;
 
+    // The floor compiled to indices in the palette (see Palette.CHARACTERS). Index is y*256 + z*16 + x
+    private final byte[] data;
+
     public Level(String[] floor) {
         this.floor = floor;
+        data = new byte[floor.length * 256];
+        for (int y = 0; y < floor.length; y++) {
+            if (floor[y].length() != 256) {
+                throw new IllegalArgumentException("Level floor " + y + " has size " + floor[y].length() + " instead of 256!");
+            }
+            for (int i = 0; i < 256; i++) {
+                data[y * 256 + i] = Palette.getIndex(floor[y].charAt(i));
+            }
+        }
     }
 
     public String[] getFloor() {
         return floor;
     }
 
-    public IBlockState get(BuildingInfo info, int x, int y, int z) {
-        return LostCitiesTerrainGenerator.getMapping().get(floor[y].charAt(z * 16 + x)).apply(info);
+    public int getHeight() {
+        return floor.length;
+    }
+
+    // Get the palette index at this position
+    public int getIndex(int x, int y, int z) {
+        return data[(y << 8) + (z << 4) + x];
+    }
+
+    public IBlockState get(BuildingInfo info, int x, int y, int z, Random rand) {
+        return info.getPalette().get(data[(y << 8) + (z << 4) + x], rand);
     }
 
-    public Character getC(int x, int y, int z) {
+    public char getC(int x, int y, int z) {
         return floor[y].charAt(z * 16 + x);
     }
 }
@@ -6,8 +6,10 @@ import mcjty.rftoolsdim.config.PowerConfiguration;
 import mcjty.rftoolsdim.dimensions.DimensionInformation;
 import mcjty.rftoolsdim.dimensions.DimensionStorage;
 import mcjty.rftoolsdim.dimensions.RfToolsDimensionManager;
+import mcjty.rftoolsdim.dimensions.world.GenericWorldProvider;
 import mcjty.rftoolsdim.network.PacketGetDimensionEnergy;
 import mcjty.rftoolsdim.network.RFToolsDimMessages;
+import mcjty.rftoolsdim.network.SyncDimensionInfoHelper;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.WorldClient;
 import net.minecraft.client.renderer.ItemMeshDefinition;
@@ -118,6 +120,10 @@ public class DimensionMonitorItem extends GenericRFToolsItem {
         RfToolsDimensionManager dimensionManager = RfToolsDimensionManager.getDimensionManagerNullable(player.getEntityWorld());
         DimensionInformation dimensionInformation = dimensionManager == null ? null : dimensionManager.getDimensionInformation(id);
         if (dimensionInformation == null) {
+            if (player.getEntityWorld().provider instanceof GenericWorldProvider) {
+                // We are in an RFTools dimension but its information didn't arrive yet
+                SyncDimensionInfoHelper.requestDimensionInformation(id);
+            }
             list.add("Not an RFTools dimension!");
         } else {
             if (System.currentTimeMillis() - lastTime > 500) {
@@ -10,6 +10,7 @@ import mcjty.rftoolsdim.dimensions.dimlets.DimletObjectMapping;
 import mcjty.rftoolsdim.dimensions.dimlets.types.DimletType;
 import mcjty.rftoolsdim.network.PacketGetDimensionEnergy;
 import mcjty.rftoolsdim.network.RFToolsDimMessages;
+import mcjty.rftoolsdim.network.SyncDimensionInfoHelper;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
@@ -76,6 +77,7 @@ public class RealizedDimensionTab extends GenericRFToolsItem {
             if (ticksLeft == 0) {
                 DimensionInformation information = RfToolsDimensionManager.getDimensionManager(player.getEntityWorld()).getDimensionInformation(id);
                 if (information == null) {
+                    SyncDimensionInfoHelper.requestDimensionInformation(id);
                     list.add(TextFormatting.RED + "Dimension information Missing!");
                 } else {
                     list.add(TextFormatting.BLUE + "Dimension ready!");
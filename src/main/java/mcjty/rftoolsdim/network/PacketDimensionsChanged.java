@@ -0,0 +1,63 @@
+package mcjty.rftoolsdim.network;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.client.Minecraft;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+/**
+ * Tell the client that the information it has for some dimensions (or for all dimensions) is no
+ * longer valid. The client will ask for it again (PacketGetDimensionInfo) when it needs it.
+ */
+public class PacketDimensionsChanged implements IMessage {
+    private boolean all;
+    private int[] ids;
+
+    @Override
+    public void fromBytes(ByteBuf buf) {
+        all = buf.readBoolean();
+        int size = buf.readInt();
+        ids = new int[size];
+        for (int i = 0 ; i < size ; i++) {
+            ids[i] = buf.readInt();
+        }
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf) {
+        buf.writeBoolean(all);
+        buf.writeInt(ids.length);
+        for (int id : ids) {
+            buf.writeInt(id);
+        }
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+
+    public int[] getIds() {
+        return ids;
+    }
+
+    // Forget all dimensions
+    public PacketDimensionsChanged() {
+        this.all = true;
+        this.ids = new int[0];
+    }
+
+    public PacketDimensionsChanged(int[] ids) {
+        this.all = false;
+        this.ids = ids;
+    }
+
+    public static class Handler implements IMessageHandler<PacketDimensionsChanged, IMessage> {
+        @Override
+        public IMessage onMessage(PacketDimensionsChanged message, MessageContext ctx) {
+            Minecraft.getMinecraft().addScheduledTask(() -> SyncDimensionInfoHelper.forgetDimensions(message));
+            return null;
+        }
+
+    }
+}
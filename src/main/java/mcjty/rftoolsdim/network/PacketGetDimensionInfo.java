@@ -0,0 +1,42 @@
+package mcjty.rftoolsdim.network;
+
+import io.netty.buffer.ByteBuf;
+import mcjty.rftoolsdim.dimensions.DimensionInfoSync;
+import net.minecraftforge.fml.common.FMLCommonHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+/**
+ * Ask the server for the information of a dimension. The answer is a PacketSyncDimensionInfo.
+ */
+public class PacketGetDimensionInfo implements IMessage {
+    private int dimension;
+
+    @Override
+    public void fromBytes(ByteBuf buf) {
+        dimension = buf.readInt();
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf) {
+        buf.writeInt(dimension);
+    }
+
+    public PacketGetDimensionInfo() {
+    }
+
+    public PacketGetDimensionInfo(int dimension) {
+        this.dimension = dimension;
+    }
+
+    public static class Handler implements IMessageHandler<PacketGetDimensionInfo, IMessage> {
+        @Override
+        public IMessage onMessage(PacketGetDimensionInfo message, MessageContext ctx) {
+            FMLCommonHandler.instance().getWorldThread(ctx.netHandler).addScheduledTask(() -> DimensionInfoSync.sendDimension(ctx.getServerHandler().player, message.dimension));
+            return null;
+        }
+
+    }
+
+}
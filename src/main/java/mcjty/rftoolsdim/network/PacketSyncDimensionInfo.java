@@ -17,7 +17,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Sync RfToolsDimensionManager data from server to client.
+ * Sync RfToolsDimensionManager data from server to client. This is normally used for one
+ * dimension at a time (see DimensionInfoSync).
  */
 public class PacketSyncDimensionInfo implements IMessage {
     private Map<Integer, DimensionDescriptor> dimensions;
@@ -87,6 +88,13 @@ public class PacketSyncDimensionInfo implements IMessage {
         this.dimensionInformation = new HashMap<Integer, DimensionInformation>(dimensionInformation);
     }
 
+    public PacketSyncDimensionInfo(int id, DimensionDescriptor descriptor, DimensionInformation information) {
+        this.dimensions = new HashMap<Integer, DimensionDescriptor>();
+        this.dimensions.put(id, descriptor);
+        this.dimensionInformation = new HashMap<Integer, DimensionInformation>();
+        this.dimensionInformation.put(id, information);
+    }
+
     public static class Handler implements IMessageHandler<PacketSyncDimensionInfo, IMessage> {
         @Override
         public IMessage onMessage(PacketSyncDimensionInfo message, MessageContext ctx) {
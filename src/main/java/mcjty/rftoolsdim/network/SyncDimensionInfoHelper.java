@@ -3,21 +3,66 @@ package mcjty.rftoolsdim.network;
 import mcjty.lib.tools.MinecraftTools;
 import mcjty.lib.varia.Logging;
 import mcjty.rftoolsdim.dimensions.RfToolsDimensionManager;
+import mcjty.rftoolsdim.dimensions.world.GenericWorldProvider;
 import net.minecraft.client.Minecraft;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @SideOnly(Side.CLIENT)
 public class SyncDimensionInfoHelper {
 
+    private static final Map<Integer, Long> lastRequest = new HashMap<>();
+
     public static void syncDimensionManagerFromServer(PacketSyncDimensionInfo message) {
+        // With an integrated server the client shares the dimension manager with the server
+        if (Minecraft.getMinecraft().isIntegratedServerRunning()) {
+            return;
+        }
         World world = MinecraftTools.getWorld(Minecraft.getMinecraft());
         Logging.log("Received dimension information from server");
         RfToolsDimensionManager dimensionManager = RfToolsDimensionManager.getDimensionManagerClient();
 
         dimensionManager.syncFromServer(message.getDimensions(), message.getDimensionInformation());
+        for (Integer id : message.getDimensions().keySet()) {
+            lastRequest.remove(id);
+        }
 //        dimensionManager.save(world);
+
+        // The world we are in may have been set up before its information arrived
+        if (world != null && world.provider instanceof GenericWorldProvider && message.getDimensions().containsKey(world.provider.getDimension())) {
+            ((GenericWorldProvider) world.provider).updateDimensionInformation();
+        }
+    }
+
+    public static void forgetDimensions(PacketDimensionsChanged message) {
+        if (Minecraft.getMinecraft().isIntegratedServerRunning()) {
+            return;
+        }
+        RfToolsDimensionManager dimensionManager = RfToolsDimensionManager.getDimensionManagerClient();
+        if (message.isAll()) {
+            dimensionManager.forgetDimensions();
+        } else {
+            for (int id : message.getIds()) {
+                dimensionManager.forgetDimension(id);
+            }
+        }
+    }
+
+    /**
+     * Ask the server for the information of a dimension that we don't have. This can be called
+     * every frame (from a tooltip for example). A new request is only sent every second.
+     */
+    public static void requestDimensionInformation(int id) {
+        long time = System.currentTimeMillis();
+        Long last = lastRequest.get(id);
+        if (last == null || time - last > 1000) {
+            lastRequest.put(id, time);
+            RFToolsDimMessages.INSTANCE.sendToServer(new PacketGetDimensionInfo(id));
+        }
     }
 
 }
@@ -3,6 +3,7 @@ package mcjty.rftoolsdim.proxy;
 import mcjty.rftoolsdim.blocks.ModBlocks;
 import mcjty.rftoolsdim.RFToolsDim;
 import mcjty.rftoolsdim.items.ModItems;
+import mcjty.rftoolsdim.network.SyncDimensionInfoHelper;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.fml.common.event.FMLInitializationEvent;
@@ -29,4 +30,9 @@ public class ClientProxy extends CommonProxy {
     public void postInit(FMLPostInitializationEvent e) {
         super.postInit(e);
     }
+
+    @Override
+    public void requestDimensionInformation(int id) {
+        SyncDimensionInfoHelper.requestDimensionInformation(id);
+    }
 }
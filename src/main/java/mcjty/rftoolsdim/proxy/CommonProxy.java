@@ -6,13 +6,16 @@ import mcjty.lib.varia.WrenchChecker;
 import mcjty.rftoolsdim.ForgeEventHandlers;
 import mcjty.rftoolsdim.ModCrafting;
 import mcjty.rftoolsdim.RFToolsDim;
+import mcjty.rftoolsdim.blocks.MachineScheduler;
 import mcjty.rftoolsdim.blocks.ModBlocks;
 import mcjty.rftoolsdim.config.*;
+import mcjty.rftoolsdim.dimensions.DimensionPregenerator;
 import mcjty.rftoolsdim.dimensions.DimensionTickEvent;
 import mcjty.rftoolsdim.dimensions.ModDimensions;
 import mcjty.rftoolsdim.gui.GuiProxy;
 import mcjty.rftoolsdim.items.ModItems;
 import mcjty.rftoolsdim.network.RFToolsDimMessages;
+import mcjty.rftoolsdim.varia.RFToolsContent;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.config.Configuration;
 import net.minecraftforge.fml.common.FMLLog;
@@ -83,6 +86,8 @@ public abstract class CommonProxy {
         NetworkRegistry.INSTANCE.registerGuiHandler(RFToolsDim.instance, new GuiProxy());
         MinecraftForge.EVENT_BUS.register(new ForgeEventHandlers());
         MinecraftForge.EVENT_BUS.register(new DimensionTickEvent());
+        MinecraftForge.EVENT_BUS.register(new DimensionPregenerator());
+        MinecraftForge.EVENT_BUS.register(new MachineScheduler());
         ModCrafting.init();
     }
 
@@ -95,6 +100,14 @@ public abstract class CommonProxy {
 
         mainConfig = null;
         WrenchChecker.init();
+        RFToolsContent.init();
+    }
+
+    /**
+     * Ask the server for the information of a dimension that the client doesn't have yet.
+     * Only the client proxy does something here.
+     */
+    public void requestDimensionInformation(int id) {
     }
 
 }
@@ -0,0 +1,76 @@
+package mcjty.rftoolsdim.varia;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded LRU cache for values that only depend on the seed and the chunk coordinates.
+ * World generation (lost cities, orbs, ruined cities) queries the same (neighbouring) chunks
+ * over and over again during terrain generation and population so we keep the most recent
+ * results around.
+ */
+public class ChunkCache<V> {
+
+    private final Map<Key, V> cache;
+
+    public ChunkCache(final int maxSize) {
+        cache = new LinkedHashMap<Key, V>(maxSize * 4 / 3 + 1, .75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized V get(long seed, int chunkX, int chunkZ) {
+        return cache.get(new Key(seed, chunkX, chunkZ));
+    }
+
+    // Returns the value that is in the cache after this call. If another value was added
+    // for the same key in the mean time then that one wins
+    public synchronized V put(long seed, int chunkX, int chunkZ, V value) {
+        Key key = new Key(seed, chunkX, chunkZ);
+        V old = cache.get(key);
+        if (old != null) {
+            return old;
+        }
+        cache.put(key, value);
+        return value;
+    }
+
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    private static final class Key {
+        private final long seed;
+        private final int chunkX;
+        private final int chunkZ;
+
+        private Key(long seed, int chunkX, int chunkZ) {
+            this.seed = seed;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return seed == key.seed && chunkX == key.chunkX && chunkZ == key.chunkZ;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (int) (seed ^ (seed >>> 32));
+            result = 31 * result + chunkX;
+            result = 31 * result + chunkZ;
+            return result;
+        }
+    }
+}
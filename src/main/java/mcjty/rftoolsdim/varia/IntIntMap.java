@@ -0,0 +1,144 @@
+package mcjty.rftoolsdim.varia;
+
+import java.util.Arrays;
+
+/**
+ * A map from int to int using open addressing. Nothing is boxed.
+ */
+public class IntIntMap {
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size = 0;
+
+    public IntIntMap() {
+        this(16);
+    }
+
+    public IntIntMap(int capacity) {
+        int length = 16;
+        while (length < capacity * 2) {
+            length *= 2;
+        }
+        keys = new int[length];
+        values = new int[length];
+        used = new boolean[length];
+    }
+
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int i = IntObjectMap.hash(key) & mask;
+        while (used[i]) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Return the value for this key or 'missing' if the key is not in the map.
+     */
+    public int get(int key, int missing) {
+        int i = indexOf(key);
+        return i < 0 ? missing : values[i];
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    public void put(int key, int value) {
+        int mask = keys.length - 1;
+        int i = IntObjectMap.hash(key) & mask;
+        while (used[i]) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        used[i] = true;
+        size++;
+        // Keep the table at most half full
+        if (size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+    }
+
+    public void remove(int key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return;
+        }
+        used[i] = false;
+        size--;
+        // Move the entries after this one back so that they can still be found
+        int mask = keys.length - 1;
+        int hole = i;
+        i = (i + 1) & mask;
+        while (used[i]) {
+            int wanted = IntObjectMap.hash(keys[i]) & mask;
+            // Move the entry if its wanted position is not between the hole and its current position
+            if (((i - wanted) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                used[hole] = true;
+                used[i] = false;
+                hole = i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private void resize(int length) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new int[length];
+        values = new int[length];
+        used = new boolean[length];
+        int mask = length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldUsed[j]) {
+                int i = IntObjectMap.hash(oldKeys[j]) & mask;
+                while (used[i]) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+                used[i] = true;
+            }
+        }
+    }
+
+    /**
+     * Return all keys in no particular order.
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int cnt = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                result[cnt++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+}
@@ -0,0 +1,82 @@
+package mcjty.rftoolsdim.varia;
+
+import mcjty.lib.varia.Logging;
+import net.minecraft.block.Block;
+import net.minecraft.item.Item;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.registry.ForgeRegistries;
+
+import java.util.function.Function;
+
+/**
+ * The RFTools blocks and items that are used while populating chunks. They are looked up
+ * once (after all registries are filled) instead of on every chunk. Content that is missing
+ * is logged once and stays null so that callers can skip it.
+ */
+public class RFToolsContent {
+
+    public static Block dimensionalShardOre;
+    public static Block modularStorage;
+    public static Block crafter1;
+    public static Block crafter2;
+    public static Block powercellSimple;
+    public static Block rfMonitor;
+
+    public static Item storageModule;
+    public static Item dimensionalShard;
+
+    private static boolean initialized = false;
+
+    // All registry lookups go through these. Tests replace them to count the lookups
+    static Function<ResourceLocation, Block> blockLookup = RFToolsContent::lookupBlock;
+    static Function<ResourceLocation, Item> itemLookup = RFToolsContent::lookupItem;
+
+    public static void init() {
+        dimensionalShardOre = findBlock("dimensional_shard_ore");
+        modularStorage = findBlock("modular_storage");
+        crafter1 = findBlock("crafter1");
+        crafter2 = findBlock("crafter2");
+        powercellSimple = findBlock("powercell_simple");
+        rfMonitor = findBlock("rf_monitor");
+
+        storageModule = findItem("storage_module");
+        dimensionalShard = findItem("dimensional_shard");
+        initialized = true;
+    }
+
+    /**
+     * Normally init() is called from postInit but make sure we never work with unresolved content.
+     */
+    public static void checkInit() {
+        if (!initialized) {
+            init();
+        }
+    }
+
+    private static Block findBlock(String name) {
+        ResourceLocation id = new ResourceLocation("rftools", name);
+        Block block = blockLookup.apply(id);
+        if (block == null) {
+            Logging.logError("Could not find block " + id + ". It will not be generated in dimensions");
+        }
+        return block;
+    }
+
+    private static Item findItem(String name) {
+        ResourceLocation id = new ResourceLocation("rftools", name);
+        Item item = itemLookup.apply(id);
+        if (item == null) {
+            Logging.logError("Could not find item " + id + ". It will not be generated in dimensions");
+        }
+        return item;
+    }
+
+    // The registries return a default for unknown names so check if the name is there first
+    private static Block lookupBlock(ResourceLocation id) {
+        return ForgeRegistries.BLOCKS.containsKey(id) ? ForgeRegistries.BLOCKS.getValue(id) : null;
+    }
+
+    private static Item lookupItem(ResourceLocation id) {
+        return ForgeRegistries.ITEMS.containsKey(id) ? ForgeRegistries.ITEMS.getValue(id) : null;
+    }
+}
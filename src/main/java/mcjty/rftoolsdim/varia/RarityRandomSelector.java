@@ -4,16 +4,21 @@ import java.util.*;
 
 /**
  * A class that can return random items based on rarity.
+ * Every distribution is compiled to an alias table (Vose) so that selecting a key
+ * takes constant time. Keys are kept in the order they were added so that a seeded
+ * random always gives the same results.
  */
 public class RarityRandomSelector<K,E> {
-    private boolean dirty = true;
+    // Incremented on every change so that distributions know when they have to be compiled again
+    private int version = 0;
 
     // A map associating every key with the chance that items of this key should be selected.
-    private final Map<K,Float> keys = new HashMap<K, Float>();
+    private final Map<K,Float> keys = new LinkedHashMap<K, Float>();
     private float minChance = Float.MAX_VALUE;    // Used for calculation distribution with bonus.
     private float maxChance = Float.MIN_VALUE;
 
-    private final Distribution<K> defaultDistribution = new Distribution<K>();
+    // All distributions that were asked for indexed by bonus. The one for bonus 0 is the default.
+    private final Map<Float,Distribution<K>> distributions = new HashMap<Float, Distribution<K>>();
 
     // All items for every key.
     private final Map<K,List<E>> items = new HashMap<K, List<E>>();
@@ -22,11 +27,11 @@ public class RarityRandomSelector<K,E> {
     }
 
     public void clear() {
-        dirty = true;
+        version++;
         keys.clear();
         minChance = Float.MAX_VALUE;
         maxChance = Float.MIN_VALUE;
-        defaultDistribution.reset();
+        distributions.clear();
         items.clear();
     }
 
@@ -43,7 +48,7 @@ public class RarityRandomSelector<K,E> {
         if (chance > maxChance) {
             maxChance = chance;
         }
-        dirty = true;
+        version++;
     }
 
     /**
@@ -51,60 +56,57 @@ public class RarityRandomSelector<K,E> {
      */
     public void addItem(K key, E item) {
         items.get(key).add(item);
-        dirty = true;
+        version++;
     }
 
-    private void distribute() {
-        if (dirty) {
-            dirty = false;
-            setupDistribution(defaultDistribution, 0.0f);
-        }
-    }
-
-    private void setupDistribution(Distribution<K> distribution, float bonus) {
-        float add = bonus * (maxChance - minChance);
-        distribution.reset();
+    private void setupDistribution(Distribution<K> distribution) {
+        float add = distribution.bonus * (maxChance - minChance);
+        Map<K,Float> keysChance = new LinkedHashMap<K, Float>();
         for (Map.Entry<K, Float> entry : keys.entrySet()) {
             K key = entry.getKey();
             int length = items.get(key).size();
             if (length > 0) {
                 float chance = (entry.getValue() + add) * length;
-                distribution.addKey(key, chance);
+                keysChance.put(key, chance);
             }
         }
+        distribution.table = new AliasTable<K>(this, version, keysChance);
     }
 
     /**
-     * Create a new distribution. If the bonus is equal to 0.0f then this distribution
+     * Return the distribution for a bonus. If the bonus is equal to 0.0f then this distribution
      * will be equal to the default one. With a bonus equal to 1.1f you will basically
      * make the chance of the rarest elements equal to half the chance of the most common
      * elements. Very large values will make the rarest elements almost as common as
-     * the most common elements.
+     * the most common elements. Distributions are cached so this is cheap to call.
      */
-    public Distribution<K> createDistribution(float bonus) {
-        Distribution<K> distribution = new Distribution<K>();
-        setupDistribution(distribution, bonus);
+    public synchronized Distribution<K> createDistribution(float bonus) {
+        Distribution<K> distribution = distributions.get(bonus);
+        if (distribution == null) {
+            distribution = new Distribution<K>(bonus);
+            distributions.put(bonus, distribution);
+        }
+        if (!distribution.table.isFor(this, version)) {
+            setupDistribution(distribution);
+        }
         return distribution;
     }
 
     /**
-     * Return a random element given a distribution.
+     * Return a random element given a distribution. A distribution that was made by another
+     * selector (or before items were added) is replaced with the one with the same bonus
+     * for the current items of this selector.
      */
     public E select(Distribution<K> distribution, Random random) {
-        distribute();
-        float r = random.nextFloat() * distribution.getTotalChance() - 0.0001f;  // Subtract with small value to ensure we actually get there.
-        K key = null;
-        for (Map.Entry<K, Float> entry : distribution.getKeysChance().entrySet()) {
-            r -= entry.getValue();
-            if (r <= 0.0f && !items.get(entry.getKey()).isEmpty()) {
-                key = entry.getKey();
-                break;
-            }
+        AliasTable<K> table = distribution.table;
+        if (!table.isFor(this, version)) {
+            table = createDistribution(distribution.bonus).table;
         }
-        List<E> list = items.get(key);
-        if (list == null) {
+        K key = table.sample(random);
+        if (key == null) {
             return null;
         }
+        List<E> list = items.get(key);
         return list.get(random.nextInt(list.size()));
     }
 
@@ -112,30 +114,115 @@ public class RarityRandomSelector<K,E> {
      * Return a random element.
      */
     public E select(Random random) {
-        return select(defaultDistribution, random);
+        return select(createDistribution(0.0f), random);
     }
 
     public static class Distribution<K> {
-        // A map associating every key with the chance that this key in total must be selected.
-        private final Map<K,Float> keysChance = new HashMap<K, Float>();
-        private float totalChance = 0.0f;
+        private final float bonus;
+        // Replaced as a whole when the distribution is compiled again so that a thread that
+        // is sampling never sees a table that is only partially built
+        private volatile AliasTable<K> table = new AliasTable<K>(null, 0, Collections.<K, Float>emptyMap());
+
+        private Distribution(float bonus) {
+            this.bonus = bonus;
+        }
 
         public Map<K, Float> getKeysChance() {
-            return keysChance;
+            return table.keysChance;
         }
 
         public float getTotalChance() {
-            return totalChance;
+            return table.totalChance;
+        }
+    }
+
+    private static class AliasTable<K> {
+        private final Object owner;
+        private final int version;
+
+        // A map associating every key with the chance that this key in total must be selected.
+        private final Map<K,Float> keysChance;
+        private final float totalChance;
+
+        // The alias table: index 'i' is selected with chance 'probability[i]', otherwise 'alias[i]'
+        private final Object[] table;
+        private final float[] probability;
+        private final int[] alias;
+
+        private AliasTable(Object owner, int version, Map<K, Float> keysChance) {
+            this.owner = owner;
+            this.version = version;
+            this.keysChance = Collections.unmodifiableMap(keysChance);
+            float total = 0.0f;
+            for (Float chance : keysChance.values()) {
+                total += chance;
+            }
+            totalChance = total;
+
+            int n = totalChance > 0.0f ? keysChance.size() : 0;
+            table = new Object[n];
+            probability = new float[n];
+            alias = new int[n];
+            if (n == 0) {
+                return;
+            }
+
+            double[] scaled = new double[n];
+            int[] small = new int[n];
+            int[] large = new int[n];
+            int smallCnt = 0;
+            int largeCnt = 0;
+            int i = 0;
+            for (Map.Entry<K, Float> entry : keysChance.entrySet()) {
+                table[i] = entry.getKey();
+                scaled[i] = entry.getValue() * n / totalChance;
+                if (scaled[i] < 1.0) {
+                    small[smallCnt++] = i;
+                } else {
+                    large[largeCnt++] = i;
+                }
+                i++;
+            }
+
+            while (smallCnt > 0 && largeCnt > 0) {
+                int s = small[--smallCnt];
+                int l = large[--largeCnt];
+                probability[s] = (float) scaled[s];
+                alias[s] = l;
+                scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+                if (scaled[l] < 1.0) {
+                    small[smallCnt++] = l;
+                } else {
+                    large[largeCnt++] = l;
+                }
+            }
+            // What is left over is (up to rounding errors) always selected
+            while (largeCnt > 0) {
+                int l = large[--largeCnt];
+                probability[l] = 1.0f;
+                alias[l] = l;
+            }
+            while (smallCnt > 0) {
+                int s = small[--smallCnt];
+                probability[s] = 1.0f;
+                alias[s] = s;
+            }
         }
 
-        public void reset() {
-            keysChance.clear();
-            totalChance = 0.0f;
+        private boolean isFor(Object owner, int version) {
+            return this.owner == owner && this.version == version;
         }
 
-        public void addKey(K key, float chance) {
-            keysChance.put(key, chance);
-            totalChance += chance;
+        @SuppressWarnings("unchecked")
+        private K sample(Random random) {
+            if (table.length == 0) {
+                return null;
+            }
+            int i = random.nextInt(table.length);
+            if (random.nextFloat() < probability[i]) {
+                return (K) table[i];
+            }
+            return (K) table[alias[i]];
         }
     }
 }
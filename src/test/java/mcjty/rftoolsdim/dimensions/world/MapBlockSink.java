@@ -0,0 +1,57 @@
+package mcjty.rftoolsdim.dimensions.world;
+
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A fake world that only knows blocks. Positions that were never set are air.
+ */
+public class MapBlockSink implements BlockSink {
+
+    private final Map<BlockPos, IBlockState> blocks = new HashMap<>();
+    private int batches = 0;
+
+    @Override
+    public IBlockState getBlockState(BlockPos pos) {
+        IBlockState state = blocks.get(pos);
+        return state == null ? Blocks.AIR.getDefaultState() : state;
+    }
+
+    @Override
+    public boolean isAirBlock(BlockPos pos) {
+        return getBlockState(pos).getMaterial() == Material.AIR;
+    }
+
+    @Override
+    public void setBlockState(BlockPos pos, IBlockState state) {
+        blocks.put(pos, state);
+    }
+
+    @Override
+    public void setBlockStates(Map<BlockPos, IBlockState> blocks) {
+        batches++;
+        BlockSink.super.setBlockStates(blocks);
+    }
+
+    // The number of times a batch of blocks was written
+    public int getBatches() {
+        return batches;
+    }
+
+    public Set<BlockPos> getPositions() {
+        return blocks.keySet();
+    }
+
+    public static Set<BlockPos> getAllPositions(MapBlockSink a, MapBlockSink b) {
+        Set<BlockPos> positions = new HashSet<>(a.getPositions());
+        positions.addAll(b.getPositions());
+        return positions;
+    }
+}
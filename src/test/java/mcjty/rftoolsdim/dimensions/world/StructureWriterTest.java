@@ -0,0 +1,386 @@
+package mcjty.rftoolsdim.dimensions.world;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.util.math.BlockPos;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Builds the same structures the old way (every block straight into the world) and through a
+ * StructureWriter and checks that the result is the same block by block.
+ */
+public class StructureWriterTest {
+
+    private static final int MIDX = 8;
+    private static final int MIDZ = 8;
+    private static final int STARTY = 64;
+
+    @BeforeClass
+    public static void setup() {
+        Bootstrap.register();
+    }
+
+    // Some terrain for the structures to be placed in. There is a hill partly covering the
+    // spawn platform so that the top layer check has something to find
+    private static MapBlockSink createTerrain() {
+        MapBlockSink sink = new MapBlockSink();
+        for (int x = -8 ; x < 24 ; x++) {
+            for (int z = -8 ; z < 24 ; z++) {
+                for (int y = 40 ; y < STARTY ; y++) {
+                    sink.setBlockState(new BlockPos(x, y, z), Blocks.STONE.getDefaultState());
+                }
+                if (x > MIDX) {
+                    int top = STARTY + (x - MIDX);
+                    for (int y = STARTY ; y <= top ; y++) {
+                        sink.setBlockState(new BlockPos(x, y, z), Blocks.DIRT.getDefaultState());
+                    }
+                }
+                if ((x + z) % 5 == 0) {
+                    // Some holes that fillEmptyWithStone has to fill up
+                    sink.setBlockState(new BlockPos(x, STARTY - 1, z), Blocks.AIR.getDefaultState());
+                    sink.setBlockState(new BlockPos(x, STARTY - 2, z), Blocks.WATER.getDefaultState());
+                }
+            }
+        }
+        return sink;
+    }
+
+    private static void assertSameBlocks(MapBlockSink expected, MapBlockSink actual) {
+        for (BlockPos pos : MapBlockSink.getAllPositions(expected, actual)) {
+            assertEquals("Block at " + pos, expected.getBlockState(pos), actual.getBlockState(pos));
+        }
+    }
+
+    @Test
+    public void testSpawnPlatform() {
+        testSpawnPlatform(false);
+    }
+
+    @Test
+    public void testShelter() {
+        testSpawnPlatform(true);
+    }
+
+    private void testSpawnPlatform(boolean shelter) {
+        MapBlockSink old = createTerrain();
+        oldSpawnPlatform(old, shelter);
+
+        MapBlockSink sink = createTerrain();
+        StructureWriter writer = new StructureWriter(sink, null);
+        GenericWorldGenerator.buildSpawnPlatform(writer, MIDX, MIDZ, STARTY, shelter);
+        assertEquals(0, sink.getBatches());
+        writer.flush();
+        assertEquals(1, sink.getBatches());
+
+        assertSameBlocks(old, sink);
+    }
+
+    @Test
+    public void testFillEmptyWithStone() {
+        MapBlockSink old = createTerrain();
+        MapBlockSink sink = createTerrain();
+        StructureWriter writer = new StructureWriter(sink, null);
+        for (int x = 0 ; x < 16 ; x++) {
+            for (int z = 0 ; z < 16 ; z++) {
+                // Overlapping floors so that some columns are already (partially) filled by pending blocks
+                int y = STARTY + 3 + (z & 3);
+                oldFillEmptyWithStone(old, x, y, z);
+                old.setBlockState(new BlockPos(x, y + 1, z), Blocks.COBBLESTONE.getDefaultState());
+                writer.fillEmptyWithStone(x, y, z);
+                writer.setBlockState(x, y + 1, z, Blocks.COBBLESTONE.getDefaultState());
+            }
+        }
+        writer.flush();
+
+        assertSameBlocks(old, sink);
+    }
+
+    @Test
+    public void testReadsSeePendingBlocks() {
+        MapBlockSink sink = createTerrain();
+        StructureWriter writer = new StructureWriter(sink, null);
+        writer.setBlockState(0, 100, 0, Blocks.STONE.getDefaultState());
+        assertTrue(writer.isSolid(0, 100, 0));
+        assertTrue(sink.isAirBlock(new BlockPos(0, 100, 0)));
+
+        writer.setBlockToAir(0, 50, 0);
+        assertTrue(writer.isAirBlock(0, 50, 0));
+        assertFalse(sink.isAirBlock(new BlockPos(0, 50, 0)));
+
+        writer.flush();
+        assertEquals(Blocks.STONE.getDefaultState(), sink.getBlockState(new BlockPos(0, 100, 0)));
+        assertTrue(sink.isAirBlock(new BlockPos(0, 50, 0)));
+    }
+
+    @Test
+    public void testPrism() {
+        // The second prism overlaps the first one so that the isAirBlock() checks have to see the
+        // glass of the first prism that is still pending in the writer
+        MapBlockSink old = createTerrain();
+        oldPrism(old, MIDX, STARTY, MIDZ);
+        oldPrism(old, MIDX + 3, STARTY + 2, MIDZ - 2);
+
+        MapBlockSink sink = createTerrain();
+        StructureWriter writer = new StructureWriter(sink, null);
+        GenericWorldGenerator.buildPrism(writer, MIDX, STARTY, MIDZ);
+        GenericWorldGenerator.buildPrism(writer, MIDX + 3, STARTY + 2, MIDZ - 2);
+        writer.flush();
+
+        assertSameBlocks(old, sink);
+    }
+
+    @Test
+    public void testPillar() {
+        for (long seed = 0 ; seed < 20 ; seed++) {
+            MapBlockSink old = createTerrain();
+            Random oldRandom = new Random(seed);
+            oldPillar(old, oldRandom, MIDX, STARTY, MIDZ);
+
+            MapBlockSink sink = createTerrain();
+            Random random = new Random(seed);
+            StructureWriter writer = new StructureWriter(sink, null);
+            GenericWorldGenerator.buildPillar(writer, random, MIDX, STARTY, MIDZ);
+            writer.flush();
+
+            assertSameBlocks(old, sink);
+            assertEquals(oldRandom.nextLong(), random.nextLong());
+        }
+    }
+
+    @Test
+    public void testDungeon() {
+        testDungeon(false, false);
+        testDungeon(true, false);
+        testDungeon(false, true);
+        testDungeon(true, true);
+    }
+
+    // The second dungeon is built into the first one. Its extra feature checks isSolid() on the pending
+    // air inside the first building and fills down with stone until the pending floor of that building
+    private void testDungeon(boolean doSmallAntenna, boolean doExtraFeature) {
+        IBlockState cornerState = Blocks.QUARTZ_BLOCK.getStateFromMeta(1);
+        IBlockState buildingState = Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(9);
+
+        MapBlockSink old = createTerrain();
+        oldDungeon(old, MIDX, STARTY, MIDZ, doSmallAntenna, doExtraFeature, cornerState, buildingState);
+        oldDungeon(old, MIDX - 5, STARTY + 2, MIDZ + 2, doSmallAntenna, doExtraFeature, cornerState, buildingState);
+
+        MapBlockSink sink = createTerrain();
+        StructureWriter writer = new StructureWriter(sink, null);
+        GenericWorldGenerator.buildDungeon(writer, MIDX, STARTY, MIDZ, doSmallAntenna, doExtraFeature, cornerState, buildingState);
+        GenericWorldGenerator.buildDungeon(writer, MIDX - 5, STARTY + 2, MIDZ + 2, doSmallAntenna, doExtraFeature, cornerState, buildingState);
+        writer.flush();
+
+        assertSameBlocks(old, sink);
+    }
+
+    // WorldGenerationTools.fillEmptyWithStone() on a sink instead of a world
+    private static void oldFillEmptyWithStone(MapBlockSink sink, int x, int y, int z) {
+        while (y > 0 && !oldIsSolid(sink, x, y, z)) {
+            sink.setBlockState(new BlockPos(x, y, z), Blocks.STONE.getDefaultState());
+            y--;
+        }
+    }
+
+    private static boolean oldIsSolid(MapBlockSink sink, int x, int y, int z) {
+        BlockPos pos = new BlockPos(x, y, z);
+        if (sink.isAirBlock(pos)) {
+            return false;
+        }
+        IBlockState state = sink.getBlockState(pos);
+        return state.getBlock().getMaterial(state).blocksMovement();
+    }
+
+    // GenericWorldGenerator.generateSpawnPlatform() as it was before the StructureWriter (without the receiver)
+    private static void oldSpawnPlatform(MapBlockSink world, boolean shelter) {
+        int midx = MIDX;
+        int midz = MIDZ;
+        int starty = STARTY;
+        int bounds = 3;
+        if (shelter) {
+            bounds = 4;
+        }
+
+        for (int x = -bounds; x <= bounds; x++) {
+            for (int z = -bounds; z <= bounds; z++) {
+                if (x == 0 && z == 0) {
+                    // Receiver
+                } else if (x == 0 && (z == 2 || z == -2)) {
+                    world.setBlockState(new BlockPos(x + midx, starty, z + midz), Blocks.GLOWSTONE.getDefaultState());
+                } else {
+                    world.setBlockState(new BlockPos(x + midx, starty, z + midz), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3));
+                }
+                for (int y = 1; y <= 3; y++) {
+                    world.setBlockState(new BlockPos(x + midx, starty + y, z + midz), Blocks.AIR.getDefaultState());
+                }
+                // Check the top layer. If it is something other then air we will replace it with clay as well.
+                if (!world.isAirBlock(new BlockPos(x + midx, starty + 4, z + midz))) {
+                    world.setBlockState(new BlockPos(x + midx, starty + 4, z + midz), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3));
+                }
+            }
+        }
+
+        if (shelter) {
+            for (int y = 1; y <= 3; y++) {
+                for (int x = -bounds; x <= bounds; x++) {
+                    for (int z = -bounds; z <= bounds; z++) {
+                        if (x == -bounds || x == bounds || z == -bounds || z == bounds) {
+                            if (z == 0 && y >= 2 && y <= 3 || x == 0 && y >= 2 && y <= 3 && z == bounds) {
+                                world.setBlockState(new BlockPos(x + midx, starty + y, z + midz), Blocks.GLASS_PANE.getStateFromMeta(0));
+                            } else if (x == 0 && y == 1 && z == -bounds) {
+                                world.setBlockState(new BlockPos(x + midx, starty + y, z + midz), Blocks.IRON_DOOR.getStateFromMeta(1));
+                            } else if (x == 0 && y == 2 && z == -bounds) {
+                                world.setBlockState(new BlockPos(x + midx, starty + y, z + midz), Blocks.IRON_DOOR.getStateFromMeta(8));
+                            } else {
+                                world.setBlockState(new BlockPos(x + midx, starty + y, z + midz), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(9));
+                            }
+                        }
+                    }
+                }
+            }
+            for (int x = -bounds; x <= bounds; x++) {
+                for (int z = -bounds; z <= bounds; z++) {
+                    world.setBlockState(new BlockPos(x + midx, starty + 4, z + midz), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(9));
+                }
+            }
+            world.setBlockState(new BlockPos(midx - 1, starty + 2, midz - bounds - 1), Blocks.STONE_BUTTON.getStateFromMeta(4));
+            world.setBlockState(new BlockPos(midx + 1, starty + 2, midz - bounds + 1), Blocks.STONE_BUTTON.getStateFromMeta(3));
+
+            world.setBlockState(new BlockPos(midx + 1, starty, midz - bounds - 1), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3));
+            world.setBlockState(new BlockPos(midx, starty, midz - bounds - 1), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3));
+            world.setBlockState(new BlockPos(midx - 1, starty, midz - bounds - 1), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3));
+            world.setBlockState(new BlockPos(midx + 1, starty, midz - bounds - 2), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3));
+            world.setBlockState(new BlockPos(midx, starty, midz - bounds - 2), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3));
+            world.setBlockState(new BlockPos(midx - 1, starty, midz - bounds - 2), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(3));
+        }
+    }
+
+    // GenericWorldGenerator.generatePrism() as it was before the StructureWriter (without the search for the height)
+    private static void oldPrism(MapBlockSink world, int x, int y, int z) {
+        for (int i = 7; i >= 0; i--) {
+            if (i == 0) {
+                oldSetStainedGlassIfAir(world, x, y, z, i);
+            } else {
+                for (int j = -i; j <= i - 1; j++) {
+                    oldSetStainedGlassIfAir(world, x + j + 1, y, z + i, i);
+                    oldSetStainedGlassIfAir(world, x + i, y, z + j, i);
+                    oldSetStainedGlassIfAir(world, x - j - 1, y, z - i, i);
+                    oldSetStainedGlassIfAir(world, x - i, y, z - j, i);
+                }
+            }
+            y++;
+        }
+    }
+
+    private static void oldSetStainedGlassIfAir(MapBlockSink world, int x, int y, int z, int i) {
+        if (world.isAirBlock(new BlockPos(x, y, z))) {
+            world.setBlockState(new BlockPos(x, y, z), Blocks.STAINED_GLASS.getStateFromMeta(i));
+        }
+    }
+
+    // GenericWorldGenerator.generatePillar() as it was before the StructureWriter (without the search for the position)
+    private static void oldPillar(MapBlockSink world, Random random, int x, int y, int z) {
+        for (int i = 0; i < random.nextInt(3) + 2; i++) {
+            world.setBlockState(new BlockPos(x, y++, z), Blocks.STAINED_HARDENED_CLAY.getStateFromMeta(6));
+        }
+        world.setBlockState(new BlockPos(x, y, z), Blocks.STAINED_GLASS.getStateFromMeta(6));
+    }
+
+    // GenericWorldGenerator.generateDungeon() as it was before the StructureWriter (without the random
+    // choices and the chest)
+    private static void oldDungeon(MapBlockSink world, int midx, int starty, int midz, boolean doSmallAntenna, boolean doExtraFeature,
+                                   IBlockState cornerState, IBlockState buildingState) {
+        for (int x = midx - 3; x <= midx + 3; x++) {
+            for (int z = midz - 3; z <= midz + 3; z++) {
+                boolean corner = (x == midx - 3 || x == midx + 3) && (z == midz - 3 || z == midz + 3);
+                boolean xside = x == midx - 3 || x == midx + 3;
+                boolean zside = z == midz - 3 || z == midz + 3;
+                boolean antenna = (x == midx - 2 && z == midz - 2);
+                boolean smallAntenna = doSmallAntenna && (x == midx + 2 && z == midz + 2);
+                world.setBlockState(new BlockPos(x, starty, z), Blocks.DOUBLE_STONE_SLAB.getDefaultState());
+                if (corner) {
+                    world.setBlockState(new BlockPos(x, starty + 1, z), cornerState);
+                    world.setBlockState(new BlockPos(x, starty + 2, z), cornerState);
+                    world.setBlockState(new BlockPos(x, starty + 3, z), cornerState);
+                } else if (xside) {
+                    world.setBlockState(new BlockPos(x, starty + 1, z), buildingState);
+                    if (z >= midz - 1 && z <= midz + 1) {
+                        world.setBlockState(new BlockPos(x, starty + 2, z), Blocks.GLASS_PANE.getStateFromMeta(0));
+                    } else {
+                        world.setBlockState(new BlockPos(x, starty + 2, z), buildingState);
+                    }
+                    world.setBlockState(new BlockPos(x, starty + 3, z), buildingState);
+                } else if (zside) {
+                    world.setBlockState(new BlockPos(x, starty + 1, z), buildingState);
+                    world.setBlockState(new BlockPos(x, starty + 2, z), buildingState);
+                    world.setBlockState(new BlockPos(x, starty + 3, z), buildingState);
+                } else {
+                    world.setBlockState(new BlockPos(x, starty + 1, z), Blocks.AIR.getDefaultState());
+                    world.setBlockState(new BlockPos(x, starty + 2, z), Blocks.AIR.getDefaultState());
+                    world.setBlockState(new BlockPos(x, starty + 3, z), Blocks.AIR.getDefaultState());
+                }
+                if (antenna) {
+                    world.setBlockState(new BlockPos(x, starty + 4, z), Blocks.DOUBLE_STONE_SLAB.getDefaultState());
+                    world.setBlockState(new BlockPos(x, starty + 5, z), Blocks.IRON_BARS.getDefaultState());
+                    world.setBlockState(new BlockPos(x, starty + 6, z), Blocks.IRON_BARS.getDefaultState());
+                    world.setBlockState(new BlockPos(x, starty + 7, z), Blocks.IRON_BARS.getDefaultState());
+                    world.setBlockState(new BlockPos(x, starty + 8, z), Blocks.GLOWSTONE.getDefaultState());
+                } else if (smallAntenna) {
+                    world.setBlockState(new BlockPos(x, starty + 4, z), Blocks.DOUBLE_STONE_SLAB.getDefaultState());
+                    world.setBlockState(new BlockPos(x, starty + 5, z), Blocks.IRON_BARS.getDefaultState());
+                    world.setBlockState(new BlockPos(x, starty + 6, z), Blocks.AIR.getDefaultState());
+                    world.setBlockState(new BlockPos(x, starty + 7, z), Blocks.AIR.getDefaultState());
+                    world.setBlockState(new BlockPos(x, starty + 8, z), Blocks.AIR.getDefaultState());
+                } else {
+                    world.setBlockState(new BlockPos(x, starty + 4, z), Blocks.STONE_SLAB.getDefaultState());
+                    world.setBlockState(new BlockPos(x, starty + 5, z), Blocks.AIR.getDefaultState());
+                    world.setBlockState(new BlockPos(x, starty + 6, z), Blocks.AIR.getDefaultState());
+                    world.setBlockState(new BlockPos(x, starty + 7, z), Blocks.AIR.getDefaultState());
+                    world.setBlockState(new BlockPos(x, starty + 8, z), Blocks.AIR.getDefaultState());
+                }
+                oldFillEmptyWithStone(world, x, starty - 1, z);
+            }
+        }
+
+        if (doExtraFeature) {
+            if (!oldIsSolid(world, midx + 4, starty, midz - 3)) {
+                world.setBlockState(new BlockPos(midx + 4, starty, midz - 3), Blocks.IRON_BARS.getDefaultState());
+            }
+            world.setBlockState(new BlockPos(midx + 4, starty + 1, midz - 3), Blocks.IRON_BARS.getDefaultState());
+            world.setBlockState(new BlockPos(midx + 4, starty + 2, midz - 3), Blocks.IRON_BARS.getDefaultState());
+            if (!oldIsSolid(world, midx + 5, starty, midz - 3)) {
+                world.setBlockState(new BlockPos(midx + 5, starty, midz - 3), buildingState);
+            }
+            world.setBlockState(new BlockPos(midx + 5, starty + 1, midz - 3), buildingState);
+            world.setBlockState(new BlockPos(midx + 5, starty + 2, midz - 3), buildingState);
+            oldFillEmptyWithStone(world, midx + 4, starty - 1, midz - 3);
+            oldFillEmptyWithStone(world, midx + 5, starty - 1, midz - 3);
+        }
+
+        for (int x = midx - 3; x <= midx + 3; x++) {
+            for (int y = starty + 1; y <= starty + 3; y++) {
+                world.setBlockState(new BlockPos(x, y, midz - 4), Blocks.AIR.getDefaultState());
+            }
+        }
+
+        world.setBlockState(new BlockPos(midx - 1, starty, midz - 4), Blocks.DOUBLE_STONE_SLAB.getDefaultState());
+        world.setBlockState(new BlockPos(midx, starty, midz - 4), Blocks.DOUBLE_STONE_SLAB.getDefaultState());
+        world.setBlockState(new BlockPos(midx + 1, starty, midz - 4), Blocks.DOUBLE_STONE_SLAB.getDefaultState());
+
+        world.setBlockState(new BlockPos(midx, starty + 1, midz - 3), Blocks.IRON_DOOR.getStateFromMeta(1));
+        world.setBlockState(new BlockPos(midx, starty + 2, midz - 3), Blocks.IRON_DOOR.getStateFromMeta(8));
+        world.setBlockState(new BlockPos(midx - 1, starty + 2, midz - 4), Blocks.STONE_BUTTON.getStateFromMeta(4));
+        world.setBlockState(new BlockPos(midx + 1, starty + 2, midz - 2), Blocks.STONE_BUTTON.getStateFromMeta(3));
+
+        world.setBlockState(new BlockPos(midx, starty + 3, midz + 3), Blocks.REDSTONE_LAMP.getDefaultState());
+        world.setBlockState(new BlockPos(midx, starty + 3, midz + 2), Blocks.LEVER.getStateFromMeta(4));
+    }
+}
@@ -0,0 +1,74 @@
+package mcjty.rftoolsdim.dimensions.world.mapgen;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The scattered orbs decide every block with the random that placed the orb. Compare the fill
+ * with the loop that was used before the SphereRasterizer: the same blocks must be placed and
+ * the random must end up in the same state.
+ */
+public class MapGenScatteredOrbsTest {
+
+    private static final char BLOCK = 1;
+
+    @Test
+    public void testLowOrb() {
+        // The lowest and biggest orb that MapGenScatteredOrbs can place. It reaches below y=0
+        testOrb(8, 40, 8, 49, 1234L);
+        testOrb(0, 40, 15, 49, 99L);
+        testOrb(-20, 41, 30, 45, 5L);
+    }
+
+    @Test
+    public void testRandomOrbs() {
+        Random r = new Random(42);
+        for (int i = 0 ; i < 200 ; i++) {
+            int centerx = r.nextInt(80) - 32;
+            int centerz = r.nextInt(80) - 32;
+            int centery = 40 + r.nextInt(40);
+            int radius = r.nextInt(30) + 20;
+            testOrb(centerx, centery, centerz, radius, r.nextLong());
+        }
+    }
+
+    private static void testOrb(int centerx, int centery, int centerz, int radius, long seed) {
+        char[] expected = new char[65536];
+        Random oldRandom = new Random(seed);
+        oldFillSphere(expected, centerx, centery, centerz, radius, oldRandom);
+
+        char[] actual = new char[65536];
+        Random newRandom = new Random(seed);
+        MapGenScatteredOrbs.fillSphere(actual, centerx, centery, centerz, radius, BLOCK, newRandom);
+
+        String orb = "Orb at " + centerx + "," + centery + "," + centerz + " radius " + radius;
+        assertArrayEquals(orb, expected, actual);
+        assertEquals(orb, oldRandom.nextLong(), newRandom.nextLong());
+    }
+
+    // MapGenScatteredOrbs.fillSphere() before the SphereRasterizer. Only positions inside the world
+    // height are compared (the old loop wrote the others into the neighbouring column)
+    private static void oldFillSphere(char[] data, int centerx, int centery, int centerz, int radius, Random random) {
+        for (int x = 0 ; x < 16 ; x++) {
+            double dxdx = (x-centerx) * (x-centerx);
+            for (int z = 0 ; z < 16 ; z++) {
+                double dzdz = (z-centerz) * (z-centerz);
+                int index = (x * 16 + z) * 256;
+                for (int y = centery-radius ; y <= centery+radius ; y++) {
+                    double dydy = (y-centery) * (y-centery);
+                    double dist = Math.sqrt(dxdx + dydy + dzdz);
+                    if (dist < radius) {
+                        double f = 1 - (dist / radius);
+                        if (random.nextDouble() < (f * f) && y >= 0 && y <= 255) {
+                            data[index + y] = BLOCK;
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package mcjty.rftoolsdim.varia;
+
+import net.minecraft.block.Block;
+import net.minecraft.item.Item;
+import net.minecraft.util.ResourceLocation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Populating a chunk calls RFToolsContent.checkInit() and then only uses the resolved fields.
+ * Make sure that populating chunks never goes back to the registries.
+ */
+public class RFToolsContentTest {
+
+    private Function<ResourceLocation, Block> oldBlockLookup;
+    private Function<ResourceLocation, Item> oldItemLookup;
+    private int lookups;
+
+    @Before
+    public void setup() {
+        oldBlockLookup = RFToolsContent.blockLookup;
+        oldItemLookup = RFToolsContent.itemLookup;
+        lookups = 0;
+        RFToolsContent.blockLookup = id -> {
+            lookups++;
+            return null;
+        };
+        RFToolsContent.itemLookup = id -> {
+            lookups++;
+            return null;
+        };
+    }
+
+    @After
+    public void cleanup() {
+        RFToolsContent.blockLookup = oldBlockLookup;
+        RFToolsContent.itemLookup = oldItemLookup;
+    }
+
+    @Test
+    public void testNoLookupsWhilePopulating() {
+        RFToolsContent.init();
+        assertEquals(8, lookups);
+
+        lookups = 0;
+        for (int i = 0 ; i < 1000 ; i++) {
+            // What GenericWorldGenerator.generate() does for every chunk
+            RFToolsContent.checkInit();
+        }
+        assertEquals(0, lookups);
+        // Missing content stays null and is not looked up again
+        assertNull(RFToolsContent.dimensionalShardOre);
+        assertNull(RFToolsContent.storageModule);
+    }
+}